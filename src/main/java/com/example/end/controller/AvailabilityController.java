@@ -0,0 +1,41 @@
+package com.example.end.controller;
+
+import com.example.end.controller.api.AvailabilityApi;
+import com.example.end.dto.MasterSlotDto;
+import com.example.end.dto.TimeSlotDto;
+import com.example.end.dto.WorkingHoursDto;
+import com.example.end.service.interfaces.AvailabilityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+@RequiredArgsConstructor
+@RestController
+public class AvailabilityController implements AvailabilityApi {
+
+    private final AvailabilityService availabilityService;
+
+    @Override
+    public List<TimeSlotDto> findFreeSlots(Long masterId, Long procedureId, LocalDate from, LocalDate to) {
+        return availabilityService.findFreeSlots(masterId, procedureId, from, to);
+    }
+
+    @Override
+    public List<MasterSlotDto> findMastersWithFreeSlot(Long procedureId, LocalDateTime from, LocalDateTime to, int limit) {
+        return availabilityService.findMastersWithFreeSlot(procedureId, from, to, Math.min(limit, 100));
+    }
+
+    @Override
+    public List<WorkingHoursDto> getWorkingHours(Long masterId) {
+        return availabilityService.getWorkingHours(masterId);
+    }
+
+    @Override
+    public List<WorkingHoursDto> updateWorkingHours(Long masterId, List<WorkingHoursDto> workingHours) {
+        return availabilityService.updateWorkingHours(masterId, workingHours);
+    }
+}
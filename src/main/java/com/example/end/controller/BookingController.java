@@ -4,14 +4,21 @@ import com.example.end.controller.api.BookingApi;
 import com.example.end.dto.*;
 import com.example.end.models.BookingStatus;
 import com.example.end.service.interfaces.BookingService;
+import com.example.end.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
 import java.util.List;
-@CrossOrigin(origins = "*", allowedHeaders = "*")
+
+@CrossOrigin(origins = "*", allowedHeaders = "*", exposedHeaders = KeysetCursor.NEXT_CURSOR_HEADER)
 @RequiredArgsConstructor
 @RestController
 public class BookingController implements BookingApi {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final BookingService bookingService;
 
 
@@ -34,4 +41,26 @@ public class BookingController implements BookingApi {
     public List<BookingDto> findBookingsByUser(Long userId, BookingStatus status) {
         return bookingService.findBookingsByUser(userId, status);
     }
-}
\ No newline at end of file
+
+    @Override
+    public ResponseEntity<List<BookingDto>> findClientBookings(Long clientId, BookingStatus status, LocalDateTime from,
+                                                               LocalDateTime to, String cursor, int size) {
+        return withNextCursor(bookingService.findClientBookings(clientId, status, from, to, cursor,
+                Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    @Override
+    public ResponseEntity<List<BookingDto>> findMasterBookings(Long masterId, BookingStatus status, LocalDateTime from,
+                                                               LocalDateTime to, String cursor, int size) {
+        return withNextCursor(bookingService.findMasterBookings(masterId, status, from, to, cursor,
+                Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    private static ResponseEntity<List<BookingDto>> withNextCursor(CursorPage<BookingDto> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+}
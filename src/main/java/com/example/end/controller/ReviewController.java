@@ -1,13 +1,16 @@
 package com.example.end.controller;
 
 import com.example.end.controller.api.ReviewApi;
+import com.example.end.dto.CursorPage;
 import com.example.end.dto.ReviewDto;
 import com.example.end.service.interfaces.ReviewService;
+import com.example.end.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-@CrossOrigin(origins = "*", allowedHeaders = "*")
+@CrossOrigin(origins = "*", allowedHeaders = "*", exposedHeaders = KeysetCursor.NEXT_CURSOR_HEADER)
 @RequiredArgsConstructor
 @RestController
 public class ReviewController implements ReviewApi {
@@ -15,8 +18,13 @@ public class ReviewController implements ReviewApi {
     private final ReviewService reviewService;
 
     @Override
-    public List<ReviewDto> getReviewsByMaster(Long masterId) {
-        return reviewService.getReviewsByMaster(masterId);
+    public ResponseEntity<List<ReviewDto>> getReviewsByMaster(Long masterId, String cursor, int size) {
+        CursorPage<ReviewDto> page = reviewService.getReviewsByMaster(masterId, cursor, Math.min(size, 100));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 
     @Override
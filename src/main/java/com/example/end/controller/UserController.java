@@ -2,9 +2,10 @@ package com.example.end.controller;
 
 import com.example.end.controller.api.UserApi;
 import com.example.end.dto.*;
+import com.example.end.service.interfaces.LeaderboardService;
 import com.example.end.service.interfaces.UserService;
+import com.example.end.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,12 +13,15 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
-@CrossOrigin(origins = "*", allowedHeaders = "*")
+@CrossOrigin(origins = "*", allowedHeaders = "*", exposedHeaders = KeysetCursor.NEXT_CURSOR_HEADER)
 @RequiredArgsConstructor
 @RestController
 public class UserController implements UserApi {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserService userService;
+    private final LeaderboardService leaderboardService;
 
     @Override
     public UserDetailsDto getById(Long id) {
@@ -31,7 +35,6 @@ public class UserController implements UserApi {
     }
 
     @Override
-    @CacheEvict(value = {"allMasters", "usersByCategory"}, allEntries = true)
     public UserDetailsDto updateUserDetails(Long userId, NewUserDetailsDto userDetailsDto) {
         return userService.updateUserDetails(userId, userDetailsDto);
     }
@@ -52,22 +55,40 @@ public class UserController implements UserApi {
     }
 
     @Override
-    public ResponseEntity<List<UserDetailsDto>> getAllMasters(@RequestParam(defaultValue = "0") int page,
-                                                             @RequestParam(defaultValue = "20") int size) {
-        List<UserDetailsDto> masters = userService.getAllMasters(page, size);
-        return ResponseEntity.ok()
-                .cacheControl(CacheControl.maxAge(30, TimeUnit.MINUTES))
-                .body(masters);
+    public ResponseEntity<List<UserDetailsDto>> getAllMasters(int page, int size, String cursor) {
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        List<UserDetailsDto> masters = cursor != null
+                ? userService.getMastersAfter(KeysetCursor.decode(KeysetCursor.MASTERS, cursor), pageSize)
+                : userService.getAllMasters(page, pageSize);
+        return withNextCursor(ResponseEntity.ok().cacheControl(CacheControl.maxAge(30, TimeUnit.MINUTES)),
+                KeysetCursor.MASTERS, masters, pageSize);
+    }
+
+    @Override
+    public ResponseEntity<List<UserDetailsDto>> getAllUsers(int page, int size, String cursor) {
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        List<UserDetailsDto> users = cursor != null
+                ? userService.getUsersAfter(KeysetCursor.decode(KeysetCursor.USERS, cursor), pageSize)
+                : userService.getAllUsers(page, pageSize);
+        return withNextCursor(ResponseEntity.ok(), KeysetCursor.USERS, users, pageSize);
+    }
+
+    private static ResponseEntity<List<UserDetailsDto>> withNextCursor(ResponseEntity.BodyBuilder response, String scope,
+                                                                       List<UserDetailsDto> users, int pageSize) {
+        Long lastId = users.isEmpty() ? null : users.get(users.size() - 1).getId();
+        String next = KeysetCursor.next(scope, users.size(), pageSize, lastId);
+        if (next != null) {
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, next);
+        }
+        return response.body(users);
     }
 
     @Override
-    public List<UserDetailsDto> getAllUsers(@RequestParam(defaultValue = "0") int page,
-                                           @RequestParam(defaultValue = "20") int size) {
-        return userService.getAllUsers(page, size);
+    public List<TopMasterDto> getTopMasters(Long categoryId, int limit) {
+        return leaderboardService.getTopMasters(categoryId, Math.min(limit, MAX_PAGE_SIZE));
     }
 
     @Override
-    @CacheEvict(value = {"allMasters", "usersByCategory"}, allEntries = true)
     public ResponseEntity<String> deleteById(Long id) {
         userService.deleteById(id);
         return ResponseEntity.ok("User with ID " + id + " was successfully deleted.");
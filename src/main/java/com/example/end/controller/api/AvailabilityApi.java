@@ -0,0 +1,111 @@
+package com.example.end.controller.api;
+
+import com.example.end.dto.MasterSlotDto;
+import com.example.end.dto.StandardResponseDto;
+import com.example.end.dto.TimeSlotDto;
+import com.example.end.dto.WorkingHoursDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Tag(name = "Availability", description = "Working hours and free slots of masters")
+@RequestMapping("/api/availability")
+public interface AvailabilityApi {
+
+        @Operation(summary = "Find free slots of a master (Public)",
+                description = "Free slots of a master for a procedure between two dates, inclusive. Access: All users")
+        @ApiResponses(value = {
+                @ApiResponse(responseCode = "200",
+                        description = "Successful operation",
+                        content = @Content(mediaType = "application/json",
+                                array = @ArraySchema(schema = @Schema(implementation = TimeSlotDto.class)))),
+                @ApiResponse(responseCode = "400",
+                        description = "Invalid date range",
+                        content = @Content(mediaType = "application/json",
+                                schema = @Schema(implementation = StandardResponseDto.class))),
+                @ApiResponse(responseCode = "404",
+                        description = "Master or procedure not found",
+                        content = @Content(mediaType = "application/json",
+                                schema = @Schema(implementation = StandardResponseDto.class)))
+        })
+        @SecurityRequirement(name = "none")
+        @GetMapping("/masters/{masterId}/slots")
+        List<TimeSlotDto> findFreeSlots(
+                @Parameter(description = "Master ID", example = "1", required = true)
+                @PathVariable("masterId") Long masterId,
+                @Parameter(description = "Procedure ID", example = "1", required = true)
+                @RequestParam("procedureId") Long procedureId,
+                @Parameter(description = "First day", example = "2024-03-16", required = true)
+                @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                @Parameter(description = "Last day", example = "2024-03-22", required = true)
+                @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to);
+
+        @Operation(summary = "Find masters free for a procedure (Public)",
+                description = "Masters offering the procedure who have a free slot within the time window, "
+                        + "soonest first. Only the next days covered by the availability index are searched. Access: All users")
+        @ApiResponses(value = {
+                @ApiResponse(responseCode = "200",
+                        description = "Successful operation",
+                        content = @Content(mediaType = "application/json",
+                                array = @ArraySchema(schema = @Schema(implementation = MasterSlotDto.class)))),
+                @ApiResponse(responseCode = "400",
+                        description = "Empty time window",
+                        content = @Content(mediaType = "application/json",
+                                schema = @Schema(implementation = StandardResponseDto.class))),
+                @ApiResponse(responseCode = "404",
+                        description = "Procedure not found",
+                        content = @Content(mediaType = "application/json",
+                                schema = @Schema(implementation = StandardResponseDto.class)))
+        })
+        @SecurityRequirement(name = "none")
+        @GetMapping("/search")
+        List<MasterSlotDto> findMastersWithFreeSlot(
+                @Parameter(description = "Procedure ID", example = "1", required = true)
+                @RequestParam("procedureId") Long procedureId,
+                @Parameter(description = "Start of the window", example = "2024-03-16T10:00", required = true)
+                @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                @Parameter(description = "End of the window", example = "2024-03-16T14:00", required = true)
+                @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                @Parameter(description = "Maximum number of masters", example = "20")
+                @RequestParam(name = "limit", defaultValue = "20") int limit);
+
+        @Operation(summary = "Get working hours of a master (Public)",
+                description = "Working hours per day of the week. An empty list means the default hours apply. Access: All users")
+        @SecurityRequirement(name = "none")
+        @GetMapping("/masters/{masterId}/working-hours")
+        List<WorkingHoursDto> getWorkingHours(
+                @Parameter(description = "Master ID", example = "1", required = true)
+                @PathVariable("masterId") Long masterId);
+
+        @PreAuthorize("hasAnyRole('MASTER', 'ADMIN')")
+        @Operation(summary = "Replace working hours of a master (MASTER, ADMIN)",
+                description = "Days that are not listed become days off. Access: MASTER, ADMIN")
+        @ApiResponses(value = {
+                @ApiResponse(responseCode = "200",
+                        description = "Working hours updated",
+                        content = @Content(mediaType = "application/json",
+                                array = @ArraySchema(schema = @Schema(implementation = WorkingHoursDto.class)))),
+                @ApiResponse(responseCode = "400",
+                        description = "Inconsistent working hours",
+                        content = @Content(mediaType = "application/json",
+                                schema = @Schema(implementation = StandardResponseDto.class)))
+        })
+        @PutMapping("/masters/{masterId}/working-hours")
+        List<WorkingHoursDto> updateWorkingHours(
+                @Parameter(description = "Master ID", example = "1", required = true)
+                @PathVariable("masterId") Long masterId,
+                @RequestBody List<WorkingHoursDto> workingHours);
+}
@@ -5,6 +5,7 @@ import com.example.end.models.BookingStatus;
 import com.example.end.validation.dto.ValidationErrorsDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,10 +14,13 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Tag(name = "Bookings", description = "API endpoints for booking management")
@@ -67,11 +71,63 @@ public interface BookingApi {
 
         @PreAuthorize("isAuthenticated()")
         @Operation(summary = "Find user bookings by its status and user ID",
-                description = "Find bookings by user ID and status. Access: All authorized users")
+                description = "Find all bookings of a user as client and as master, earliest first. " +
+                        "Prefer the paged client and master listings. Access: All authorized users")
         @GetMapping("/{userId}")
         List<BookingDto> findBookingsByUser(
                 @Parameter(description = "User ID", example = "1")
                 @PathVariable("userId") Long userId,
-                @Parameter(description = "Status of the booking (CONFIRMED or COMPLETED)", example = "CONFIRMED")
+                @Parameter(description = "Status of the booking (CONFIRMED or COMPLETED), none matches no booking",
+                        example = "CONFIRMED")
                 @RequestParam(name = "status", required = false) BookingStatus status);
+
+        @PreAuthorize("isAuthenticated()")
+        @Operation(summary = "Find bookings of a client (Authorized)",
+                description = "Bookings of a client with the given status, earliest first, optionally within [from, to). " +
+                        "Pass the X-Next-Cursor header of a page as cursor to get the next one. Access: All authorized users")
+        @ApiResponse(responseCode = "200",
+                description = "Successful operation",
+                headers = @Header(name = "X-Next-Cursor",
+                        description = "Курсор следующей страницы, отсутствует на последней странице",
+                        schema = @Schema(type = "string")),
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = BookingDto.class, type = "array")))
+        @GetMapping("/client/{clientId}")
+        ResponseEntity<List<BookingDto>> findClientBookings(
+                @Parameter(description = "Client ID", example = "1")
+                @PathVariable("clientId") Long clientId,
+                @Parameter(description = "Status of the booking", example = "CONFIRMED")
+                @RequestParam(name = "status", defaultValue = "CONFIRMED") BookingStatus status,
+                @Parameter(description = "Earliest start, inclusive", example = "2024-03-01T00:00:00")
+                @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                @Parameter(description = "Latest start, exclusive", example = "2024-04-01T00:00:00")
+                @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                @Parameter(description = "Opaque cursor from the X-Next-Cursor header of the previous page.")
+                @RequestParam(required = false) String cursor,
+                @RequestParam(defaultValue = "20") int size);
+
+        @PreAuthorize("isAuthenticated()")
+        @Operation(summary = "Find bookings of a master (Authorized)",
+                description = "Bookings of a master with the given status, earliest first, optionally within [from, to). " +
+                        "Pass the X-Next-Cursor header of a page as cursor to get the next one. Access: All authorized users")
+        @ApiResponse(responseCode = "200",
+                description = "Successful operation",
+                headers = @Header(name = "X-Next-Cursor",
+                        description = "Курсор следующей страницы, отсутствует на последней странице",
+                        schema = @Schema(type = "string")),
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = BookingDto.class, type = "array")))
+        @GetMapping("/master/{masterId}")
+        ResponseEntity<List<BookingDto>> findMasterBookings(
+                @Parameter(description = "Master ID", example = "2")
+                @PathVariable("masterId") Long masterId,
+                @Parameter(description = "Status of the booking", example = "CONFIRMED")
+                @RequestParam(name = "status", defaultValue = "CONFIRMED") BookingStatus status,
+                @Parameter(description = "Earliest start, inclusive", example = "2024-03-01T00:00:00")
+                @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                @Parameter(description = "Latest start, exclusive", example = "2024-04-01T00:00:00")
+                @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                @Parameter(description = "Opaque cursor from the X-Next-Cursor header of the previous page.")
+                @RequestParam(required = false) String cursor,
+                @RequestParam(defaultValue = "20") int size);
 }
@@ -3,6 +3,7 @@ package com.example.end.controller.api;
 import com.example.end.dto.StandardResponseDto;
 import com.example.end.validation.dto.ValidationErrorsDto;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,6 +13,7 @@ import io.swagger.v3.oas.annotations.tags.Tags;
 import com.example.end.dto.ReviewDto;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -32,10 +34,21 @@ import java.util.List;
                         schema = @Schema(implementation = StandardResponseDto.class)))})
 public interface ReviewApi {
 
-        @Operation(summary = "Get reviews by master.Available to all users", description = "Public")
+        @Operation(summary = "Get reviews by master.Available to all users",
+                description = "Public. Newest first; pass the X-Next-Cursor header of a page as cursor to get the next one")
+        @ApiResponse(responseCode = "200",
+                description = "Successful operation",
+                headers = @Header(name = "X-Next-Cursor",
+                        description = "Курсор следующей страницы, отсутствует на последней странице",
+                        schema = @Schema(type = "string")),
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ReviewDto.class, type = "array")))
         @GetMapping("/master/{masterId}")
-        List<ReviewDto> getReviewsByMaster(@Parameter(description = "ID of the master to filter reviews.")
-                                           @PathVariable ("masterId")  Long masterId);
+        ResponseEntity<List<ReviewDto>> getReviewsByMaster(@Parameter(description = "ID of the master to filter reviews.")
+                                                           @PathVariable ("masterId")  Long masterId,
+                                                           @Parameter(description = "Opaque cursor from the X-Next-Cursor header of the previous page.")
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "20") int size);
 
         @PreAuthorize("hasRole('CLIENT')")
         @Operation(summary = "Add a review. Available to all authorized clients", description = "Available to all authorized clients")
@@ -108,16 +108,29 @@ public interface UserApi {
                 @PathVariable("categoryId") Long categoryId);
 
         @PreAuthorize("hasRole('ADMIN')")
-        @Operation(summary = "Get All Users (ADMIN)", description = "Get all users in the system. Access: ADMIN only")
+        @Operation(summary = "Get All Users (ADMIN)", description = "Get all users in the system, ordered by id. " +
+                "Pass the X-Next-Cursor header of a page as cursor to get the next one. Access: ADMIN only")
         @ApiResponse(responseCode = "200",
                 description = "Successful operation",
+                headers = {
+                        @Header(
+                                name = "X-Next-Cursor",
+                                description = "Курсор следующей страницы, отсутствует на последней странице",
+                                schema = @Schema(type = "string")
+                        )
+                },
                 content = @Content(mediaType = "application/json",
                         schema = @Schema(implementation = UserDetailsDto.class)))
         @GetMapping
-        List<UserDetailsDto> getAllUsers(@RequestParam(defaultValue = "0") int page,
-                                         @RequestParam(defaultValue = "20") int size);
+        ResponseEntity<List<UserDetailsDto>> getAllUsers(
+                @Parameter(description = "Page number, ignored when a cursor is given. Prefer the cursor, it costs the same on every page.")
+                @RequestParam(defaultValue = "0") int page,
+                @RequestParam(defaultValue = "20") int size,
+                @Parameter(description = "Opaque cursor from the X-Next-Cursor header of the previous page.")
+                @RequestParam(required = false) String cursor);
 
-        @Operation(summary = "Get All Masters (Public)", description = "Get all master users in the system. Access: All users")
+        @Operation(summary = "Get All Masters (Public)", description = "Get all master users in the system, ordered by id. " +
+                "Pass the X-Next-Cursor header of a page as cursor to get the next one. Access: All users")
         @ApiResponses(value = {
                 @ApiResponse(
                         responseCode = "200",
@@ -127,6 +140,11 @@ public interface UserApi {
                                         name = "Cache-Control",
                                         description = "Кеширование на 30 минут",
                                         schema = @Schema(type = "string", example = "max-age=1800")
+                                ),
+                                @Header(
+                                        name = "X-Next-Cursor",
+                                        description = "Курсор следующей страницы, отсутствует на последней странице",
+                                        schema = @Schema(type = "string")
                                 )
                         },
                         content = @Content(
@@ -137,8 +155,27 @@ public interface UserApi {
         })
         @SecurityRequirement(name = "none")
         @GetMapping("/masters")
-        ResponseEntity<List<UserDetailsDto>> getAllMasters(@RequestParam(defaultValue = "0") int page,
-                                                          @RequestParam(defaultValue = "20") int size);
+        ResponseEntity<List<UserDetailsDto>> getAllMasters(
+                @Parameter(description = "Page number, ignored when a cursor is given. Prefer the cursor, it costs the same on every page.")
+                @RequestParam(defaultValue = "0") int page,
+                @RequestParam(defaultValue = "20") int size,
+                @Parameter(description = "Opaque cursor from the X-Next-Cursor header of the previous page.")
+                @RequestParam(required = false) String cursor);
+
+        @Operation(summary = "Get Top-Rated Masters (Public)", description = "Get the leaderboard of top-rated masters, " +
+                "overall or within a category. Masters are ordered by their average rating weighted towards the mean " +
+                "of all reviews, so a master with few reviews does not outrank one with many. Access: All users")
+        @ApiResponse(responseCode = "200",
+                description = "Successful operation",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = TopMasterDto.class, type = "array")))
+        @SecurityRequirement(name = "none")
+        @GetMapping("/masters/top")
+        List<TopMasterDto> getTopMasters(
+                @Parameter(description = "ID of the category to rank the masters of, all masters if omitted.")
+                @RequestParam(required = false) Long categoryId,
+                @Parameter(description = "Maximum number of masters, at most 100.")
+                @RequestParam(defaultValue = "10") int limit);
 
         @PreAuthorize("hasRole('ADMIN')")
         @Operation(summary = "Delete User (ADMIN)", description = "Delete a user from the system. Access: ADMIN only")
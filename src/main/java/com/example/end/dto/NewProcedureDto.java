@@ -24,6 +24,11 @@ public class NewProcedureDto {
     @Schema(description = "Price of the procedure", example = "50.0")
     private double price;
 
+    @Min(value = 5, message = "Duration must be at least 5 minutes")
+    @Max(value = 480, message = "Duration must not exceed 480 minutes")
+    @Schema(description = "Duration of the procedure in minutes", example = "60")
+    private Integer durationMinutes;
+
     @NotNull(message = "Category ID cannot be null")
     @Schema(description = "ID of the category this procedure belongs to", example = "1")
     private Long categoryId;
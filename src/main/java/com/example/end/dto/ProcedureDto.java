@@ -28,5 +28,10 @@ public class ProcedureDto {
     @Schema(description = "Price of the procedure", example = "50.0")
     private double price;
 
+    @Min(value = 5, message = "Duration must be at least 5 minutes")
+    @Max(value = 480, message = "Duration must not exceed 480 minutes")
+    @Schema(description = "Duration of the procedure in minutes", example = "60")
+    private Integer durationMinutes;
+
 }
 
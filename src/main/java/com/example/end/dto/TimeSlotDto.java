@@ -0,0 +1,21 @@
+package com.example.end.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Free time slot of a master")
+public class TimeSlotDto {
+
+    @Schema(description = "Start of the slot, can be used as the booking date and time", example = "2024-03-16T10:00")
+    private String start;
+
+    @Schema(description = "End of the slot", example = "2024-03-16T11:00")
+    private String end;
+}
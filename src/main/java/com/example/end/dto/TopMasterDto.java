@@ -0,0 +1,40 @@
+package com.example.end.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Place of a master in the leaderboard of top-rated masters")
+public class TopMasterDto {
+
+    @Schema(description = "Place in the leaderboard, starting at 1", example = "1")
+    private int rank;
+
+    @Schema(description = "Master ID", example = "1")
+    private Long masterId;
+
+    @Schema(description = "First name of the master", example = "Anna")
+    private String firstName;
+
+    @Schema(description = "Last name of the master", example = "Schmidt")
+    private String lastName;
+
+    @Schema(description = "URL of the profile image")
+    private String profileImageUrl;
+
+    @Schema(description = "Plain average of the reviews", example = "4.8")
+    private double averageRating;
+
+    @Schema(description = "Number of reviews", example = "25")
+    private long reviewCount;
+
+    @Schema(description = "Average weighted towards the mean of all reviews, the leaderboard is ordered by it",
+            example = "4.62")
+    private double weightedRating;
+}
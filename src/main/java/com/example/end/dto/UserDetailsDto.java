@@ -71,5 +71,14 @@ public class UserDetailsDto {
     @Schema(description = "Portfolio image URLs of the user", example = "https://example.com/portfolio-image1.jpg,https://example.com/portfolio-image2.jpg")
     private List<PortfolioImageDto> portfolioImageUrls;
 
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY, description = "Average stars of the reviews, 0 without reviews", example = "4.6")
+    private Double averageRating;
+
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY, description = "Number of reviews", example = "25")
+    private Long reviewCount;
+
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY, description = "Number of reviews with 1 to 5 stars, in that order", example = "[0, 1, 1, 5, 18]")
+    private List<Long> ratingHistogram;
+
 
 }
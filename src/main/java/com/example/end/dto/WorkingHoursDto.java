@@ -0,0 +1,42 @@
+package com.example.end.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Working hours of a master on one day of the week")
+public class WorkingHoursDto {
+
+    @NotNull(message = "Day of week cannot be null")
+    @Schema(description = "Day of the week", example = "MONDAY")
+    private DayOfWeek dayOfWeek;
+
+    @NotNull(message = "Start time cannot be null")
+    @Schema(description = "Start of the working day", type = "string", example = "09:00")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm")
+    private LocalTime startTime;
+
+    @NotNull(message = "End time cannot be null")
+    @Schema(description = "End of the working day", type = "string", example = "18:00")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm")
+    private LocalTime endTime;
+
+    @Schema(description = "Start of the break, if any", type = "string", example = "13:00")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm")
+    private LocalTime breakStart;
+
+    @Schema(description = "End of the break, if any", type = "string", example = "14:00")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm")
+    private LocalTime breakEnd;
+}
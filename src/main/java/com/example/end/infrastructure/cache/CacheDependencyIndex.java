@@ -0,0 +1,21 @@
+package com.example.end.infrastructure.cache;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Records which cache keys hold a given entity, so a change to that entity can evict
+ * only the entries that actually contain it instead of clearing the whole cache.
+ */
+public interface CacheDependencyIndex {
+
+    /**
+     * Records that the entry {@code cacheKey} of {@code cacheName} contains the given entities.
+     */
+    void record(String cacheName, String cacheKey, Collection<Long> entityIds);
+
+    /**
+     * Returns and forgets all keys of {@code cacheName} recorded for the entity.
+     */
+    Set<String> removeKeys(String cacheName, Long entityId);
+}
@@ -0,0 +1,98 @@
+package com.example.end.infrastructure.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Redis pub/sub channel used to keep the in-process L1 caches of all nodes in sync.
+ * <p>
+ * Every eviction, clear or overwrite done on one node is published here, and every other
+ * node drops the matching L1 entry. Messages sent by the current node are ignored on receipt.
+ * </p>
+ * <p>
+ * Messages are JSON, see {@link CacheInvalidationMessage}; an eviction of a key that cannot be sent
+ * clears the cache on the other nodes instead.
+ * </p>
+ */
+@Slf4j
+public class CacheInvalidationBus {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ChannelTopic topic;
+    private final RedisSerializer<CacheInvalidationMessage> serializer = serializer();
+    private final RedisTemplate<String, CacheInvalidationMessage> template;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public CacheInvalidationBus(RedisConnectionFactory connectionFactory,
+                                RedisMessageListenerContainer listenerContainer,
+                                String channel) {
+        this.topic = new ChannelTopic(channel);
+        this.listenerContainer = listenerContainer;
+
+        this.template = new RedisTemplate<>();
+        this.template.setConnectionFactory(connectionFactory);
+        this.template.setKeySerializer(new StringRedisSerializer());
+        this.template.setValueSerializer(serializer);
+        this.template.afterPropertiesSet();
+    }
+
+    static RedisSerializer<CacheInvalidationMessage> serializer() {
+        return new Jackson2JsonRedisSerializer<>(CacheInvalidationMessage.class);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void publishEvict(String cacheName, Object key) {
+        if (!CacheInvalidationMessage.isSupportedKey(key)) {
+            publishClear(cacheName);
+            return;
+        }
+        publish(new CacheInvalidationMessage(nodeId, cacheName, key));
+    }
+
+    public void publishClear(String cacheName) {
+        publish(new CacheInvalidationMessage(nodeId, cacheName, null));
+    }
+
+    /**
+     * Registers a handler for invalidations coming from other nodes.
+     *
+     * @param handler callback invoked for every remote message
+     */
+    public void subscribe(Consumer<CacheInvalidationMessage> handler) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            CacheInvalidationMessage invalidation;
+            try {
+                invalidation = serializer.deserialize(message.getBody());
+            } catch (SerializationException e) {
+                log.warn("Ignoring unreadable cache invalidation: {}", e.getMessage());
+                return;
+            }
+            if (invalidation != null && !nodeId.equals(invalidation.getOriginNodeId())) {
+                log.debug("Received remote cache invalidation: {}", invalidation);
+                handler.accept(invalidation);
+            }
+        }, topic);
+    }
+
+    private void publish(CacheInvalidationMessage message) {
+        try {
+            template.convertAndSend(topic.getTopic(), message);
+        } catch (Exception e) {
+            // L1 entries on other nodes expire on their own, a failed broadcast must not fail the request
+            log.warn("Failed to publish cache invalidation {}: {}", message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.end.infrastructure.cache;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Message broadcast over Redis pub/sub to drop L1 entries on the other nodes.
+ * A {@code null} key means the whole cache has to be cleared.
+ * <p>
+ * Sent as JSON. The key is written as text along with its type, so that a {@code Long} key is read back as a
+ * {@code Long} and matches the L1 entry; only {@code String} and {@code Long} keys can be sent.
+ * </p>
+ */
+@Getter
+@ToString
+public class CacheInvalidationMessage {
+
+    enum KeyType {
+        STRING, LONG
+    }
+
+    private final String originNodeId;
+
+    private final String cacheName;
+
+    @JsonIgnore
+    private final Object key;
+
+    public CacheInvalidationMessage(String originNodeId, String cacheName, Object key) {
+        if (key != null && !isSupportedKey(key)) {
+            throw new IllegalArgumentException("Unsupported cache key type: " + key.getClass().getName());
+        }
+        this.originNodeId = originNodeId;
+        this.cacheName = cacheName;
+        this.key = key;
+    }
+
+    @JsonCreator
+    static CacheInvalidationMessage fromJson(@JsonProperty("originNodeId") String originNodeId,
+                                             @JsonProperty("cacheName") String cacheName,
+                                             @JsonProperty("key") String key,
+                                             @JsonProperty("keyType") KeyType keyType) {
+        Object typedKey = key == null ? null : keyType == KeyType.LONG ? Long.valueOf(key) : key;
+        return new CacheInvalidationMessage(originNodeId, cacheName, typedKey);
+    }
+
+    static boolean isSupportedKey(Object key) {
+        return key instanceof String || key instanceof Long;
+    }
+
+    @JsonProperty("key")
+    String getKeyText() {
+        return key != null ? key.toString() : null;
+    }
+
+    @JsonProperty("keyType")
+    KeyType getKeyType() {
+        return key == null ? null : key instanceof Long ? KeyType.LONG : KeyType.STRING;
+    }
+
+    @JsonIgnore
+    public boolean isClear() {
+        return key == null;
+    }
+}
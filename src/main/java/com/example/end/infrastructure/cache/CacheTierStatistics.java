@@ -0,0 +1,141 @@
+package com.example.end.infrastructure.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit/miss counters of a single {@link TwoLevelCache}, split by tier.
+ * L2 is only consulted on an L1 miss, so {@code l2Hits + l2Misses == l1Misses}.
+ * Misses on both tiers end up as a computed load, a load coalesced with one already
+ * running for the same key, or a stale value served while the reload runs.
+ * Refresh-ahead reloads are counted separately; load time covers both kinds of loads.
+ * The Redis footprint is measured periodically rather than on every request.
+ */
+public class CacheTierStatistics {
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l1Misses = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder l2Misses = new LongAdder();
+    private final LongAdder computedLoads = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder timedLoads = new LongAdder();
+    private final LongAdder loadTimeNanos = new LongAdder();
+    private volatile long l2Entries;
+    private volatile long l2Bytes;
+
+    void recordL1Hit() {
+        l1Hits.increment();
+    }
+
+    void recordL1Miss() {
+        l1Misses.increment();
+    }
+
+    void recordL2Hit() {
+        l2Hits.increment();
+    }
+
+    void recordL2Miss() {
+        l2Misses.increment();
+    }
+
+    void recordComputedLoad() {
+        computedLoads.increment();
+    }
+
+    void recordCoalescedLoad() {
+        coalescedLoads.increment();
+    }
+
+    void recordStaleHit() {
+        staleHits.increment();
+    }
+
+    void recordRefresh() {
+        refreshes.increment();
+    }
+
+    void recordLoadTime(long nanos) {
+        timedLoads.increment();
+        loadTimeNanos.add(nanos);
+    }
+
+    void recordL2Footprint(long entries, long bytes) {
+        this.l2Entries = entries;
+        this.l2Bytes = bytes;
+    }
+
+    public long getL1Hits() {
+        return l1Hits.sum();
+    }
+
+    public long getL1Misses() {
+        return l1Misses.sum();
+    }
+
+    public long getL2Hits() {
+        return l2Hits.sum();
+    }
+
+    public long getL2Misses() {
+        return l2Misses.sum();
+    }
+
+    public long getComputedLoads() {
+        return computedLoads.sum();
+    }
+
+    public long getCoalescedLoads() {
+        return coalescedLoads.sum();
+    }
+
+    public long getStaleHits() {
+        return staleHits.sum();
+    }
+
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    public long getTimedLoads() {
+        return timedLoads.sum();
+    }
+
+    public long getLoadTimeNanos() {
+        return loadTimeNanos.sum();
+    }
+
+    public double getAverageLoadMillis() {
+        long loads = getTimedLoads();
+        return loads == 0 ? 0.0 : getLoadTimeNanos() / 1_000_000.0 / loads;
+    }
+
+    /**
+     * @return number of Redis entries at the last measurement
+     */
+    public long getL2Entries() {
+        return l2Entries;
+    }
+
+    /**
+     * @return serialized size of the Redis values at the last measurement
+     */
+    public long getL2Bytes() {
+        return l2Bytes;
+    }
+
+    public double getL1HitRatio() {
+        return ratio(getL1Hits(), getL1Misses());
+    }
+
+    public double getL2HitRatio() {
+        return ratio(getL2Hits(), getL2Misses());
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
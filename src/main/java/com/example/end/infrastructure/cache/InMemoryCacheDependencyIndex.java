@@ -0,0 +1,32 @@
+package com.example.end.infrastructure.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-node {@link CacheDependencyIndex} kept in a concurrent map.
+ */
+public class InMemoryCacheDependencyIndex implements CacheDependencyIndex {
+
+    private final Map<String, Set<String>> keysByEntity = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(String cacheName, String cacheKey, Collection<Long> entityIds) {
+        for (Long entityId : entityIds) {
+            keysByEntity.computeIfAbsent(indexKey(cacheName, entityId), k -> ConcurrentHashMap.newKeySet())
+                    .add(cacheKey);
+        }
+    }
+
+    @Override
+    public Set<String> removeKeys(String cacheName, Long entityId) {
+        Set<String> keys = keysByEntity.remove(indexKey(cacheName, entityId));
+        return keys != null ? keys : Set.of();
+    }
+
+    private static String indexKey(String cacheName, Long entityId) {
+        return cacheName + ":" + entityId;
+    }
+}
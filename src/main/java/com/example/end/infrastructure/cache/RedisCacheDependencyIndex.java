@@ -0,0 +1,91 @@
+package com.example.end.infrastructure.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link CacheDependencyIndex} shared by all nodes, stored as one Redis set per entity.
+ * <p>
+ * Each set expires {@code ttl} after its last write; as long as {@code ttl} is not shorter
+ * than the TTL of the tracked cache, a set always outlives the entries it points to.
+ * </p>
+ */
+@Slf4j
+public class RedisCacheDependencyIndex implements CacheDependencyIndex {
+
+    private static final String PREFIX = "cache-deps:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public RedisCacheDependencyIndex(StringRedisTemplate redisTemplate, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public void record(String cacheName, String cacheKey, Collection<Long> entityIds) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> stringOperations = asStringOperations(operations);
+                    for (Long entityId : entityIds) {
+                        String indexKey = indexKey(cacheName, entityId);
+                        stringOperations.opsForSet().add(indexKey, cacheKey);
+                        stringOperations.expire(indexKey, ttl);
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Failed to record cache dependencies for {}::{}: {}", cacheName, cacheKey, e.getMessage());
+        }
+    }
+
+    @Override
+    public Set<String> removeKeys(String cacheName, Long entityId) {
+        String indexKey = indexKey(cacheName, entityId);
+        // SMEMBERS + DEL in one MULTI so a concurrent record is not lost between the two
+        List<Object> results = redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> stringOperations = asStringOperations(operations);
+                stringOperations.multi();
+                stringOperations.opsForSet().members(indexKey);
+                stringOperations.delete(indexKey);
+                return stringOperations.exec();
+            }
+        });
+        if (results == null || results.isEmpty() || !(results.get(0) instanceof Set<?> members)) {
+            return Set.of();
+        }
+        Set<String> keys = new HashSet<>();
+        members.forEach(member -> keys.add(String.valueOf(member)));
+        return keys;
+    }
+
+    /**
+     * The operations a session callback gets are those of {@link #redisTemplate}, which has String keys and values.
+     */
+    @SuppressWarnings("unchecked")
+    private static RedisOperations<String, String> asStringOperations(RedisOperations<?, ?> operations) {
+        return (RedisOperations<String, String>) operations;
+    }
+
+    private static String indexKey(String cacheName, Long entityId) {
+        return PREFIX + cacheName + ":" + entityId;
+    }
+}
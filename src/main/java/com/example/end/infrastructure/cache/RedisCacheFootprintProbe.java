@@ -0,0 +1,70 @@
+package com.example.end.infrastructure.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how many entries a cache holds in Redis and the serialized size of their values.
+ * <p>
+ * Keys are found with {@code SCAN} over the cache key prefix and sized with pipelined {@code STRLEN},
+ * so the measurement never blocks Redis, but it is still too expensive to run on every metrics scrape.
+ * The result is stored in the {@link CacheTierStatistics} of the cache.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class RedisCacheFootprintProbe {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final StringRedisTemplate redisTemplate;
+
+    public void measure(TwoLevelCache cache) {
+        Cache redisCache = cache.getRedisCache();
+        if (!(redisCache instanceof RedisCache rc)) {
+            return;
+        }
+        String prefix = rc.getCacheConfiguration().getKeyPrefixFor(rc.getName());
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(BATCH_SIZE).build();
+
+        long entries = 0;
+        long bytes = 0;
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == BATCH_SIZE) {
+                    entries += batch.size();
+                    bytes += sizeOf(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            entries += batch.size();
+            bytes += sizeOf(batch);
+        }
+        cache.getStatistics().recordL2Footprint(entries, bytes);
+    }
+
+    private long sizeOf(List<String> keys) {
+        List<Object> lengths = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.stringCommands().strLen(key.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        // keys that expired between SCAN and STRLEN report 0
+        return lengths.stream()
+                .mapToLong(length -> length instanceof Long l ? l : 0L)
+                .sum();
+    }
+}
@@ -0,0 +1,384 @@
+package com.example.end.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * {@link Cache} that keeps a small, size-bounded in-heap copy (L1) of the entries held by a
+ * shared Redis cache (L2).
+ * <p>
+ * Reads go to L1 first and fall back to Redis; values found in Redis are promoted into L1.
+ * Writes, evictions and clears are applied to both tiers and broadcast through the
+ * {@link CacheInvalidationBus} so the L1 of every other node drops the same entries.
+ * </p>
+ * <p>
+ * Misses on both tiers through {@link #get(Object, Callable)} (used by {@code @Cacheable(sync = true)})
+ * are single-flight: one thread per key runs the loader and the others wait for its result.
+ * Background reloads never replay the loader of a request, which belongs to that request's call stack,
+ * transaction and security context; they use the {@link #setRefreshLoader refresh loader} registered for the
+ * cache, and caches without one are only ever loaded by requests.
+ * With stale-while-revalidate enabled and a refresh loader, a value whose Redis entry has expired is still served
+ * for a grace period while a single background reload replaces it. Evicted or cleared entries are
+ * never served stale.
+ * </p>
+ * <p>
+ * Every key also tracks how often it was read since the last {@link #refreshAhead} pass. Keys read often
+ * enough are reloaded in the background shortly before their Redis entry expires. Keys that were not read at
+ * all are forgotten and left to expire in Redis.
+ * </p>
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final Cache redisCache;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> localCache;
+    @Nullable
+    private final com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> lastKnownValues;
+    @Nullable
+    private final Executor refreshExecutor;
+    @Nullable
+    private final CacheInvalidationBus invalidationBus;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, KeyActivity> activity;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+    // bumped on every eviction so a load that started before it does not write back outdated data
+    private final AtomicLong invalidations = new AtomicLong();
+    private final CacheTierStatistics statistics = new CacheTierStatistics();
+    @Nullable
+    private volatile Function<Object, ?> refreshLoader;
+    private volatile boolean storeEmptyCollections = true;
+
+    /**
+     * @param staleRetention  how long after its last write a value may be served stale,
+     *                        {@code null} disables stale-while-revalidate
+     * @param refreshExecutor runs background reloads of stale values, required when {@code staleRetention} is set
+     */
+    public TwoLevelCache(String name, Cache redisCache, long localMaximumSize, Duration localTtl,
+                         @Nullable Duration staleRetention, @Nullable Executor refreshExecutor,
+                         @Nullable CacheInvalidationBus invalidationBus) {
+        this.name = name;
+        this.redisCache = redisCache;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.lastKnownValues = staleRetention != null && refreshExecutor != null
+                ? Caffeine.newBuilder()
+                        .maximumSize(localMaximumSize)
+                        .expireAfterWrite(staleRetention)
+                        .<Object, ValueWrapper>build()
+                : null;
+        this.activity = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .build();
+        this.refreshExecutor = refreshExecutor;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return redisCache.getNativeCache();
+    }
+
+    public CacheTierStatistics getStatistics() {
+        return statistics;
+    }
+
+    public long getLocalSize() {
+        return localCache.estimatedSize();
+    }
+
+    Cache getRedisCache() {
+        return redisCache;
+    }
+
+    /**
+     * Sets the loader that computes the value of a key in the background, for stale-while-revalidate and
+     * refresh-ahead. It must not depend on the request that first read the key.
+     */
+    public void setRefreshLoader(@Nullable Function<Object, ?> refreshLoader) {
+        this.refreshLoader = refreshLoader;
+    }
+
+    /**
+     * Whether empty collections are stored. When they are not, an empty result is returned to the caller
+     * only, as with {@code unless = "#result.isEmpty()"}, which {@code @Cacheable(sync = true)} does not allow.
+     * An empty result of a background reload evicts the key.
+     */
+    public void setStoreEmptyCollections(boolean storeEmptyCollections) {
+        this.storeEmptyCollections = storeEmptyCollections;
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(Object key) {
+        activityOf(key).accesses.increment();
+        ValueWrapper local = localCache.getIfPresent(key);
+        if (local != null) {
+            statistics.recordL1Hit();
+            return local;
+        }
+        statistics.recordL1Miss();
+
+        ValueWrapper remote = redisCache.get(key);
+        if (remote != null) {
+            statistics.recordL2Hit();
+            storeLocal(key, remote);
+        } else {
+            statistics.recordL2Miss();
+        }
+        return remote;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, @Nullable Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        Function<Object, ?> backgroundLoader = refreshLoader;
+        ValueWrapper stale = lastKnownValues != null && backgroundLoader != null
+                ? lastKnownValues.getIfPresent(key) : null;
+        if (stale != null) {
+            statistics.recordStaleHit();
+            load(key, () -> backgroundLoader.apply(key), refreshExecutor, false);
+            return (T) stale.get();
+        }
+
+        try {
+            return (T) load(key, valueLoader, null, false).join();
+        } catch (CompletionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    /**
+     * Reloads the keys that were read at least {@code minAccesses} times since the previous call and whose
+     * Redis entry was written by this node at least {@code refreshAfter} ago, with the refresh loader; without
+     * one nothing is reloaded. Keys that were not read at all since the previous call are forgotten.
+     *
+     * @param executor runs the reloads; a rejected reload is skipped until the next call
+     */
+    public void refreshAhead(long minAccesses, Duration refreshAfter, Executor executor) {
+        Function<Object, ?> backgroundLoader = refreshLoader;
+        long now = System.nanoTime();
+        for (Map.Entry<Object, KeyActivity> entry : activity.asMap().entrySet()) {
+            KeyActivity keyActivity = entry.getValue();
+            long accesses = keyActivity.accesses.sumThenReset();
+            if (accesses == 0) {
+                activity.asMap().remove(entry.getKey(), keyActivity);
+                continue;
+            }
+            if (backgroundLoader == null || accesses < minAccesses
+                    || !keyActivity.writtenBefore(now - refreshAfter.toNanos())) {
+                continue;
+            }
+            Object key = entry.getKey();
+            load(key, () -> backgroundLoader.apply(key), executor, true);
+        }
+    }
+
+    /**
+     * Starts a load of {@code key} unless one is already running, in which case the running one is returned.
+     *
+     * @param executor runs the load in the background, {@code null} runs it in the calling thread
+     * @param refresh  {@code true} to run the loader even if Redis already holds a value
+     */
+    private CompletableFuture<Object> load(Object key, Callable<?> valueLoader, @Nullable Executor executor,
+                                           boolean refresh) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlightLoads.putIfAbsent(key, flight);
+        if (running != null) {
+            if (!refresh) {
+                statistics.recordCoalescedLoad();
+            }
+            return running;
+        }
+
+        long invalidationsAtStart = invalidations.get();
+        Runnable task = () -> {
+            try {
+                // a flight for the same key may have finished between our miss and taking the slot
+                ValueWrapper stored = refresh ? null : redisCache.get(key);
+                Object value;
+                if (stored != null) {
+                    value = stored.get();
+                    storeLocal(key, stored);
+                } else {
+                    if (refresh) {
+                        statistics.recordRefresh();
+                    } else {
+                        statistics.recordComputedLoad();
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        value = valueLoader.call();
+                    } finally {
+                        statistics.recordLoadTime(System.nanoTime() - start);
+                    }
+                    if (!isStorable(value)) {
+                        // a background reload replaces a value that is no longer right
+                        if (executor != null) {
+                            evict(key);
+                        }
+                    } else if (invalidations.get() == invalidationsAtStart) {
+                        redisCache.put(key, value);
+                        storeLocal(key, new SimpleValueWrapper(value));
+                        activityOf(key).markWritten();
+                    }
+                }
+                flight.complete(value);
+            } catch (Throwable ex) {
+                if (refresh) {
+                    log.warn("Refresh of {}::{} failed: {}", name, key, ex.getMessage());
+                }
+                flight.completeExceptionally(ex);
+            } finally {
+                inFlightLoads.remove(key, flight);
+            }
+        };
+
+        if (executor == null) {
+            task.run();
+        } else {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                log.debug("Background reload of {}::{} rejected, keeping the current value", name, key);
+                inFlightLoads.remove(key, flight);
+                flight.completeExceptionally(e);
+            }
+        }
+        return flight;
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        if (!isStorable(value)) {
+            evict(key);
+            return;
+        }
+        redisCache.put(key, value);
+        storeLocal(key, new SimpleValueWrapper(value));
+        activityOf(key).markWritten();
+        if (invalidationBus != null) {
+            invalidationBus.publishEvict(name, key);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        redisCache.evict(key);
+        evictLocal(key);
+        if (invalidationBus != null) {
+            invalidationBus.publishEvict(name, key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        clearLocal();
+        if (invalidationBus != null) {
+            invalidationBus.publishClear(name);
+        }
+    }
+
+    private boolean isStorable(@Nullable Object value) {
+        return storeEmptyCollections || !(value instanceof Collection<?> collection && collection.isEmpty());
+    }
+
+    private void storeLocal(Object key, ValueWrapper value) {
+        localCache.put(key, value);
+        if (lastKnownValues != null) {
+            lastKnownValues.put(key, value);
+        }
+    }
+
+    /**
+     * Drops a single entry from L1 only. Used when another node changed the entry.
+     */
+    void evictLocal(Object key) {
+        invalidations.incrementAndGet();
+        localCache.invalidate(key);
+        activity.invalidate(key);
+        if (lastKnownValues != null) {
+            lastKnownValues.invalidate(key);
+        }
+    }
+
+    /**
+     * Drops all L1 entries only. Used when another node cleared the cache.
+     */
+    void clearLocal() {
+        invalidations.incrementAndGet();
+        localCache.invalidateAll();
+        activity.invalidateAll();
+        if (lastKnownValues != null) {
+            lastKnownValues.invalidateAll();
+        }
+    }
+
+    private KeyActivity activityOf(Object key) {
+        return activity.get(key, k -> new KeyActivity());
+    }
+
+    /**
+     * Reads of a key since the last refresh pass and when this node last wrote it.
+     */
+    private static final class KeyActivity {
+
+        private static final long NOT_WRITTEN = Long.MIN_VALUE;
+
+        final LongAdder accesses = new LongAdder();
+        // entries written by other nodes are refreshed by those nodes
+        private volatile long writtenAt = NOT_WRITTEN;
+
+        void markWritten() {
+            writtenAt = System.nanoTime();
+        }
+
+        boolean writtenBefore(long nanoTime) {
+            long written = writtenAt;
+            return written != NOT_WRITTEN && written - nanoTime <= 0;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.end.infrastructure.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link CacheManager} that puts an in-heap L1 in front of every cache of the Redis cache manager.
+ * <p>
+ * Cache names, TTLs and serialization still come from the Redis configuration; this manager only
+ * adds the local tier and wires cross-node L1 invalidation through the {@link CacheInvalidationBus}.
+ * </p>
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final CacheManager redisCacheManager;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+    @Nullable
+    private final CacheInvalidationBus invalidationBus;
+    @Nullable
+    private Duration staleGracePeriod;
+    @Nullable
+    private Executor refreshExecutor;
+    private final Map<String, Function<Object, ?>> refreshLoaders = new ConcurrentHashMap<>();
+    private final Set<String> skipEmptyCollections = ConcurrentHashMap.newKeySet();
+
+    public TwoLevelCacheManager(CacheManager redisCacheManager, long localMaximumSize, Duration localTtl,
+                                @Nullable CacheInvalidationBus invalidationBus) {
+        this.redisCacheManager = redisCacheManager;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+        this.invalidationBus = invalidationBus;
+        if (invalidationBus != null) {
+            invalidationBus.subscribe(this::onRemoteInvalidation);
+        }
+    }
+
+    /**
+     * Enables stale-while-revalidate: once its Redis entry expired, a value is still served for
+     * {@code gracePeriod} while a background reload on {@code refreshExecutor} replaces it.
+     * Must be called before the caches are initialized.
+     */
+    public void enableStaleWhileRevalidate(Duration gracePeriod, Executor refreshExecutor) {
+        this.staleGracePeriod = gracePeriod;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Registers the loader that reloads entries of a cache in the background, see
+     * {@link TwoLevelCache#setRefreshLoader}. Caches without one are only loaded by requests.
+     */
+    public void registerRefreshLoader(String cacheName, Function<Object, ?> loader) {
+        refreshLoaders.put(cacheName, loader);
+        TwoLevelCache cache = unwrap(getCache(cacheName));
+        if (cache != null) {
+            cache.setRefreshLoader(loader);
+        }
+    }
+
+    /**
+     * Stops the given caches from storing empty collections, see {@link TwoLevelCache#setStoreEmptyCollections}.
+     * Must be called before the caches are initialized.
+     */
+    public void skipEmptyCollections(String... cacheNames) {
+        skipEmptyCollections.addAll(List.of(cacheNames));
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>();
+        for (String cacheName : redisCacheManager.getCacheNames()) {
+            Cache redisCache = redisCacheManager.getCache(cacheName);
+            if (redisCache != null) {
+                caches.add(createTwoLevelCache(cacheName, redisCache));
+            }
+        }
+        return caches;
+    }
+
+    @Override
+    @Nullable
+    protected Cache getMissingCache(String name) {
+        Cache redisCache = redisCacheManager.getCache(name);
+        return redisCache != null ? createTwoLevelCache(name, redisCache) : null;
+    }
+
+    /**
+     * @return all caches created so far, without the transaction-aware decoration
+     */
+    public List<TwoLevelCache> getTwoLevelCaches() {
+        return getCacheNames().stream()
+                .map(this::lookupCache)
+                .map(TwoLevelCacheManager::unwrap)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reloads the frequently read entries of every cache shortly before their Redis entry expires,
+     * see {@link TwoLevelCache#refreshAhead}. Caches without a Redis TTL are skipped.
+     *
+     * @param minAccesses reads since the previous call that make a key worth refreshing
+     * @param refreshAt   fraction of the Redis TTL after which a hot entry is reloaded
+     * @param executor    runs the reloads
+     */
+    public void refreshAhead(long minAccesses, double refreshAt, Executor executor) {
+        for (TwoLevelCache cache : getTwoLevelCaches()) {
+            Duration ttl = entryTtl(cache.getRedisCache());
+            if (ttl != null) {
+                Duration refreshAfter = Duration.ofMillis((long) (ttl.toMillis() * refreshAt));
+                cache.refreshAhead(minAccesses, refreshAfter, executor);
+            }
+        }
+    }
+
+    private TwoLevelCache createTwoLevelCache(String name, Cache redisCache) {
+        Duration staleRetention = null;
+        Duration ttl = entryTtl(redisCache);
+        if (staleGracePeriod != null && ttl != null) {
+            // stale copies have to outlive the Redis entry itself to be of any use
+            staleRetention = ttl.plus(staleGracePeriod);
+        }
+        TwoLevelCache cache = new TwoLevelCache(name, redisCache, localMaximumSize, localTtl,
+                staleRetention, refreshExecutor, invalidationBus);
+        cache.setRefreshLoader(refreshLoaders.get(name));
+        cache.setStoreEmptyCollections(!skipEmptyCollections.contains(name));
+        return cache;
+    }
+
+    private void onRemoteInvalidation(CacheInvalidationMessage message) {
+        TwoLevelCache cache = unwrap(lookupCache(message.getCacheName()));
+        if (cache == null) {
+            return;
+        }
+        if (message.isClear()) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(message.getKey());
+        }
+    }
+
+    /**
+     * The Redis TTL of the entries of a cache. The TTLs are fixed per cache, so the TTL function is asked for
+     * an entry without a value rather than for each key.
+     */
+    @Nullable
+    private static Duration entryTtl(Cache redisCache) {
+        if (redisCache instanceof RedisCache cache) {
+            Duration ttl = cache.getCacheConfiguration().getTtlFunction().getTimeToLive(cache.getName(), null);
+            return ttl.isZero() || ttl.isNegative() ? null : ttl;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static TwoLevelCache unwrap(@Nullable Cache cache) {
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        return cache instanceof TwoLevelCache twoLevelCache ? twoLevelCache : null;
+    }
+}
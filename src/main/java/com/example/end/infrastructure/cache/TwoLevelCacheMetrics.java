@@ -0,0 +1,88 @@
+package com.example.end.infrastructure.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes per-tier hit/miss counters and hit ratios of every {@link TwoLevelCache}.
+ * <p>
+ * Available under {@code /actuator/metrics/cache.tier.requests} and
+ * {@code /actuator/metrics/cache.tier.hit.ratio}, tagged by {@code cache} and {@code tier}.
+ * {@code cache.loads} counts what happened on a miss of both tiers: a computed load,
+ * a load coalesced with a running one, or a stale value served during a reload;
+ * {@code result=refresh} counts refresh-ahead reloads. {@code cache.load.duration} times the loads,
+ * and the Redis entry count and size are published as {@code cache.tier.size} and
+ * {@code cache.tier.bytes} with {@code tier=l2} as of the last measurement.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class TwoLevelCacheMetrics implements MeterBinder {
+
+    private final TwoLevelCacheManager cacheManager;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            // forces creation of caches that have not been touched yet
+            cacheManager.getCache(cacheName);
+        }
+        for (TwoLevelCache cache : cacheManager.getTwoLevelCaches()) {
+            CacheTierStatistics stats = cache.getStatistics();
+            String name = cache.getName();
+
+            requests(registry, name, "l1", "hit", stats, CacheTierStatistics::getL1Hits);
+            requests(registry, name, "l1", "miss", stats, CacheTierStatistics::getL1Misses);
+            requests(registry, name, "l2", "hit", stats, CacheTierStatistics::getL2Hits);
+            requests(registry, name, "l2", "miss", stats, CacheTierStatistics::getL2Misses);
+            loads(registry, name, "computed", stats, CacheTierStatistics::getComputedLoads);
+            loads(registry, name, "coalesced", stats, CacheTierStatistics::getCoalescedLoads);
+            loads(registry, name, "stale", stats, CacheTierStatistics::getStaleHits);
+            loads(registry, name, "refresh", stats, CacheTierStatistics::getRefreshes);
+
+            FunctionTimer.builder("cache.load.duration", stats,
+                            CacheTierStatistics::getTimedLoads, CacheTierStatistics::getLoadTimeNanos,
+                            TimeUnit.NANOSECONDS)
+                    .tags("cache", name)
+                    .register(registry);
+
+            Gauge.builder("cache.tier.hit.ratio", stats, CacheTierStatistics::getL1HitRatio)
+                    .tags("cache", name, "tier", "l1")
+                    .register(registry);
+            Gauge.builder("cache.tier.hit.ratio", stats, CacheTierStatistics::getL2HitRatio)
+                    .tags("cache", name, "tier", "l2")
+                    .register(registry);
+            Gauge.builder("cache.tier.size", cache, TwoLevelCache::getLocalSize)
+                    .tags("cache", name, "tier", "l1")
+                    .register(registry);
+            Gauge.builder("cache.tier.size", stats, CacheTierStatistics::getL2Entries)
+                    .tags("cache", name, "tier", "l2")
+                    .register(registry);
+            Gauge.builder("cache.tier.bytes", stats, CacheTierStatistics::getL2Bytes)
+                    .tags("cache", name, "tier", "l2")
+                    .register(registry);
+        }
+    }
+
+    private static void requests(MeterRegistry registry, String cacheName, String tier, String result,
+                                 CacheTierStatistics stats,
+                                 ToDoubleFunction<CacheTierStatistics> counter) {
+        FunctionCounter.builder("cache.tier.requests", stats, counter)
+                .tags("cache", cacheName, "tier", tier, "result", result)
+                .register(registry);
+    }
+
+    private static void loads(MeterRegistry registry, String cacheName, String result,
+                              CacheTierStatistics stats,
+                              ToDoubleFunction<CacheTierStatistics> counter) {
+        FunctionCounter.builder("cache.loads", stats, counter)
+                .tags("cache", cacheName, "result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.end.infrastructure.cache.serializer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact, versioned {@link RedisSerializer} for the cached DTOs, with a JSON fallback.
+ * <p>
+ * Values made of registered types (see {@link CacheValueCodec}) and lists of them are written as
+ * {@code MAGIC, header, body}, where the header holds the format version and a compression flag. Bodies
+ * larger than the compression threshold are deflated when that actually makes them smaller. Every other
+ * value goes through the fallback serializer unchanged.
+ * </p>
+ * <p>
+ * On read, anything that does not start with {@link #MAGIC} is handed to the fallback, so JSON entries
+ * written before the switch stay readable until they expire. Entries that cannot be decoded by either
+ * path (an unknown type or version written by a newer node, a renamed class in old JSON) are logged and
+ * returned as {@code null}, which the Redis cache treats as a miss.
+ * </p>
+ */
+@Slf4j
+public class BinaryCacheSerializer implements RedisSerializer<Object> {
+
+    /**
+     * First byte of every binary entry. JSON always starts with a printable character, so this never clashes.
+     */
+    static final byte MAGIC = (byte) 0xB7;
+    static final int FORMAT_VERSION = 1;
+    private static final int COMPRESSED = 0x80;
+    private static final int MAX_UNCOMPRESSED_LENGTH = 16 * 1024 * 1024;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_LIST = 1;
+    private static final int TAG_VALUE = 2;
+
+    private final Map<Class<?>, CacheValueCodec<?>> codecsByType = new HashMap<>();
+    private final Map<Integer, CacheValueCodec<?>> codecsById = new HashMap<>();
+    private final RedisSerializer<Object> fallback;
+    private final int compressionThreshold;
+
+    /**
+     * @param compressionThreshold body size in bytes above which compression is attempted,
+     *                             {@code 0} or less disables compression
+     */
+    public BinaryCacheSerializer(List<CacheValueCodec<?>> codecs, RedisSerializer<Object> fallback,
+                                 int compressionThreshold) {
+        for (CacheValueCodec<?> codec : codecs) {
+            if (codecsById.put(codec.typeId(), codec) != null) {
+                throw new IllegalArgumentException("Duplicate cache codec type id " + codec.typeId());
+            }
+            codecsByType.put(codec.type(), codec);
+        }
+        this.fallback = fallback;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(@Nullable Object value) throws SerializationException {
+        if (value == null || !isSupported(value)) {
+            return fallback.serialize(value);
+        }
+        CacheValueOutput body = new CacheValueOutput(256);
+        try {
+            writeValue(value, body);
+        } catch (RuntimeException e) {
+            log.debug("Falling back to {} for {}: {}", fallback.getClass().getSimpleName(),
+                    value.getClass().getSimpleName(), e.toString());
+            return fallback.serialize(value);
+        }
+
+        byte[] bodyBytes = body.toByteArray();
+        if (compressionThreshold > 0 && bodyBytes.length > compressionThreshold) {
+            byte[] compressed = deflate(bodyBytes);
+            if (compressed != null) {
+                return frame(COMPRESSED, bodyBytes.length, compressed);
+            }
+        }
+        return frame(0, -1, bodyBytes);
+    }
+
+    @Override
+    @Nullable
+    public Object deserialize(@Nullable byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            try {
+                return fallback.deserialize(bytes);
+            } catch (SerializationException e) {
+                log.warn("Dropping unreadable legacy cache entry: {}", e.getMessage());
+                return null;
+            }
+        }
+        try {
+            return decode(bytes);
+        } catch (RuntimeException | DataFormatException e) {
+            log.warn("Dropping unreadable cache entry: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isSupported(Object value) {
+        if (value instanceof List<?> list) {
+            for (Object element : list) {
+                if (element == null || !codecsByType.containsKey(element.getClass())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return codecsByType.containsKey(value.getClass());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeValue(@Nullable Object value, CacheValueOutput out) {
+        if (value == null) {
+            out.writeUnsignedVarLong(TAG_NULL);
+        } else if (value instanceof List<?> list) {
+            out.writeUnsignedVarLong(TAG_LIST);
+            out.writeUnsignedVarLong(list.size());
+            for (Object element : list) {
+                writeValue(element, out);
+            }
+        } else {
+            CacheValueCodec<Object> codec = (CacheValueCodec<Object>) codecsByType.get(value.getClass());
+            out.writeUnsignedVarLong(TAG_VALUE);
+            out.writeUnsignedVarLong(codec.typeId());
+            out.writeUnsignedVarLong(codec.version());
+            codec.write(value, out);
+        }
+    }
+
+    private Object readValue(CacheValueInput in) {
+        int tag = (int) in.readUnsignedVarLong();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_LIST:
+                long size = in.readUnsignedVarLong();
+                List<Object> list = new ArrayList<>((int) Math.min(size, 1024));
+                for (long i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            case TAG_VALUE:
+                int typeId = (int) in.readUnsignedVarLong();
+                int version = (int) in.readUnsignedVarLong();
+                CacheValueCodec<?> codec = codecsById.get(typeId);
+                if (codec == null) {
+                    throw new IllegalStateException("Unknown cache value type " + typeId);
+                }
+                if (version > codec.version()) {
+                    throw new IllegalStateException("Unsupported version " + version + " of "
+                            + codec.type().getSimpleName());
+                }
+                return codec.read(in, version);
+            default:
+                throw new IllegalStateException("Unknown cache value tag " + tag);
+        }
+    }
+
+    private Object decode(byte[] bytes) throws DataFormatException {
+        CacheValueInput header = new CacheValueInput(bytes, 1);
+        int flags = (int) header.readUnsignedVarLong();
+        int formatVersion = flags & ~COMPRESSED;
+        if (formatVersion > FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported cache format version " + formatVersion);
+        }
+
+        CacheValueInput body = header;
+        if ((flags & COMPRESSED) != 0) {
+            long length = header.readUnsignedVarLong();
+            if (length > MAX_UNCOMPRESSED_LENGTH) {
+                throw new IllegalStateException("Compressed cache value too large: " + length);
+            }
+            body = new CacheValueInput(inflate(bytes, header.position(), (int) length), 0);
+        }
+        Object value = readValue(body);
+        if (body.hasRemaining()) {
+            throw new IllegalStateException("Trailing bytes after cache value");
+        }
+        return value;
+    }
+
+    private static byte[] frame(int flags, int uncompressedLength, byte[] body) {
+        CacheValueOutput out = new CacheValueOutput(body.length + 8);
+        out.writeBytes(new byte[]{MAGIC}, 0, 1);
+        out.writeUnsignedVarLong(FORMAT_VERSION | flags);
+        if (uncompressedLength >= 0) {
+            out.writeUnsignedVarLong(uncompressedLength);
+        }
+        out.writeBytes(body, 0, body.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * @return the deflated bytes, or {@code null} when they are not smaller than the input
+     */
+    @Nullable
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            byte[] buffer = new byte[input.length];
+            int length = deflater.deflate(buffer);
+            if (!deflater.finished() || length >= input.length) {
+                return null;
+            }
+            byte[] result = new byte[length];
+            System.arraycopy(buffer, 0, result, 0, length);
+            return result;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset, int length) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, input.length - offset);
+            byte[] result = new byte[length];
+            int read = inflater.inflate(result);
+            if (read != length || !inflater.finished()) {
+                throw new DataFormatException("Compressed cache value has unexpected length");
+            }
+            return result;
+        } finally {
+            inflater.end();
+        }
+    }
+}
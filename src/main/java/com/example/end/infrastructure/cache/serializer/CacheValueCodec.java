@@ -0,0 +1,28 @@
+package com.example.end.infrastructure.cache.serializer;
+
+/**
+ * Binary encoding of one cached type for {@link BinaryCacheSerializer}.
+ * <p>
+ * {@link #typeId()} identifies the type inside stored entries and must never be reused for another type.
+ * Every encoded value carries the {@link #version()} it was written with: a codec that changes its layout
+ * bumps the version and keeps reading the older ones. Entries written with an unknown type or a newer
+ * version are treated as cache misses.
+ * </p>
+ *
+ * @param <T> the encoded type
+ */
+public interface CacheValueCodec<T> {
+
+    int typeId();
+
+    int version();
+
+    Class<T> type();
+
+    void write(T value, CacheValueOutput out);
+
+    /**
+     * @param version the version the value was written with, never newer than {@link #version()}
+     */
+    T read(CacheValueInput in, int version);
+}
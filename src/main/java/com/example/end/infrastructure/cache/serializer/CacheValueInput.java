@@ -0,0 +1,118 @@
+package com.example.end.infrastructure.cache.serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reads what {@link CacheValueOutput} wrote. Truncated or corrupt input fails with an
+ * {@link IllegalStateException}, which {@link BinaryCacheSerializer} turns into a cache miss.
+ */
+public final class CacheValueInput {
+
+    private final byte[] bytes;
+    private int position;
+
+    CacheValueInput(byte[] bytes, int offset) {
+        this.bytes = bytes;
+        this.position = offset;
+    }
+
+    public long readLong() {
+        long raw = readUnsignedVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public Long readNullableLong() {
+        return readBoolean() ? readLong() : null;
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public double readDouble() {
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (readByte() & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    public String readString() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        require(length);
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public <E extends Enum<E>> E readEnum(Class<E> type) {
+        String name = readString();
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+
+    public <T> List<T> readList(Function<CacheValueInput, T> elementReader) {
+        int size = readLength();
+        if (size < 0) {
+            return null;
+        }
+        // every element takes at least one byte, which caps the allocation for corrupt sizes
+        require(size);
+        List<T> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(elementReader.apply(this));
+        }
+        return values;
+    }
+
+    public List<Long> readLongList() {
+        return readList(CacheValueInput::readLong);
+    }
+
+    long readUnsignedVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint at " + position);
+    }
+
+    boolean hasRemaining() {
+        return position < bytes.length;
+    }
+
+    int position() {
+        return position;
+    }
+
+    /**
+     * @return the decoded length, or {@code -1} for {@code null}
+     */
+    private int readLength() {
+        long encoded = readUnsignedVarLong();
+        if (encoded > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Length out of range: " + encoded);
+        }
+        return (int) encoded - 1;
+    }
+
+    private byte readByte() {
+        require(1);
+        return bytes[position++];
+    }
+
+    private void require(int length) {
+        if (length > bytes.length - position) {
+            throw new IllegalStateException("Unexpected end of cache value at " + position);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.end.infrastructure.cache.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Append-only buffer for {@link CacheValueCodec}s.
+ * Integers are written as zig-zag varints, so small IDs take a single byte.
+ * Nullable strings and lists store {@code length + 1}, with {@code 0} meaning {@code null}.
+ */
+public final class CacheValueOutput {
+
+    private final ByteArrayOutputStream buffer;
+
+    CacheValueOutput(int initialCapacity) {
+        this.buffer = new ByteArrayOutputStream(initialCapacity);
+    }
+
+    public void writeLong(long value) {
+        writeUnsignedVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeNullableLong(Long value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeLong(value);
+        }
+    }
+
+    public void writeBoolean(boolean value) {
+        buffer.write(value ? 1 : 0);
+    }
+
+    public void writeDouble(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer.write((int) (bits >>> shift));
+        }
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeUnsignedVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsignedVarLong(bytes.length + 1L);
+        buffer.write(bytes, 0, bytes.length);
+    }
+
+    public <E extends Enum<E>> void writeEnum(E value) {
+        writeString(value != null ? value.name() : null);
+    }
+
+    public <T> void writeList(List<T> values, BiConsumer<T, CacheValueOutput> elementWriter) {
+        if (values == null) {
+            writeUnsignedVarLong(0);
+            return;
+        }
+        writeUnsignedVarLong(values.size() + 1L);
+        for (T value : values) {
+            elementWriter.accept(value, this);
+        }
+    }
+
+    public void writeLongList(List<Long> values) {
+        writeList(values, (value, out) -> out.writeLong(value));
+    }
+
+    void writeUnsignedVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.write((int) value);
+    }
+
+    void writeBytes(byte[] bytes, int offset, int length) {
+        buffer.write(bytes, offset, length);
+    }
+
+    int size() {
+        return buffer.size();
+    }
+
+    byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+}
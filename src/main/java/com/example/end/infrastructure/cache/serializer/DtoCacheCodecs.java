@@ -0,0 +1,205 @@
+package com.example.end.infrastructure.cache.serializer;
+
+import com.example.end.dto.CategoryDto;
+import com.example.end.dto.PortfolioImageDto;
+import com.example.end.dto.ProcedureDto;
+import com.example.end.dto.UserDetailsDto;
+import com.example.end.models.User;
+
+import java.util.List;
+
+/**
+ * Codecs of the DTOs kept in the Redis caches.
+ * <p>
+ * Fields are written in declaration order. When a DTO gains or loses a field, bump the version of its
+ * codec and branch on the version in {@code read}, so entries written before the change stay readable.
+ * </p>
+ */
+public final class DtoCacheCodecs {
+
+    private DtoCacheCodecs() {
+    }
+
+    public static List<CacheValueCodec<?>> all() {
+        return List.of(new UserDetailsDtoCodec(), new CategoryDtoCodec(),
+                new ProcedureDtoCodec(), new PortfolioImageDtoCodec());
+    }
+
+    public static final class UserDetailsDtoCodec implements CacheValueCodec<UserDetailsDto> {
+
+        private final PortfolioImageDtoCodec portfolioImageCodec = new PortfolioImageDtoCodec();
+
+        @Override
+        public int typeId() {
+            return 1;
+        }
+
+        @Override
+        public int version() {
+            return 2;
+        }
+
+        @Override
+        public Class<UserDetailsDto> type() {
+            return UserDetailsDto.class;
+        }
+
+        @Override
+        public void write(UserDetailsDto value, CacheValueOutput out) {
+            out.writeNullableLong(value.getId());
+            out.writeString(value.getFirstName());
+            out.writeString(value.getLastName());
+            out.writeString(value.getEmail());
+            out.writeString(value.getDescription());
+            out.writeString(value.getPhoneNumber());
+            out.writeString(value.getAddress());
+            out.writeEnum(value.getRole());
+            out.writeLongList(value.getCategoryIds());
+            out.writeLongList(value.getProcedureIds());
+            out.writeLongList(value.getReviewIds());
+            out.writeString(value.getProfileImageUrl());
+            // nested images carry their own codec version
+            out.writeLong(portfolioImageCodec.version());
+            out.writeList(value.getPortfolioImageUrls(), portfolioImageCodec::write);
+            out.writeBoolean(value.getAverageRating() != null);
+            if (value.getAverageRating() != null) {
+                out.writeDouble(value.getAverageRating());
+            }
+            out.writeNullableLong(value.getReviewCount());
+            out.writeLongList(value.getRatingHistogram());
+        }
+
+        @Override
+        public UserDetailsDto read(CacheValueInput in, int version) {
+            UserDetailsDto.UserDetailsDtoBuilder builder = UserDetailsDto.builder()
+                    .id(in.readNullableLong())
+                    .firstName(in.readString())
+                    .lastName(in.readString())
+                    .email(in.readString())
+                    .description(in.readString())
+                    .phoneNumber(in.readString())
+                    .address(in.readString())
+                    .role(in.readEnum(User.Role.class))
+                    .categoryIds(in.readLongList())
+                    .procedureIds(in.readLongList())
+                    .reviewIds(in.readLongList())
+                    .profileImageUrl(in.readString());
+            int imageVersion = (int) in.readLong();
+            if (imageVersion > portfolioImageCodec.version()) {
+                throw new IllegalStateException("Unsupported portfolio image version " + imageVersion);
+            }
+            builder.portfolioImageUrls(in.readList(image -> portfolioImageCodec.read(image, imageVersion)));
+            // version 1 had no rating
+            if (version >= 2) {
+                builder.averageRating(in.readBoolean() ? in.readDouble() : null)
+                        .reviewCount(in.readNullableLong())
+                        .ratingHistogram(in.readLongList());
+            }
+            return builder.build();
+        }
+    }
+
+    public static final class CategoryDtoCodec implements CacheValueCodec<CategoryDto> {
+
+        @Override
+        public int typeId() {
+            return 2;
+        }
+
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public Class<CategoryDto> type() {
+            return CategoryDto.class;
+        }
+
+        @Override
+        public void write(CategoryDto value, CacheValueOutput out) {
+            out.writeNullableLong(value.getId());
+            out.writeString(value.getName());
+        }
+
+        @Override
+        public CategoryDto read(CacheValueInput in, int version) {
+            return CategoryDto.builder()
+                    .id(in.readNullableLong())
+                    .name(in.readString())
+                    .build();
+        }
+    }
+
+    public static final class ProcedureDtoCodec implements CacheValueCodec<ProcedureDto> {
+
+        @Override
+        public int typeId() {
+            return 3;
+        }
+
+        @Override
+        public int version() {
+            return 2;
+        }
+
+        @Override
+        public Class<ProcedureDto> type() {
+            return ProcedureDto.class;
+        }
+
+        @Override
+        public void write(ProcedureDto value, CacheValueOutput out) {
+            out.writeNullableLong(value.getId());
+            out.writeString(value.getName());
+            out.writeDouble(value.getPrice());
+            out.writeNullableLong(value.getDurationMinutes() != null ? value.getDurationMinutes().longValue() : null);
+        }
+
+        @Override
+        public ProcedureDto read(CacheValueInput in, int version) {
+            ProcedureDto.ProcedureDtoBuilder builder = ProcedureDto.builder()
+                    .id(in.readNullableLong())
+                    .name(in.readString())
+                    .price(in.readDouble());
+            // version 1 had no duration
+            if (version >= 2) {
+                Long durationMinutes = in.readNullableLong();
+                builder.durationMinutes(durationMinutes != null ? durationMinutes.intValue() : null);
+            }
+            return builder.build();
+        }
+    }
+
+    public static final class PortfolioImageDtoCodec implements CacheValueCodec<PortfolioImageDto> {
+
+        @Override
+        public int typeId() {
+            return 4;
+        }
+
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public Class<PortfolioImageDto> type() {
+            return PortfolioImageDto.class;
+        }
+
+        @Override
+        public void write(PortfolioImageDto value, CacheValueOutput out) {
+            out.writeNullableLong(value.getId());
+            out.writeString(value.getUrl());
+        }
+
+        @Override
+        public PortfolioImageDto read(CacheValueInput in, int version) {
+            return PortfolioImageDto.builder()
+                    .id(in.readNullableLong())
+                    .url(in.readString())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.end.infrastructure.concurrency;
+
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * A Lettuce connection factory that hands out at most as many connections at once as it has permits, see
+ * {@link ConnectionPermits}. A subclass rather than a wrapper, so that it stays a reactive connection factory and a
+ * lifecycle bean. A connection held by a subscription keeps its permit for as long as it listens.
+ */
+public class ConcurrencyLimitingLettuceConnectionFactory extends LettuceConnectionFactory {
+
+    private final ConnectionPermits permits;
+
+    public ConcurrencyLimitingLettuceConnectionFactory(RedisStandaloneConfiguration configuration, int permits,
+                                                       Duration acquireTimeout) {
+        super(configuration);
+        this.permits = new ConnectionPermits(permits, acquireTimeout);
+    }
+
+    @Override
+    public RedisConnection getConnection() {
+        if (isClusterAware()) {
+            // hands out a cluster connection, which takes the permit
+            return super.getConnection();
+        }
+        return limited(super::getConnection, RedisConnection.class);
+    }
+
+    @Override
+    public RedisClusterConnection getClusterConnection() {
+        return limited(super::getClusterConnection, RedisClusterConnection.class);
+    }
+
+    @Override
+    public RedisSentinelConnection getSentinelConnection() {
+        return limited(super::getSentinelConnection, RedisSentinelConnection.class);
+    }
+
+    private <T> T limited(Supplier<T> supplier, Class<T> type) {
+        try {
+            if (!permits.tryAcquire()) {
+                throw new RedisConnectionFailureException("No Redis connection available within "
+                        + permits.getAcquireTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisConnectionFailureException("Interrupted while waiting for a Redis connection", e);
+        }
+        T connection;
+        try {
+            connection = supplier.get();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        return permits.releaseOnClose(connection, type);
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+}
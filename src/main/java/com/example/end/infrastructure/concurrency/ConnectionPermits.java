@@ -0,0 +1,89 @@
+package com.example.end.infrastructure.concurrency;
+
+import lombok.Getter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Permits for the connections of one pool: a connection is handed out only with a permit, which its
+ * {@code close} returns.
+ * <p>
+ * With virtual threads the number of threads no longer limits how many requests wait for a connection at once.
+ * Thousands of them would queue inside the pool, which is built for a few dozen waiters and fails them with its
+ * own timeout. Waiting on a fair semaphore in front of the pool costs nothing while the thread is unmounted and
+ * serves the waiters in order.
+ * </p>
+ */
+public class ConnectionPermits {
+
+    private final Semaphore semaphore;
+    @Getter
+    private final Duration acquireTimeout;
+
+    public ConnectionPermits(int permits, Duration acquireTimeout) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("Permits must be positive");
+        }
+        this.semaphore = new Semaphore(permits, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * @return whether a permit was acquired within the acquire timeout
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        return semaphore.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public void release() {
+        semaphore.release();
+    }
+
+    public int availablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    /**
+     * Wraps a connection acquired with a permit so that closing it returns the permit, once however often it is
+     * closed.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T releaseOnClose(T connection, Class<T> type) {
+        AtomicBoolean released = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    try {
+                        return invoke(connection, method, args);
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            semaphore.release();
+                        }
+                    }
+                default:
+                    return invoke(connection, method, args);
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.end.infrastructure.config;
+
+import com.example.end.service.interfaces.AvailabilityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityIndexConfig {
+
+    private final AvailabilityService availabilityService;
+
+    /**
+     * Полная перестройка битовых карт свободного времени: сдвигает горизонт на новый день
+     * и подхватывает записи, сделанные на других узлах. Между перестройками карты обновляются инкрементально.
+     */
+    @Scheduled(fixedDelayString = "${booking.availability.free-time-index.rebuild-interval:600000}")
+    public void rebuildFreeTimeIndex() {
+        try {
+            availabilityService.rebuildFreeTimeIndex();
+        } catch (DataAccessException e) {
+            log.warn("Could not rebuild free-time index: {}", e.getMessage());
+        }
+    }
+}
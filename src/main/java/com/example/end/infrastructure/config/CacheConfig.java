@@ -1,48 +1,106 @@
 package com.example.end.infrastructure.config;
 
+import com.example.end.infrastructure.cache.CacheDependencyIndex;
+import com.example.end.infrastructure.cache.CacheInvalidationBus;
+import com.example.end.infrastructure.cache.RedisCacheDependencyIndex;
+import com.example.end.infrastructure.cache.RedisCacheFootprintProbe;
+import com.example.end.infrastructure.cache.TwoLevelCacheManager;
+import com.example.end.infrastructure.cache.TwoLevelCacheMetrics;
+import com.example.end.infrastructure.cache.serializer.BinaryCacheSerializer;
+import com.example.end.infrastructure.cache.serializer.DtoCacheCodecs;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
 import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.time.Duration;
 
 @Configuration
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfig {
 
         @Value("${spring.cache.redis.time-to-live:3600000}")
         private long defaultTtl;
 
+        @Value("${spring.cache.redis.enable-transactions:false}")
+        private boolean transactionAware;
+
+        @Value("${cache.local.maximum-size:200}")
+        private long localMaximumSize;
+
+        @Value("${cache.local.time-to-live:60s}")
+        private Duration localTtl;
+
+        @Value("${cache.invalidation.channel:beautybook:cache-invalidation}")
+        private String invalidationChannel;
+
+        @Value("${cache.dependencies.time-to-live:15m}")
+        private Duration dependenciesTtl;
+
+        @Value("${cache.stale-while-revalidate.enabled:true}")
+        private boolean staleWhileRevalidate;
+
+        @Value("${cache.stale-while-revalidate.grace-period:5m}")
+        private Duration staleGracePeriod;
+
+        @Value("${cache.serializer.binary:true}")
+        private boolean binarySerializer;
+
+        @Value("${cache.serializer.compression-threshold:1024}")
+        private int compressionThreshold;
+
+        /**
+         * Serializer of cached values: compact binary for the cached DTOs, JSON for everything else.
+         * Reads JSON entries written before the switch either way. With {@code cache.serializer.binary=false}
+         * values are still written as JSON, which is what nodes running an older version can read.
+         */
+        @Bean
+        public RedisSerializer<Object> cacheValueSerializer() {
+                GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+                return binarySerializer
+                                ? new BinaryCacheSerializer(DtoCacheCodecs.all(), json, compressionThreshold)
+                                : json;
+        }
+
         @Bean
         public RedisCacheManagerBuilderCustomizer redisCacheManagerBuilderCustomizer() {
+                RedisSerializer<Object> valueSerializer = cacheValueSerializer();
                 return builder -> {
-               
+
                         var categoryConfig = RedisCacheConfiguration.defaultCacheConfig()
                                         .entryTtl(Duration.ofMinutes(15))
                                         .serializeValuesWith(RedisSerializationContext.SerializationPair
-                                                        .fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                                                        .fromSerializer(valueSerializer));
 
                         var procedureConfig = RedisCacheConfiguration.defaultCacheConfig()
                                         .entryTtl(Duration.ofMinutes(10))
                                         .serializeValuesWith(RedisSerializationContext.SerializationPair
-                                                        .fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                                                        .fromSerializer(valueSerializer));
 
                         var defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                                         .entryTtl(Duration.ofMillis(defaultTtl))
                                         .serializeValuesWith(RedisSerializationContext.SerializationPair
-                                                        .fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                                                        .fromSerializer(valueSerializer));
                         var mastersConfig = RedisCacheConfiguration.defaultCacheConfig()
                                 .entryTtl(Duration.ofMinutes(15))
                                 .serializeValuesWith(RedisSerializationContext.SerializationPair
-                                        .fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                                        .fromSerializer(valueSerializer));
 
                         var usersByCategoryConfig = RedisCacheConfiguration.defaultCacheConfig()
                                 .entryTtl(Duration.ofMinutes(15))
                                 .serializeValuesWith(RedisSerializationContext.SerializationPair
-                                        .fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                                        .fromSerializer(valueSerializer));
 
                         builder
                                         .withCacheConfiguration("allMasters", mastersConfig)
@@ -55,4 +113,82 @@ public class CacheConfig {
                                         .cacheDefaults(defaultConfig);
                 };
         }
-}
\ No newline at end of file
+
+        @Bean
+        public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+                RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+                container.setConnectionFactory(connectionFactory);
+                return container;
+        }
+
+        @Bean
+        public CacheInvalidationBus cacheInvalidationBus(RedisConnectionFactory connectionFactory,
+                                                         RedisMessageListenerContainer cacheInvalidationListenerContainer) {
+                return new CacheInvalidationBus(connectionFactory, cacheInvalidationListenerContainer, invalidationChannel);
+        }
+
+        /**
+         * Runs background reloads of expired cache entries (stale-while-revalidate)
+         * and refresh-ahead reloads of hot entries.
+         * Rejected reloads are simply retried by the next request or refresh pass, so the queue is kept small.
+         */
+        @Bean
+        public ThreadPoolTaskExecutor cacheRefreshExecutor() {
+                ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+                executor.setCorePoolSize(1);
+                executor.setMaxPoolSize(2);
+                executor.setQueueCapacity(20);
+                executor.setKeepAliveSeconds(30);
+                executor.setThreadNamePrefix("BeautyBook-CacheRefresh-");
+                executor.initialize();
+                return executor;
+        }
+
+        /**
+         * Two-tier cache manager: in-heap L1 per cache name in front of the Redis caches configured above.
+         * Declaring it replaces the auto-configured Redis cache manager, so the Redis one is built here
+         * with the same customizer and cache properties.
+         */
+        @Bean
+        public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                                 CacheProperties cacheProperties,
+                                                 CacheInvalidationBus cacheInvalidationBus,
+                                                 ThreadPoolTaskExecutor cacheRefreshExecutor) {
+                RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory);
+                if (cacheProperties.getRedis().isEnableStatistics()) {
+                        builder.enableStatistics();
+                }
+                redisCacheManagerBuilderCustomizer().customize(builder);
+                RedisCacheManager redisCacheManager = builder.build();
+                redisCacheManager.afterPropertiesSet();
+
+                TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+                                redisCacheManager, localMaximumSize, localTtl, cacheInvalidationBus);
+                // evictions inside a transaction are applied to both tiers only after commit
+                cacheManager.setTransactionAware(transactionAware);
+                // an empty listing is not cached, so a new master shows up without waiting for the TTL
+                cacheManager.skipEmptyCollections("allMasters", "usersByCategory");
+                if (staleWhileRevalidate) {
+                        cacheManager.enableStaleWhileRevalidate(staleGracePeriod, cacheRefreshExecutor);
+                }
+                return cacheManager;
+        }
+
+        /**
+         * Tracks which cached listing pages contain which user, see {@code UserCacheInvalidator}.
+         */
+        @Bean
+        public CacheDependencyIndex cacheDependencyIndex(StringRedisTemplate stringRedisTemplate) {
+                return new RedisCacheDependencyIndex(stringRedisTemplate, dependenciesTtl);
+        }
+
+        @Bean
+        public RedisCacheFootprintProbe redisCacheFootprintProbe(StringRedisTemplate stringRedisTemplate) {
+                return new RedisCacheFootprintProbe(stringRedisTemplate);
+        }
+
+        @Bean
+        public TwoLevelCacheMetrics twoLevelCacheMetrics(TwoLevelCacheManager cacheManager) {
+                return new TwoLevelCacheMetrics(cacheManager);
+        }
+}
@@ -1,8 +1,18 @@
 package com.example.end.infrastructure.config;
 
-import org.springframework.cache.CacheManager;
+import com.example.end.infrastructure.cache.CacheTierStatistics;
+import com.example.end.infrastructure.cache.RedisCacheFootprintProbe;
+import com.example.end.infrastructure.cache.TwoLevelCache;
+import com.example.end.infrastructure.cache.TwoLevelCacheManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -11,36 +21,61 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class CacheMonitoringConfig {
 
-    private final CacheManager cacheManager;
+    private final TwoLevelCacheManager cacheManager;
+    private final RedisCacheFootprintProbe footprintProbe;
+    private final ThreadPoolTaskExecutor cacheRefreshExecutor;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${cache.refresh-ahead.enabled:true}")
+    private boolean refreshAheadEnabled;
+
+    @Value("${cache.refresh-ahead.min-accesses:3}")
+    private long refreshMinAccesses;
+
+    @Value("${cache.refresh-ahead.refresh-at:0.8}")
+    private double refreshAt;
 
     /**
-     * Мониторинг кэша каждые 30 минут для предотвращения утечек памяти
+     * Обновление "горячих" ключей до истечения их TTL в Redis.
+     * Ключи, которые читали реже {@code min-accesses} раз за интервал, не обновляются и истекают сами,
+     * поэтому объём кэша ограничен TTL без периодической полной очистки.
      */
-    @Scheduled(fixedRate = 1800000) // 30 минут
-    public void monitorCacheUsage() {
-        if (cacheManager != null) {
-            cacheManager.getCacheNames().forEach(cacheName -> {
-                var cache = cacheManager.getCache(cacheName);
-                if (cache != null) {
-                    log.info("Cache '{}' is active and monitored", cacheName);
-                }
-            });
+    @Scheduled(fixedDelayString = "${cache.refresh-ahead.interval:60000}")
+    public void refreshHotEntries() {
+        if (refreshAheadEnabled) {
+            cacheManager.refreshAhead(refreshMinAccesses, refreshAt, cacheRefreshExecutor);
         }
     }
 
     /**
-     * Очистка кэша каждый час для предотвращения накопления
+     * Мониторинг кэша каждые 30 минут: попадания, промахи, время загрузки, размер в памяти и в Redis,
+     * а также регионы кэша второго уровня Hibernate
      */
-    @Scheduled(fixedRate = 3600000) // 1 час
-    public void clearCachesPeriodically() {
-        if (cacheManager != null) {
-            cacheManager.getCacheNames().forEach(cacheName -> {
-                var cache = cacheManager.getCache(cacheName);
-                if (cache != null) {
-                    cache.clear();
-                    log.info("Cache '{}' cleared to prevent memory accumulation", cacheName);
-                }
-            });
+    @Scheduled(fixedRate = 1800000) // 30 минут
+    public void monitorCacheUsage() {
+        for (TwoLevelCache cache : cacheManager.getTwoLevelCaches()) {
+            try {
+                footprintProbe.measure(cache);
+            } catch (DataAccessException e) {
+                log.warn("Could not measure Redis footprint of cache '{}': {}", cache.getName(), e.getMessage());
+            }
+            CacheTierStatistics stats = cache.getStatistics();
+            log.info("Cache '{}': L1 {} hits / {} misses ({} entries), L2 {} hits / {} misses ({} entries, {} bytes), "
+                            + "{} loads ({} coalesced, {} stale, {} refreshes), avg load {} ms",
+                    cache.getName(),
+                    stats.getL1Hits(), stats.getL1Misses(), cache.getLocalSize(),
+                    stats.getL2Hits(), stats.getL2Misses(), stats.getL2Entries(), stats.getL2Bytes(),
+                    stats.getComputedLoads(), stats.getCoalescedLoads(), stats.getStaleHits(), stats.getRefreshes(),
+                    String.format("%.1f", stats.getAverageLoadMillis()));
+        }
+        Statistics hibernateStats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : hibernateStats.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = hibernateStats.getCacheRegionStatistics(region);
+            log.info("Hibernate cache region '{}': {} hits / {} misses / {} puts ({} entries)",
+                    region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount(), stats.getElementCountInMemory());
         }
+        log.info("Hibernate query cache: {} hits / {} misses / {} puts",
+                hibernateStats.getQueryCacheHitCount(), hibernateStats.getQueryCacheMissCount(),
+                hibernateStats.getQueryCachePutCount());
     }
 }
@@ -5,26 +5,47 @@ import com.cloudinary.api.ApiResponse;
 import com.cloudinary.utils.ObjectUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
-
+import java.util.UUID;
+
+/**
+ * Stores images in Cloudinary.
+ * <p>
+ * Uploads never pass through the heap as a whole: the multipart temp file is moved into the spool directory and
+ * streamed from there to Cloudinary through a fixed-size buffer, only as fast as the connection takes it. Memory
+ * per upload is therefore the same for a 50 KB and a 50 MB file.
+ * </p>
+ */
 @Service
 public class ImageUploadService {
 
     private static final Logger logger = LoggerFactory.getLogger(ImageUploadService.class);
 
-    @Autowired
-    private Cloudinary cloudinary;
+    private final Cloudinary cloudinary;
+    private final Path spoolDirectory;
+
+    public ImageUploadService(Cloudinary cloudinary,
+                              @Value("${image.upload.spool-directory:${java.io.tmpdir}}") Path spoolDirectory) {
+        this.cloudinary = cloudinary;
+        this.spoolDirectory = spoolDirectory;
+    }
 
     public String uploadImage(MultipartFile file) throws IOException {
         logger.info("Starting image upload: {}", file.getOriginalFilename());
 
+        // must not exist yet: the servlet container moves its temp file here, which is a rename on the same disk
+        File spooled = spoolDirectory.resolve("image-upload-" + UUID.randomUUID()).toFile();
         try {
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.emptyMap());
+            file.transferTo(spooled);
+            Map uploadResult = cloudinary.uploader().upload(spooled, ObjectUtils.emptyMap());
             String imageUrl = uploadResult.get("url").toString();
 
             logger.info("Image successfully uploaded: {}", imageUrl);
@@ -41,6 +62,8 @@ public class ImageUploadService {
         } catch (Exception e) {
             logger.error("Error during image upload: {}", e.getMessage(), e);
             throw new IOException("Image upload error", e);
+        } finally {
+            Files.deleteIfExists(spooled.toPath());
         }
     }
 
@@ -0,0 +1,29 @@
+package com.example.end.infrastructure.config;
+
+import com.example.end.service.interfaces.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardConfig {
+
+    private final LeaderboardService leaderboardService;
+
+    /**
+     * Полная перестройка рейтинга мастеров: подхватывает отзывы, оставленные на других узлах,
+     * и пересчитывает средний балл, к которому притягиваются оценки. Между перестройками рейтинг обновляется инкрементально.
+     */
+    @Scheduled(fixedDelayString = "${reviews.leaderboard.rebuild-interval:300000}")
+    public void rebuildLeaderboard() {
+        try {
+            leaderboardService.rebuildLeaderboard();
+        } catch (DataAccessException e) {
+            log.warn("Could not rebuild leaderboard: {}", e.getMessage());
+        }
+    }
+}
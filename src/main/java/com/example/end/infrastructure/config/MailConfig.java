@@ -1,14 +1,18 @@
 package com.example.end.infrastructure.config;
 
-import jakarta.annotation.PostConstruct;
+import com.example.end.infrastructure.mail.PooledJavaMailSender;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
 
+import java.time.Duration;
 import java.util.Properties;
 
+/**
+ * Отправка почты через пул SMTP-соединений: соединение открывается и авторизуется один раз
+ * и используется для многих писем, см. {@link PooledJavaMailSender}.
+ */
 @Configuration
 public class MailConfig {
 
@@ -24,10 +28,28 @@ public class MailConfig {
     @Value("${spring.mail.port}")
     private int mailPort;
 
+    @Value("${spring.mail.properties.mail.debug:false}")
+    private boolean mailDebug;
+
+    @Value("${mail.smtp-pool.max-connections:2}")
+    private int maxConnections;
+
+    @Value("${mail.smtp-pool.idle-timeout:60s}")
+    private Duration idleTimeout;
+
+    @Value("${mail.smtp-pool.max-lifetime:10m}")
+    private Duration maxLifetime;
+
+    @Value("${mail.smtp-pool.max-wait:10s}")
+    private Duration maxWait;
+
+    @Value("${mail.smtp-pool.timeout:10s}")
+    private Duration timeout;
+
 
     @Bean
     public JavaMailSender javaMailSender() {
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        PooledJavaMailSender mailSender = new PooledJavaMailSender(maxConnections, idleTimeout, maxLifetime, maxWait);
         mailSender.setHost(mailHost);
         mailSender.setPort(mailPort);
         mailSender.setUsername(mailUsername);
@@ -36,7 +58,10 @@ public class MailConfig {
         Properties properties = mailSender.getJavaMailProperties();
         properties.put("mail.smtp.auth", "true");
         properties.put("mail.smtp.starttls.enable", "true");
-        properties.put("mail.debug", "true");
+        properties.put("mail.smtp.connectiontimeout", String.valueOf(timeout.toMillis()));
+        properties.put("mail.smtp.timeout", String.valueOf(timeout.toMillis()));
+        properties.put("mail.smtp.writetimeout", String.valueOf(timeout.toMillis()));
+        properties.put("mail.debug", String.valueOf(mailDebug));
 
         return mailSender;
     }
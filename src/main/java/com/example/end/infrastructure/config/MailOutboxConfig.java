@@ -0,0 +1,34 @@
+package com.example.end.infrastructure.config;
+
+import com.example.end.infrastructure.mail.MailDispatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class MailOutboxConfig {
+
+    private final MailDispatcher mailDispatcher;
+
+    /**
+     * Отправка писем из outbox пачками. Письма, которые не удалось отправить, повторяются с растущей задержкой,
+     * письма другого узла (заблокированные или ещё в аренде) пропускаются. За один запуск — не больше
+     * {@code mail.outbox.max-batches-per-run} пачек, а пул планировщика ({@code spring.task.scheduling.pool.size})
+     * не даёт зависшему SMTP задержать остальные задачи.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval:5000}")
+    public void dispatchMail() {
+        try {
+            int sent = mailDispatcher.dispatch();
+            if (sent > 0) {
+                log.debug("Mail outbox: {} messages sent", sent);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not dispatch mail outbox: {}", e.getMessage());
+        }
+    }
+}
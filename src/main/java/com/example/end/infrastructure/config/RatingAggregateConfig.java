@@ -0,0 +1,57 @@
+package com.example.end.infrastructure.config;
+
+import com.example.end.service.MasterRatingAggregator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class RatingAggregateConfig {
+
+    private final MasterRatingAggregator masterRatingAggregator;
+
+    @Value("${reviews.rating-aggregate.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @Value("${reviews.rating-aggregate.repair:true}")
+    private boolean repair;
+
+    @Value("${reviews.rating-aggregate.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Однократное заполнение агрегатов рейтинга из уже существующих отзывов, включается на один запуск
+     * после выката. Выполняется в фоне, чтобы не задерживать старт приложения.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillRatingAggregates() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        MasterRatingAggregator.Reconciliation result = masterRatingAggregator.reconcile(true, batchSize);
+        log.info("Rating aggregates backfilled: {} masters checked, {} written", result.checked(), result.repaired());
+    }
+
+    /**
+     * Сверка агрегатов рейтинга с отзывами пачками мастеров; расхождения исправляются, если включён repair.
+     */
+    @Scheduled(cron = "${reviews.rating-aggregate.check-cron:0 30 3 * * *}")
+    public void checkRatingAggregates() {
+        try {
+            MasterRatingAggregator.Reconciliation result = masterRatingAggregator.reconcile(repair, batchSize);
+            log.info("Rating aggregates checked: {} masters, {} mismatched, {} repaired",
+                    result.checked(), result.mismatched(), result.repaired());
+        } catch (DataAccessException e) {
+            log.warn("Could not check rating aggregates: {}", e.getMessage());
+        }
+    }
+}
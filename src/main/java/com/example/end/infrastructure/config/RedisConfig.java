@@ -1,17 +1,21 @@
 package com.example.end.infrastructure.config;
 
+import com.example.end.infrastructure.concurrency.ConcurrencyLimitingLettuceConnectionFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 // import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.net.URI;
+import java.time.Duration;
 
 @Configuration
 // @EnableCaching
@@ -20,8 +24,17 @@ public class RedisConfig {
     @Value("${spring.data.redis.url}")
     private String redisUrl;
 
+    @Value("${virtual-threads.redis-permits:8}")
+    private int redisPermits;
+
+    @Value("${virtual-threads.acquire-timeout:20s}")
+    private Duration acquireTimeout;
+
+    /**
+     * On virtual threads the connections are handed out with permits, see {@link VirtualThreadsConfig}.
+     */
     @Bean
-    public LettuceConnectionFactory redisConnectionFactory() {
+    public LettuceConnectionFactory redisConnectionFactory(Environment environment) {
         URI uri = URI.create(redisUrl);
         RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(uri.getHost(), uri.getPort());
         if (uri.getUserInfo() != null) {
@@ -33,17 +46,24 @@ public class RedisConfig {
                 config.setUsername(userInfo[0]);
             }
         }
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new ConcurrencyLimitingLettuceConnectionFactory(config, redisPermits, acquireTimeout);
+        }
         return new LettuceConnectionFactory(config);
     }
 
+    /**
+     * Values share the cache serializer: compact binary for the cached DTOs, JSON for everything else.
+     */
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       RedisSerializer<Object> cacheValueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(cacheValueSerializer);
         template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setHashValueSerializer(cacheValueSerializer);
         template.setEnableTransactionSupport(true);
         return template;
     }
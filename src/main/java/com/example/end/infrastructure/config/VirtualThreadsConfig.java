@@ -0,0 +1,52 @@
+package com.example.end.infrastructure.config;
+
+import com.example.end.infrastructure.concurrency.ConcurrencyLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Режим виртуальных потоков: включается {@code spring.threads.virtual.enabled=true} и работает только на JDK 21
+ * (сборка с профилем {@code jdk21}). Tomcat, {@code @Async} ({@link AsyncConfig}) и {@code @Scheduled}
+ * выполняются на виртуальных потоках, число которых ничем не ограничено, поэтому соединения с базой
+ * и Redis выдаются по разрешениям семафора ({@code virtual-threads.*}): ожидающие запросы ждут разрешения,
+ * а не переполняют пулы Hikari и Lettuce.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    /**
+     * Оборачивает источник данных; без явного {@code virtual-threads.jdbc-permits} разрешений столько же,
+     * сколько соединений в пуле Hikari.
+     */
+    @Bean
+    static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment) {
+        int configuredPermits = environment.getProperty("virtual-threads.jdbc-permits", Integer.class, 0);
+        Duration acquireTimeout = environment.getProperty("virtual-threads.acquire-timeout", Duration.class,
+                Duration.ofSeconds(20));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                int permits = configuredPermits;
+                if (permits <= 0 && dataSource instanceof HikariDataSource hikari) {
+                    permits = hikari.getMaximumPoolSize();
+                }
+                if (permits <= 0) {
+                    throw new IllegalStateException("Set virtual-threads.jdbc-permits for data source " + beanName);
+                }
+                return new ConcurrencyLimitingDataSource(dataSource, permits, acquireTimeout);
+            }
+        };
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.end.infrastructure.mail;
+
+import com.example.end.models.OutgoingMail;
+import com.example.end.repository.MailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers the mail outbox.
+ * <p>
+ * Due messages are claimed in batches: a short transaction locks them, skipping those another node has
+ * locked, and moves their next attempt one lease ahead. They are then sent outside any transaction, all in
+ * one call so that a pooled sender delivers them over a single SMTP session, and the results are written
+ * back in one more transaction: sent messages are deleted, failed ones are retried with an exponentially
+ * growing delay and dead-lettered after {@code max-attempts}. A node that dies while sending leaves its
+ * batch to be claimed again once the lease has expired, so a message is sent at least once, and in rare
+ * cases twice.
+ * </p>
+ */
+@Slf4j
+@Component
+public class MailDispatcher {
+
+    private final MailOutboxRepository outboxRepository;
+    private final JavaMailSender javaMailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final String senderEmail;
+    private final int batchSize;
+    private final int maxBatches;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    public MailDispatcher(MailOutboxRepository outboxRepository,
+                          JavaMailSender javaMailSender,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${SPRING_MAIL_USERNAME}") String senderEmail,
+                          @Value("${mail.outbox.batch-size:20}") int batchSize,
+                          @Value("${mail.outbox.max-batches-per-run:10}") int maxBatches,
+                          @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                          @Value("${mail.outbox.initial-backoff:30s}") Duration initialBackoff,
+                          @Value("${mail.outbox.max-backoff:1h}") Duration maxBackoff,
+                          @Value("${mail.outbox.lease:5m}") Duration lease) {
+        if (batchSize <= 0 || maxBatches <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("Batch size, max batches and max attempts must be positive");
+        }
+        this.outboxRepository = outboxRepository;
+        this.javaMailSender = javaMailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.senderEmail = senderEmail;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+    }
+
+    /**
+     * Sends the messages that are due, batch by batch, at most {@code max-batches-per-run} batches, so that
+     * a backlog is worked off over several runs instead of holding up the scheduler.
+     *
+     * @return number of messages the SMTP server accepted
+     */
+    public int dispatch() {
+        int sent = 0;
+        for (int batches = 0; batches < maxBatches; batches++) {
+            List<OutgoingMail> batch = claimBatch();
+            if (batch.isEmpty()) {
+                return sent;
+            }
+            sent += deliver(batch);
+            if (batch.size() < batchSize) {
+                return sent;
+            }
+        }
+        return sent;
+    }
+
+    List<OutgoingMail> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutgoingMail> due = outboxRepository.findDueForUpdate(now, PageRequest.ofSize(batchSize));
+            due.forEach(mail -> mail.setNextAttemptAt(now.plus(lease)));
+            return due;
+        });
+    }
+
+    private int deliver(List<OutgoingMail> batch) {
+        Map<OutgoingMail, Exception> failed = new LinkedHashMap<>();
+        Map<MimeMessage, OutgoingMail> messages = new LinkedHashMap<>();
+        for (OutgoingMail mail : batch) {
+            try {
+                messages.put(toMimeMessage(mail), mail);
+            } catch (MailException e) {
+                failed.put(mail, e);
+            }
+        }
+        if (!messages.isEmpty()) {
+            // one call, so the whole batch goes over one SMTP session
+            try {
+                javaMailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(mail -> failed.put(mail, e));
+                } else {
+                    e.getFailedMessages().forEach((message, cause) -> failed.put(messages.get(message), cause));
+                }
+            } catch (MailException e) {
+                messages.values().forEach(mail -> failed.put(mail, e));
+            }
+        }
+        List<Long> sent = messages.values().stream()
+                .filter(mail -> !failed.containsKey(mail))
+                .map(OutgoingMail::getId)
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxRepository.deleteAllByIdInBatch(sent);
+            LocalDateTime now = LocalDateTime.now();
+            failed.forEach((mail, e) -> recordFailure(mail, e, now));
+        });
+        return sent.size();
+    }
+
+    private void recordFailure(OutgoingMail mail, Exception e, LocalDateTime now) {
+        int attempts = mail.getAttempts() + 1;
+        // a message that cannot be built fails the same way every time
+        boolean permanent = e instanceof MailParseException || e instanceof MailPreparationException;
+        String error = truncate(e.getMessage());
+        if (permanent || attempts >= maxAttempts) {
+            log.warn("Mail {} to {} dead after {} attempts: {}", mail.getId(), mail.getRecipient(), attempts, error);
+            outboxRepository.recordFailure(mail.getId(), OutgoingMail.Status.DEAD, attempts, now, error);
+        } else {
+            log.info("Mail {} to {} failed (attempt {}), retrying: {}", mail.getId(), mail.getRecipient(), attempts, error);
+            outboxRepository.recordFailure(mail.getId(), OutgoingMail.Status.PENDING, attempts, now.plus(backoff(attempts)), error);
+        }
+    }
+
+    /**
+     * @return the delay after the given number of failed attempts: the initial backoff, doubled with every
+     * further attempt up to the maximum
+     */
+    Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private MimeMessage toMimeMessage(OutgoingMail mail) {
+        MimeMessage message = javaMailSender.createMimeMessage();
+        try {
+            // multipart/alternative when the message has a plain-text body besides the HTML one
+            MimeMessageHelper helper = new MimeMessageHelper(message, mail.getTextBody() != null, "UTF-8");
+            helper.setFrom(senderEmail);
+            helper.setTo(mail.getRecipient());
+            helper.setSubject(mail.getSubject());
+            if (mail.getTextBody() != null) {
+                helper.setText(mail.getTextBody(), mail.getBody());
+            } else {
+                helper.setText(mail.getBody(), true);
+            }
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Error creating message", e);
+        }
+        return message;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= OutgoingMail.MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, OutgoingMail.MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.end.infrastructure.mail;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One mail template, compiled into a render plan: the literal text between the placeholders and, for every
+ * placeholder, the name of its value and an optional default. Rendering appends the literals and values to a
+ * buffer in turn, without parsing anything again.
+ * <p>
+ * A placeholder is written {@code {{name}}}, or {@code {{name|default}}} when the value may be missing. Values of
+ * HTML templates are escaped.
+ * </p>
+ */
+public final class MailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    @Getter
+    private final String name;
+    private final boolean html;
+    // literals[i] precedes placeholder i; the last literal follows the last placeholder
+    private final String[] literals;
+    private final String[] valueNames;
+    private final String[] defaults;
+
+    private MailTemplate(String name, boolean html, String[] literals, String[] valueNames, String[] defaults) {
+        this.name = name;
+        this.html = html;
+        this.literals = literals;
+        this.valueNames = valueNames;
+        this.defaults = defaults;
+    }
+
+    /**
+     * @param name - The name used in error messages.
+     * @param source - The template text.
+     * @param html - Whether values have to be escaped for HTML.
+     * @throws IllegalArgumentException if a placeholder is not closed or has no name
+     */
+    public static MailTemplate compile(String name, String source, boolean html) {
+        List<String> literals = new ArrayList<>();
+        List<String> valueNames = new ArrayList<>();
+        List<String> defaults = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in mail template " + name + " at " + open);
+            }
+            literals.add(source.substring(position, open));
+            String placeholder = source.substring(open + OPEN.length(), close);
+            int separator = placeholder.indexOf('|');
+            String valueName = (separator < 0 ? placeholder : placeholder.substring(0, separator)).trim();
+            if (valueName.isEmpty()) {
+                throw new IllegalArgumentException("Placeholder without a name in mail template " + name + " at " + open);
+            }
+            valueNames.add(valueName);
+            defaults.add(separator < 0 ? null : placeholder.substring(separator + 1));
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+        return new MailTemplate(name, html, literals.toArray(String[]::new), valueNames.toArray(String[]::new),
+                defaults.toArray(String[]::new));
+    }
+
+    /**
+     * Appends the template to the buffer, with its placeholders replaced by the values of the model.
+     *
+     * @throws IllegalArgumentException if the model has no value for a placeholder without a default
+     */
+    public void renderTo(StringBuilder out, Map<String, ?> model) {
+        for (int i = 0; i < valueNames.length; i++) {
+            out.append(literals[i]);
+            Object value = model.get(valueNames[i]);
+            if (value == null) {
+                if (defaults[i] == null) {
+                    throw new IllegalArgumentException("Mail template " + name + " needs a value for " + valueNames[i]);
+                }
+                // defaults are part of the template, so they are never escaped
+                out.append(defaults[i]);
+            } else if (html) {
+                appendEscaped(out, value instanceof CharSequence text ? text : value.toString());
+            } else {
+                out.append(value instanceof CharSequence text ? text : value.toString());
+            }
+        }
+        out.append(literals[valueNames.length]);
+    }
+
+    private static void appendEscaped(StringBuilder out, CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
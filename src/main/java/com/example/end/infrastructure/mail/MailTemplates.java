@@ -0,0 +1,137 @@
+package com.example.end.infrastructure.mail;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The mail templates, compiled once at startup.
+ * <p>
+ * Every notification type is a directory below {@code mail.templates.location} with one subdirectory per locale,
+ * holding {@code subject.txt}, {@code body.html} and {@code body.txt}:
+ * {@code mail/templates/registration/de/subject.txt}. A new notification type therefore needs only its files.
+ * A locale falls back to its language and then to {@code mail.templates.default-locale}, which every type has to
+ * provide. A template that does not compile fails the startup rather than the first mail of its type.
+ * </p>
+ * <p>
+ * Rendering writes into a buffer kept per thread, so apart from the resulting strings it allocates nothing.
+ * </p>
+ */
+@Slf4j
+@Component
+public class MailTemplates {
+
+    private static final String SUBJECT = "subject.txt";
+    private static final String HTML_BODY = "body.html";
+    private static final String TEXT_BODY = "body.txt";
+    private static final int INITIAL_BUFFER_CAPACITY = 2048;
+    // a buffer grown by an unusually long mail is not kept for the thread
+    private static final int MAX_RETAINED_BUFFER_CAPACITY = 64 * 1024;
+
+    private final Map<String, Map<Locale, Variant>> templates;
+    @Getter
+    private final Locale defaultLocale;
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+
+    private record Variant(MailTemplate subject, MailTemplate htmlBody, MailTemplate textBody) {
+    }
+
+    public MailTemplates(@Value("${mail.templates.location:classpath*:mail/templates/}") String location,
+                         @Value("${mail.templates.default-locale:de}") Locale defaultLocale) {
+        this.defaultLocale = defaultLocale;
+        this.templates = load(location, defaultLocale);
+        log.info("Compiled {} mail templates from {}", templates.size(), location);
+    }
+
+    /**
+     * Renders a notification in the given locale, falling back to its language and then to the default locale.
+     *
+     * @param type - The notification type, the name of its template directory.
+     * @param locale - The locale of the recipient.
+     * @param model - The values of the placeholders.
+     * @throws IllegalArgumentException if there is no such type or a value is missing
+     */
+    public RenderedMail render(String type, Locale locale, Map<String, ?> model) {
+        Map<Locale, Variant> variants = templates.get(type);
+        if (variants == null) {
+            throw new IllegalArgumentException("Unknown mail template: " + type);
+        }
+        Variant variant = variants.get(locale);
+        if (variant == null) {
+            variant = variants.get(new Locale(locale.getLanguage()));
+        }
+        if (variant == null) {
+            variant = variants.get(defaultLocale);
+        }
+        return new RenderedMail(render(variant.subject(), model), render(variant.htmlBody(), model),
+                render(variant.textBody(), model));
+    }
+
+    private String render(MailTemplate template, Map<String, ?> model) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.renderTo(buffer, model);
+        String rendered = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_CAPACITY) {
+            buffers.remove();
+        }
+        return rendered;
+    }
+
+    private static Map<String, Map<Locale, Variant>> load(String location, Locale defaultLocale) {
+        Map<String, Map<Locale, Map<String, MailTemplate>>> parts = new HashMap<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(location + "*/*/*")) {
+                // .../<type>/<locale>/<file>
+                String[] path = resource.getURI().toString().split("/");
+                String type = path[path.length - 3];
+                Locale locale = Locale.forLanguageTag(path[path.length - 2]);
+                String file = path[path.length - 1];
+                if (!file.equals(SUBJECT) && !file.equals(HTML_BODY) && !file.equals(TEXT_BODY)) {
+                    throw new IllegalStateException("Unexpected mail template file: " + resource);
+                }
+                String name = type + "/" + path[path.length - 2] + "/" + file;
+                String source = resource.getContentAsString(StandardCharsets.UTF_8);
+                // a trailing line break of the file is not part of the subject
+                MailTemplate template = MailTemplate.compile(name, file.equals(SUBJECT) ? source.strip() : source,
+                        file.equals(HTML_BODY));
+                parts.computeIfAbsent(type, t -> new HashMap<>()).computeIfAbsent(locale, l -> new HashMap<>())
+                        .put(file, template);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the mail templates from " + location, e);
+        }
+
+        Map<String, Map<Locale, Variant>> templates = new HashMap<>();
+        parts.forEach((type, locales) -> {
+            if (!locales.containsKey(defaultLocale)) {
+                throw new IllegalStateException("Mail template " + type + " has no variant for " + defaultLocale);
+            }
+            Map<Locale, Variant> variants = new HashMap<>();
+            locales.forEach((locale, files) -> variants.put(locale, new Variant(
+                    required(files, type, locale, SUBJECT),
+                    required(files, type, locale, HTML_BODY),
+                    required(files, type, locale, TEXT_BODY))));
+            templates.put(type, Map.copyOf(variants));
+        });
+        return Map.copyOf(templates);
+    }
+
+    private static MailTemplate required(Map<String, MailTemplate> files, String type, Locale locale, String file) {
+        MailTemplate template = files.get(file);
+        if (template == null) {
+            throw new IllegalStateException("Mail template " + type + "/" + locale.toLanguageTag() + " has no " + file);
+        }
+        return template;
+    }
+}
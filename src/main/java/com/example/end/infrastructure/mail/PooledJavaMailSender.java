@@ -0,0 +1,201 @@
+package com.example.end.infrastructure.mail;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link JavaMailSenderImpl} that keeps its SMTP connections open between sends.
+ * <p>
+ * {@code JavaMailSenderImpl} connects, says EHLO, upgrades to TLS and authenticates for every {@code send} call
+ * and closes the connection afterwards. This sender borrows an authenticated connection from a small pool
+ * instead and sends all messages of one call over it, so a batch costs one round trip per message. A connection
+ * is checked with a NOOP when it is borrowed, closed once it has been idle for {@code idleTimeout} (servers drop
+ * idle clients after a few minutes anyway) or has been open for {@code maxLifetime}, and discarded as soon as a
+ * send leaves it disconnected; the remaining messages of the call then go over a fresh one.
+ * </p>
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final Duration MIN_EVICTION_PERIOD = Duration.ofSeconds(1);
+
+    private final GenericObjectPool<Transport> pool;
+    private final Duration maxLifetime;
+
+    public PooledJavaMailSender(int maxConnections, Duration idleTimeout, Duration maxLifetime, Duration maxWait) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("Max connections must be positive");
+        }
+        GenericObjectPoolConfig<Transport> config = new GenericObjectPoolConfig<>();
+        config.setMaxTotal(maxConnections);
+        config.setMaxIdle(maxConnections);
+        config.setMinIdle(0);
+        config.setMaxWait(maxWait);
+        config.setTestOnBorrow(true);
+        config.setMinEvictableIdleDuration(idleTimeout);
+        Duration evictionPeriod = idleTimeout.dividedBy(2);
+        config.setTimeBetweenEvictionRuns(evictionPeriod.compareTo(MIN_EVICTION_PERIOD) < 0 ? MIN_EVICTION_PERIOD : evictionPeriod);
+        config.setJmxEnabled(false);
+        this.pool = new GenericObjectPool<>(new TransportFactory(), config);
+        this.maxLifetime = maxLifetime;
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        Transport transport = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                if (transport == null) {
+                    try {
+                        transport = borrowTransport();
+                    } catch (MailSendException e) {
+                        // effectively, all remaining messages failed
+                        for (int j = i; j < mimeMessages.length; j++) {
+                            failedMessages.put(original(mimeMessages, originalMessages, j), e);
+                        }
+                        throw new MailSendException(e.getMessage(), e.getCause(), failedMessages);
+                    }
+                }
+
+                MimeMessage mimeMessage = mimeMessages[i];
+                try {
+                    prepare(mimeMessage);
+                    Address[] addresses = mimeMessage.getAllRecipients();
+                    transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+                } catch (Exception e) {
+                    failedMessages.put(original(mimeMessages, originalMessages, i), e);
+                    // a rejected recipient leaves the session usable, a dropped connection does not
+                    if (e instanceof MessagingException && !transport.isConnected()) {
+                        invalidate(transport);
+                        transport = null;
+                    }
+                }
+            }
+        } finally {
+            if (transport != null) {
+                pool.returnObject(transport);
+            }
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    private Transport borrowTransport() {
+        try {
+            return pool.borrowObject();
+        } catch (AuthenticationFailedException e) {
+            throw new MailAuthenticationException(e);
+        } catch (NoSuchElementException e) {
+            // all connections busy for maxWait, or a new one failed validation
+            throw new MailSendException("No SMTP connection available", e);
+        } catch (Exception e) {
+            throw new MailSendException("Mail server connection failed", e);
+        }
+    }
+
+    private void invalidate(Transport transport) {
+        try {
+            pool.invalidateObject(transport);
+        } catch (Exception e) {
+            log.debug("Failed to close SMTP connection", e);
+        }
+    }
+
+    private static void prepare(MimeMessage mimeMessage) throws MessagingException {
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            // preserve an explicitly specified message id
+            mimeMessage.setHeader("Message-ID", messageId);
+        }
+    }
+
+    private static Object original(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages, int i) {
+        return originalMessages != null ? originalMessages[i] : mimeMessages[i];
+    }
+
+    /**
+     * @return number of connections opened since start, including those closed again
+     */
+    public long getCreatedConnections() {
+        return pool.getCreatedCount();
+    }
+
+    /**
+     * @return number of open connections not in use
+     */
+    public int getIdleConnections() {
+        return pool.getNumIdle();
+    }
+
+    /**
+     * Closes the connections that have been idle for longer than the idle timeout. Runs periodically on its own.
+     */
+    void evictIdleConnections() throws Exception {
+        pool.evict();
+    }
+
+    @Override
+    public void destroy() {
+        pool.close();
+    }
+
+    private class TransportFactory extends BasePooledObjectFactory<Transport> {
+
+        @Override
+        public Transport create() throws MessagingException {
+            return connectTransport();
+        }
+
+        @Override
+        public PooledObject<Transport> wrap(Transport transport) {
+            return new DefaultPooledObject<>(transport);
+        }
+
+        @Override
+        public boolean validateObject(PooledObject<Transport> pooled) {
+            if (pooled.getCreateInstant().plus(maxLifetime).isBefore(Instant.now())) {
+                return false;
+            }
+            // SMTPTransport sends a NOOP to find out
+            return pooled.getObject().isConnected();
+        }
+
+        @Override
+        public void destroyObject(PooledObject<Transport> pooled) {
+            try {
+                pooled.getObject().close();
+            } catch (MessagingException e) {
+                log.debug("Failed to close SMTP connection", e);
+            }
+        }
+    }
+}
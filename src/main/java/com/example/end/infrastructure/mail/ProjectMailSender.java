@@ -1,51 +1,65 @@
 package com.example.end.infrastructure.mail;
 
+import com.example.end.models.OutgoingMail;
+import com.example.end.repository.MailOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Composes the outgoing mail from {@link MailTemplates} and puts it into the mail outbox, which
+ * {@link MailDispatcher} delivers.
+ * Nothing here talks to the SMTP server, so callers never wait for it.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ProjectMailSender {
 
-    private final JavaMailSender javaMailSender;
-
-    @Value("${SPRING_MAIL_USERNAME}")
-    private String senderEmail;
+    private final MailOutboxRepository outboxRepository;
+    private final MailTemplates mailTemplates;
 
     /**
      * Sends an email to the specified recipient.
      * <p>
-     * This method is used to send any kind of email message with the provided recipient email, subject, and content.
+     * The email is written to the mail outbox in the caller's transaction, so it is sent only if that
+     * transaction commits, and it survives a restart until it has been delivered.
      * </p>
      *
      * @param email - The email address of the recipient.
      * @param subject - The subject of the email.
      * @param text - The body content of the email.
      */
-    @Async("taskExecutor")
     public void sendEmail(String email, String subject, String text) {
-        MimeMessage message = javaMailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        outboxRepository.save(OutgoingMail.pending(email, subject, text));
+    }
 
-        try {
-            helper.setFrom(senderEmail);
-            helper.setTo(email);
-            helper.setSubject(subject);
-            helper.setText(text, true);
-        } catch (MessagingException e) {
-            throw new IllegalStateException("Error creating message", e);
-        }
+    /**
+     * Renders a notification from its template in the default locale and sends it.
+     *
+     * @param email - The email address of the recipient.
+     * @param template - The notification type, see {@link MailTemplates}.
+     * @param model - The values of the template's placeholders.
+     */
+    public void send(String email, String template, Map<String, ?> model) {
+        send(email, template, mailTemplates.getDefaultLocale(), model);
+    }
 
-        javaMailSender.send(message);
+    /**
+     * Renders a notification from its template and sends it with an HTML and a plain-text alternative.
+     *
+     * @param email - The email address of the recipient.
+     * @param template - The notification type, see {@link MailTemplates}.
+     * @param locale - The locale of the recipient, {@code null} for the default locale.
+     * @param model - The values of the template's placeholders.
+     */
+    public void send(String email, String template, Locale locale, Map<String, ?> model) {
+        RenderedMail mail = mailTemplates.render(template, locale != null ? locale : mailTemplates.getDefaultLocale(),
+                model);
+        outboxRepository.save(OutgoingMail.pending(email, mail.subject(), mail.htmlBody(), mail.textBody()));
     }
 
     /**
@@ -58,14 +72,8 @@ public class ProjectMailSender {
      * @param adminEmail - The email address of the administrator.
      * @param masterName - The name of the master who needs confirmation.
      */
-    @Async("taskExecutor")
     public void sendMasterConfirmationRequest(String adminEmail, String masterName) {
-        String subject = "Anfrage zur Bestätigung eines neuen Meisters";
-        String text = String.format("Sehr geehrter Administrator,\n\n" +
-                "Der Benutzer %s hat sich als Meister registriert und wartet auf Ihre Bestätigung.\n" +
-                "Bitte bestätigen Sie dies im System.\n\n" +
-                "Mit freundlichen Grüßen,\nIhr Verwaltungssystem.", masterName);
-        sendEmail(adminEmail, subject, text);
+        send(adminEmail, "master-confirmation-request", Map.of("masterName", masterName));
     }
 
     /**
@@ -77,12 +85,11 @@ public class ProjectMailSender {
      *
      * @param adminEmail - The email address of the administrator.
      * @param masterEmail - The email address of the master.
+     * @param masterLocale - The locale of the master, {@code null} for the default locale.
      * @param masterName - The name of the master.
      */
-    public void sendConfirmationEmails(String adminEmail, String masterEmail, String masterName) {
-        String subject = "Bestätigung der Registrierung des Meisters";
-        String messageToMaster = "Ihre Registrierung als Meister wurde erfolgreich erfasst und wartet auf die Bestätigung des Administrators.";
-        sendEmail(masterEmail, subject, messageToMaster);
+    public void sendConfirmationEmails(String adminEmail, String masterEmail, Locale masterLocale, String masterName) {
+        send(masterEmail, "master-registration-pending", masterLocale, Map.of());
         sendMasterConfirmationRequest(adminEmail, masterName);
     }
 
@@ -93,10 +100,9 @@ public class ProjectMailSender {
      * </p>
      *
      * @param email - The email address of the user.
+     * @param locale - The locale of the user, {@code null} for the default locale.
      */
-    public void sendRegistrationEmail(String email) {
-        String subject = "Herzlichen Glückwunsch zur erfolgreichen Registrierung!";
-        String message = "Vielen Dank für Ihre Registrierung auf unserer Plattform!";
-        sendEmail(email, subject, message);
+    public void sendRegistrationEmail(String email, Locale locale) {
+        send(email, "registration", locale, Map.of());
     }
 }
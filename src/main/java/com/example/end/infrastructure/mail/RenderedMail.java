@@ -0,0 +1,7 @@
+package com.example.end.infrastructure.mail;
+
+/**
+ * A notification rendered by {@link MailTemplates}: its subject and the HTML and plain-text alternatives of its body.
+ */
+public record RenderedMail(String subject, String htmlBody, String textBody) {
+}
@@ -0,0 +1,52 @@
+package com.example.end.infrastructure.security.config;
+
+import com.example.end.infrastructure.security.sec_servivce.InMemoryRefreshTokenStore;
+import com.example.end.infrastructure.security.sec_servivce.RedisRefreshTokenStore;
+import com.example.end.infrastructure.security.sec_servivce.RefreshTokenStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Selects where refresh tokens are kept: {@code auth.refresh-tokens.store=redis} (default) shares them
+ * between all nodes, {@code memory} keeps them on the local node.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class RefreshTokenStoreConfig {
+
+    private final ObjectProvider<RefreshTokenStore> refreshTokenStore;
+
+    @Value("${auth.refresh-tokens.max-per-user:5}")
+    private int maxTokensPerUser;
+
+    @Bean
+    @ConditionalOnProperty(name = "auth.refresh-tokens.store", havingValue = "redis", matchIfMissing = true)
+    public RefreshTokenStore redisRefreshTokenStore(StringRedisTemplate stringRedisTemplate) {
+        return new RedisRefreshTokenStore(stringRedisTemplate, maxTokensPerUser);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "auth.refresh-tokens.store", havingValue = "memory")
+    public RefreshTokenStore inMemoryRefreshTokenStore() {
+        return new InMemoryRefreshTokenStore(maxTokensPerUser);
+    }
+
+    /**
+     * Удаление истёкших refresh-токенов каждые 10 минут
+     */
+    @Scheduled(fixedRateString = "${auth.refresh-tokens.sweep-interval:600000}")
+    public void removeExpiredRefreshTokens() {
+        int removed = refreshTokenStore.getObject().removeExpired();
+        if (removed > 0) {
+            log.debug("Removed {} expired refresh tokens", removed);
+        }
+    }
+}
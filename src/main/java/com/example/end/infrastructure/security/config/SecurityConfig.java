@@ -9,6 +9,7 @@ import io.swagger.v3.oas.models.info.License;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
 import io.swagger.v3.oas.models.servers.Server;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -39,8 +40,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public BCryptPasswordEncoder encoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder encoder(@Value("${security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -66,11 +67,16 @@ public class SecurityConfig {
                                 "/api/users/register").permitAll()
                         .requestMatchers(HttpMethod.GET,
                                 "/api/users/masters",
+                                "/api/users/masters/top",
                                 "/api/users/{id}",
                                 "/api/users/by-category/{categoryId}",
                                 "/api/procedures/**",
                                 "/api/categories/**",
-                                "/api/reviews/**").permitAll()
+                                "/api/reviews/**",
+                                "/api/availability/**").permitAll()
+                        // Actuator: health is public, metrics are for admins only
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated())
                 .addFilterBefore(filter, UsernamePasswordAuthenticationFilter.class)
                 .build();
@@ -31,9 +31,9 @@ public class TokenFilter extends GenericFilterBean {
         
         if (token != null) {
             log.debug("Found token in request");
-            if (service.validateAccessToken(token)) {
+            Claims claims = service.verifyAccessToken(token);
+            if (claims != null) {
                 log.debug("Token is valid");
-                Claims claims = service.getAccessClaims(token);
                 AuthInfo authInfo = service.generateAuthInfo(claims);
                 authInfo.setAuthenticated(true);
                 SecurityContextHolder.getContext().setAuthentication(authInfo);
@@ -0,0 +1,126 @@
+package com.example.end.infrastructure.security.sec_servivce;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * {@link RefreshTokenStore} kept in the heap of a single node. Suitable for a single instance and for tests;
+ * behind a load balancer use {@link RedisRefreshTokenStore}.
+ * <p>
+ * Tokens are indexed by digest and by user. Expiry times are also kept in a queue ordered by expiry, so
+ * {@link #removeExpired()} only looks at tokens that actually expired. Expired tokens are rejected even
+ * before they are swept.
+ * </p>
+ */
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private record StoredToken(String digest, String email, Instant expiresAt) {
+    }
+
+    private final Map<String, StoredToken> tokens = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+    // revoked and rotated tokens stay queued until they would have expired, the sweep skips them
+    private final PriorityBlockingQueue<StoredToken> expiryQueue =
+            new PriorityBlockingQueue<>(64, Comparator.comparing(StoredToken::expiresAt));
+    private final int maxTokensPerUser;
+    private final Clock clock;
+
+    public InMemoryRefreshTokenStore(int maxTokensPerUser) {
+        this(maxTokensPerUser, Clock.systemUTC());
+    }
+
+    InMemoryRefreshTokenStore(int maxTokensPerUser, Clock clock) {
+        this.maxTokensPerUser = maxTokensPerUser;
+        this.clock = clock;
+    }
+
+    @Override
+    public void save(String email, String refreshToken, Instant expiresAt) {
+        add(new StoredToken(TokenDigests.sha256Hex(refreshToken), email, expiresAt));
+    }
+
+    @Override
+    public boolean rotate(String email, String currentToken, String newToken, Instant expiresAt) {
+        StoredToken current = tokens.get(TokenDigests.sha256Hex(currentToken));
+        if (current == null || !isActive(current, email) || !tokens.remove(current.digest(), current)) {
+            return false;
+        }
+        unindex(current);
+        add(new StoredToken(TokenDigests.sha256Hex(newToken), email, expiresAt));
+        return true;
+    }
+
+    @Override
+    public boolean isActive(String email, String refreshToken) {
+        StoredToken stored = tokens.get(TokenDigests.sha256Hex(refreshToken));
+        return stored != null && isActive(stored, email);
+    }
+
+    @Override
+    public void revokeAll(String email) {
+        Set<String> digests = tokensByUser.remove(email);
+        if (digests != null) {
+            digests.forEach(tokens::remove);
+        }
+    }
+
+    @Override
+    public synchronized int removeExpired() {
+        Instant now = clock.instant();
+        int removed = 0;
+        StoredToken head;
+        while ((head = expiryQueue.peek()) != null && !head.expiresAt().isAfter(now)) {
+            expiryQueue.poll();
+            if (tokens.remove(head.digest(), head)) {
+                unindex(head);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    int size() {
+        return tokens.size();
+    }
+
+    private boolean isActive(StoredToken stored, String email) {
+        return stored.email().equals(email) && stored.expiresAt().isAfter(clock.instant());
+    }
+
+    private void add(StoredToken token) {
+        tokens.put(token.digest(), token);
+        expiryQueue.add(token);
+        Set<String> digests = tokensByUser.compute(token.email(), (email, existing) -> {
+            Set<String> set = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            set.add(token.digest());
+            return set;
+        });
+        if (digests.size() > maxTokensPerUser) {
+            revokeEarliestExpiring(token.email(), digests);
+        }
+    }
+
+    private void revokeEarliestExpiring(String email, Set<String> digests) {
+        digests.stream()
+                .map(tokens::get)
+                .filter(stored -> stored != null && stored.email().equals(email))
+                .min(Comparator.comparing(StoredToken::expiresAt))
+                .ifPresent(oldest -> {
+                    if (tokens.remove(oldest.digest(), oldest)) {
+                        unindex(oldest);
+                    }
+                });
+    }
+
+    private void unindex(StoredToken token) {
+        tokensByUser.computeIfPresent(token.email(), (email, digests) -> {
+            digests.remove(token.digest());
+            return digests.isEmpty() ? null : digests;
+        });
+    }
+}
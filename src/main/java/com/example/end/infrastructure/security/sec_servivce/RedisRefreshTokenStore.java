@@ -0,0 +1,117 @@
+package com.example.end.infrastructure.security.sec_servivce;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * {@link RefreshTokenStore} shared by all nodes through Redis.
+ * <p>
+ * Every token is a key {@code refresh-token:<digest>} holding the user's email, with a TTL that ends at the
+ * token's expiry, so Redis drops expired tokens by itself. The tokens of a user are also listed in the sorted
+ * set {@code refresh-tokens:<email>} scored by expiry, which every write trims of expired members.
+ * {@link #removeExpired()} therefore has nothing left to do. Writes run as Lua scripts, which makes
+ * rotation atomic across nodes.
+ * </p>
+ */
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    private static final String TOKEN_PREFIX = "refresh-token:";
+    private static final String USER_PREFIX = "refresh-tokens:";
+
+    // KEYS: token, user set; ARGV: email, digest, expiry millis, now millis, max tokens, token prefix
+    private static final RedisScript<Long> SAVE = new DefaultRedisScript<>("""
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', tonumber(ARGV[3]) - tonumber(ARGV[4]))
+            redis.call('ZADD', KEYS[2], ARGV[3], ARGV[2])
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[4])
+            local excess = redis.call('ZCARD', KEYS[2]) - tonumber(ARGV[5])
+            if excess > 0 then
+                local oldest = redis.call('ZRANGE', KEYS[2], 0, excess - 1)
+                for _, digest in ipairs(oldest) do
+                    redis.call('DEL', ARGV[6] .. digest)
+                end
+                redis.call('ZREMRANGEBYRANK', KEYS[2], 0, excess - 1)
+            end
+            redis.call('PEXPIREAT', KEYS[2], redis.call('ZRANGE', KEYS[2], -1, -1, 'WITHSCORES')[2])
+            return 1
+            """, Long.class);
+
+    // KEYS: current token, new token, user set; ARGV: email, current digest, new digest, expiry millis, now millis
+    private static final RedisScript<Long> ROTATE = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+                return 0
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('ZREM', KEYS[3], ARGV[2])
+            redis.call('SET', KEYS[2], ARGV[1], 'PX', tonumber(ARGV[4]) - tonumber(ARGV[5]))
+            redis.call('ZADD', KEYS[3], ARGV[4], ARGV[3])
+            redis.call('ZREMRANGEBYSCORE', KEYS[3], '-inf', ARGV[5])
+            redis.call('PEXPIREAT', KEYS[3], redis.call('ZRANGE', KEYS[3], -1, -1, 'WITHSCORES')[2])
+            return 1
+            """, Long.class);
+
+    // KEYS: user set; ARGV: token prefix
+    private static final RedisScript<Long> REVOKE_ALL = new DefaultRedisScript<>("""
+            local digests = redis.call('ZRANGE', KEYS[1], 0, -1)
+            for _, digest in ipairs(digests) do
+                redis.call('DEL', ARGV[1] .. digest)
+            end
+            redis.call('DEL', KEYS[1])
+            return #digests
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final int maxTokensPerUser;
+    private final Clock clock;
+
+    public RedisRefreshTokenStore(StringRedisTemplate redisTemplate, int maxTokensPerUser) {
+        this.redisTemplate = redisTemplate;
+        this.maxTokensPerUser = maxTokensPerUser;
+        this.clock = Clock.systemUTC();
+    }
+
+    @Override
+    public void save(String email, String refreshToken, Instant expiresAt) {
+        long now = clock.millis();
+        if (!expiresAt.isAfter(Instant.ofEpochMilli(now))) {
+            return;
+        }
+        String digest = TokenDigests.sha256Hex(refreshToken);
+        redisTemplate.execute(SAVE, List.of(TOKEN_PREFIX + digest, USER_PREFIX + email),
+                email, digest, String.valueOf(expiresAt.toEpochMilli()), String.valueOf(now),
+                String.valueOf(maxTokensPerUser), TOKEN_PREFIX);
+    }
+
+    @Override
+    public boolean rotate(String email, String currentToken, String newToken, Instant expiresAt) {
+        long now = clock.millis();
+        if (!expiresAt.isAfter(Instant.ofEpochMilli(now))) {
+            return false;
+        }
+        String currentDigest = TokenDigests.sha256Hex(currentToken);
+        String newDigest = TokenDigests.sha256Hex(newToken);
+        Long rotated = redisTemplate.execute(ROTATE,
+                List.of(TOKEN_PREFIX + currentDigest, TOKEN_PREFIX + newDigest, USER_PREFIX + email),
+                email, currentDigest, newDigest, String.valueOf(expiresAt.toEpochMilli()), String.valueOf(now));
+        return rotated != null && rotated == 1;
+    }
+
+    @Override
+    public boolean isActive(String email, String refreshToken) {
+        return email.equals(redisTemplate.opsForValue().get(TOKEN_PREFIX + TokenDigests.sha256Hex(refreshToken)));
+    }
+
+    @Override
+    public void revokeAll(String email) {
+        redisTemplate.execute(REVOKE_ALL, List.of(USER_PREFIX + email), TOKEN_PREFIX);
+    }
+
+    @Override
+    public int removeExpired() {
+        return 0;
+    }
+}
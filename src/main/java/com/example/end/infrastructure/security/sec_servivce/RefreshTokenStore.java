@@ -0,0 +1,42 @@
+package com.example.end.infrastructure.security.sec_servivce;
+
+import java.time.Instant;
+
+/**
+ * Server-side record of the refresh tokens that may still be exchanged for an access token.
+ * <p>
+ * A valid signature alone is not enough: a refresh token is only accepted while it is stored here.
+ * Implementations keep only a digest of each token, allow several active tokens per user (one per device)
+ * up to a limit, and forget tokens once they expire.
+ * </p>
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Stores a newly issued refresh token. When the user already has the maximum number of active tokens,
+     * the one expiring first is revoked.
+     */
+    void save(String email, String refreshToken, Instant expiresAt);
+
+    /**
+     * Atomically replaces {@code currentToken} with {@code newToken}. Of several concurrent rotations of the
+     * same token exactly one succeeds.
+     *
+     * @return {@code false} if {@code currentToken} is not an active token of the user
+     */
+    boolean rotate(String email, String currentToken, String newToken, Instant expiresAt);
+
+    boolean isActive(String email, String refreshToken);
+
+    /**
+     * Revokes every refresh token of the user.
+     */
+    void revokeAll(String email);
+
+    /**
+     * Drops expired tokens, in time proportional to the number of expired tokens.
+     *
+     * @return number of tokens removed
+     */
+    int removeExpired();
+}
@@ -0,0 +1,27 @@
+package com.example.end.infrastructure.security.sec_servivce;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 digests of tokens, so that caches and stores never hold a usable token.
+ */
+final class TokenDigests {
+
+    private TokenDigests() {
+    }
+
+    static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static String sha256Hex(String token) {
+        return HexFormat.of().formatHex(sha256(token));
+    }
+}
@@ -2,7 +2,12 @@ package com.example.end.infrastructure.security.sec_servivce;
 
 import com.example.end.infrastructure.security.sec_dto.AuthInfo;
 import com.example.end.models.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -10,13 +15,18 @@ import jakarta.annotation.Nonnull;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TokenService {
@@ -24,6 +34,25 @@ public class TokenService {
 
     private SecretKey accessKey;
     private SecretKey refreshKey;
+    // parsers are immutable and thread-safe, so they are built once
+    private JwtParser accessParser;
+    private JwtParser refreshParser;
+
+    /**
+     * Claims of access tokens whose signature was already verified, keyed by the SHA-256 digest of the token.
+     * Each entry expires together with its token; {@code null} when the cache is disabled.
+     */
+    @Nullable
+    private final Cache<ByteBuffer, Claims> verifiedAccessTokens;
+
+    public TokenService(@Value("${jwt.verification-cache.maximum-size:10000}") long verificationCacheSize) {
+        this.verifiedAccessTokens = verificationCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verificationCacheSize)
+                        .expireAfter(new UntilTokenExpiry())
+                        .build()
+                : null;
+    }
 
     @PostConstruct
     public void init() {
@@ -50,6 +79,8 @@ public class TokenService {
         
         this.accessKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(accessKeyBase64));
         this.refreshKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(refreshKeyBase64));
+        this.accessParser = Jwts.parser().verifyWith(accessKey).build();
+        this.refreshParser = Jwts.parser().verifyWith(refreshKey).build();
         
         logger.info("TokenService initialized successfully");
     }
@@ -76,7 +107,9 @@ public class TokenService {
         Instant expirationInstant = currentDate.plusDays(14).atZone(ZoneId.systemDefault()).toInstant();
         Date expirationDate = Date.from(expirationInstant);
 
+        // a unique id keeps tokens issued within the same second apart, which rotation relies on
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(user.getEmail())
                 .expiration(expirationDate)
                 .signWith(refreshKey)
@@ -84,31 +117,62 @@ public class TokenService {
     }
 
     public boolean validateAccessToken(@Nonnull String accessToken) {
-        return validateToken(accessToken, accessKey);
+        return validateToken(accessToken, accessParser);
     }
 
     public boolean validateRefreshToken(@Nonnull String refreshToken) {
-        return validateToken(refreshToken, refreshKey);
+        return validateToken(refreshToken, refreshParser);
     }
 
-    private boolean validateToken(@Nonnull String token, @Nonnull SecretKey key) {
+    private boolean validateToken(@Nonnull String token, @Nonnull JwtParser parser) {
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
+            parser.parseSignedClaims(token);
             return true;
         } catch (Exception e) {
             return false;
         }
     }
 
+    /**
+     * Verifies an access token and returns its claims, parsing it at most once.
+     * Tokens seen before are answered from the verification cache until they expire.
+     *
+     * @param accessToken the access token
+     * @return the claims, or {@code null} if the token is invalid or expired
+     */
+    @Nullable
+    public Claims verifyAccessToken(@Nonnull String accessToken) {
+        if (verifiedAccessTokens == null) {
+            return parseAccessClaims(accessToken);
+        }
+        ByteBuffer digest = ByteBuffer.wrap(TokenDigests.sha256(accessToken));
+        Claims cached = verifiedAccessTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parseAccessClaims(accessToken);
+        // only verified tokens are cached, so garbage tokens cannot push valid ones out
+        if (claims != null && claims.getExpiration() != null) {
+            verifiedAccessTokens.put(digest, claims);
+        }
+        return claims;
+    }
+
+    @Nullable
+    private Claims parseAccessClaims(@Nonnull String accessToken) {
+        try {
+            return accessParser.parseSignedClaims(accessToken).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public Claims getAccessClaims(@Nonnull String accessToken) {
-        return getClaims(accessToken, accessKey);
+        return accessParser.parseSignedClaims(accessToken).getPayload();
     }
 
     public Claims getRefreshClaims(@Nonnull String refreshToken) {
-        return getClaims(refreshToken, refreshKey);
+        return refreshParser.parseSignedClaims(refreshToken).getPayload();
     }
 
     public Claims getClaims(@Nonnull String token, @Nonnull SecretKey key) {
@@ -125,4 +189,26 @@ public class TokenService {
         User.Role role = User.Role.valueOf(roleString);
         return new AuthInfo(username, Set.of(role));
     }
-}
\ No newline at end of file
+
+    /**
+     * Keeps a verified token for as long as it is valid and not a moment longer.
+     */
+    private static final class UntilTokenExpiry implements Expiry<ByteBuffer, Claims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            long millisLeft = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
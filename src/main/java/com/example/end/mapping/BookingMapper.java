@@ -2,6 +2,7 @@ package com.example.end.mapping;
 
 import com.example.end.dto.BookingDto;
 import com.example.end.models.Booking;
+import com.example.end.repository.projection.BookingRow;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -17,4 +18,15 @@ public class BookingMapper {
                 .status(booking.getStatus())
                 .build();
     }
-}
\ No newline at end of file
+
+    public BookingDto toDto(BookingRow booking) {
+        return BookingDto.builder()
+                .id(booking.id())
+                .clientId(booking.clientId())
+                .masterId(booking.masterId())
+                .procedureId(booking.procedureId())
+                .dateTime(String.valueOf(booking.dateTime()))
+                .status(booking.status())
+                .build();
+    }
+}
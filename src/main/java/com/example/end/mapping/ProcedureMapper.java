@@ -16,6 +16,7 @@ public class ProcedureMapper {
                 .id(procedure.getId())
                 .price(procedure.getPrice())
                 .name(procedure.getName())
+                .durationMinutes(procedure.getDurationMinutes())
                 .build();
     }
     public ProcedureByCategoryDto procedureByCategoryToDto(Procedure procedure){
@@ -31,6 +32,7 @@ public class ProcedureMapper {
         return Procedure.builder()
                 .price(procedureDto.getPrice())
                 .name(procedureDto.getName())
+                .durationMinutes(procedureDto.getDurationMinutes())
                 .build();
 
     }
@@ -39,6 +41,7 @@ public class ProcedureMapper {
                 .id(procedureDto.getId())
                 .price(procedureDto.getPrice())
                 .name(procedureDto.getName())
+                .durationMinutes(procedureDto.getDurationMinutes())
                 .build();
 
     }
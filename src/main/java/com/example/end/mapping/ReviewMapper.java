@@ -2,6 +2,7 @@ package com.example.end.mapping;
 
 import com.example.end.dto.ReviewDto;
 import com.example.end.models.Review;
+import com.example.end.repository.projection.ReviewRow;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -16,6 +17,17 @@ public class ReviewMapper {
                 .createdAt(String.valueOf(review.getCreatedAt()))
                 .build();
     }
+
+    public ReviewDto toDto(ReviewRow review) {
+        return ReviewDto.builder()
+                .id(review.id())
+                .clientId(review.clientId())
+                .masterId(review.masterId())
+                .content(review.content())
+                .rating(review.rating())
+                .createdAt(String.valueOf(review.createdAt()))
+                .build();
+    }
 }
 
 
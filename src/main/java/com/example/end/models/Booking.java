@@ -62,6 +62,9 @@ public class Booking {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
     private LocalDateTime dateTime;
 
+    @Column(name = "end_date_time")
+    private LocalDateTime endDateTime;
+
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
@@ -2,6 +2,8 @@ package com.example.end.models;
 
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.proxy.HibernateProxy;
 
 import jakarta.persistence.*;
@@ -17,6 +19,8 @@ import java.util.Set;
 @Builder
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 public class Category {
 
     @Id
@@ -29,6 +33,7 @@ public class Category {
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category-procedures")
     private Set<Procedure> procedures ;
 
     @ToString.Exclude
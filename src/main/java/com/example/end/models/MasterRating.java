@@ -0,0 +1,96 @@
+package com.example.end.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Arrays;
+
+/**
+ * Rating aggregate of a master: number of reviews, sum of their stars and a histogram of 1 to 5 stars.
+ * Kept up to date in the same transaction as every added or deleted review, so reading a rating never
+ * touches the reviews.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "master_ratings")
+public class MasterRating {
+
+    public static final int MIN_STARS = 1;
+    public static final int MAX_STARS = 5;
+
+    @Id
+    @Column(name = "master_id")
+    private Long masterId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "stars_1", nullable = false)
+    private long stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private long stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private long stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private long stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private long stars5;
+
+    public static MasterRating empty(Long masterId) {
+        return MasterRating.builder().masterId(masterId).build();
+    }
+
+    public static void checkStars(int stars) {
+        if (stars < MIN_STARS || stars > MAX_STARS) {
+            throw new IllegalArgumentException("Rating must be between " + MIN_STARS + " and " + MAX_STARS);
+        }
+    }
+
+    /**
+     * Adds ({@code delta > 0}) or removes ({@code delta < 0}) reviews with the given stars.
+     */
+    public void add(int stars, long delta) {
+        checkStars(stars);
+        reviewCount += delta;
+        ratingSum += stars * delta;
+        switch (stars) {
+            case 1 -> stars1 += delta;
+            case 2 -> stars2 += delta;
+            case 3 -> stars3 += delta;
+            case 4 -> stars4 += delta;
+            default -> stars5 += delta;
+        }
+    }
+
+    /**
+     * @return the average stars, {@code 0} without reviews
+     */
+    public double average() {
+        return reviewCount == 0 ? 0 : (double) ratingSum / reviewCount;
+    }
+
+    /**
+     * @return number of reviews with 1 to 5 stars, in that order
+     */
+    public long[] histogram() {
+        return new long[]{stars1, stars2, stars3, stars4, stars5};
+    }
+
+    public boolean sameCounts(MasterRating other) {
+        return reviewCount == other.reviewCount
+                && ratingSum == other.ratingSum
+                && Arrays.equals(histogram(), other.histogram());
+    }
+}
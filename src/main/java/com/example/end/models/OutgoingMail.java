@@ -0,0 +1,84 @@
+package com.example.end.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A message in the mail outbox. It is written in the transaction of the change it reports, so it is sent
+ * exactly when that change commits, and it stays in the outbox until the SMTP server has accepted it.
+ * Messages that keep failing are kept as {@link Status#DEAD} for inspection.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+// the dispatcher seeks the due messages through this index
+@Table(name = "mail_outbox", indexes = @Index(name = "idx_mail_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+public class OutgoingMail {
+
+    public static final int MAX_ERROR_LENGTH = 1000;
+
+    public enum Status {
+        PENDING,
+        DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipient", nullable = false, length = 320)
+    private String recipient;
+
+    @Column(name = "subject", nullable = false, length = 1000)
+    private String subject;
+
+    @ToString.Exclude
+    @Column(name = "body", nullable = false, columnDefinition = "text")
+    private String body;
+
+    /**
+     * Plain-text alternative of the HTML {@link #body}, absent for messages not rendered from a template.
+     */
+    @ToString.Exclude
+    @Column(name = "text_body", columnDefinition = "text")
+    private String textBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = MAX_ERROR_LENGTH)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public static OutgoingMail pending(String recipient, String subject, String body) {
+        return pending(recipient, subject, body, null);
+    }
+
+    public static OutgoingMail pending(String recipient, String subject, String htmlBody, String textBody) {
+        LocalDateTime now = LocalDateTime.now();
+        return OutgoingMail.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .body(htmlBody)
+                .textBody(textBody)
+                .status(Status.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+    }
+}
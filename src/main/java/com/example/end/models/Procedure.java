@@ -2,6 +2,8 @@ package com.example.end.models;
 
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.proxy.HibernateProxy;
 
 import jakarta.persistence.*;
@@ -17,6 +19,8 @@ import java.util.Set;
 @Builder
 @Entity
 @Table(name = "procedures")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "procedures")
 public class Procedure {
 
     @Id
@@ -29,6 +33,9 @@ public class Procedure {
     @Column(name = "price")
     private double price;
 
+    @Column(name = "duration_minutes")
+    private Integer durationMinutes;
+
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
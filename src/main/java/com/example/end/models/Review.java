@@ -16,7 +16,8 @@ import java.util.Objects;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "reviews")
+// the review feed of a master seeks through this index, newest first
+@Table(name = "reviews", indexes = @Index(name = "idx_reviews_master_created_at", columnList = "master_id, created_at, id"))
 public class Review {
 
     @Id
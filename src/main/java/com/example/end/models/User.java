@@ -5,6 +5,7 @@ import lombok.*;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Set;
 
@@ -91,6 +92,12 @@ public class User {
     @Column(name="profilephotourl")
     private String profilePhotoUrl;
 
+    /**
+     * Language of the mail sent to the user, {@code null} for the default one.
+     */
+    @Column(name = "locale", length = 35)
+    private Locale locale;
+
     @OneToMany(mappedBy = "user", fetch = FetchType.LAZY)
     private List<PortfolioPhoto> portfolioPhotos;
 
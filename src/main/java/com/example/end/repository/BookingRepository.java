@@ -2,18 +2,70 @@ package com.example.end.repository;
 
 import com.example.end.models.Booking;
 import com.example.end.models.BookingStatus;
-import com.example.end.models.User;
+import com.example.end.repository.projection.BookingRow;
+import com.example.end.service.availability.BookedInterval;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    /**
+     * Selects bookings of a client with the given status that start within {@code [from, to)} and come after
+     * the booking {@code (afterTime, afterId)}, seeking through the (client_id, status, date_time) index.
+     * The first page passes {@code from} and {@code 0} as the previous booking.
+     *
+     * @return bookings, earliest first
+     */
+    @Query("SELECT new com.example.end.repository.projection.BookingRow(b.id, b.client.id, b.master.id, b.procedure.id, b.status, b.dateTime) " +
+            "FROM Booking b WHERE b.client.id = :clientId AND b.status = :status " +
+            "AND b.dateTime >= :from AND b.dateTime < :to " +
+            "AND (b.dateTime > :afterTime OR (b.dateTime = :afterTime AND b.id > :afterId)) " +
+            "ORDER BY b.dateTime, b.id")
+    List<BookingRow> findClientBookings(@Param("clientId") Long clientId, @Param("status") BookingStatus status,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                        @Param("afterTime") LocalDateTime afterTime, @Param("afterId") Long afterId,
+                                        Pageable pageable);
 
-    @Query("SELECT b FROM Booking b INNER JOIN FETCH b.client LEFT JOIN FETCH b.master WHERE (b.client.id = :userId OR b.master.id = :userId) AND b.status = :status")
-    List<Booking> findBookingsByUserIdAndStatus(@Param("userId") Long userId, @Param("status") BookingStatus status);
+    /**
+     * Same as {@link #findClientBookings} for the bookings of a master, through the (master_id, status, date_time) index.
+     */
+    @Query("SELECT new com.example.end.repository.projection.BookingRow(b.id, b.client.id, b.master.id, b.procedure.id, b.status, b.dateTime) " +
+            "FROM Booking b WHERE b.master.id = :masterId AND b.status = :status " +
+            "AND b.dateTime >= :from AND b.dateTime < :to " +
+            "AND (b.dateTime > :afterTime OR (b.dateTime = :afterTime AND b.id > :afterId)) " +
+            "ORDER BY b.dateTime, b.id")
+    List<BookingRow> findMasterBookings(@Param("masterId") Long masterId, @Param("status") BookingStatus status,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                        @Param("afterTime") LocalDateTime afterTime, @Param("afterId") Long afterId,
+                                        Pageable pageable);
+
+    /**
+     * Bookings of a master with the given status that start at or after {@code from}, with their procedures.
+     */
+    @Query("SELECT b FROM Booking b LEFT JOIN FETCH b.procedure WHERE b.master.id = :masterId AND b.status = :status AND b.dateTime >= :from")
+    List<Booking> findMasterBookingsFrom(@Param("masterId") Long masterId, @Param("status") BookingStatus status,
+                                         @Param("from") LocalDateTime from);
+
+    /**
+     * Times of all bookings with the given status that start within {@code [from, to)}, without loading the entities.
+     */
+    @Query("SELECT new com.example.end.service.availability.BookedInterval(b.master.id, b.dateTime, b.endDateTime, p.durationMinutes) " +
+            "FROM Booking b LEFT JOIN b.procedure p WHERE b.status = :status AND b.dateTime >= :from AND b.dateTime < :to")
+    List<BookedInterval> findIntervalsBetween(@Param("status") BookingStatus status, @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
+
+    /**
+     * Checks whether a confirmed booking of the master overlaps {@code [start, end)}.
+     * Every booking has an end time: bookings made before it was stored got one in V8.
+     */
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.master.id = :masterId AND b.status = 'CONFIRMED' AND b.dateTime < :end AND b.endDateTime > :start")
+    boolean existsConfirmedOverlapping(@Param("masterId") Long masterId, @Param("start") LocalDateTime start,
+                                       @Param("end") LocalDateTime end);
 
 }
\ No newline at end of file
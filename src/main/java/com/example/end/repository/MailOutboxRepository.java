@@ -0,0 +1,46 @@
+package com.example.end.repository;
+
+import com.example.end.models.OutgoingMail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_LOCK_TIMEOUT;
+
+public interface MailOutboxRepository extends JpaRepository<OutgoingMail, Long> {
+
+    /**
+     * Finds the pending messages that are due, oldest first, and locks them until the end of the transaction.
+     * Messages locked by another node are skipped rather than waited for.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // -2 is LockOptions.SKIP_LOCKED
+    @QueryHints(@QueryHint(name = HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT m FROM OutgoingMail m WHERE m.status = 'PENDING' AND m.nextAttemptAt <= :now " +
+            "ORDER BY m.nextAttemptAt, m.id")
+    List<OutgoingMail> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Records a failed delivery: the message is retried at {@code nextAttemptAt} while pending,
+     * or kept for inspection once dead.
+     */
+    @Modifying
+    @Query("UPDATE OutgoingMail m SET m.status = :status, m.attempts = :attempts, " +
+            "m.nextAttemptAt = :nextAttemptAt, m.lastError = :lastError WHERE m.id = :id")
+    int recordFailure(@Param("id") Long id,
+                      @Param("status") OutgoingMail.Status status,
+                      @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("lastError") String lastError);
+
+    long countByStatus(OutgoingMail.Status status);
+}
@@ -0,0 +1,53 @@
+package com.example.end.repository;
+
+import com.example.end.models.MasterRating;
+import com.example.end.repository.projection.RatingTotals;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface MasterRatingRepository extends JpaRepository<MasterRating, Long> {
+
+    /**
+     * Adds or removes one review in place, so concurrent reviews of a master never overwrite each other.
+     *
+     * @param masterId master ID
+     * @param stars    stars of the review, 1 to 5
+     * @param delta    {@code 1} for an added review, {@code -1} for a deleted one
+     * @return number of updated rows, 0 if the master has no aggregate yet
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MasterRating r SET r.reviewCount = r.reviewCount + :delta, " +
+            "r.ratingSum = r.ratingSum + :delta * :stars, " +
+            "r.stars1 = r.stars1 + CASE WHEN :stars = 1 THEN :delta ELSE 0 END, " +
+            "r.stars2 = r.stars2 + CASE WHEN :stars = 2 THEN :delta ELSE 0 END, " +
+            "r.stars3 = r.stars3 + CASE WHEN :stars = 3 THEN :delta ELSE 0 END, " +
+            "r.stars4 = r.stars4 + CASE WHEN :stars = 4 THEN :delta ELSE 0 END, " +
+            "r.stars5 = r.stars5 + CASE WHEN :stars = 5 THEN :delta ELSE 0 END " +
+            "WHERE r.masterId = :masterId")
+    int addReview(@Param("masterId") Long masterId, @Param("stars") long stars, @Param("delta") long delta);
+
+    /**
+     * Finds the aggregate of a master and locks it until the end of the transaction, which holds back
+     * reviews of that master while the aggregate is recomputed.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM MasterRating r WHERE r.masterId = :masterId")
+    Optional<MasterRating> findByIdForUpdate(@Param("masterId") Long masterId);
+
+    @Query("SELECT new com.example.end.repository.projection.RatingTotals(r.masterId, r.reviewCount, r.ratingSum) " +
+            "FROM MasterRating r JOIN User u ON u.id = r.masterId " +
+            "WHERE u.role = 'MASTER' AND u.isActive = true AND r.reviewCount > 0")
+    List<RatingTotals> findActiveMasterTotals();
+
+    @Query("SELECT new com.example.end.repository.projection.RatingTotals(r.masterId, r.reviewCount, r.ratingSum) " +
+            "FROM MasterRating r JOIN User u ON u.id = r.masterId " +
+            "WHERE r.masterId = :masterId AND u.role = 'MASTER' AND u.isActive = true AND r.reviewCount > 0")
+    Optional<RatingTotals> findActiveMasterTotals(@Param("masterId") Long masterId);
+}
@@ -1,22 +1,39 @@
 package com.example.end.repository;
 
 import com.example.end.models.Procedure;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 
 public interface ProcedureRepository extends JpaRepository<Procedure, Long> {
 
+    /**
+     * Cached in the query cache: the ids are kept per category and the procedures themselves come from
+     * the entity cache. Any write to {@code procedures} or {@code categories} invalidates the results.
+     */
     @Query("SELECT p FROM Procedure p JOIN p.category c WHERE c.id = :categoryId")
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "procedures-by-category")
+    })
     List<Procedure> findProceduresByCategoryId(@Param("categoryId") Long categoryId);
 
+    @Query("SELECT p FROM Procedure p JOIN FETCH p.category WHERE p.id IN :ids")
+    List<Procedure> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
     boolean existsByNameAndCategoryId(String name, Long categoryId);
 
     boolean existsByName(String name);
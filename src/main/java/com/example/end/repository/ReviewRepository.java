@@ -1,15 +1,55 @@
 package com.example.end.repository;
 
 import com.example.end.models.*;
+import com.example.end.repository.projection.RatingCount;
+import com.example.end.repository.projection.ReviewRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
-    @Query("SELECT r FROM Review r JOIN r.master m WHERE m.id = :masterId")
-    List<Review> findByMasterId(@Param("masterId") Long masterId);
+    /**
+     * Selects the newest reviews of a master.
+     *
+     * @param masterId master ID
+     * @param pageable page size, the offset must be {@code 0}
+     * @return reviews, newest first
+     */
+    @Query("SELECT new com.example.end.repository.projection.ReviewRow(r.id, r.client.id, r.master.id, r.content, r.rating, r.createdAt) " +
+            "FROM Review r WHERE r.master.id = :masterId ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewRow> findFeedByMasterId(@Param("masterId") Long masterId, Pageable pageable);
+
+    /**
+     * Selects the reviews of a master that are older than the given one, seeking through the
+     * {@code (master_id, created_at, id)} index instead of skipping the newer rows.
+     *
+     * @param masterId  master ID
+     * @param createdAt creation time of the last review of the previous page
+     * @param id        ID of the last review of the previous page
+     * @param pageable  page size, the offset must be {@code 0}
+     * @return reviews, newest first
+     */
+    @Query("SELECT new com.example.end.repository.projection.ReviewRow(r.id, r.client.id, r.master.id, r.content, r.rating, r.createdAt) " +
+            "FROM Review r WHERE r.master.id = :masterId " +
+            "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewRow> findFeedByMasterIdBefore(@Param("masterId") Long masterId, @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Counts the reviews of the given masters per number of stars.
+     *
+     * @param masterIds master IDs
+     * @return one row per master and stars that occur
+     */
+    @Query("SELECT new com.example.end.repository.projection.RatingCount(r.master.id, r.rating, COUNT(r)) " +
+            "FROM Review r WHERE r.master.id IN :masterIds GROUP BY r.master.id, r.rating")
+    List<RatingCount> countRatingsByMasterIds(@Param("masterIds") Collection<Long> masterIds);
 }
 
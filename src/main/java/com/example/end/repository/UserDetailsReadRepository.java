@@ -0,0 +1,46 @@
+package com.example.end.repository;
+
+import com.example.end.models.User;
+import com.example.end.repository.projection.OwnedId;
+import com.example.end.repository.projection.PortfolioPhotoRow;
+import com.example.end.repository.projection.UserRow;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Flat, read-only projections of users and their collections.
+ * The queries select constructor expressions, so nothing is attached to the persistence context and no
+ * lazy collection is ever initialized.
+ */
+public interface UserDetailsReadRepository extends Repository<User, Long> {
+
+    @Query("SELECT new com.example.end.repository.projection.UserRow(u.id, u.firstName, u.lastName, u.email, " +
+            "u.phoneNumber, u.address, u.description, u.role, u.profilePhotoUrl, " +
+            "r.reviewCount, r.ratingSum, r.stars1, r.stars2, r.stars3, r.stars4, r.stars5) " +
+            "FROM User u LEFT JOIN MasterRating r ON r.masterId = u.id WHERE u.id IN :ids")
+    List<UserRow> findUserRows(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.end.repository.projection.OwnedId(u.id, c.id) " +
+            "FROM User u JOIN u.categories c WHERE u.id IN :ids ORDER BY c.id")
+    List<OwnedId> findCategoryIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.end.repository.projection.OwnedId(u.id, c.id) " +
+            "FROM User u JOIN u.categories c WHERE u.role = 'MASTER' AND u.isActive = true")
+    List<OwnedId> findActiveMasterCategoryIds();
+
+    @Query("SELECT new com.example.end.repository.projection.OwnedId(u.id, p.id) " +
+            "FROM User u JOIN u.procedures p WHERE u.id IN :ids ORDER BY p.id")
+    List<OwnedId> findProcedureIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.end.repository.projection.PortfolioPhotoRow(p.user.id, p.id, p.url) " +
+            "FROM PortfolioPhoto p WHERE p.user.id IN :ids ORDER BY p.id")
+    List<PortfolioPhotoRow> findPortfolioPhotos(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.end.repository.projection.OwnedId(r.master.id, r.id) " +
+            "FROM Review r WHERE r.master.id IN :ids ORDER BY r.id")
+    List<OwnedId> findReviewIds(@Param("ids") Collection<Long> ids);
+}
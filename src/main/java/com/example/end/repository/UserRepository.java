@@ -6,7 +6,11 @@ import com.example.end.models.User;
 import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -32,31 +36,77 @@ public interface UserRepository extends JpaRepository<User,Long> {
     Optional<User> findByIdWithDetails(@Param("id") Long id);
 
     /**
-     * Finds all users with MASTER role with preloaded categories and procedures.
+     * Selects the ids of the next page of masters, ordered by id.
+     * The keyset predicate lets the database seek to the page through the primary key instead of
+     * skipping the previous rows, so every page costs the same.
      *
-     * @return list of masters with loaded categories and procedures
+     * @param afterId  id of the last master of the previous page, {@code 0} for the first page
+     * @param pageable page size, the offset must be {@code 0}
+     * @return ids of the masters on the page
      */
-    @Query(value = "SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.categories LEFT JOIN FETCH u.procedures WHERE u.role = 'MASTER'",
-        countQuery = "SELECT COUNT(u) FROM User u WHERE u.role = 'MASTER'")
-    List<User> findAllMastersWithDetails(org.springframework.data.domain.Pageable pageable);
+    @Query("SELECT u.id FROM User u WHERE u.role = 'MASTER' AND u.id > :afterId ORDER BY u.id")
+    List<Long> findMasterIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 
     /**
-     * Finds all users with preloaded categories and procedures.
+     * Selects the ids of a page of masters by offset, ordered by id.
+     */
+    @Query("SELECT u.id FROM User u WHERE u.role = 'MASTER' ORDER BY u.id")
+    List<Long> findMasterIds(Pageable pageable);
+
+    /**
+     * Selects the ids of the next page of users, ordered by id.
      *
-     * @return list of all users with loaded categories and procedures
+     * @param afterId  id of the last user of the previous page, {@code 0} for the first page
+     * @param pageable page size, the offset must be {@code 0}
+     * @return ids of the users on the page
      */
-    @Query(value = "SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.categories LEFT JOIN FETCH u.procedures",
-        countQuery = "SELECT COUNT(u) FROM User u")
-    List<User> findAllWithDetails(org.springframework.data.domain.Pageable pageable);
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findUserIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 
     /**
-     * Finds users by category ID with preloaded categories and procedures.
+     * Selects the ids of a page of users by offset, ordered by id.
+     */
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findUserIds(Pageable pageable);
+
+    /**
+     * Selects the ids of the users of a category, ordered by id.
      *
      * @param categoryId category ID
-     * @return list of users related to the given category with loaded details
+     * @return ids of the users related to the given category
+     */
+    @Query("SELECT u.id FROM User u JOIN u.categories c WHERE c.id = :categoryId ORDER BY u.id")
+    List<Long> findUserIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT u.id FROM User u WHERE u.role = 'MASTER' AND u.isActive = true")
+    List<Long> findActiveMasterIds();
+
+    @Query("SELECT u.id FROM User u JOIN u.procedures p WHERE p.id = :procedureId AND u.role = 'MASTER' AND u.isActive = true")
+    List<Long> findActiveMasterIdsByProcedureId(@Param("procedureId") Long procedureId);
+
+    /**
+     * Finds a user and locks its row until the end of the transaction.
+     * Bookings of a master are serialized on this lock, across all nodes.
+     *
+     * @param id user ID
+     * @return the locked user, if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Replaces the password hash of a user, unless it was changed since it was read.
+     *
+     * @param id          user ID
+     * @param currentHash the hash that was read
+     * @param newHash     the hash to store
+     * @return number of updated rows, 0 if the hash was changed in the meantime
      */
-    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.categories c LEFT JOIN FETCH u.procedures WHERE c.id = :categoryId")
-    List<User> findUsersByCategoryIdWithDetails(@Param("categoryId") Long categoryId);
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :currentHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("currentHash") String currentHash,
+                           @Param("newHash") String newHash);
 
 }
 
@@ -0,0 +1,19 @@
+package com.example.end.repository;
+
+import com.example.end.models.WorkingHours;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface WorkingHoursRepository extends JpaRepository<WorkingHours, Long> {
+
+    @Query("SELECT w FROM WorkingHours w WHERE w.master.id = :masterId")
+    List<WorkingHours> findByMasterId(@Param("masterId") Long masterId);
+
+    @Modifying
+    @Query("DELETE FROM WorkingHours w WHERE w.master.id = :masterId")
+    void deleteByMasterId(@Param("masterId") Long masterId);
+}
@@ -0,0 +1,12 @@
+package com.example.end.repository.projection;
+
+import com.example.end.models.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a booking, read without loading the booking, its users or its procedure.
+ */
+public record BookingRow(Long id, Long clientId, Long masterId, Long procedureId, BookingStatus status,
+                         LocalDateTime dateTime) {
+}
@@ -0,0 +1,7 @@
+package com.example.end.repository.projection;
+
+/**
+ * Id of an element of a user's collection, e.g. a category or a review, with the id of that user.
+ */
+public record OwnedId(Long ownerId, Long id) {
+}
@@ -0,0 +1,7 @@
+package com.example.end.repository.projection;
+
+/**
+ * Portfolio photo of a user, read without loading the entity.
+ */
+public record PortfolioPhotoRow(Long userId, Long id, String url) {
+}
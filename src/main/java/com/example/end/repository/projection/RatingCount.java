@@ -0,0 +1,7 @@
+package com.example.end.repository.projection;
+
+/**
+ * Number of reviews of a master with the given stars.
+ */
+public record RatingCount(Long masterId, int stars, long count) {
+}
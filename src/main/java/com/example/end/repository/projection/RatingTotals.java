@@ -0,0 +1,7 @@
+package com.example.end.repository.projection;
+
+/**
+ * Number of reviews of a master and the sum of their stars.
+ */
+public record RatingTotals(Long masterId, long reviewCount, long ratingSum) {
+}
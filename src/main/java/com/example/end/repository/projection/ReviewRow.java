@@ -0,0 +1,9 @@
+package com.example.end.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a review, read without loading the review or its users.
+ */
+public record ReviewRow(Long id, Long clientId, Long masterId, String content, int rating, LocalDateTime createdAt) {
+}
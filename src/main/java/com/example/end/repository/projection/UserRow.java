@@ -0,0 +1,12 @@
+package com.example.end.repository.projection;
+
+import com.example.end.models.User;
+
+/**
+ * Scalar columns of a user and the user's rating aggregate, read without loading the entities.
+ * The rating columns are {@code null} for users without an aggregate.
+ */
+public record UserRow(Long id, String firstName, String lastName, String email, String phoneNumber,
+                      String address, String description, User.Role role, String profilePhotoUrl,
+                      Long reviewCount, Long ratingSum, Long stars1, Long stars2, Long stars3, Long stars4, Long stars5) {
+}
@@ -4,45 +4,57 @@ import com.example.end.dto.LoginRequestDto;
 import com.example.end.models.User;
 import com.example.end.infrastructure.security.sec_dto.AuthInfo;
 import com.example.end.infrastructure.security.sec_dto.TokenResponseDto;
+import com.example.end.infrastructure.security.sec_servivce.PasswordHashingService;
+import com.example.end.infrastructure.security.sec_servivce.RefreshTokenStore;
 import com.example.end.infrastructure.security.sec_servivce.TokenService;
 import com.example.end.service.interfaces.AuthenticationService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.annotation.Nonnull;
 import jakarta.security.auth.message.AuthException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 /**
  * Implementation of the AuthenticationService interface.
  * Provides methods for user authentication, token generation, and validation.
  */
+@Slf4j
 @Service
 public class AuthenticationServiceImpl implements AuthenticationService {
 
     private final UserServiceImpl userService;
-    private final Map<String, String> refreshStorage;
-    private final BCryptPasswordEncoder encoder;
+    private final RefreshTokenStore refreshTokenStore;
+    private final PasswordHashingService passwordHashingService;
     private final TokenService tokenService;
+    private final Executor taskExecutor;
 
     /**
      * Constructor to initialize the AuthenticationServiceImpl with required dependencies.
      *
      * @param userService the service to interact with user data
-     * @param encoder the password encoder used for password verification
+     * @param passwordHashingService the service that verifies passwords on the bounded hashing pool
      * @param tokenService the service used to handle token generation and validation
+     * @param refreshTokenStore the store of refresh tokens that may still be used
+     * @param taskExecutor the executor that stores upgraded password hashes, so the hashing pool only hashes
      */
     @Autowired
-    public AuthenticationServiceImpl(UserServiceImpl userService, BCryptPasswordEncoder encoder, TokenService tokenService) {
+    public AuthenticationServiceImpl(UserServiceImpl userService, PasswordHashingService passwordHashingService,
+                                     TokenService tokenService,
+                                     RefreshTokenStore refreshTokenStore,
+                                     @Qualifier("taskExecutor") Executor taskExecutor) {
         this.userService = userService;
-        this.refreshStorage = new HashMap<>();
-        this.encoder = encoder;
+        this.refreshTokenStore = refreshTokenStore;
+        this.passwordHashingService = passwordHashingService;
         this.tokenService = tokenService;
+        this.taskExecutor = taskExecutor;
     }
 
     /**
@@ -60,12 +72,13 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             User foundUser = userOptional.get();
 
 
-            if (encoder.matches(loginRequest.getPassword(), foundUser.getPassword())) {
+            if (passwordHashingService.matches(loginRequest.getPassword(), foundUser.getPassword())) {
+                upgradePasswordHash(foundUser, loginRequest.getPassword());
                 String accessToken = tokenService.generateAccessToken(foundUser);
                 String refreshToken = tokenService.generateRefreshToken(foundUser);
 
 
-                refreshStorage.put(email, refreshToken);
+                refreshTokenStore.save(foundUser.getEmail(), refreshToken, expirationOf(refreshToken));
                 return new TokenResponseDto(accessToken, refreshToken);
             } else {
                 throw new AuthException("Password is incorrect");
@@ -77,28 +90,68 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     /**
      * Retrieves a new access token using a valid refresh token.
+     * The refresh token must still be in the {@link RefreshTokenStore}; it is rotated, so the response
+     * carries a new refresh token and the one presented cannot be used again.
      *
      * @param refreshToken the refresh token used to generate a new access token
-     * @return a TokenResponseDto containing the new access token, or null if the refresh token is invalid
+     * @return a TokenResponseDto containing the new access and refresh tokens, or empty tokens if the refresh token is invalid
      */
     public TokenResponseDto getAccessToken(@Nonnull String refreshToken) {
-        // Validate the refresh token
-        if (tokenService.validateRefreshToken(refreshToken)) {
-            Claims refreshClaims = tokenService.getRefreshClaims(refreshToken);
-            String email = refreshClaims.getSubject();
-
-            Optional<User> optionalUser = userService.findByEmail(email);
+        Claims refreshClaims;
+        try {
+            refreshClaims = tokenService.getRefreshClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            return new TokenResponseDto(null, null);
+        }
+        String email = refreshClaims.getSubject();
+        if (email == null || !refreshTokenStore.isActive(email, refreshToken)) {
+            return new TokenResponseDto(null, null);
+        }
 
-            if (optionalUser.isPresent()) {
-                User user = optionalUser.get();
+        Optional<User> optionalUser = userService.findByEmail(email);
+        if (optionalUser.isPresent()) {
+            User user = optionalUser.get();
+            String newRefreshToken = tokenService.generateRefreshToken(user);
+            // a concurrent request may have rotated the same token first
+            if (refreshTokenStore.rotate(email, refreshToken, newRefreshToken, expirationOf(newRefreshToken))) {
                 String accessToken = tokenService.generateAccessToken(user);
-                return new TokenResponseDto(accessToken, null);
+                return new TokenResponseDto(accessToken, newRefreshToken);
             }
         }
 
         return new TokenResponseDto(null, null);
     }
 
+    /**
+     * Re-hashes the password in the background if it was stored with a different BCrypt cost.
+     * The login does not wait for it; if the hashing pool is busy, the next login tries again.
+     * The new hash is stored on the task executor, not on the hashing pool.
+     */
+    private void upgradePasswordHash(User user, String rawPassword) {
+        String currentHash = user.getPassword();
+        if (!passwordHashingService.needsRehash(currentHash)) {
+            return;
+        }
+        Long userId = user.getId();
+        passwordHashingService.encodeAsync(rawPassword)
+                .whenComplete((newHash, error) -> {
+                    if (error != null) {
+                        log.debug("Password hash of user {} was not upgraded: {}", userId, error.toString());
+                    }
+                })
+                .thenAcceptAsync(newHash -> {
+                    try {
+                        userService.updatePasswordHash(userId, currentHash, newHash);
+                    } catch (RuntimeException e) {
+                        log.warn("Failed to store upgraded password hash of user {}", userId, e);
+                    }
+                }, taskExecutor);
+    }
+
+    private Instant expirationOf(String refreshToken) {
+        return tokenService.getRefreshClaims(refreshToken).getExpiration().toInstant();
+    }
+
     /**
      * Retrieves the authentication information from the current security context.
      *
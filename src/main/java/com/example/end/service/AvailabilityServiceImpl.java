@@ -0,0 +1,420 @@
+package com.example.end.service;
+
+import com.example.end.dto.MasterSlotDto;
+import com.example.end.dto.TimeSlotDto;
+import com.example.end.dto.WorkingHoursDto;
+import com.example.end.infrastructure.exceptions.ResourceNotFoundException;
+import com.example.end.infrastructure.exceptions.RestException;
+import com.example.end.models.Booking;
+import com.example.end.models.BookingStatus;
+import com.example.end.models.Procedure;
+import com.example.end.models.User;
+import com.example.end.models.WorkingHours;
+import com.example.end.repository.BookingRepository;
+import com.example.end.repository.ProcedureRepository;
+import com.example.end.repository.UserRepository;
+import com.example.end.repository.WorkingHoursRepository;
+import com.example.end.service.availability.BookedInterval;
+import com.example.end.service.availability.FreeTimeIndex;
+import com.example.end.service.availability.MasterCalendar;
+import com.example.end.service.availability.MasterCalendar.DaySchedule;
+import com.example.end.service.interfaces.AvailabilityService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of {@link AvailabilityService}.
+ * <p>
+ * Keeps a {@link MasterCalendar} per master in memory, built from the working hours and the confirmed
+ * bookings, so free slots are computed without touching the database. Masters without configured
+ * working hours use the default ones. Calendars expire after a while, which also picks up bookings
+ * made on other nodes; the booking itself is always re-checked in the database.
+ * </p>
+ * <p>
+ * For searches across masters, a {@link FreeTimeIndex} holds per-day free-time bitmaps of all active
+ * masters. It is rebuilt periodically and patched after every booking, cancellation and change of
+ * working hours.
+ * </p>
+ */
+@Slf4j
+@Service
+public class AvailabilityServiceImpl implements AvailabilityService {
+
+    private final WorkingHoursRepository workingHoursRepository;
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final ProcedureRepository procedureRepository;
+    private final Clock clock;
+    private final Duration slotStep;
+    private final Cache<Long, MasterCalendar> calendars;
+    private final Cache<Long, List<Long>> mastersByProcedure;
+    private final FreeTimeIndex freeTimeIndex;
+    // a lock rather than synchronized: a virtual thread blocked on JDBC inside synchronized pins its carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @Value("${booking.availability.default-duration:60m}")
+    private Duration defaultDuration = Duration.ofMinutes(60);
+
+    @Value("${booking.availability.max-range-days:31}")
+    private int maxRangeDays = 31;
+
+    @Value("${booking.availability.default-hours.days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY,SATURDAY}")
+    private Set<DayOfWeek> defaultDays = Set.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+            DayOfWeek.THURSDAY, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY);
+
+    @Value("${booking.availability.default-hours.start:09:00}")
+    private String defaultStart = "09:00";
+
+    @Value("${booking.availability.default-hours.end:18:00}")
+    private String defaultEnd = "18:00";
+
+    @Autowired
+    public AvailabilityServiceImpl(WorkingHoursRepository workingHoursRepository, BookingRepository bookingRepository,
+                                   UserRepository userRepository, ProcedureRepository procedureRepository,
+                                   @Value("${booking.availability.slot-step:15m}") Duration slotStep,
+                                   @Value("${booking.availability.calendars.maximum-size:10000}") long maximumSize,
+                                   @Value("${booking.availability.calendars.expire-after-write:5m}") Duration expireAfterWrite,
+                                   @Value("${booking.availability.free-time-index.horizon-days:14}") int horizonDays) {
+        this(workingHoursRepository, bookingRepository, userRepository, procedureRepository,
+                slotStep, maximumSize, expireAfterWrite, horizonDays, Clock.systemDefaultZone());
+    }
+
+    AvailabilityServiceImpl(WorkingHoursRepository workingHoursRepository, BookingRepository bookingRepository,
+                            UserRepository userRepository, ProcedureRepository procedureRepository,
+                            Duration slotStep, long maximumSize, Duration expireAfterWrite, int horizonDays, Clock clock) {
+        this.workingHoursRepository = workingHoursRepository;
+        this.bookingRepository = bookingRepository;
+        this.userRepository = userRepository;
+        this.procedureRepository = procedureRepository;
+        this.slotStep = slotStep;
+        this.clock = clock;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        this.mastersByProcedure = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        this.freeTimeIndex = new FreeTimeIndex(slotStep, horizonDays);
+    }
+
+    /**
+     * Finds the free slots of a master for a procedure, from the start of {@code from} to the end of {@code to}.
+     *
+     * @throws IllegalArgumentException if the range is reversed or longer than allowed
+     * @throws ResourceNotFoundException if the master or the procedure is not found
+     */
+    @Override
+    public List<TimeSlotDto> findFreeSlots(Long masterId, Long procedureId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new IllegalArgumentException("Date range must be ordered and at most " + maxRangeDays + " days long");
+        }
+        Procedure procedure = procedureRepository.findById(procedureId)
+                .orElseThrow(() -> new ResourceNotFoundException("Procedure not found"));
+        Duration duration = durationOf(procedure);
+
+        return calendarOf(masterId).freeSlots(from, to, duration, slotStep, LocalDateTime.now(clock)).stream()
+                .map(start -> new TimeSlotDto(start.toString(), start.plus(duration).toString()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Finds the masters offering a procedure who have a free slot within {@code [from, to)}, soonest first.
+     * Answered from the {@link FreeTimeIndex}, so only the days within its horizon are searched.
+     *
+     * @throws IllegalArgumentException if the window is empty
+     * @throws ResourceNotFoundException if the procedure is not found
+     */
+    @Override
+    public List<MasterSlotDto> findMastersWithFreeSlot(Long procedureId, LocalDateTime from, LocalDateTime to, int limit) {
+        if (!from.isBefore(to) || limit < 1) {
+            throw new IllegalArgumentException("Time window must not be empty and limit must be positive");
+        }
+        Procedure procedure = procedureRepository.findById(procedureId)
+                .orElseThrow(() -> new ResourceNotFoundException("Procedure not found"));
+        Duration duration = durationOf(procedure);
+        List<Long> masterIds = mastersByProcedure.get(procedureId, userRepository::findActiveMasterIdsByProcedureId);
+        if (!freeTimeIndex.isBuilt()) {
+            buildFreeTimeIndexOnce();
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        return freeTimeIndex.findEarliest(masterIds, from.isBefore(now) ? now : from, to, duration, limit).stream()
+                .map(match -> new MasterSlotDto(match.masterId(), match.start().toString(),
+                        match.start().plus(duration).toString()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Rebuilds the free-time bitmaps of all active masters with three queries: masters, working hours and
+     * the confirmed bookings within the horizon.
+     */
+    @Override
+    public void rebuildFreeTimeIndex() {
+        rebuildLock.lock();
+        try {
+            long startedAt = System.nanoTime();
+            LocalDate firstDay = LocalDate.now(clock);
+            LocalDateTime from = firstDay.atStartOfDay();
+            freeTimeIndex.beginRebuild();
+
+            Map<Long, List<WorkingHours>> hoursByMaster = workingHoursRepository.findAll().stream()
+                    .collect(Collectors.groupingBy(hours -> hours.getMaster().getId()));
+            Map<Long, MasterCalendar> masterCalendars = new HashMap<>();
+            for (Long masterId : userRepository.findActiveMasterIds()) {
+                masterCalendars.put(masterId, new MasterCalendar(weekOf(hoursByMaster.getOrDefault(masterId, List.of()))));
+            }
+            // a booking may have started on the previous day
+            List<BookedInterval> bookings = bookingRepository.findIntervalsBetween(BookingStatus.CONFIRMED,
+                    from.minusDays(1), from.plusDays(freeTimeIndex.horizonDays()));
+            for (BookedInterval booking : bookings) {
+                MasterCalendar calendar = masterCalendars.get(booking.masterId());
+                if (calendar != null) {
+                    calendar.addBooked(booking.start(), endOf(booking));
+                }
+            }
+
+            freeTimeIndex.replaceAll(firstDay, masterCalendars);
+            log.info("Rebuilt free-time index of {} masters with {} bookings in {} ms", masterCalendars.size(),
+                    bookings.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void buildFreeTimeIndexOnce() {
+        rebuildLock.lock();
+        try {
+            if (!freeTimeIndex.isBuilt()) {
+                rebuildFreeTimeIndex();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Picks up a master whose procedures or activation changed, or who was deleted.
+     */
+    @Override
+    public void masterChanged(Long masterId) {
+        afterCommit(() -> {
+            mastersByProcedure.invalidateAll();
+            calendars.invalidate(masterId);
+            refreshFreeTime(masterId);
+        });
+    }
+
+    @Override
+    public List<WorkingHoursDto> getWorkingHours(Long masterId) {
+        findMasterOrThrow(masterId);
+        return workingHoursRepository.findByMasterId(masterId).stream()
+                .sorted(Comparator.comparing(WorkingHours::getDayOfWeek))
+                .map(AvailabilityServiceImpl::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Replaces the working hours of a master. Existing bookings are kept even if they now fall outside.
+     *
+     * @throws IllegalArgumentException if a day is listed twice or its hours are inconsistent
+     */
+    @Override
+    @Transactional
+    public List<WorkingHoursDto> updateWorkingHours(Long masterId, List<WorkingHoursDto> workingHours) {
+        User master = findMasterOrThrow(masterId);
+        Map<DayOfWeek, DaySchedule> week = new EnumMap<>(DayOfWeek.class);
+        for (WorkingHoursDto day : workingHours) {
+            if (day.getDayOfWeek() == null || day.getStartTime() == null || day.getEndTime() == null) {
+                throw new IllegalArgumentException("Day of week, start time and end time are required");
+            }
+            DaySchedule schedule = new DaySchedule(day.getStartTime(), day.getEndTime(), day.getBreakStart(), day.getBreakEnd());
+            if (week.put(day.getDayOfWeek(), schedule) != null) {
+                throw new IllegalArgumentException("Working hours for " + day.getDayOfWeek() + " are listed twice");
+            }
+        }
+
+        workingHoursRepository.deleteByMasterId(masterId);
+        workingHoursRepository.flush();
+        List<WorkingHours> saved = workingHoursRepository.saveAll(week.entrySet().stream()
+                .map(day -> WorkingHours.builder()
+                        .master(master)
+                        .dayOfWeek(day.getKey())
+                        .startTime(day.getValue().start())
+                        .endTime(day.getValue().end())
+                        .breakStart(day.getValue().breakStart())
+                        .breakEnd(day.getValue().breakEnd())
+                        .build())
+                .collect(Collectors.toList()));
+        afterCommit(() -> {
+            calendars.invalidate(masterId);
+            refreshFreeTime(masterId);
+        });
+
+        return saved.stream()
+                .map(AvailabilityServiceImpl::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Duration durationOf(Procedure procedure) {
+        Integer minutes = procedure != null ? procedure.getDurationMinutes() : null;
+        return minutes != null && minutes > 0 ? Duration.ofMinutes(minutes) : defaultDuration;
+    }
+
+    /**
+     * Reserves {@code [start, end)} in the master's calendar. The reservation is dropped again if the
+     * surrounding transaction rolls back.
+     *
+     * @throws RestException with {@code 400} outside the working hours, {@code 409} if the time is taken
+     */
+    @Override
+    public void reserve(Long masterId, LocalDateTime start, LocalDateTime end) {
+        if (start.isBefore(LocalDateTime.now(clock))) {
+            throw new RestException(HttpStatus.BAD_REQUEST, "Booking time is in the past");
+        }
+        MasterCalendar calendar = calendarOf(masterId);
+        switch (calendar.reserve(start, end)) {
+            case OUTSIDE_WORKING_HOURS ->
+                    throw new RestException(HttpStatus.BAD_REQUEST, "Booking time is outside the master's working hours");
+            case OVERLAPS_BOOKING ->
+                    throw new RestException(HttpStatus.CONFLICT, "This time is already booked");
+            case RESERVED -> {
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status == STATUS_COMMITTED) {
+                                freeTimeIndex.occupy(masterId, start, end);
+                            } else {
+                                calendar.release(start, end);
+                            }
+                        }
+                    });
+                } else {
+                    freeTimeIndex.occupy(masterId, start, end);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the cached calendar of a master after a booking was cancelled or re-confirmed,
+     * so that it is rebuilt from the database, and recomputes the master's free-time bitmaps from it.
+     */
+    @Override
+    public void bookingChanged(Long masterId) {
+        afterCommit(() -> {
+            calendars.invalidate(masterId);
+            refreshFreeTime(masterId);
+        });
+    }
+
+    private void refreshFreeTime(Long masterId) {
+        if (!freeTimeIndex.isBuilt()) {
+            return;
+        }
+        boolean activeMaster = userRepository.findById(masterId)
+                .filter(user -> user.getRole() == User.Role.MASTER && user.isActive())
+                .isPresent();
+        if (activeMaster) {
+            freeTimeIndex.refresh(masterId, calendarOf(masterId));
+        } else {
+            freeTimeIndex.remove(masterId);
+        }
+    }
+
+    private MasterCalendar calendarOf(Long masterId) {
+        return calendars.get(masterId, this::loadCalendar);
+    }
+
+    private MasterCalendar loadCalendar(Long masterId) {
+        findMasterOrThrow(masterId);
+        MasterCalendar calendar = new MasterCalendar(weekOf(workingHoursRepository.findByMasterId(masterId)));
+        LocalDateTime from = LocalDate.now(clock).atStartOfDay();
+        List<Booking> bookings = bookingRepository.findMasterBookingsFrom(masterId, BookingStatus.CONFIRMED, from);
+        for (Booking booking : bookings) {
+            LocalDateTime end = booking.getEndDateTime() != null
+                    ? booking.getEndDateTime()
+                    : booking.getDateTime().plus(durationOf(booking.getProcedure()));
+            calendar.addBooked(booking.getDateTime(), end);
+        }
+        log.debug("Loaded calendar of master {} with {} bookings", masterId, bookings.size());
+        return calendar;
+    }
+
+    private Map<DayOfWeek, DaySchedule> weekOf(List<WorkingHours> workingHours) {
+        Map<DayOfWeek, DaySchedule> week = new EnumMap<>(DayOfWeek.class);
+        if (workingHours.isEmpty()) {
+            DaySchedule defaultDay = new DaySchedule(LocalTime.parse(defaultStart), LocalTime.parse(defaultEnd), null, null);
+            defaultDays.forEach(day -> week.put(day, defaultDay));
+        } else {
+            workingHours.forEach(day -> week.put(day.getDayOfWeek(),
+                    new DaySchedule(day.getStartTime(), day.getEndTime(), day.getBreakStart(), day.getBreakEnd())));
+        }
+        return week;
+    }
+
+    private LocalDateTime endOf(BookedInterval booking) {
+        if (booking.end() != null) {
+            return booking.end();
+        }
+        Integer minutes = booking.durationMinutes();
+        return booking.start().plus(minutes != null && minutes > 0 ? Duration.ofMinutes(minutes) : defaultDuration);
+    }
+
+    private User findMasterOrThrow(Long masterId) {
+        return userRepository.findById(masterId)
+                .filter(user -> user.getRole() == User.Role.MASTER)
+                .orElseThrow(() -> new ResourceNotFoundException("Master not found"));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static WorkingHoursDto toDto(WorkingHours workingHours) {
+        return WorkingHoursDto.builder()
+                .dayOfWeek(workingHours.getDayOfWeek())
+                .startTime(workingHours.getStartTime())
+                .endTime(workingHours.getEndTime())
+                .breakStart(workingHours.getBreakStart())
+                .breakEnd(workingHours.getBreakEnd())
+                .build();
+    }
+}
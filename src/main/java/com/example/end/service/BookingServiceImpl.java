@@ -2,6 +2,7 @@ package com.example.end.service;
 
 import com.example.end.dto.*;
 import com.example.end.infrastructure.exceptions.ResourceNotFoundException;
+import com.example.end.infrastructure.exceptions.RestException;
 import com.example.end.mapping.BookingMapper;
 import com.example.end.models.Booking;
 import com.example.end.models.BookingStatus;
@@ -10,12 +11,23 @@ import com.example.end.models.User;
 import com.example.end.repository.BookingRepository;
 import com.example.end.repository.ProcedureRepository;
 import com.example.end.repository.UserRepository;
+import com.example.end.repository.projection.BookingRow;
+import com.example.end.service.interfaces.AvailabilityService;
 import com.example.end.service.interfaces.BookingService;
+import com.example.end.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -26,31 +38,56 @@ import java.util.stream.Collectors;
 @Service
 public class BookingServiceImpl implements BookingService {
 
+    // bounds of a listing without a date range
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @FunctionalInterface
+    private interface BookingQuery {
+        List<BookingRow> find(Long userId, BookingStatus status, LocalDateTime from, LocalDateTime to,
+                              LocalDateTime afterTime, Long afterId, Pageable pageable);
+    }
+
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
     private final ProcedureRepository procedureRepository;
     private final UserRepository userRepository;
+    private final AvailabilityService availabilityService;
 
     /**
      * Creates a new booking for a client with a specific master and procedure.
+     * The booking must fit the master's working hours and must not overlap another confirmed booking.
+     * The time is first reserved in the master's in-memory calendar, so concurrent requests for the same
+     * slot are rejected at once; the master row is then locked and the overlap re-checked in the database,
+     * which also covers bookings made on other nodes.
      *
      * @param bookingDto the DTO containing the booking details.
      * @return the created BookingDto.
-     * @throws  if the user or procedure is not found.
+     * @throws ResourceNotFoundException if the user or procedure is not found.
+     * @throws RestException with {@code 409} if the time is already booked.
      */
     @Override
+    @Transactional
     public BookingDto createBooking(NewBookingDto bookingDto) {
         User client = userRepository.findById(bookingDto.getClientId())
                 .orElseThrow(() -> new ResourceNotFoundException ("Client not found"));
 
-        User master = userRepository.findById(bookingDto.getMasterId())
-                .orElseThrow(() -> new ResourceNotFoundException("Master not found"));
-
         Procedure procedure = procedureRepository.findById(bookingDto.getProcedureId())
                 .orElseThrow(() -> new ResourceNotFoundException("Procedure not found"));
 
+        LocalDateTime start = LocalDateTime.parse(bookingDto.getDateTime());
+        LocalDateTime end = start.plus(availabilityService.durationOf(procedure));
+        availabilityService.reserve(bookingDto.getMasterId(), start, end);
+
+        User master = userRepository.findByIdForUpdate(bookingDto.getMasterId())
+                .orElseThrow(() -> new ResourceNotFoundException("Master not found"));
+        if (bookingRepository.existsConfirmedOverlapping(master.getId(), start, end)) {
+            throw new RestException(HttpStatus.CONFLICT, "This time is already booked");
+        }
+
         Booking booking = new Booking();
-        booking.setDateTime(LocalDateTime.parse(bookingDto.getDateTime()));
+        booking.setDateTime(start);
+        booking.setEndDateTime(end);
         booking.setClient(client);
         booking.setMaster(master);
         booking.setProcedure(procedure);
@@ -63,17 +100,45 @@ public class BookingServiceImpl implements BookingService {
 
     /**
      * Updates the status of an existing booking.
+     * Confirming a booking again takes its time the way {@link #createBooking} does, so a cancelled booking cannot
+     * be confirmed over a booking made for the same time in the meantime.
      *
      * @param bookingDto the DTO containing the booking ID and new status.
      * @throws IllegalArgumentException if the booking with the given ID is not found.
+     * @throws RestException with {@code 409} if the booking is confirmed again and its time is already booked.
      */
     @Override
+    @Transactional
     public void updateBookingStatus(NewUpdateBookingDto bookingDto) {
         Booking existingBooking = bookingRepository.findById(bookingDto.getId())
                 .orElseThrow(() -> new IllegalArgumentException("Booking with ID " + bookingDto.getId() + " not found"));
 
+        BookingStatus previousStatus = existingBooking.getStatus();
+        if (bookingDto.getStatus() == BookingStatus.CONFIRMED && previousStatus != BookingStatus.CONFIRMED
+                && existingBooking.getMaster() != null) {
+            reserveAgain(existingBooking);
+        }
         existingBooking.setStatus(bookingDto.getStatus());
         bookingRepository.save(existingBooking);
+
+        if (previousStatus != bookingDto.getStatus() && existingBooking.getMaster() != null) {
+            availabilityService.bookingChanged(existingBooking.getMaster().getId());
+        }
+    }
+
+    private void reserveAgain(Booking booking) {
+        Long masterId = booking.getMaster().getId();
+        LocalDateTime start = booking.getDateTime();
+        LocalDateTime end = booking.getEndDateTime() != null ? booking.getEndDateTime()
+                : start.plus(availabilityService.durationOf(booking.getProcedure()));
+        availabilityService.reserve(masterId, start, end);
+
+        userRepository.findByIdForUpdate(masterId)
+                .orElseThrow(() -> new ResourceNotFoundException("Master not found"));
+        if (bookingRepository.existsConfirmedOverlapping(masterId, start, end)) {
+            throw new RestException(HttpStatus.CONFLICT, "This time is already booked");
+        }
+        booking.setEndDateTime(end);
     }
 
     /**
@@ -82,6 +147,7 @@ public class BookingServiceImpl implements BookingService {
      * @param bookingId the ID of the booking to cancel.
      */
     @Override
+    @Transactional
     public void cancelBooking(Long bookingId) {
         NewUpdateBookingDto bookingDto = new NewUpdateBookingDto();
         bookingDto.setId(bookingId);
@@ -90,17 +156,79 @@ public class BookingServiceImpl implements BookingService {
     }
 
     /**
-     * Retrieves a list of bookings for a specific user with a specific status.
+     * Retrieves the bookings of a user with a specific status, both as client and as master, earliest first.
+     * The client and the master bookings are read by two separate queries, so each one uses its own index;
+     * a booking of the user with themselves is listed once.
      *
      * @param userId the ID of the user for whom the bookings are to be retrieved.
-     * @param status the status of the bookings to retrieve.
+     * @param status the status of the bookings to retrieve, {@code null} matches no booking.
      * @return a list of BookingDto objects representing the user's bookings.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> findBookingsByUser(Long userId, BookingStatus status) {
-        List<Booking> bookings = bookingRepository.findBookingsByUserIdAndStatus(userId, status);
-        return bookings.stream()
+        if (status == null) {
+            return new ArrayList<>();
+        }
+        Map<Long, BookingRow> rows = new HashMap<>();
+        bookingRepository.findClientBookings(userId, status, EARLIEST, LATEST, EARLIEST, 0L, Pageable.unpaged())
+                .forEach(row -> rows.put(row.id(), row));
+        bookingRepository.findMasterBookings(userId, status, EARLIEST, LATEST, EARLIEST, 0L, Pageable.unpaged())
+                .forEach(row -> rows.putIfAbsent(row.id(), row));
+        return rows.values().stream()
+                .sorted(Comparator.comparing(BookingRow::dateTime).thenComparing(BookingRow::id))
                 .map(bookingMapper::toDto)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Gets a page of the bookings of a client, earliest first.
+     *
+     * @param clientId client ID
+     * @param status   status of the bookings
+     * @param from     earliest start, inclusive, {@code null} for no lower bound
+     * @param to       latest start, exclusive, {@code null} for no upper bound
+     * @param cursor   cursor returned with the previous page, {@code null} for the first page
+     * @param size     page size
+     * @return the page of bookings and the cursor of the next page
+     * @throws IllegalArgumentException if {@code from} is not before {@code to} or the cursor is invalid
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookingDto> findClientBookings(Long clientId, BookingStatus status, LocalDateTime from,
+                                                     LocalDateTime to, String cursor, int size) {
+        return findPage(bookingRepository::findClientBookings, clientId, status, from, to, cursor, size);
+    }
+
+    /**
+     * Gets a page of the bookings of a master, earliest first; see {@link #findClientBookings}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookingDto> findMasterBookings(Long masterId, BookingStatus status, LocalDateTime from,
+                                                     LocalDateTime to, String cursor, int size) {
+        return findPage(bookingRepository::findMasterBookings, masterId, status, from, to, cursor, size);
+    }
+
+    private CursorPage<BookingDto> findPage(BookingQuery query, Long userId, BookingStatus status, LocalDateTime from,
+                                            LocalDateTime to, String cursor, int size) {
+        LocalDateTime start = from == null ? EARLIEST : from;
+        LocalDateTime end = to == null ? LATEST : to;
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        KeysetCursor.TimeKey after = KeysetCursor.decodeTimeKey(KeysetCursor.BOOKINGS, cursor);
+        PageRequest page = PageRequest.ofSize(size);
+        // the first page seeks from the start of the range
+        List<BookingRow> rows = after == null
+                ? query.find(userId, status, start, end, start, 0L, page)
+                : query.find(userId, status, start, end, after.time(), after.id(), page);
+
+        String nextCursor = null;
+        if (rows.size() == size) {
+            BookingRow last = rows.get(rows.size() - 1);
+            nextCursor = KeysetCursor.encode(KeysetCursor.BOOKINGS, last.dateTime(), last.id());
+        }
+        return new CursorPage<>(rows.stream().map(bookingMapper::toDto).collect(Collectors.toList()), nextCursor);
+    }
 }
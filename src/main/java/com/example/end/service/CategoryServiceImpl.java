@@ -1,23 +1,23 @@
 package com.example.end.service;
 
 import com.example.end.dto.CategoryDto;
-import com.example.end.dto.ProcedureByCategoryDto;
 import com.example.end.infrastructure.exceptions.ResourceAlreadyExistsException;
 import com.example.end.infrastructure.exceptions.ResourceNotFoundException;
 import com.example.end.mapping.CategoryMapper;
-import com.example.end.mapping.ProcedureMapper;
 import com.example.end.models.Category;
 import com.example.end.models.Procedure;
 import com.example.end.repository.CategoryRepository;
+import com.example.end.repository.ProcedureRepository;
 import com.example.end.service.interfaces.CategoryService;
-import com.example.end.service.interfaces.ProcedureService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -30,8 +30,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
-    private final ProcedureService procedureService;
-    private final ProcedureMapper procedureMapper;
+    private final ProcedureRepository procedureRepository;
 
     /**
      * Retrieves all categories from the database.
@@ -67,34 +66,38 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     /**
-     * Retrieves procedures for the specified categories and filters them by procedure IDs.
+     * Resolves the selected procedures, each of which has to belong to one of the selected categories.
+     * <p>
+     * The procedures are loaded with their categories by one query and checked against the ids of the
+     * selected categories, so the cost does not grow with the number of categories. The returned procedures
+     * are managed by the current persistence context and can be assigned to a user directly.
+     * </p>
      *
-     * @param selectedCategories the set of categories to fetch procedures from.
-     * @param procedureIds the list of procedure IDs to filter by.
-     * @return a set of Procedure entities matching the criteria.
-     * @throws  if a procedure ID is not found.
+     * @param selectedCategories the categories the procedures have to belong to.
+     * @param procedureIds the IDs of the selected procedures.
+     * @return the selected Procedure entities.
+     * @throws ResourceNotFoundException if a procedure does not exist or belongs to none of the selected categories.
      */
     @Override
+    @Transactional
     public Set<Procedure> getProceduresForCategories(Set<Category> selectedCategories, List<Long> procedureIds) {
-        Set<Procedure> selectedProcedures = new HashSet<>();
-
-        for (Category category : selectedCategories) {
-            List<ProcedureByCategoryDto> procedureDtosForCategory = procedureService.findProceduresByCategoryId(category.getId());
-
-            List<Procedure> proceduresForCategory = procedureDtosForCategory.stream()
-                    .map(procedureMapper::toEntity)
-                    .collect(Collectors.toList());
-
-            for (Long procedureId : procedureIds) {
-                Procedure procedure = proceduresForCategory.stream()
-                        .filter(p -> p.getId().equals(procedureId))
-                        .findFirst()
-                        .orElseThrow(() -> new ResourceNotFoundException ("Procedure not found for id: " + procedureId));
+        if (procedureIds == null || procedureIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        Set<Long> categoryIds = selectedCategories.stream()
+                .map(Category::getId)
+                .collect(Collectors.toSet());
+        Map<Long, Procedure> procedures = procedureRepository.findAllWithCategoryByIdIn(new HashSet<>(procedureIds)).stream()
+                .collect(Collectors.toMap(Procedure::getId, Function.identity()));
 
-                selectedProcedures.add(procedure);
+        Set<Procedure> selectedProcedures = new HashSet<>();
+        for (Long procedureId : procedureIds) {
+            Procedure procedure = procedures.get(procedureId);
+            if (procedure == null || !categoryIds.contains(procedure.getCategory().getId())) {
+                throw new ResourceNotFoundException("Procedure not found for id: " + procedureId);
             }
+            selectedProcedures.add(procedure);
         }
-
         return selectedProcedures;
     }
 
@@ -118,6 +121,8 @@ public class CategoryServiceImpl implements CategoryService {
 
     /**
      * Updates an existing category based on the provided category ID and updated CategoryDto.
+     * The managed category is renamed in place, which keeps its procedures and replaces the cached
+     * category when the transaction commits.
      *
      * @param id the ID of the category to update.
      * @param updatedCategoryDto the CategoryDto containing the updated category data.
@@ -125,15 +130,13 @@ public class CategoryServiceImpl implements CategoryService {
      * @throws  if the category with the given ID does not exist.
      */
     @Override
+    @Transactional
     public CategoryDto updateCategory(Long id, CategoryDto updatedCategoryDto) {
         Category existingCategory = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException ("Category not found with id: " + id));
 
-        Category updatedCategory = categoryMapper.toEntity(updatedCategoryDto);
-        updatedCategory.setId(existingCategory.getId());
-
-        Category savedCategory = categoryRepository.save(updatedCategory);
-        return categoryMapper.toDto(savedCategory);
+        existingCategory.setName(updatedCategoryDto.getName());
+        return categoryMapper.toDto(existingCategory);
     }
 
     /**
@@ -0,0 +1,197 @@
+package com.example.end.service;
+
+import com.example.end.dto.TopMasterDto;
+import com.example.end.repository.MasterRatingRepository;
+import com.example.end.repository.UserDetailsReadRepository;
+import com.example.end.repository.projection.OwnedId;
+import com.example.end.repository.projection.RatingTotals;
+import com.example.end.repository.projection.UserRow;
+import com.example.end.service.interfaces.LeaderboardService;
+import com.example.end.service.leaderboard.MasterLeaderboard;
+import com.example.end.service.leaderboard.MasterLeaderboard.Standing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of {@link LeaderboardService}.
+ * <p>
+ * Keeps a {@link MasterLeaderboard} of all active masters with reviews in memory. It is built on the first
+ * read and rebuilt periodically, which also picks up reviews written on other nodes and renews the prior
+ * mean. In between, every review and every change of a master moves that master once its transaction has
+ * committed. Reading the top masters costs one query for their names.
+ * </p>
+ */
+@Slf4j
+@Service
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private final MasterRatingRepository ratingRepository;
+    private final UserDetailsReadRepository userDetailsReadRepository;
+    private final MasterLeaderboard leaderboard;
+    // a lock rather than synchronized: a virtual thread blocked on JDBC inside synchronized pins its carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // masters to move, applied by whichever thread holds the lock next
+    private final Set<Long> pendingRefreshes = ConcurrentHashMap.newKeySet();
+
+    public LeaderboardServiceImpl(MasterRatingRepository ratingRepository,
+                                  UserDetailsReadRepository userDetailsReadRepository,
+                                  @Value("${reviews.leaderboard.prior-weight:10}") double priorWeight,
+                                  @Value("${reviews.leaderboard.default-prior-mean:4.0}") double defaultPriorMean) {
+        this.ratingRepository = ratingRepository;
+        this.userDetailsReadRepository = userDetailsReadRepository;
+        this.leaderboard = new MasterLeaderboard(priorWeight, defaultPriorMean);
+    }
+
+    /**
+     * Gets the top-rated masters, ordered by their weighted rating.
+     *
+     * @param categoryId category to rank the masters of, {@code null} for all masters
+     * @param limit      maximum number of masters
+     * @return the best masters, best first
+     */
+    @Override
+    public List<TopMasterDto> getTopMasters(Long categoryId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        if (!leaderboard.isBuilt()) {
+            buildLeaderboardOnce();
+        }
+        List<Standing> standings = leaderboard.top(categoryId, limit);
+        if (standings.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, UserRow> users = userDetailsReadRepository.findUserRows(standings.stream().map(Standing::masterId).toList())
+                .stream()
+                .collect(Collectors.toMap(UserRow::id, Function.identity()));
+
+        List<TopMasterDto> top = new ArrayList<>(standings.size());
+        for (Standing standing : standings) {
+            UserRow user = users.get(standing.masterId());
+            // deleted after the standing was read
+            if (user != null) {
+                top.add(toDto(top.size() + 1, standing, user));
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Rebuilds the leaderboard with two queries: the review totals and the categories of all active masters.
+     */
+    @Override
+    public void rebuildLeaderboard() {
+        rebuildLock.lock();
+        try {
+            long startedAt = System.nanoTime();
+            List<RatingTotals> totals = ratingRepository.findActiveMasterTotals();
+            Map<Long, Set<Long>> categoriesByMaster = new HashMap<>();
+            for (OwnedId category : userDetailsReadRepository.findActiveMasterCategoryIds()) {
+                categoriesByMaster.computeIfAbsent(category.ownerId(), id -> new HashSet<>()).add(category.id());
+            }
+            leaderboard.replaceAll(totals, categoriesByMaster);
+            log.debug("Leaderboard rebuilt: {} masters, prior mean {} in {} ms", leaderboard.size(),
+                    leaderboard.priorMean(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } finally {
+            rebuildLock.unlock();
+        }
+        // changes committed while the rebuild was reading may be missing from it
+        applyPendingRefreshes();
+    }
+
+    private void buildLeaderboardOnce() {
+        rebuildLock.lock();
+        try {
+            if (!leaderboard.isBuilt()) {
+                rebuildLeaderboard();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Moves a master whose reviews, categories or activation changed, or who was deleted,
+     * once the surrounding transaction has committed. The caller never waits for a rebuild:
+     * if one is running, the master is moved right after it.
+     */
+    @Override
+    public void masterChanged(Long masterId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(masterId);
+                }
+            });
+        } else {
+            refresh(masterId);
+        }
+    }
+
+    private void refresh(Long masterId) {
+        pendingRefreshes.add(masterId);
+        applyPendingRefreshes();
+    }
+
+    // whoever holds the lock applies the pending refreshes; checking again after unlocking means a master
+    // added while the lock was held is never left behind
+    private void applyPendingRefreshes() {
+        while (!pendingRefreshes.isEmpty() && rebuildLock.tryLock()) {
+            try {
+                for (Long masterId : List.copyOf(pendingRefreshes)) {
+                    pendingRefreshes.remove(masterId);
+                    refreshLocked(masterId);
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+    }
+
+    // reading and moving under one lock: a refresh applied later has also read later, so an older
+    // state never overwrites a newer one, and a running rebuild is never overwritten either
+    private void refreshLocked(Long masterId) {
+        if (!leaderboard.isBuilt()) {
+            return;
+        }
+        Optional<RatingTotals> totals = ratingRepository.findActiveMasterTotals(masterId);
+        if (totals.isEmpty()) {
+            leaderboard.remove(masterId);
+            return;
+        }
+        Set<Long> categoryIds = userDetailsReadRepository.findCategoryIds(List.of(masterId)).stream()
+                .map(OwnedId::id)
+                .collect(Collectors.toSet());
+        leaderboard.update(totals.get(), categoryIds);
+    }
+
+    private static TopMasterDto toDto(int rank, Standing standing, UserRow user) {
+        return TopMasterDto.builder()
+                .rank(rank)
+                .masterId(standing.masterId())
+                .firstName(user.firstName())
+                .lastName(user.lastName())
+                .profileImageUrl(user.profilePhotoUrl())
+                .averageRating(standing.averageRating())
+                .reviewCount(standing.reviewCount())
+                .weightedRating(standing.weightedRating())
+                .build();
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.end.service;
+
+import com.example.end.models.MasterRating;
+import com.example.end.repository.MasterRatingRepository;
+import com.example.end.repository.ReviewRepository;
+import com.example.end.repository.UserDetailsReadRepository;
+import com.example.end.repository.UserRepository;
+import com.example.end.repository.projection.OwnedId;
+import com.example.end.repository.projection.RatingCount;
+import com.example.end.service.interfaces.LeaderboardService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the {@link MasterRating} aggregates.
+ * <p>
+ * Every added or deleted review updates the aggregate of its master in place, within the transaction of
+ * the review. The first review of a master creates the aggregate under the lock of the master row, so two
+ * first reviews cannot both insert it. {@link #reconcile} compares the aggregates with the raw reviews in
+ * batches of masters; it backfills missing aggregates and repairs drifted ones.
+ * </p>
+ */
+@Slf4j
+@Component
+public class MasterRatingAggregator {
+
+    /**
+     * Outcome of a {@link #reconcile} run.
+     */
+    public record Reconciliation(long checked, long mismatched, long repaired) {
+    }
+
+    private record Batch(int size, Long lastId, List<Long> mismatched) {
+    }
+
+    private final MasterRatingRepository ratingRepository;
+    private final ReviewRepository reviewRepository;
+    private final UserRepository userRepository;
+    private final UserDetailsReadRepository userDetailsReadRepository;
+    private final UserCacheInvalidator userCacheInvalidator;
+    private final LeaderboardService leaderboardService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Counter mismatches;
+
+    public MasterRatingAggregator(MasterRatingRepository ratingRepository,
+                                  ReviewRepository reviewRepository,
+                                  UserRepository userRepository,
+                                  UserDetailsReadRepository userDetailsReadRepository,
+                                  UserCacheInvalidator userCacheInvalidator,
+                                  LeaderboardService leaderboardService,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.ratingRepository = ratingRepository;
+        this.reviewRepository = reviewRepository;
+        this.userRepository = userRepository;
+        this.userDetailsReadRepository = userDetailsReadRepository;
+        this.userCacheInvalidator = userCacheInvalidator;
+        this.leaderboardService = leaderboardService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.mismatches = Counter.builder("rating.aggregate.mismatches")
+                .description("Master rating aggregates that differed from the reviews")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds a new review to the aggregate of its master.
+     *
+     * @param masterId master ID
+     * @param stars    stars of the review, 1 to 5
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reviewAdded(Long masterId, int stars) {
+        MasterRating.checkStars(stars);
+        ratingChanged(masterId);
+        if (ratingRepository.addReview(masterId, stars, 1) > 0) {
+            return;
+        }
+        // first review of the master: creating the aggregate is serialized on the master row
+        userRepository.findByIdForUpdate(masterId);
+        if (ratingRepository.addReview(masterId, stars, 1) == 0) {
+            MasterRating rating = MasterRating.empty(masterId);
+            rating.add(stars, 1);
+            ratingRepository.save(rating);
+        }
+    }
+
+    /**
+     * Removes a deleted review from the aggregate of its master.
+     *
+     * @param masterId master ID
+     * @param stars    stars of the review, 1 to 5
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reviewRemoved(Long masterId, int stars) {
+        MasterRating.checkStars(stars);
+        ratingChanged(masterId);
+        if (ratingRepository.addReview(masterId, stars, -1) == 0) {
+            log.warn("Master {} has no rating aggregate, it is rebuilt by the next consistency check", masterId);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void masterDeleted(Long masterId) {
+        if (ratingRepository.existsById(masterId)) {
+            ratingRepository.deleteById(masterId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<MasterRating> find(Long masterId) {
+        return ratingRepository.findById(masterId);
+    }
+
+    /**
+     * Compares the aggregates of all masters with their reviews, {@code batchSize} masters per query.
+     * Each batch runs in its own read-only transaction, and each repair in a short transaction of its own.
+     *
+     * @param repair    {@code true} to rewrite missing or drifted aggregates, {@code false} to only report them
+     * @param batchSize number of masters compared at once
+     */
+    public Reconciliation reconcile(boolean repair, int batchSize) {
+        long checked = 0;
+        long mismatched = 0;
+        long repaired = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            Batch batch = readOnlyTransactionTemplate.execute(status -> compareBatch(from, batchSize));
+            checked += batch.size();
+            mismatched += batch.mismatched().size();
+            if (repair) {
+                for (Long masterId : batch.mismatched()) {
+                    transactionTemplate.executeWithoutResult(status -> rebuild(masterId));
+                    repaired++;
+                }
+            }
+            if (batch.size() < batchSize) {
+                break;
+            }
+            afterId = batch.lastId();
+        }
+        mismatches.increment(mismatched);
+        if (mismatched > 0) {
+            log.warn("Rating aggregates of {} of {} masters differed from their reviews, repaired {}",
+                    mismatched, checked, repaired);
+        }
+        return new Reconciliation(checked, mismatched, repaired);
+    }
+
+    private Batch compareBatch(long afterId, int batchSize) {
+        List<Long> masterIds = userRepository.findMasterIdsAfter(afterId, PageRequest.ofSize(batchSize));
+        if (masterIds.isEmpty()) {
+            return new Batch(0, null, List.of());
+        }
+        Map<Long, MasterRating> expected = countReviews(masterIds);
+        Map<Long, MasterRating> actual = ratingRepository.findAllById(masterIds).stream()
+                .collect(Collectors.toMap(MasterRating::getMasterId, Function.identity()));
+
+        List<Long> mismatched = new ArrayList<>();
+        for (Long masterId : masterIds) {
+            MasterRating counted = expected.getOrDefault(masterId, MasterRating.empty(masterId));
+            MasterRating stored = actual.get(masterId);
+            boolean consistent = stored == null ? counted.getReviewCount() == 0 : stored.sameCounts(counted);
+            if (!consistent) {
+                log.debug("Rating aggregate of master {} is {}, reviews give {}", masterId, stored, counted);
+                mismatched.add(masterId);
+            }
+        }
+        return new Batch(masterIds.size(), masterIds.get(masterIds.size() - 1), mismatched);
+    }
+
+    // the aggregate (or, before the first review, the master row) is locked before counting, so reviews
+    // written meanwhile are either counted or applied on top of the rebuilt aggregate
+    private void rebuild(Long masterId) {
+        if (ratingRepository.findByIdForUpdate(masterId).isEmpty()) {
+            userRepository.findByIdForUpdate(masterId);
+        }
+        MasterRating counted = countReviews(List.of(masterId)).getOrDefault(masterId, MasterRating.empty(masterId));
+        ratingRepository.save(counted);
+        ratingChanged(masterId);
+    }
+
+    // cached master listings show the rating, so they are evicted once the new rating is visible;
+    // the leaderboard moves the master at the same time
+    private void ratingChanged(Long masterId) {
+        leaderboardService.masterChanged(masterId);
+        List<Long> categoryIds = userDetailsReadRepository.findCategoryIds(List.of(masterId)).stream()
+                .map(OwnedId::id)
+                .toList();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userCacheInvalidator.evictUser(masterId, categoryIds, List.of());
+            }
+        });
+    }
+
+    private Map<Long, MasterRating> countReviews(Collection<Long> masterIds) {
+        Map<Long, MasterRating> ratings = new HashMap<>();
+        for (RatingCount count : reviewRepository.countRatingsByMasterIds(masterIds)) {
+            ratings.computeIfAbsent(count.masterId(), MasterRating::empty).add(count.stars(), count.count());
+        }
+        return ratings;
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.end.service;
+
+import com.example.end.infrastructure.config.ImageUploadService;
+import com.example.end.infrastructure.exceptions.ImageUploadException;
+import com.example.end.infrastructure.exceptions.RestException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uploads a batch of portfolio images to Cloudinary concurrently, on a dedicated pool.
+ * <p>
+ * The pool size caps the uploads of the whole node, and a user never has more than
+ * {@code portfolio.upload.per-user} uploads in flight across all of their requests; further files of the user
+ * wait for one of them to finish. When the queue of the pool is full, or the user's uploads do not get going
+ * within the timeout, the request is rejected with {@code 429 Too Many Requests}.
+ * </p>
+ * <p>
+ * A batch is all or nothing: if one file fails, the files not yet started are skipped and the images already
+ * uploaded are deleted again, including those whose upload only finishes after the batch has given up.
+ * </p>
+ */
+@Slf4j
+@Service
+public class PortfolioUploadPipeline {
+
+    private final ImageUploadService imageUploadService;
+    private final int perUser;
+    private final Duration timeout;
+    private final ThreadPoolExecutor executor;
+    // held by the uploads in flight, so a user's permits live exactly as long as they are in use
+    private final Cache<Long, Semaphore> userPermits = Caffeine.newBuilder().weakValues().build();
+    private final Counter rejected;
+
+    public PortfolioUploadPipeline(ImageUploadService imageUploadService,
+                                   @Value("${portfolio.upload.threads:8}") int threads,
+                                   @Value("${portfolio.upload.per-user:3}") int perUser,
+                                   @Value("${portfolio.upload.queue-capacity:64}") int queueCapacity,
+                                   @Value("${portfolio.upload.timeout:60s}") Duration timeout,
+                                   MeterRegistry meterRegistry) {
+        this.imageUploadService = imageUploadService;
+        this.perUser = perUser;
+        this.timeout = timeout;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "BeautyBook-PortfolioUpload-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.rejected = Counter.builder("portfolio.upload.rejected")
+                .register(meterRegistry);
+        Gauge.builder("portfolio.upload.queue.size", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("portfolio.upload.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Uploads the files and waits for all of them.
+     *
+     * @return the URLs of the uploaded images, in the order of the files
+     * @throws ImageUploadException if a file fails to upload; no image of the batch is kept
+     * @throws RestException with {@code 429} if the pool or the user's uploads are saturated
+     */
+    public List<String> upload(Long userId, List<MultipartFile> files) {
+        Semaphore permits = userPermits.get(userId, id -> new Semaphore(perUser, true));
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Batch batch = new Batch();
+        List<Future<String>> uploads = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                if (batch.isStopped()) {
+                    break;
+                }
+                if (!permits.tryAcquire(remaining(deadline), TimeUnit.NANOSECONDS)) {
+                    throw tooManyUploads(userId);
+                }
+                try {
+                    uploads.add(executor.submit(() -> upload(batch, file, permits)));
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    throw tooManyUploads(userId);
+                }
+            }
+            List<String> imageUrls = new ArrayList<>(files.size());
+            for (Future<String> upload : uploads) {
+                imageUrls.add(upload.get(remaining(deadline), TimeUnit.NANOSECONDS));
+            }
+            return imageUrls;
+        } catch (ExecutionException e) {
+            discard(batch);
+            throw new ImageUploadException("Error uploading image for user " + userId, e.getCause());
+        } catch (TimeoutException e) {
+            discard(batch);
+            throw new ImageUploadException("Timed out uploading images for user " + userId, e);
+        } catch (InterruptedException e) {
+            discard(batch);
+            Thread.currentThread().interrupt();
+            throw new ImageUploadException("Interrupted while uploading images for user " + userId, e);
+        } catch (RuntimeException e) {
+            discard(batch);
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes uploaded images again, e.g. when their rows could not be saved. Failures are logged, the images
+     * then remain orphaned in Cloudinary.
+     */
+    public void discard(List<String> imageUrls) {
+        imageUrls.forEach(this::delete);
+    }
+
+    private String upload(Batch batch, MultipartFile file, Semaphore permits) throws IOException {
+        try {
+            if (batch.isStopped()) {
+                return null;
+            }
+            String imageUrl = imageUploadService.uploadImage(file);
+            if (!batch.record(imageUrl)) {
+                // the batch has given up while this file was uploading
+                delete(imageUrl);
+            }
+            return imageUrl;
+        } catch (IOException | RuntimeException e) {
+            batch.fail();
+            throw e;
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(Batch batch) {
+        List<String> imageUrls = batch.abort();
+        if (!imageUrls.isEmpty()) {
+            log.info("Deleting {} images of a failed portfolio upload", imageUrls.size());
+        }
+        discard(imageUrls);
+    }
+
+    private void delete(String imageUrl) {
+        try {
+            imageUploadService.deleteImage(imageUploadService.extractPublicId(imageUrl));
+        } catch (Exception e) {
+            log.warn("Failed to delete image {} of a failed portfolio upload: {}", imageUrl, e.getMessage());
+        }
+    }
+
+    private RestException tooManyUploads(Long userId) {
+        rejected.increment();
+        log.warn("Portfolio upload pool is saturated, rejecting upload of user {}", userId);
+        return new RestException(HttpStatus.TOO_MANY_REQUESTS, "Too many uploads in progress, please try again shortly");
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    /**
+     * The images of one request uploaded so far. Once aborted, it takes no further images, so that each image is
+     * deleted exactly once: by the request, or by the upload finishing after it.
+     */
+    private static class Batch {
+
+        private final List<String> imageUrls = new ArrayList<>();
+        private volatile boolean failed;
+        private boolean aborted;
+
+        void fail() {
+            failed = true;
+        }
+
+        boolean isStopped() {
+            return failed;
+        }
+
+        synchronized boolean record(String imageUrl) {
+            if (aborted) {
+                return false;
+            }
+            imageUrls.add(imageUrl);
+            return true;
+        }
+
+        synchronized List<String> abort() {
+            aborted = true;
+            failed = true;
+            return List.copyOf(imageUrls);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -13,6 +13,7 @@ import com.example.end.repository.ProcedureRepository;
 import com.example.end.service.interfaces.ProcedureService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -58,21 +59,25 @@ public class ProcedureServiceImpl implements ProcedureService {
 
     /**
      * Updates an existing procedure.
+     * <p>
+     * The managed procedure is changed in place, so it keeps its category, and the cached procedure
+     * and the cached procedures of its category are replaced when the transaction commits.
+     * </p>
      *
      * @param updatedProcedureDto the DTO containing the updated procedure details
      * @throws  if the procedure with the given ID does not exist
      */
 
     @Override
+    @Transactional
     public ProcedureDto update(Long id, ProcedureDto updatedProcedureDto) {
         Procedure existingProcedure = procedureRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException ("Procedure not found with id: " + id));
 
-        Procedure updatedProcedure = procedureMapper.fromProcedureDto(updatedProcedureDto);
-        updatedProcedure.setId(existingProcedure.getId());
-
-        Procedure savedProcedure = procedureRepository.save(updatedProcedure);
-        return procedureMapper.toDto(savedProcedure);
+        existingProcedure.setName(updatedProcedureDto.getName());
+        existingProcedure.setPrice(updatedProcedureDto.getPrice());
+        existingProcedure.setDurationMinutes(updatedProcedureDto.getDurationMinutes());
+        return procedureMapper.toDto(existingProcedure);
     }
     /**
      * Deletes a procedure by its ID.
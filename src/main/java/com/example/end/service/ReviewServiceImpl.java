@@ -1,17 +1,23 @@
 package com.example.end.service;
 
+import com.example.end.dto.CursorPage;
 import com.example.end.dto.ReviewDto;
 import com.example.end.dto.UserDto;
 import com.example.end.infrastructure.exceptions.ResourceNotFoundException;
 import com.example.end.mapping.ReviewMapper;
 import com.example.end.mapping.UserMapper;
+import com.example.end.models.MasterRating;
 import com.example.end.models.Review;
 import com.example.end.models.User;
 import com.example.end.repository.ReviewRepository;
+import com.example.end.repository.projection.ReviewRow;
 import com.example.end.service.interfaces.ReviewService;
 import com.example.end.service.interfaces.UserService;
+import com.example.end.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,18 +35,33 @@ public class ReviewServiceImpl implements ReviewService {
     private final ReviewMapper reviewMapper;
     private final UserService userService;
     private final UserMapper userMapper;
+    private final MasterRatingAggregator masterRatingAggregator;
 
     /**
-     * Retrieves all reviews for a specific master.
+     * Retrieves one page of the reviews of a master, newest first.
+     * Rows are read as projections and every page seeks through the {@code (master_id, created_at)} index,
+     * so the first page of a master with many thousands of reviews costs as much as any other.
      *
      * @param masterId the ID of the master for whom to retrieve reviews.
-     * @return a list of ReviewDto objects representing the reviews for the specified master.
+     * @param cursor   cursor returned with the previous page, {@code null} for the newest reviews.
+     * @param size     maximum number of reviews on the page.
+     * @return the page of reviews and the cursor of the next page.
      */
-    public List<ReviewDto> getReviewsByMaster(Long masterId) {
-        List<Review> reviews = reviewRepository.findByMasterId(masterId);
-        return reviews.stream()
-                .map(reviewMapper::toDto)
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ReviewDto> getReviewsByMaster(Long masterId, String cursor, int size) {
+        KeysetCursor.TimeKey after = KeysetCursor.decodeTimeKey(KeysetCursor.REVIEWS, cursor);
+        PageRequest page = PageRequest.ofSize(size);
+        List<ReviewRow> rows = after == null
+                ? reviewRepository.findFeedByMasterId(masterId, page)
+                : reviewRepository.findFeedByMasterIdBefore(masterId, after.time(), after.id(), page);
+
+        String nextCursor = null;
+        if (rows.size() == size) {
+            ReviewRow last = rows.get(rows.size() - 1);
+            nextCursor = KeysetCursor.encode(KeysetCursor.REVIEWS, last.createdAt(), last.id());
+        }
+        return new CursorPage<>(rows.stream().map(reviewMapper::toDto).collect(Collectors.toList()), nextCursor);
     }
 
     /**
@@ -51,6 +72,7 @@ public class ReviewServiceImpl implements ReviewService {
      * @throws IllegalArgumentException if the client or master is not found.
      */
     @Override
+    @Transactional
     public ReviewDto addReview(ReviewDto reviewDto) {
         UserDto clientDto = userService.getClientById(reviewDto.getClientId());
         User clientEntity = userMapper.toEntity(clientDto);
@@ -68,25 +90,23 @@ public class ReviewServiceImpl implements ReviewService {
             review.setCreatedAt(LocalDateTime.now());
 
             Review savedReview = reviewRepository.save(review);
+            masterRatingAggregator.reviewAdded(masterEntity.getId(), savedReview.getRating());
             return reviewMapper.toDto(savedReview);
         } else {
             throw new IllegalArgumentException("Client or master not found");
         }
     }
     /**
-     * Retrieves the average rating of a master based on reviews.
+     * Retrieves the average rating of a master from the master's rating aggregate.
      *
      * @param masterId the ID of the master whose rating is to be calculated.
      * @return the average rating of the master. If there are no reviews, returns 0.
      */
     @Override
     public double getMasterRating(Long masterId) {
-        List<Review> reviews = reviewRepository.findByMasterId(masterId);
-
-        return reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0);
+        return masterRatingAggregator.find(masterId)
+                .map(MasterRating::average)
+                .orElse(0.0);
     }
 
     /**
@@ -96,10 +116,12 @@ public class ReviewServiceImpl implements ReviewService {
      * @throws  if the review with the given ID does not exist.
      */
     @Override
+    @Transactional
     public void deleteReview(Long reviewId) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new ResourceNotFoundException("Review not found with id: " + reviewId));
 
         reviewRepository.delete(review);
+        masterRatingAggregator.reviewRemoved(review.getMaster().getId(), review.getRating());
     }
 }
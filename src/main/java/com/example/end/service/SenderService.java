@@ -4,10 +4,12 @@ import com.example.end.infrastructure.mail.ProjectMailSender;
 import com.example.end.models.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 public class SenderService {
@@ -35,14 +37,14 @@ public class SenderService {
             throw new IllegalArgumentException("Mandatory fields (email, firstName, lastName, message) cannot be empty or null.");
         }
 
-        String subject = "Neue Nachricht vom Benutzer: " + firstName + " " + lastName;
-        String messageBody = String.format("E-Mail: %s\nTelefon: %s\nNachricht: %s", email, phone != null ? phone : "Nicht angegeben", message);
-
-        try {
-            mailSender.sendEmail(adminEmail, subject, messageBody);
-        } catch (MailException ex) {
-            throw new RuntimeException("Failed to send the message to the administrator. Please try again later.", ex);
-        }
+        Map<String, String> model = new HashMap<>();
+        model.put("email", email);
+        // a missing phone is left to the template's default
+        model.put("phone", phone);
+        model.put("firstName", firstName);
+        model.put("lastName", lastName);
+        model.put("message", message);
+        mailSender.send(adminEmail, "admin-message", model);
     }
 
     /**
@@ -60,11 +62,7 @@ public class SenderService {
             throw new IllegalArgumentException("This user is not a master.");
         }
 
-        String subject = "Ihre Registrierung als Meister wartet auf Bestätigung";
-        String messageToMaster = "Ihre Registrierung als Meister wurde erfolgreich erfasst und wartet auf die Bestätigung des Administrators.";
-        mailSender.sendEmail(user.getEmail(), subject, messageToMaster);
-
-        String messageToAdmin = user.getFirstName() + " " + user.getLastName();
-        mailSender.sendMasterConfirmationRequest(adminEmail, messageToAdmin);
+        mailSender.send(user.getEmail(), "master-registration-pending", user.getLocale(), Map.of());
+        mailSender.sendMasterConfirmationRequest(adminEmail, user.getFirstName() + " " + user.getLastName());
     }
 }
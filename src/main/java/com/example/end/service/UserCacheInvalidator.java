@@ -0,0 +1,138 @@
+package com.example.end.service;
+
+import com.example.end.dto.UserDetailsDto;
+import com.example.end.infrastructure.cache.CacheDependencyIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Targeted invalidation of the user listing caches.
+ * <p>
+ * {@code usersByCategory} is keyed by category ID, so a changed user only affects the entries of the
+ * categories the user belonged to before and after the change. {@code allMasters} is keyed by page, so
+ * every cached page records the users it contains in the {@link CacheDependencyIndex}, and a changed
+ * user evicts only the pages that actually list them. A page cannot know a user it does not list yet, so a
+ * master added to the listing clears the masters pages, as a deleted user does.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidator {
+
+    public static final String ALL_MASTERS = "allMasters";
+    public static final String USERS_BY_CATEGORY = "usersByCategory";
+
+    private final CacheManager cacheManager;
+    private final CacheDependencyIndex dependencyIndex;
+
+    /**
+     * Cache key of a masters page, must match the {@code key} expression on {@code getAllMasters}.
+     */
+    public static String mastersPageKey(int page, int size) {
+        return page + ":" + size;
+    }
+
+    /**
+     * Cache key of a keyset masters page, must match the {@code key} expression on {@code getMastersAfter}.
+     */
+    public static String mastersAfterKey(long afterId, int size) {
+        return "after:" + afterId + ":" + size;
+    }
+
+    /**
+     * Records which users are listed on a cached masters page.
+     *
+     * @param page    page number
+     * @param size    page size
+     * @param masters the page content that is about to be cached
+     */
+    public void recordMastersPage(int page, int size, List<UserDetailsDto> masters) {
+        recordMastersPage(mastersPageKey(page, size), masters);
+    }
+
+    /**
+     * Records which users are listed on a cached masters page.
+     *
+     * @param key     cache key of the page
+     * @param masters the page content that is about to be cached
+     */
+    public void recordMastersPage(String key, List<UserDetailsDto> masters) {
+        Set<Long> userIds = masters.stream()
+                .map(UserDetailsDto::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        dependencyIndex.record(ALL_MASTERS, key, userIds);
+    }
+
+    /**
+     * Evicts the cached entries containing the updated user.
+     *
+     * @param userId             the updated user
+     * @param oldCategoryIds     categories of the user before the update
+     * @param currentCategoryIds categories of the user after the update
+     */
+    public void evictUser(Long userId, Collection<Long> oldCategoryIds, Collection<Long> currentCategoryIds) {
+        Set<String> pageKeys = dependencyIndex.removeKeys(ALL_MASTERS, userId);
+        Cache masters = cacheManager.getCache(ALL_MASTERS);
+        if (masters != null) {
+            pageKeys.forEach(masters::evict);
+        }
+
+        Set<Long> categoryIds = new HashSet<>(oldCategoryIds);
+        categoryIds.addAll(currentCategoryIds);
+        evictCategories(categoryIds);
+
+        log.debug("Evicted user {} from masters pages {} and categories {}", userId, pageKeys, categoryIds);
+    }
+
+    /**
+     * Evicts the cached entries affected by a deleted user.
+     * Removing a user shifts every following numbered masters page, so that cache is cleared as a whole.
+     *
+     * @param userId      the deleted user
+     * @param categoryIds categories the user belonged to
+     */
+    public void evictDeletedUser(Long userId, Collection<Long> categoryIds) {
+        dependencyIndex.removeKeys(ALL_MASTERS, userId);
+        Cache masters = cacheManager.getCache(ALL_MASTERS);
+        if (masters != null) {
+            masters.clear();
+        }
+        evictCategories(categoryIds);
+    }
+
+    /**
+     * Evicts the cached entries affected by a master added to the listing, on registration or confirmation.
+     * The new master has the highest id and belongs on the last numbered page or the keyset page following its
+     * predecessor, pages the dependency index cannot name, so that cache is cleared as a whole.
+     *
+     * @param userId      the new master
+     * @param categoryIds categories the master belongs to
+     */
+    public void evictAddedMaster(Long userId, Collection<Long> categoryIds) {
+        Cache masters = cacheManager.getCache(ALL_MASTERS);
+        if (masters != null) {
+            masters.clear();
+        }
+        evictCategories(categoryIds);
+        log.debug("Cleared masters pages for new master {}", userId);
+    }
+
+    private void evictCategories(Collection<Long> categoryIds) {
+        Cache usersByCategory = cacheManager.getCache(USERS_BY_CATEGORY);
+        if (usersByCategory != null) {
+            categoryIds.forEach(usersByCategory::evict);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.end.service;
+
+import com.example.end.dto.PortfolioImageDto;
+import com.example.end.dto.UserDetailsDto;
+import com.example.end.repository.UserDetailsReadRepository;
+import com.example.end.repository.projection.OwnedId;
+import com.example.end.repository.projection.PortfolioPhotoRow;
+import com.example.end.repository.projection.UserRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Builds {@link UserDetailsDto}s for read endpoints without loading {@code User} entities.
+ * <p>
+ * Any number of users costs exactly five queries: one for the users with their rating aggregates and one
+ * for each of their categories, procedures, portfolio photos and reviews, all selected as flat projections
+ * by user id and grouped in memory. Unlike mapping managed entities, this never triggers lazy loading per user.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDetailsReadModel {
+
+    private final UserDetailsReadRepository readRepository;
+
+    /**
+     * Loads the details of the given users.
+     *
+     * @param ids user IDs
+     * @return details in the order of {@code ids}, without the users that do not exist
+     */
+    @Transactional(readOnly = true)
+    public List<UserDetailsDto> findByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, UserDetailsDto> byId = new HashMap<>(ids.size() * 2);
+        for (UserRow row : readRepository.findUserRows(ids)) {
+            byId.put(row.id(), toDto(row));
+        }
+        Collection<Long> found = byId.keySet();
+        if (!found.isEmpty()) {
+            readRepository.findCategoryIds(found)
+                    .forEach(owned -> byId.get(owned.ownerId()).getCategoryIds().add(owned.id()));
+            readRepository.findProcedureIds(found)
+                    .forEach(owned -> byId.get(owned.ownerId()).getProcedureIds().add(owned.id()));
+            for (PortfolioPhotoRow photo : readRepository.findPortfolioPhotos(found)) {
+                byId.get(photo.userId()).getPortfolioImageUrls().add(new PortfolioImageDto(photo.id(), photo.url()));
+            }
+            for (OwnedId review : readRepository.findReviewIds(found)) {
+                byId.get(review.ownerId()).getReviewIds().add(review.id());
+            }
+        }
+
+        List<UserDetailsDto> result = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            UserDetailsDto dto = byId.get(id);
+            if (dto != null) {
+                result.add(dto);
+            }
+        }
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UserDetailsDto> findById(Long id) {
+        List<UserDetailsDto> found = findByIds(List.of(id));
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
+
+    private static UserDetailsDto toDto(UserRow row) {
+        return UserDetailsDto.builder()
+                .id(row.id())
+                .firstName(row.firstName())
+                .lastName(row.lastName())
+                .email(row.email())
+                .phoneNumber(row.phoneNumber())
+                .address(row.address())
+                .description(row.description())
+                .role(row.role())
+                .profileImageUrl(row.profilePhotoUrl())
+                .categoryIds(new ArrayList<>())
+                .procedureIds(new ArrayList<>())
+                .portfolioImageUrls(new ArrayList<>())
+                .reviewIds(new ArrayList<>())
+                .averageRating(row.reviewCount() == null || row.reviewCount() == 0
+                        ? 0.0 : (double) row.ratingSum() / row.reviewCount())
+                .reviewCount(row.reviewCount() == null ? 0L : row.reviewCount())
+                .ratingHistogram(row.reviewCount() == null
+                        ? List.of(0L, 0L, 0L, 0L, 0L)
+                        : List.of(row.stars1(), row.stars2(), row.stars3(), row.stars4(), row.stars5()))
+                .build();
+    }
+}
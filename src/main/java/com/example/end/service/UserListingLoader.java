@@ -0,0 +1,83 @@
+package com.example.end.service;
+
+import com.example.end.dto.UserDetailsDto;
+import com.example.end.infrastructure.cache.TwoLevelCacheManager;
+import com.example.end.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Loads the user listings cached in {@code allMasters} and {@code usersByCategory}, from their cache keys alone.
+ * <p>
+ * The cached service methods load through it, and it is registered as the refresh loader of both caches, so that
+ * background reloads run this code rather than replaying the intercepted call of an earlier request.
+ * </p>
+ */
+@Component
+public class UserListingLoader {
+
+    private static final String AFTER_PREFIX = "after:";
+
+    private final UserRepository userRepository;
+    private final UserDetailsReadModel userDetailsReadModel;
+    private final UserCacheInvalidator userCacheInvalidator;
+    private final ObjectProvider<TwoLevelCacheManager> cacheManager;
+
+    public UserListingLoader(UserRepository userRepository, UserDetailsReadModel userDetailsReadModel,
+                             UserCacheInvalidator userCacheInvalidator,
+                             ObjectProvider<TwoLevelCacheManager> cacheManager) {
+        this.userRepository = userRepository;
+        this.userDetailsReadModel = userDetailsReadModel;
+        this.userCacheInvalidator = userCacheInvalidator;
+        this.cacheManager = cacheManager;
+    }
+
+    @PostConstruct
+    void registerRefreshLoaders() {
+        cacheManager.ifAvailable(manager -> {
+            manager.registerRefreshLoader(UserCacheInvalidator.ALL_MASTERS, this::loadMastersPage);
+            manager.registerRefreshLoader(UserCacheInvalidator.USERS_BY_CATEGORY, key -> usersByCategory((Long) key));
+        });
+    }
+
+    /**
+     * A page of masters by page number, recorded in the dependency index.
+     */
+    public List<UserDetailsDto> mastersPage(int page, int size) {
+        List<UserDetailsDto> result = userDetailsReadModel.findByIds(
+                userRepository.findMasterIds(PageRequest.of(page, size)));
+        userCacheInvalidator.recordMastersPage(UserCacheInvalidator.mastersPageKey(page, size), result);
+        return result;
+    }
+
+    /**
+     * The page of masters following the given id, recorded in the dependency index.
+     */
+    public List<UserDetailsDto> mastersAfter(long afterId, int size) {
+        List<UserDetailsDto> result = userDetailsReadModel.findByIds(
+                userRepository.findMasterIdsAfter(afterId, PageRequest.ofSize(size)));
+        userCacheInvalidator.recordMastersPage(UserCacheInvalidator.mastersAfterKey(afterId, size), result);
+        return result;
+    }
+
+    public List<UserDetailsDto> usersByCategory(Long categoryId) {
+        return userDetailsReadModel.findByIds(userRepository.findUserIdsByCategoryId(categoryId));
+    }
+
+    /**
+     * Loads an {@code allMasters} entry by its key, {@code <page>:<size>} or {@code after:<id>:<size>}.
+     */
+    List<UserDetailsDto> loadMastersPage(Object key) {
+        String pageKey = key.toString();
+        if (pageKey.startsWith(AFTER_PREFIX)) {
+            String[] parts = pageKey.substring(AFTER_PREFIX.length()).split(":");
+            return mastersAfter(Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+        }
+        String[] parts = pageKey.split(":");
+        return mastersPage(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+    }
+}
@@ -11,22 +11,37 @@ import com.example.end.models.User;
 import com.example.end.repository.PortfolioPhotoRepository;
 import com.example.end.repository.UserRepository;
 import com.example.end.utils.FileValidationUtils;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
-@RequiredArgsConstructor
 @Service
 public class UserMetadataService {
     private final PortfolioPhotoRepository portfolioPhotoRepository;
     private final ImageUploadService imageUploadService;
+    private final PortfolioUploadPipeline portfolioUploadPipeline;
     private final UserServiceImpl userService;
     private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserMetadataService(PortfolioPhotoRepository portfolioPhotoRepository,
+                               ImageUploadService imageUploadService,
+                               PortfolioUploadPipeline portfolioUploadPipeline,
+                               UserServiceImpl userService,
+                               UserRepository userRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.portfolioPhotoRepository = portfolioPhotoRepository;
+        this.imageUploadService = imageUploadService;
+        this.portfolioUploadPipeline = portfolioUploadPipeline;
+        this.userService = userService;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     public String uploadProfilePhoto(Long userId, MultipartFile file) throws IOException {
         FileValidationUtils.validateImage(file);
@@ -43,30 +58,33 @@ public class UserMetadataService {
     }
 
 
+    /**
+     * Uploads the files concurrently and then saves their rows in one transaction. If an upload or the insert
+     * fails, none of the photos is kept.
+     */
     public List<PortfolioImageDto> uploadPortfolioPhotos(Long userId, List<MultipartFile> files) throws IOException {
         files.forEach(FileValidationUtils::validateImage);
         User user = userService.findUserByIdOrThrow(userId);
-        List<PortfolioImageDto> uploadedPhotos = new ArrayList<>();
+        List<String> imageUrls = portfolioUploadPipeline.upload(userId, files);
 
-        for (MultipartFile file : files) {
-            try {
-                String imageUrl = imageUploadService.uploadImage(file);
-                PortfolioPhoto portfolioPhoto = new PortfolioPhoto();
-                portfolioPhoto.setUrl(imageUrl);
-                portfolioPhoto.setUser(user);
-
-                PortfolioPhoto savedPhoto = portfolioPhotoRepository.save(portfolioPhoto);
-                uploadedPhotos.add(
-                        PortfolioImageDto.builder()
-                                .id(savedPhoto.getId())
-                                .url(savedPhoto.getUrl())
-                                .build()
-                );
-            } catch (Exception e) {
-                throw new ImageUploadException("Error uploading image for user " + userId, e);
-            }
+        List<PortfolioPhoto> savedPhotos;
+        try {
+            savedPhotos = transactionTemplate.execute(status -> portfolioPhotoRepository.saveAll(imageUrls.stream()
+                    .map(imageUrl -> PortfolioPhoto.builder()
+                            .url(imageUrl)
+                            .user(user)
+                            .build())
+                    .toList()));
+        } catch (RuntimeException e) {
+            portfolioUploadPipeline.discard(imageUrls);
+            throw new ImageUploadException("Error saving portfolio photos for user " + userId, e);
         }
-        return uploadedPhotos;
+        return savedPhotos.stream()
+                .map(savedPhoto -> PortfolioImageDto.builder()
+                        .id(savedPhoto.getId())
+                        .url(savedPhoto.getUrl())
+                        .build())
+                .toList();
     }
 
     @Transactional
@@ -11,17 +11,21 @@ import com.example.end.mapping.UserMapper;
 import com.example.end.models.*;
 import com.example.end.repository.CategoryRepository;
 import com.example.end.repository.UserRepository;
+import com.example.end.infrastructure.security.sec_servivce.PasswordHashingService;
+import com.example.end.infrastructure.security.sec_servivce.RefreshTokenStore;
 import com.example.end.infrastructure.security.sec_servivce.TokenService;
+import com.example.end.service.interfaces.AvailabilityService;
 import com.example.end.service.interfaces.CategoryService;
+import com.example.end.service.interfaces.LeaderboardService;
 import com.example.end.service.interfaces.UserService;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.PageRequest;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -38,10 +42,17 @@ public class UserServiceImpl implements UserService {
     private final CategoryRepository categoryRepository;
     private final UserMapper userMapper;
     private final CategoryService categoryService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final ProjectMailSender mailSender;
     private final TokenService tokenService;
     private final SenderService senderService;
+    private final UserCacheInvalidator userCacheInvalidator;
+    private final RefreshTokenStore refreshTokenStore;
+    private final AvailabilityService availabilityService;
+    private final UserDetailsReadModel userDetailsReadModel;
+    private final UserListingLoader userListingLoader;
+    private final MasterRatingAggregator masterRatingAggregator;
+    private final LeaderboardService leaderboardService;
 
     @Value("${SPRING_MAIL_USERNAME}")
     private String adminEmail;
@@ -60,17 +71,22 @@ public class UserServiceImpl implements UserService {
     public UserDto register(NewUserDto newUserDto) {
         validateEmail(newUserDto.getEmail());
         User user = newUserDto.createUser();
-        user.setPassword(passwordEncoder.encode(newUserDto.getPassword()));
+        user.setPassword(passwordHashingService.encode(newUserDto.getPassword()));
+        // mail to the user later on, e.g. when an admin confirms a master, is written in this language too
+        user.setLocale(LocaleContextHolder.getLocale());
 
         if (user.getRole() == User.Role.MASTER) {
             senderService.sendMasterRegistrationConfirmation(user);
             user.setActive(false);
         } else {
-            mailSender.sendRegistrationEmail(user.getEmail());
+            mailSender.sendRegistrationEmail(user.getEmail(), user.getLocale());
             user.setActive(true);
         }
 
         User savedUser = userRepository.save(user);
+        if (savedUser.getRole() == User.Role.MASTER) {
+            userCacheInvalidator.evictAddedMaster(savedUser.getId(), categoryIdsOf(savedUser));
+        }
 
         UserDto userDto = userMapper.toDto(savedUser);
 
@@ -88,12 +104,25 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto authenticate(String email, String password) {
         User user = findUserByEmailOrThrow(email);
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHashingService.matches(password, user.getPassword())) {
             throw new RestException(HttpStatus.UNAUTHORIZED, "Invalid password");
         }
         return userMapper.toDto(user);
     }
 
+    /**
+     * Stores a password hash computed with the current BCrypt cost.
+     * Does nothing if the password was changed after {@code currentHash} was read.
+     *
+     * @param userId      user ID
+     * @param currentHash the hash the new one replaces
+     * @param newHash     the new hash of the same password
+     */
+    @Transactional
+    public void updatePasswordHash(Long userId, String currentHash, String newHash) {
+        userRepository.updatePasswordHash(userId, currentHash, newHash);
+    }
+
     /**
      * Gets user information by ID.
      *
@@ -104,9 +133,8 @@ public class UserServiceImpl implements UserService {
     @Override
     @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public UserDetailsDto getById(Long id) {
-        User user = userRepository.findByIdWithDetails(id)
+        return userDetailsReadModel.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
-        return userMapper.userDetailsToDto(user);
     }
 
 
@@ -125,18 +153,19 @@ public class UserServiceImpl implements UserService {
 
     /**
      * Updates user details such as description, phone number, address, categories, and procedures.
+     * Only the cached listings that contain this user are evicted.
      *
      * @param userId         the user ID
      * @param userDetailsDto the new user details
      * @return the updated user details
      * @throws ResourceNotFoundException if the user is not found
      */
-    @CacheEvict(value = {"allMasters", "usersByCategory"}, allEntries = true)
     @Override
     @Transactional
     public UserDetailsDto updateUserDetails(Long userId, NewUserDetailsDto userDetailsDto) {
         User user = userRepository.findByIdWithDetails(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        Set<Long> oldCategoryIds = categoryIdsOf(user);
 
         user.setDescription(userDetailsDto.getDescription());
         user.setPhoneNumber(userDetailsDto.getPhoneNumber());
@@ -149,6 +178,9 @@ public class UserServiceImpl implements UserService {
         user.setProcedures(selectedProcedures);
 
         User updatedUser = userRepository.save(user);
+        userCacheInvalidator.evictUser(userId, oldCategoryIds, categoryIdsOf(updatedUser));
+        availabilityService.masterChanged(userId);
+        leaderboardService.masterChanged(userId);
 
         UserDetailsDto responseDto = userMapper.userDetailsToDto(updatedUser);
         responseDto.setCategoryIds(updatedUser.getCategories().stream().map(Category::getId).collect(Collectors.toList()));
@@ -198,25 +230,41 @@ public class UserServiceImpl implements UserService {
         }
         masterUser.setActive(true);
         userRepository.save(masterUser);
+        userCacheInvalidator.evictAddedMaster(masterUser.getId(), categoryIdsOf(masterUser));
+        availabilityService.masterChanged(masterUser.getId());
+        leaderboardService.masterChanged(masterUser.getId());
 
-        mailSender.sendRegistrationEmail(masterUser.getEmail());
+        mailSender.sendRegistrationEmail(masterUser.getEmail(), masterUser.getLocale());
     }
 
 
     /**
-     * Gets a list of all masters.
+     * Gets a page of masters by page number.
+     * Only the ids are paginated in the database, the details are then loaded for that page alone.
+     * Concurrent cache misses for the same page are coalesced into a single query; an empty page is not cached.
      *
-     * @return list of all users with MASTER role
+     * @return page of users with MASTER role, ordered by id
      */
-    @Cacheable(value = "allMasters", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = "allMasters", key = "#page + ':' + #size", sync = true)
     @Override
     @Transactional(readOnly = true)
     public List<UserDetailsDto> getAllMasters(int page, int size) {
-        org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size);
-        List<User> masters = userRepository.findAllMastersWithDetails(pageable);
-        return masters.stream()
-                .map(userMapper::userDetailsToDto)
-                .collect(Collectors.toList());
+        return userListingLoader.mastersPage(page, size);
+    }
+
+    /**
+     * Gets the page of masters following the given id.
+     * Concurrent cache misses for the same page are coalesced into a single query; an empty page is not cached.
+     *
+     * @param afterId id of the last master of the previous page, {@code 0} for the first page
+     * @param size    page size
+     * @return page of users with MASTER role, ordered by id
+     */
+    @Cacheable(value = "allMasters", key = "'after:' + #afterId + ':' + #size", sync = true)
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDetailsDto> getMastersAfter(long afterId, int size) {
+        return userListingLoader.mastersAfter(afterId, size);
     }
 
 
@@ -234,18 +282,27 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Gets a list of all users.
+     * Gets a page of users by page number.
      *
-     * @return list of all users
+     * @return page of users, ordered by id
      */
     @Override
     @Transactional(readOnly = true)
     public List<UserDetailsDto> getAllUsers(int page, int size) {
-        org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size);
-        List<User> users = userRepository.findAllWithDetails(pageable);
-        return users.stream()
-                .map(userMapper::userDetailsToDto)
-                .collect(Collectors.toList());
+        return userDetailsReadModel.findByIds(userRepository.findUserIds(PageRequest.of(page, size)));
+    }
+
+    /**
+     * Gets the page of users following the given id.
+     *
+     * @param afterId id of the last user of the previous page, {@code 0} for the first page
+     * @param size    page size
+     * @return page of users, ordered by id
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDetailsDto> getUsersAfter(long afterId, int size) {
+        return userDetailsReadModel.findByIds(userRepository.findUserIdsAfter(afterId, PageRequest.ofSize(size)));
     }
 
     /**
@@ -269,18 +326,16 @@ public class UserServiceImpl implements UserService {
 
     /**
      * Finds users by category ID.
+     * Concurrent cache misses for the same category are coalesced into a single query; an empty list is not cached.
      *
      * @param categoryId category ID
      * @return list of users related to the given category
      */
-    @Cacheable(value = "usersByCategory", key = "#categoryId", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = "usersByCategory", key = "#categoryId", sync = true)
     @Override
     @Transactional(readOnly = true)
     public List<UserDetailsDto> findUsersByCategoryId(Long categoryId) {
-        List<User> users = userRepository.findUsersByCategoryIdWithDetails(categoryId);
-        return users.stream()
-                .map(userMapper::userDetailsToDto)
-                .collect(Collectors.toList());
+        return userListingLoader.usersByCategory(categoryId);
     }
 
 
@@ -299,16 +354,30 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Deletes a user by their ID.
+     * Deletes a user by their ID and revokes their refresh tokens.
      *
      * @param id the user ID
      */
-    @CacheEvict(value = {"allMasters", "usersByCategory"}, allEntries = true)
     @Override
     @Transactional
     public void deleteById(Long id) {
         User user = findUserByIdOrThrow(id);
+        Set<Long> categoryIds = categoryIdsOf(user);
+        masterRatingAggregator.masterDeleted(id);
         userRepository.delete(user);
+        userCacheInvalidator.evictDeletedUser(id, categoryIds);
+        refreshTokenStore.revokeAll(user.getEmail());
+        availabilityService.masterChanged(id);
+        leaderboardService.masterChanged(id);
+    }
+
+    private static Set<Long> categoryIdsOf(User user) {
+        if (user.getCategories() == null) {
+            return Set.of();
+        }
+        return user.getCategories().stream()
+                .map(Category::getId)
+                .collect(Collectors.toSet());
     }
 
     private UserDto getUserByIdAndRole(Long userId, User.Role role) {
@@ -0,0 +1,10 @@
+package com.example.end.service.availability;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time of a booking as read for the availability index. {@code end} is {@code null} for bookings made
+ * before end times were stored; their end follows from the procedure duration.
+ */
+public record BookedInterval(Long masterId, LocalDateTime start, LocalDateTime end, Integer durationMinutes) {
+}
@@ -0,0 +1,200 @@
+package com.example.end.service.availability;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Free-time bitmaps of all masters for the next days, used to search across masters without SQL.
+ * <p>
+ * Every master has one {@link BitSet} per day, with a bit per {@code step} from midnight, set while the
+ * master is free (see {@link MasterCalendar#freeCells}). A free slot of length {@code k * step} is a run
+ * of {@code k} set bits, found with {@link BitSet#nextSetBit}/{@link BitSet#nextClearBit}.
+ * </p>
+ * <p>
+ * The whole index is rebuilt periodically from the database and patched in between: a new booking clears
+ * its cells, a cancelled booking or changed working hours recompute the master's days. Bookings made while
+ * a rebuild reads the database are replayed onto the new bitmaps, so they are never lost.
+ * </p>
+ */
+public final class FreeTimeIndex {
+
+    public record Match(Long masterId, LocalDateTime start) {
+    }
+
+    private record Occupation(Long masterId, LocalDateTime start, LocalDateTime end) {
+    }
+
+    private record Snapshot(LocalDate firstDay, Map<Long, BitSet[]> days) {
+    }
+
+    private final Duration step;
+    private final int horizonDays;
+    private final int cellsPerDay;
+    private volatile Snapshot snapshot;
+    // bookings made during a rebuild, guarded by this
+    private List<Occupation> occupiedDuringRebuild;
+
+    public FreeTimeIndex(Duration step, int horizonDays) {
+        if (Duration.ofDays(1).toNanos() % step.toNanos() != 0) {
+            throw new IllegalArgumentException("Slot step must divide a day");
+        }
+        this.step = step;
+        this.horizonDays = horizonDays;
+        this.cellsPerDay = (int) (Duration.ofDays(1).toNanos() / step.toNanos());
+    }
+
+    public boolean isBuilt() {
+        return snapshot != null;
+    }
+
+    public int horizonDays() {
+        return horizonDays;
+    }
+
+    /**
+     * Starts recording new bookings, to be replayed by the following {@link #replaceAll}.
+     */
+    public synchronized void beginRebuild() {
+        occupiedDuringRebuild = new ArrayList<>();
+    }
+
+    /**
+     * Replaces all bitmaps with those of the given calendars, starting at {@code firstDay}.
+     */
+    public void replaceAll(LocalDate firstDay, Map<Long, MasterCalendar> calendars) {
+        Map<Long, BitSet[]> days = new ConcurrentHashMap<>(calendars.size() * 2);
+        calendars.forEach((masterId, calendar) -> days.put(masterId, daysOf(calendar, firstDay)));
+        synchronized (this) {
+            snapshot = new Snapshot(firstDay, days);
+            if (occupiedDuringRebuild != null) {
+                occupiedDuringRebuild.forEach(occupation -> clear(occupation.masterId(), occupation.start(), occupation.end()));
+                occupiedDuringRebuild = null;
+            }
+        }
+    }
+
+    /**
+     * Recomputes the bitmaps of one master, e.g. after a cancellation or new working hours.
+     */
+    public synchronized void refresh(Long masterId, MasterCalendar calendar) {
+        if (snapshot != null) {
+            snapshot.days().put(masterId, daysOf(calendar, snapshot.firstDay()));
+        }
+    }
+
+    public synchronized void remove(Long masterId) {
+        if (snapshot != null) {
+            snapshot.days().remove(masterId);
+        }
+    }
+
+    /**
+     * Marks {@code [start, end)} of a master as busy.
+     */
+    public synchronized void occupy(Long masterId, LocalDateTime start, LocalDateTime end) {
+        if (occupiedDuringRebuild != null) {
+            occupiedDuringRebuild.add(new Occupation(masterId, start, end));
+        }
+        clear(masterId, start, end);
+    }
+
+    /**
+     * Finds the earliest free slot of each given master that lies within {@code [from, to)}, and returns
+     * up to {@code limit} of them, soonest first.
+     */
+    public List<Match> findEarliest(Collection<Long> masterIds, LocalDateTime from, LocalDateTime to,
+                                    Duration length, int limit) {
+        Snapshot current = snapshot;
+        if (current == null || !from.isBefore(to)) {
+            return List.of();
+        }
+        int cells = MasterCalendar.cellCeil(length, step);
+        LocalDate lastDay = current.firstDay().plusDays(horizonDays - 1);
+        LocalDate firstSearched = from.toLocalDate().isBefore(current.firstDay()) ? current.firstDay() : from.toLocalDate();
+        LocalDate lastSearched = to.toLocalDate().isAfter(lastDay) ? lastDay : to.toLocalDate();
+
+        List<Match> matches = new ArrayList<>();
+        for (Long masterId : masterIds) {
+            BitSet[] days = current.days().get(masterId);
+            if (days == null) {
+                continue;
+            }
+            LocalDateTime earliest = earliest(current.firstDay(), days, firstSearched, lastSearched, from, to, cells);
+            if (earliest != null) {
+                matches.add(new Match(masterId, earliest));
+            }
+        }
+        matches.sort(Comparator.comparing(Match::start).thenComparing(Match::masterId));
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    private LocalDateTime earliest(LocalDate firstDay, BitSet[] days, LocalDate firstSearched, LocalDate lastSearched,
+                                   LocalDateTime from, LocalDateTime to, int cells) {
+        synchronized (days) {
+            for (LocalDate date = firstSearched; !date.isAfter(lastSearched); date = date.plusDays(1)) {
+                LocalDateTime midnight = date.atStartOfDay();
+                int fromCell = date.equals(from.toLocalDate())
+                        ? MasterCalendar.cellCeil(Duration.between(midnight, from), step) : 0;
+                int endCell = date.equals(to.toLocalDate())
+                        ? MasterCalendar.cellFloor(Duration.between(midnight, to), step) : cellsPerDay;
+                int cell = firstRun(days[(int) ChronoUnit.DAYS.between(firstDay, date)], fromCell, endCell, cells);
+                if (cell >= 0) {
+                    return midnight.plus(step.multipliedBy(cell));
+                }
+            }
+            return null;
+        }
+    }
+
+    private static int firstRun(BitSet bits, int fromCell, int endCell, int length) {
+        int start = bits.nextSetBit(fromCell);
+        while (start >= 0 && start + length <= endCell) {
+            int clear = bits.nextClearBit(start);
+            if (clear - start >= length) {
+                return start;
+            }
+            start = bits.nextSetBit(clear);
+        }
+        return -1;
+    }
+
+    private BitSet[] daysOf(MasterCalendar calendar, LocalDate firstDay) {
+        BitSet[] days = new BitSet[horizonDays];
+        for (int i = 0; i < horizonDays; i++) {
+            days[i] = calendar.freeCells(firstDay.plusDays(i), step);
+        }
+        return days;
+    }
+
+    private void clear(Long masterId, LocalDateTime start, LocalDateTime end) {
+        Snapshot current = snapshot;
+        BitSet[] days = current != null ? current.days().get(masterId) : null;
+        if (days == null) {
+            return;
+        }
+        synchronized (days) {
+            for (LocalDate date = start.toLocalDate(); date.atStartOfDay().isBefore(end); date = date.plusDays(1)) {
+                long index = ChronoUnit.DAYS.between(current.firstDay(), date);
+                if (index < 0 || index >= horizonDays) {
+                    continue;
+                }
+                LocalDateTime midnight = date.atStartOfDay();
+                int from = start.isAfter(midnight) ? MasterCalendar.cellFloor(Duration.between(midnight, start), step) : 0;
+                int to = end.isBefore(midnight.plusDays(1))
+                        ? MasterCalendar.cellCeil(Duration.between(midnight, end), step) : cellsPerDay;
+                if (from < to) {
+                    days[(int) index].clear(from, to);
+                }
+            }
+        }
+    }
+}
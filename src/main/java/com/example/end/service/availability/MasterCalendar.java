@@ -0,0 +1,229 @@
+package com.example.end.service.availability;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * In-memory calendar of one master: the weekly working hours and the busy intervals.
+ * <p>
+ * Busy intervals never overlap, so they are kept in a map ordered by start and an overlap check is a
+ * single {@link NavigableMap#lowerEntry} lookup. All methods lock the calendar, which makes
+ * check-and-reserve atomic for one master without blocking the others.
+ * </p>
+ */
+public final class MasterCalendar {
+
+    /**
+     * Working hours of one day; {@code breakStart} and {@code breakEnd} are both set or both {@code null}.
+     */
+    public record DaySchedule(LocalTime start, LocalTime end, LocalTime breakStart, LocalTime breakEnd) {
+
+        public DaySchedule {
+            if (!start.isBefore(end)) {
+                throw new IllegalArgumentException("Working day must start before it ends");
+            }
+            if ((breakStart == null) != (breakEnd == null)) {
+                throw new IllegalArgumentException("Break needs both a start and an end");
+            }
+            if (breakStart != null && (!breakStart.isBefore(breakEnd)
+                    || breakStart.isBefore(start) || breakEnd.isAfter(end))) {
+                throw new IllegalArgumentException("Break must lie within the working day");
+            }
+        }
+
+        boolean overlapsBreak(LocalTime from, LocalTime to) {
+            return breakStart != null && from.isBefore(breakEnd) && to.isAfter(breakStart);
+        }
+    }
+
+    public enum Reservation {
+        RESERVED,
+        OUTSIDE_WORKING_HOURS,
+        OVERLAPS_BOOKING
+    }
+
+    private final Map<DayOfWeek, DaySchedule> week;
+    // start -> end
+    private final NavigableMap<LocalDateTime, LocalDateTime> busy = new TreeMap<>();
+
+    public MasterCalendar(Map<DayOfWeek, DaySchedule> week) {
+        this.week = Map.copyOf(week);
+    }
+
+    /**
+     * Adds an existing booking. Bookings that overlap each other (made before overlaps were rejected)
+     * are merged into one busy interval.
+     */
+    public synchronized void addBooked(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime mergedStart = start;
+        LocalDateTime mergedEnd = end;
+        Map.Entry<LocalDateTime, LocalDateTime> overlapping;
+        while ((overlapping = busy.lowerEntry(mergedEnd)) != null && overlapping.getValue().isAfter(mergedStart)) {
+            busy.remove(overlapping.getKey());
+            if (overlapping.getKey().isBefore(mergedStart)) {
+                mergedStart = overlapping.getKey();
+            }
+            if (overlapping.getValue().isAfter(mergedEnd)) {
+                mergedEnd = overlapping.getValue();
+            }
+        }
+        busy.put(mergedStart, mergedEnd);
+    }
+
+    /**
+     * Marks {@code [start, end)} as busy if it lies within the working hours and is free.
+     */
+    public synchronized Reservation reserve(LocalDateTime start, LocalDateTime end) {
+        if (!withinWorkingHours(start, end)) {
+            return Reservation.OUTSIDE_WORKING_HOURS;
+        }
+        if (overlapsBusy(start, end)) {
+            return Reservation.OVERLAPS_BOOKING;
+        }
+        busy.put(start, end);
+        return Reservation.RESERVED;
+    }
+
+    /**
+     * Frees an interval added by {@link #reserve}, e.g. when the booking was not saved.
+     */
+    public synchronized void release(LocalDateTime start, LocalDateTime end) {
+        busy.remove(start, end);
+    }
+
+    /**
+     * Lists the starts of free slots of the given length, on the grid of {@code step} from the start of each
+     * working day, that begin no earlier than {@code notBefore}.
+     */
+    public synchronized List<LocalDateTime> freeSlots(LocalDate from, LocalDate to, Duration length, Duration step,
+                                                      LocalDateTime notBefore) {
+        List<LocalDateTime> slots = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            DaySchedule schedule = week.get(date.getDayOfWeek());
+            if (schedule == null) {
+                continue;
+            }
+            LocalDateTime opening = date.atTime(schedule.start());
+            LocalDateTime closing = date.atTime(schedule.end());
+            LocalDateTime slot = opening;
+            while (!slot.plus(length).isAfter(closing)) {
+                LocalDateTime slotEnd = slot.plus(length);
+                if (slot.isBefore(notBefore)) {
+                    slot = alignUp(notBefore, opening, step);
+                    continue;
+                }
+                if (schedule.overlapsBreak(slot.toLocalTime(), slotEnd.toLocalTime())) {
+                    slot = alignUp(date.atTime(schedule.breakEnd()), opening, step);
+                    continue;
+                }
+                Map.Entry<LocalDateTime, LocalDateTime> booked = busy.lowerEntry(slotEnd);
+                if (booked != null && booked.getValue().isAfter(slot)) {
+                    slot = alignUp(booked.getValue(), opening, step);
+                    continue;
+                }
+                slots.add(slot);
+                slot = slot.plus(step);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Builds the free-time bitmap of one day: bit {@code i} is set if {@code [i * step, (i + 1) * step)}
+     * from midnight lies within the working hours, outside the break and outside every busy interval.
+     */
+    public synchronized BitSet freeCells(LocalDate date, Duration step) {
+        BitSet cells = new BitSet();
+        DaySchedule schedule = week.get(date.getDayOfWeek());
+        if (schedule == null) {
+            return cells;
+        }
+        LocalDateTime midnight = date.atStartOfDay();
+        int opening = cellCeil(schedule.start(), step);
+        int closing = cellFloor(schedule.end(), step);
+        if (opening >= closing) {
+            return cells;
+        }
+        cells.set(opening, closing);
+        if (schedule.breakStart() != null) {
+            clear(cells, cellFloor(schedule.breakStart(), step), cellCeil(schedule.breakEnd(), step));
+        }
+        LocalDateTime nextMidnight = midnight.plusDays(1);
+        Map.Entry<LocalDateTime, LocalDateTime> first = busy.lowerEntry(midnight);
+        LocalDateTime from = first != null && first.getValue().isAfter(midnight) ? first.getKey() : midnight;
+        for (Map.Entry<LocalDateTime, LocalDateTime> booked : busy.subMap(from, true, nextMidnight, false).entrySet()) {
+            LocalDateTime start = booked.getKey().isBefore(midnight) ? midnight : booked.getKey();
+            LocalDateTime end = booked.getValue().isAfter(nextMidnight) ? nextMidnight : booked.getValue();
+            clear(cells, cellFloor(Duration.between(midnight, start), step), cellCeil(Duration.between(midnight, end), step));
+        }
+        return cells;
+    }
+
+    /**
+     * Index of the cell containing the moment {@code sinceMidnight} after midnight.
+     */
+    public static int cellFloor(Duration sinceMidnight, Duration step) {
+        return (int) (sinceMidnight.toNanos() / step.toNanos());
+    }
+
+    /**
+     * Index of the first cell starting at or after the moment {@code sinceMidnight} after midnight.
+     */
+    public static int cellCeil(Duration sinceMidnight, Duration step) {
+        long stepNanos = step.toNanos();
+        return (int) ((sinceMidnight.toNanos() + stepNanos - 1) / stepNanos);
+    }
+
+    synchronized int busyIntervals() {
+        return busy.size();
+    }
+
+    private static int cellFloor(LocalTime time, Duration step) {
+        return cellFloor(Duration.ofNanos(time.toNanoOfDay()), step);
+    }
+
+    private static int cellCeil(LocalTime time, Duration step) {
+        return cellCeil(Duration.ofNanos(time.toNanoOfDay()), step);
+    }
+
+    private static void clear(BitSet cells, int from, int to) {
+        if (from < to) {
+            cells.clear(from, to);
+        }
+    }
+
+    private boolean withinWorkingHours(LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end) || !start.toLocalDate().equals(end.toLocalDate())) {
+            return false;
+        }
+        DaySchedule schedule = week.get(start.getDayOfWeek());
+        if (schedule == null) {
+            return false;
+        }
+        LocalDate date = start.toLocalDate();
+        return !start.isBefore(date.atTime(schedule.start()))
+                && !end.isAfter(date.atTime(schedule.end()))
+                && !schedule.overlapsBreak(start.toLocalTime(), end.toLocalTime());
+    }
+
+    private boolean overlapsBusy(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, LocalDateTime> candidate = busy.lowerEntry(end);
+        return candidate != null && candidate.getValue().isAfter(start);
+    }
+
+    private static LocalDateTime alignUp(LocalDateTime time, LocalDateTime origin, Duration step) {
+        long offset = Duration.between(origin, time).toNanos();
+        long stepNanos = step.toNanos();
+        long steps = (offset + stepNanos - 1) / stepNanos;
+        return origin.plusNanos(steps * stepNanos);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.end.service.interfaces;
+
+import com.example.end.dto.MasterSlotDto;
+import com.example.end.dto.TimeSlotDto;
+import com.example.end.dto.WorkingHoursDto;
+import com.example.end.models.Procedure;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AvailabilityService {
+
+    List<TimeSlotDto> findFreeSlots(Long masterId, Long procedureId, LocalDate from, LocalDate to);
+
+    List<MasterSlotDto> findMastersWithFreeSlot(Long procedureId, LocalDateTime from, LocalDateTime to, int limit);
+
+    void rebuildFreeTimeIndex();
+
+    void masterChanged(Long masterId);
+
+    List<WorkingHoursDto> getWorkingHours(Long masterId);
+
+    List<WorkingHoursDto> updateWorkingHours(Long masterId, List<WorkingHoursDto> workingHours);
+
+    Duration durationOf(Procedure procedure);
+
+    void reserve(Long masterId, LocalDateTime start, LocalDateTime end);
+
+    void bookingChanged(Long masterId);
+}
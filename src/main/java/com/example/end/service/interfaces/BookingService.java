@@ -5,6 +5,7 @@ import com.example.end.models.BookingStatus;
 import com.example.end.models.User;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -16,4 +17,10 @@ public interface BookingService {
     void cancelBooking(Long bookingId);
 
     List<BookingDto> findBookingsByUser(Long userId, BookingStatus status);
+
+    CursorPage<BookingDto> findClientBookings(Long clientId, BookingStatus status, LocalDateTime from,
+                                              LocalDateTime to, String cursor, int size);
+
+    CursorPage<BookingDto> findMasterBookings(Long masterId, BookingStatus status, LocalDateTime from,
+                                              LocalDateTime to, String cursor, int size);
 }
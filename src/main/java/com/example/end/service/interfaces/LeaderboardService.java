@@ -0,0 +1,14 @@
+package com.example.end.service.interfaces;
+
+import com.example.end.dto.TopMasterDto;
+
+import java.util.List;
+
+public interface LeaderboardService {
+
+    List<TopMasterDto> getTopMasters(Long categoryId, int limit);
+
+    void rebuildLeaderboard();
+
+    void masterChanged(Long masterId);
+}
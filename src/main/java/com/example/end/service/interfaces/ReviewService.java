@@ -1,10 +1,9 @@
 package com.example.end.service.interfaces;
 
+import com.example.end.dto.CursorPage;
 import com.example.end.dto.ReviewDto;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 public interface ReviewService {
 
@@ -15,5 +14,5 @@ public interface ReviewService {
 
     void deleteReview(Long reviewId);
 
-    List<ReviewDto> getReviewsByMaster(Long masterId);
+    CursorPage<ReviewDto> getReviewsByMaster(Long masterId, String cursor, int size);
 }
@@ -38,12 +38,16 @@ public interface UserService {
 
         List<UserDetailsDto> getAllUsers(int page, int size);
 
+        List<UserDetailsDto> getUsersAfter(long afterId, int size);
+
         void deleteById(Long id);
 
         User findMasterUserByEmail(String email);
 
         List<UserDetailsDto> getAllMasters(int page, int size);
 
+        List<UserDetailsDto> getMastersAfter(long afterId, int size);
+
 
 
 }
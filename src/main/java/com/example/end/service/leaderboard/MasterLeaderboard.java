@@ -0,0 +1,180 @@
+package com.example.end.service.leaderboard;
+
+import com.example.end.repository.projection.RatingTotals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Masters ranked by their Bayesian-weighted rating, overall and per category.
+ * <p>
+ * The weighted rating of a master with {@code n} reviews summing to {@code s} stars is
+ * {@code (C * m + s) / (C + n)}: the average pulled towards the prior mean {@code m} as if every master had
+ * {@code C} extra reviews of {@code m} stars. A single 5-star review thus ranks below many 4.8-star ones.
+ * The prior mean is the average of all reviews at the last {@link #replaceAll}; it stays fixed in between,
+ * because changing it would reorder every master.
+ * </p>
+ * <p>
+ * Every ranking is a skip list ordered by weighted rating, so moving a master costs O(log n) and the top
+ * {@code k} are the first {@code k} elements. Updates are serialized, reads are not locked; a reader may
+ * miss the one master being moved at that moment.
+ * </p>
+ */
+public final class MasterLeaderboard {
+
+    public record Standing(Long masterId, double weightedRating, long reviewCount, long ratingSum,
+                           Set<Long> categoryIds) {
+
+        public double averageRating() {
+            return reviewCount == 0 ? 0.0 : (double) ratingSum / reviewCount;
+        }
+    }
+
+    // more reviews first on equal weighted ratings, then the id, so every standing has its own place
+    private static final Comparator<Standing> RANKING = Comparator.comparingDouble(Standing::weightedRating).reversed()
+            .thenComparing(Comparator.comparingLong(Standing::reviewCount).reversed())
+            .thenComparing(Standing::masterId);
+
+    private record Rankings(double priorMean, Map<Long, Standing> standings, NavigableSet<Standing> overall,
+                            Map<Long, NavigableSet<Standing>> byCategory) {
+
+        static Rankings empty(double priorMean) {
+            return new Rankings(priorMean, new ConcurrentHashMap<>(), new ConcurrentSkipListSet<>(RANKING),
+                    new ConcurrentHashMap<>());
+        }
+    }
+
+    private final double priorWeight;
+    private final double defaultPriorMean;
+    private volatile Rankings rankings;
+
+    /**
+     * @param priorWeight      number of imaginary reviews of the prior mean every master starts with
+     * @param defaultPriorMean prior mean while there are no reviews at all
+     */
+    public MasterLeaderboard(double priorWeight, double defaultPriorMean) {
+        if (priorWeight < 0) {
+            throw new IllegalArgumentException("Prior weight must not be negative");
+        }
+        this.priorWeight = priorWeight;
+        this.defaultPriorMean = defaultPriorMean;
+    }
+
+    public boolean isBuilt() {
+        return rankings != null;
+    }
+
+    public double priorMean() {
+        Rankings current = rankings;
+        return current == null ? defaultPriorMean : current.priorMean();
+    }
+
+    public int size() {
+        Rankings current = rankings;
+        return current == null ? 0 : current.standings().size();
+    }
+
+    /**
+     * Replaces all rankings; the prior mean becomes the average of all given reviews.
+     *
+     * @param totals             review totals of the ranked masters
+     * @param categoriesByMaster category IDs of the masters, missing for masters without categories
+     */
+    public void replaceAll(Collection<RatingTotals> totals, Map<Long, Set<Long>> categoriesByMaster) {
+        long reviews = 0;
+        long stars = 0;
+        for (RatingTotals master : totals) {
+            reviews += master.reviewCount();
+            stars += master.ratingSum();
+        }
+        Rankings rebuilt = Rankings.empty(reviews == 0 ? defaultPriorMean : (double) stars / reviews);
+        for (RatingTotals master : totals) {
+            insert(rebuilt, master, categoriesByMaster.getOrDefault(master.masterId(), Set.of()));
+        }
+        synchronized (this) {
+            rankings = rebuilt;
+        }
+    }
+
+    /**
+     * Moves a master to the place of its current totals; a master without reviews leaves the rankings.
+     */
+    public synchronized void update(RatingTotals totals, Set<Long> categoryIds) {
+        Rankings current = current();
+        delete(current, totals.masterId());
+        insert(current, totals, categoryIds);
+    }
+
+    public synchronized void remove(Long masterId) {
+        delete(current(), masterId);
+    }
+
+    /**
+     * @param categoryId category to rank the masters of, {@code null} for all masters
+     * @param limit      maximum number of standings
+     * @return the best standings, best first
+     */
+    public List<Standing> top(Long categoryId, int limit) {
+        Rankings current = rankings;
+        if (current == null) {
+            return List.of();
+        }
+        NavigableSet<Standing> ranking = categoryId == null ? current.overall() : current.byCategory().get(categoryId);
+        if (ranking == null) {
+            return List.of();
+        }
+        List<Standing> top = new ArrayList<>(Math.min(limit, current.standings().size()));
+        Iterator<Standing> iterator = ranking.iterator();
+        while (top.size() < limit && iterator.hasNext()) {
+            top.add(iterator.next());
+        }
+        return top;
+    }
+
+    private double weightedRating(double priorMean, long reviewCount, long ratingSum) {
+        return (priorWeight * priorMean + ratingSum) / (priorWeight + reviewCount);
+    }
+
+    private Rankings current() {
+        if (rankings == null) {
+            rankings = Rankings.empty(defaultPriorMean);
+        }
+        return rankings;
+    }
+
+    private void insert(Rankings into, RatingTotals totals, Set<Long> categoryIds) {
+        if (totals.reviewCount() <= 0) {
+            return;
+        }
+        double weighted = weightedRating(into.priorMean(), totals.reviewCount(), totals.ratingSum());
+        Standing standing = new Standing(totals.masterId(), weighted, totals.reviewCount(), totals.ratingSum(),
+                Set.copyOf(categoryIds));
+        into.standings().put(standing.masterId(), standing);
+        into.overall().add(standing);
+        for (Long categoryId : standing.categoryIds()) {
+            into.byCategory().computeIfAbsent(categoryId, id -> new ConcurrentSkipListSet<>(RANKING)).add(standing);
+        }
+    }
+
+    private static void delete(Rankings from, Long masterId) {
+        Standing standing = from.standings().remove(masterId);
+        if (standing == null) {
+            return;
+        }
+        from.overall().remove(standing);
+        for (Long categoryId : standing.categoryIds()) {
+            NavigableSet<Standing> ranking = from.byCategory().get(categoryId);
+            if (ranking != null) {
+                ranking.remove(standing);
+            }
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 
@@ -12,6 +14,11 @@ public class FileValidationUtils {
     private static final Logger logger = LoggerFactory.getLogger(FileValidationUtils.class);
     private static final List<String> ALLOWED_EXTENSIONS = Arrays.asList("jpg", "jpeg", "png", "gif");
     public static final long MAX_FILE_SIZE = 50 * 1024 * 1024; // 50 MB
+    // the dimensions of a PNG or GIF are in its first bytes, those of a JPEG follow its metadata segments
+    public static final long MAX_HEADER_SIZE = 256 * 1024; // 256 KB
+    public static final int MAX_IMAGE_DIMENSION = 12_000;
+    // a small file can still decode into a huge bitmap
+    public static final long MAX_IMAGE_PIXELS = 50_000_000;
 
     public static void validateImage(MultipartFile file) {
         if (file == null || file.isEmpty()) {
@@ -35,6 +42,35 @@ public class FileValidationUtils {
                     "File size exceeds the limit. Maximum allowed size is %d MB",
                     MAX_FILE_SIZE / (1024 * 1024)));
         }
+
+        validateImageContent(file);
+    }
+
+    /**
+     * Checks the magic bytes and dimensions of the image, reading no more of the file than its header.
+     */
+    private static void validateImageContent(MultipartFile file) {
+        ImageHeader header;
+        try (InputStream in = file.getInputStream()) {
+            header = ImageHeader.read(in, MAX_HEADER_SIZE);
+        } catch (IOException e) {
+            logger.warn("Failed to read uploaded file {}: {}", file.getOriginalFilename(), e.getMessage());
+            throw new InvalidFileException("File cannot be read");
+        }
+
+        if (header == null) {
+            throw new InvalidFileException(String.format(
+                    "File content is not a valid image. Allowed formats are: %s",
+                    String.join(", ", ALLOWED_EXTENSIONS)));
+        }
+
+        if (header.width() <= 0 || header.height() <= 0
+                || header.width() > MAX_IMAGE_DIMENSION || header.height() > MAX_IMAGE_DIMENSION
+                || (long) header.width() * header.height() > MAX_IMAGE_PIXELS) {
+            throw new InvalidFileException(String.format(
+                    "Image dimensions %dx%d exceed the limit. Maximum allowed is %d pixels per side and %d megapixels",
+                    header.width(), header.height(), MAX_IMAGE_DIMENSION, MAX_IMAGE_PIXELS / 1_000_000));
+        }
     }
 
     private static String getFileExtension(String fileName) {
@@ -0,0 +1,123 @@
+package com.example.end.utils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Format and dimensions of an image, read from the start of its stream without decoding it.
+ * <p>
+ * PNG and GIF keep their dimensions in the first few bytes. A JPEG keeps them in its frame header, which follows
+ * the metadata segments (EXIF, ICC profile); those are skipped rather than read, so at most a small buffer of the
+ * file is ever in memory.
+ * </p>
+ */
+public record ImageHeader(Format format, int width, int height) {
+
+    public enum Format {
+        JPEG, PNG, GIF
+    }
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] GIF87A = {'G', 'I', 'F', '8', '7', 'a'};
+    private static final byte[] GIF89A = {'G', 'I', 'F', '8', '9', 'a'};
+
+    /**
+     * Reads the header of an image.
+     *
+     * @param in - The stream of the image, positioned at its start. It is not closed.
+     * @param limit - How far into the stream to look for the dimensions, in bytes.
+     * @return the header, or {@code null} if the stream is not a JPEG, PNG or GIF image or its dimensions do not
+     * appear within the limit
+     */
+    public static ImageHeader read(InputStream in, long limit) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+        byte[] signature = new byte[PNG_SIGNATURE.length];
+        data.mark(signature.length);
+        int length = data.readNBytes(signature, 0, signature.length);
+        data.reset();
+        try {
+            if (length == PNG_SIGNATURE.length && Arrays.equals(signature, PNG_SIGNATURE)) {
+                return png(data);
+            }
+            if (length >= GIF87A.length && (startsWith(signature, GIF87A) || startsWith(signature, GIF89A))) {
+                return gif(data);
+            }
+            if (length >= 2 && signature[0] == (byte) 0xFF && signature[1] == (byte) 0xD8) {
+                return jpeg(data, limit);
+            }
+            return null;
+        } catch (EOFException e) {
+            // truncated before the dimensions
+            return null;
+        }
+    }
+
+    private static ImageHeader png(DataInputStream data) throws IOException {
+        data.skipNBytes(PNG_SIGNATURE.length);
+        // the first chunk has to be IHDR: length, type, width, height
+        data.readInt();
+        if (data.readInt() != 0x49484452) {
+            return null;
+        }
+        return new ImageHeader(Format.PNG, data.readInt(), data.readInt());
+    }
+
+    private static ImageHeader gif(DataInputStream data) throws IOException {
+        data.skipNBytes(GIF87A.length);
+        // the logical screen size, little-endian
+        int width = data.readUnsignedByte() | data.readUnsignedByte() << 8;
+        int height = data.readUnsignedByte() | data.readUnsignedByte() << 8;
+        return new ImageHeader(Format.GIF, width, height);
+    }
+
+    private static ImageHeader jpeg(DataInputStream data, long limit) throws IOException {
+        data.skipNBytes(2);
+        long position = 2;
+        while (position < limit) {
+            if (data.readUnsignedByte() != 0xFF) {
+                return null;
+            }
+            int marker;
+            do {
+                marker = data.readUnsignedByte();
+                position++;
+            } while (marker == 0xFF);
+            position++;
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD8)) {
+                // markers without a segment
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                // end of image or image data before any frame header
+                return null;
+            }
+            int segmentLength = data.readUnsignedShort();
+            if (segmentLength < 2) {
+                return null;
+            }
+            if (isStartOfFrame(marker)) {
+                data.readUnsignedByte();
+                int height = data.readUnsignedShort();
+                int width = data.readUnsignedShort();
+                return new ImageHeader(Format.JPEG, width, height);
+            }
+            data.skipNBytes(segmentLength - 2);
+            position += segmentLength;
+        }
+        return null;
+    }
+
+    private static boolean isStartOfFrame(int marker) {
+        // SOF0 to SOF15, except DHT, JPG and DAC which share the range
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        return Arrays.equals(bytes, 0, prefix.length, prefix, 0, prefix.length);
+    }
+}
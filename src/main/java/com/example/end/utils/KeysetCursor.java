@@ -0,0 +1,110 @@
+package com.example.end.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque cursor of a keyset-paginated listing.
+ * <p>
+ * A cursor holds the scope of the listing and the sort key of the last row of the previous page: its id,
+ * or a timestamp and its id for listings ordered by time. It is encoded as URL-safe Base64, so clients
+ * pass it back unchanged and cannot mix up cursors of different listings.
+ * </p>
+ */
+public final class KeysetCursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String MASTERS = "masters";
+    public static final String USERS = "users";
+    public static final String REVIEWS = "reviews";
+    public static final String BOOKINGS = "bookings";
+
+    /**
+     * Sort key of a row in a listing ordered by time, with the id breaking ties between equal times.
+     */
+    public record TimeKey(LocalDateTime time, long id) {
+    }
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(String scope, long lastId) {
+        return encodeRaw(scope + ":" + lastId);
+    }
+
+    public static String encode(String scope, LocalDateTime time, long lastId) {
+        return encodeRaw(scope + ":" + time + "@" + lastId);
+    }
+
+    /**
+     * @return the id of the last row of the previous page, {@code 0} for a missing cursor
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another listing
+     */
+    public static long decode(String scope, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        return parseId(payload(scope, cursor));
+    }
+
+    /**
+     * @return the sort key of the last row of the previous page, {@code null} for a missing cursor
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another listing
+     */
+    public static TimeKey decodeTimeKey(String scope, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String payload = payload(scope, cursor);
+        int separator = payload.lastIndexOf('@');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            return new TimeKey(LocalDateTime.parse(payload.substring(0, separator)), parseId(payload.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Cursor of the page after {@code lastId}, or {@code null} if a shorter than requested page was the last one.
+     */
+    public static String next(String scope, int pageSize, int requestedSize, Long lastId) {
+        return pageSize < requestedSize || lastId == null ? null : encode(scope, lastId);
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String payload(String scope, String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        String prefix = scope + ":";
+        if (!raw.startsWith(prefix)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return raw.substring(prefix.length());
+    }
+
+    private static long parseId(String value) {
+        long id;
+        try {
+            id = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (id < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return id;
+    }
+}
@@ -0,0 +1,85 @@
+-- Схема в том виде, в каком её создавал Hibernate до перехода на Flyway.
+-- Существующие базы отмечаются этой версией (baseline-on-migrate), на них V1 не выполняется.
+
+CREATE TABLE users (
+    id              BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    firstname       VARCHAR(255),
+    lastname        VARCHAR(255),
+    address         VARCHAR(255),
+    email           VARCHAR(255),
+    phonenumber     VARCHAR(255),
+    is_active       BIT          NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    description     VARCHAR(255),
+    role            ENUM ('ADMIN', 'CLIENT', 'MASTER') NOT NULL,
+    profilephotourl VARCHAR(255),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE categories (
+    id   BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255)
+) ENGINE = InnoDB;
+
+CREATE TABLE procedures (
+    id          BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name        VARCHAR(255),
+    price       FLOAT(53),
+    category_id BIGINT,
+    CONSTRAINT fk_procedures_category FOREIGN KEY (category_id) REFERENCES categories (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_categories (
+    user_id     BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, category_id),
+    CONSTRAINT fk_user_categories_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_categories_category FOREIGN KEY (category_id) REFERENCES categories (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_procedures (
+    user_id      BIGINT NOT NULL,
+    procedure_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, procedure_id),
+    CONSTRAINT fk_user_procedures_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_procedures_procedure FOREIGN KEY (procedure_id) REFERENCES procedures (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE portfolio_photo (
+    id      BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    url     VARCHAR(255),
+    user_id BIGINT,
+    CONSTRAINT fk_portfolio_photo_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE booking (
+    id           BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id      BIGINT,
+    client_id    BIGINT,
+    master_id    BIGINT,
+    procedure_id BIGINT,
+    date_time    DATETIME(6),
+    status       ENUM ('CONFIRMED', 'CANCELED', 'COMPLETED'),
+    CONSTRAINT fk_booking_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_booking_client FOREIGN KEY (client_id) REFERENCES users (id),
+    CONSTRAINT fk_booking_master FOREIGN KEY (master_id) REFERENCES users (id),
+    CONSTRAINT fk_booking_procedure FOREIGN KEY (procedure_id) REFERENCES procedures (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE booking_procedure (
+    booking_id   BIGINT NOT NULL,
+    procedure_id BIGINT NOT NULL,
+    CONSTRAINT fk_booking_procedure_booking FOREIGN KEY (booking_id) REFERENCES booking (id),
+    CONSTRAINT fk_booking_procedure_procedure FOREIGN KEY (procedure_id) REFERENCES procedures (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE reviews (
+    id         BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    master_id  BIGINT,
+    client_id  BIGINT,
+    content    VARCHAR(255),
+    rating     INTEGER     NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    CONSTRAINT fk_reviews_master FOREIGN KEY (master_id) REFERENCES users (id),
+    CONSTRAINT fk_reviews_client FOREIGN KEY (client_id) REFERENCES users (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,17 @@
+-- Рабочие часы мастеров и длительность процедур и записей для расчёта свободного времени.
+
+ALTER TABLE procedures ADD COLUMN duration_minutes INTEGER;
+
+ALTER TABLE booking ADD COLUMN end_date_time DATETIME(6);
+
+CREATE TABLE working_hours (
+    id          BIGINT  NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    master_id   BIGINT  NOT NULL,
+    day_of_week ENUM ('MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY', 'SUNDAY') NOT NULL,
+    start_time  TIME(6) NOT NULL,
+    end_time    TIME(6) NOT NULL,
+    break_start TIME(6),
+    break_end   TIME(6),
+    CONSTRAINT uk_working_hours_master_day UNIQUE (master_id, day_of_week),
+    CONSTRAINT fk_working_hours_master FOREIGN KEY (master_id) REFERENCES users (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,12 @@
+-- Агрегаты рейтинга мастеров; заполняются из отзывов при запуске с reviews.rating-aggregate.backfill-on-startup=true.
+
+CREATE TABLE master_ratings (
+    master_id    BIGINT NOT NULL PRIMARY KEY,
+    review_count BIGINT NOT NULL,
+    rating_sum   BIGINT NOT NULL,
+    stars_1      BIGINT NOT NULL,
+    stars_2      BIGINT NOT NULL,
+    stars_3      BIGINT NOT NULL,
+    stars_4      BIGINT NOT NULL,
+    stars_5      BIGINT NOT NULL
+) ENGINE = InnoDB;
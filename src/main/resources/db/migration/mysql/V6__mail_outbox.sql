@@ -0,0 +1,16 @@
+-- Исходящие письма: пишутся в транзакции изменения, о котором сообщают, и отправляются MailDispatcher.
+-- Отправленные письма удаляются, не отправленные после mail.outbox.max-attempts попыток остаются со статусом DEAD.
+
+CREATE TABLE mail_outbox (
+    id              BIGINT        NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    recipient       VARCHAR(320)  NOT NULL,
+    subject         VARCHAR(1000) NOT NULL,
+    body            TEXT          NOT NULL,
+    status          ENUM ('PENDING', 'DEAD') NOT NULL,
+    attempts        INTEGER       NOT NULL,
+    next_attempt_at DATETIME(6)   NOT NULL,
+    last_error      VARCHAR(1000),
+    created_at      DATETIME(6)   NOT NULL
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_mail_outbox_status_next_attempt ON mail_outbox (status, next_attempt_at);
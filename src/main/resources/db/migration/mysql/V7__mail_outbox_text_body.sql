@@ -0,0 +1,3 @@
+-- Текстовая альтернатива HTML-письма (multipart/alternative); у писем без шаблона её нет.
+
+ALTER TABLE mail_outbox ADD COLUMN text_body TEXT;
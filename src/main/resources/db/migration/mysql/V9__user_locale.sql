@@ -0,0 +1,3 @@
+-- Язык писем пользователю (из Accept-Language при регистрации); NULL — язык по умолчанию (mail.templates.default-locale).
+
+ALTER TABLE users ADD COLUMN locale VARCHAR(35);
@@ -0,0 +1,71 @@
+-- Схема в том виде, в каком её создавал Hibernate до перехода на Flyway.
+-- Существующие базы отмечаются этой версией (baseline-on-migrate), на них V1 не выполняется.
+
+CREATE TABLE users (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    firstname       VARCHAR(255),
+    lastname        VARCHAR(255),
+    address         VARCHAR(255),
+    email           VARCHAR(255),
+    phonenumber     VARCHAR(255),
+    is_active       BOOLEAN      NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    description     VARCHAR(255),
+    role            VARCHAR(255) NOT NULL CHECK (role IN ('ADMIN', 'CLIENT', 'MASTER')),
+    profilephotourl VARCHAR(255),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE categories (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255)
+);
+
+CREATE TABLE procedures (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255),
+    price       FLOAT(53),
+    category_id BIGINT REFERENCES categories (id)
+);
+
+CREATE TABLE user_categories (
+    user_id     BIGINT NOT NULL REFERENCES users (id),
+    category_id BIGINT NOT NULL REFERENCES categories (id),
+    PRIMARY KEY (user_id, category_id)
+);
+
+CREATE TABLE user_procedures (
+    user_id      BIGINT NOT NULL REFERENCES users (id),
+    procedure_id BIGINT NOT NULL REFERENCES procedures (id),
+    PRIMARY KEY (user_id, procedure_id)
+);
+
+CREATE TABLE portfolio_photo (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    url     VARCHAR(255),
+    user_id BIGINT REFERENCES users (id)
+);
+
+CREATE TABLE booking (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id      BIGINT REFERENCES users (id),
+    client_id    BIGINT REFERENCES users (id),
+    master_id    BIGINT REFERENCES users (id),
+    procedure_id BIGINT REFERENCES procedures (id),
+    date_time    TIMESTAMP(6),
+    status       VARCHAR(255) CHECK (status IN ('CONFIRMED', 'CANCELED', 'COMPLETED'))
+);
+
+CREATE TABLE booking_procedure (
+    booking_id   BIGINT NOT NULL REFERENCES booking (id),
+    procedure_id BIGINT NOT NULL REFERENCES procedures (id)
+);
+
+CREATE TABLE reviews (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    master_id  BIGINT REFERENCES users (id),
+    client_id  BIGINT REFERENCES users (id),
+    content    VARCHAR(255),
+    rating     INTEGER      NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,17 @@
+-- Рабочие часы мастеров и длительность процедур и записей для расчёта свободного времени.
+
+ALTER TABLE procedures ADD COLUMN duration_minutes INTEGER;
+
+ALTER TABLE booking ADD COLUMN end_date_time TIMESTAMP(6);
+
+CREATE TABLE working_hours (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    master_id   BIGINT       NOT NULL REFERENCES users (id),
+    day_of_week VARCHAR(255) NOT NULL
+        CHECK (day_of_week IN ('MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY', 'SUNDAY')),
+    start_time  TIME(6)      NOT NULL,
+    end_time    TIME(6)      NOT NULL,
+    break_start TIME(6),
+    break_end   TIME(6),
+    CONSTRAINT uk_working_hours_master_day UNIQUE (master_id, day_of_week)
+);
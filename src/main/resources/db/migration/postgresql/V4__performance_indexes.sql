@@ -0,0 +1,22 @@
+-- Индексы под фактические запросы. PostgreSQL не создаёт индексы для внешних ключей сам.
+
+-- записи клиента по статусу
+CREATE INDEX idx_booking_client_status ON booking (client_id, status);
+
+-- записи мастера по статусу и времени: календарь, проверка пересечений, лента записей
+CREATE INDEX idx_booking_master_status_date_time ON booking (master_id, status, date_time);
+
+-- лента отзывов мастера, постранично по (created_at, id)
+CREATE INDEX idx_reviews_master_created_at ON reviews (master_id, created_at, id);
+
+-- первичный ключ (user_id, category_id), как его создаёт Hibernate, ищет категории мастера; этот — мастеров категории
+CREATE INDEX idx_user_categories_category_user ON user_categories (category_id, user_id);
+
+-- первичный ключ (user_id, procedure_id) ищет процедуры мастера; этот — мастеров процедуры
+CREATE INDEX idx_user_procedures_procedure_user ON user_procedures (procedure_id, user_id);
+
+-- процедуры категории
+CREATE INDEX idx_procedures_category ON procedures (category_id);
+
+-- фотографии портфолио пользователя
+CREATE INDEX idx_portfolio_photo_user ON portfolio_photo (user_id);
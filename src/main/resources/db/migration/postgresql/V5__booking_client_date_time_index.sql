@@ -0,0 +1,6 @@
+-- Записи клиента листаются по времени, как и записи мастера: индекс дополнен date_time,
+-- чтобы страница читалась по индексу без сортировки.
+
+CREATE INDEX idx_booking_client_status_date_time ON booking (client_id, status, date_time);
+
+DROP INDEX idx_booking_client_status;
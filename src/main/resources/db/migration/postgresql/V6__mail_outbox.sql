@@ -0,0 +1,16 @@
+-- Исходящие письма: пишутся в транзакции изменения, о котором сообщают, и отправляются MailDispatcher.
+-- Отправленные письма удаляются, не отправленные после mail.outbox.max-attempts попыток остаются со статусом DEAD.
+
+CREATE TABLE mail_outbox (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient       VARCHAR(320)  NOT NULL,
+    subject         VARCHAR(1000) NOT NULL,
+    body            TEXT          NOT NULL,
+    status          VARCHAR(255)  NOT NULL CHECK (status IN ('PENDING', 'DEAD')),
+    attempts        INTEGER       NOT NULL,
+    next_attempt_at TIMESTAMP(6)  NOT NULL,
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP(6)  NOT NULL
+);
+
+CREATE INDEX idx_mail_outbox_status_next_attempt ON mail_outbox (status, next_attempt_at);
@@ -0,0 +1,9 @@
+-- Время окончания для записей, созданных до V2: без него проверка пересечений в базе их не видит.
+-- Длительность берётся из процедуры, иначе 60 минут (booking.availability.default-duration).
+
+UPDATE booking
+SET end_date_time = date_time + COALESCE(
+        (SELECT p.duration_minutes FROM procedures p WHERE p.id = booking.procedure_id AND p.duration_minutes > 0),
+        60) * INTERVAL '1' MINUTE
+WHERE end_date_time IS NULL
+  AND date_time IS NOT NULL;
@@ -0,0 +1,96 @@
+package com.example.end.benchmark;
+
+import com.example.end.dto.PortfolioImageDto;
+import com.example.end.dto.UserDetailsDto;
+import com.example.end.infrastructure.cache.serializer.BinaryCacheSerializer;
+import com.example.end.infrastructure.cache.serializer.DtoCacheCodecs;
+import com.example.end.models.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Encode/decode throughput of a cached masters page: current JSON serializer vs. the binary one,
+ * with and without compression. Payload sizes are printed once per trial.
+ * <p>
+ * Run from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.end.benchmark.CacheSerializerBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    @Param({"json", "binary", "binary-compressed"})
+    private String format;
+
+    @Param({"1", "20"})
+    private int pageSize;
+
+    private RedisSerializer<Object> serializer;
+    private List<UserDetailsDto> page;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+        serializer = switch (format) {
+            case "binary" -> new BinaryCacheSerializer(DtoCacheCodecs.all(), json, 0);
+            case "binary-compressed" -> new BinaryCacheSerializer(DtoCacheCodecs.all(), json, 256);
+            default -> json;
+        };
+        page = IntStream.range(0, pageSize)
+                .mapToObj(i -> master(i + 1L))
+                .collect(Collectors.toList());
+        encoded = serializer.serialize(page);
+        System.out.printf("%n%s, page of %d: %d bytes%n", format, pageSize, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(page);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    private static UserDetailsDto master(long id) {
+        return UserDetailsDto.builder()
+                .id(id)
+                .firstName("Anna")
+                .lastName("Schmidt")
+                .email("anna" + id + "@example.com")
+                .description("I am a manicure master with 10 years of experience")
+                .phoneNumber("+4917644545615")
+                .address("Berlin, Salvador straße 88, 13446")
+                .role(User.Role.MASTER)
+                .categoryIds(List.of(1L, 2L))
+                .procedureIds(List.of(3L, 4L, 5L, 6L))
+                .reviewIds(List.of(10L, 11L))
+                .profileImageUrl("https://res.cloudinary.com/beautybook/image/upload/profile-" + id + ".jpg")
+                .portfolioImageUrls(List.of(
+                        new PortfolioImageDto(id * 10, "https://res.cloudinary.com/beautybook/image/upload/p-" + id + "-1.jpg"),
+                        new PortfolioImageDto(id * 10 + 1, "https://res.cloudinary.com/beautybook/image/upload/p-" + id + "-2.jpg")))
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CacheSerializerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.end.benchmark;
+
+import com.example.end.infrastructure.mail.MailTemplates;
+import com.example.end.infrastructure.mail.RenderedMail;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Composing the mail asking the administrator to confirm a new master.
+ * <ul>
+ *     <li>{@code compiledTemplates} - {@link MailTemplates}: subject, HTML and text body rendered from the
+ *     compiled templates into the buffer of the thread</li>
+ *     <li>{@code stringFormat} - the previous code: subject and a plain-text body only, the body built with
+ *     {@code String.format}</li>
+ * </ul>
+ * Add {@code -prof gc} to see the bytes allocated per mail.
+ * Run from the IDE or with {@code java -cp <test classpath> org.openjdk.jmh.Main MailTemplateBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+    private MailTemplates mailTemplates;
+    private Map<String, String> model;
+    private String masterName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mailTemplates = new MailTemplates("classpath*:mail/templates/", Locale.GERMAN);
+        masterName = "Anna Schmidt";
+        model = Map.of("masterName", masterName);
+    }
+
+    @Benchmark
+    public RenderedMail compiledTemplates() {
+        return mailTemplates.render("master-confirmation-request", Locale.GERMAN, model);
+    }
+
+    @Benchmark
+    public String[] stringFormat() {
+        String subject = "Anfrage zur Bestätigung eines neuen Meisters";
+        String text = String.format("Sehr geehrter Administrator,\n\n" +
+                "Der Benutzer %s hat sich als Meister registriert und wartet auf Ihre Bestätigung.\n" +
+                "Bitte bestätigen Sie dies im System.\n\n" +
+                "Mit freundlichen Grüßen,\nIhr Verwaltungssystem.", masterName);
+        return new String[]{subject, text};
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MailTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
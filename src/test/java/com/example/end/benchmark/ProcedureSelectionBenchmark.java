@@ -0,0 +1,124 @@
+package com.example.end.benchmark;
+
+import com.example.end.dto.ProcedureByCategoryDto;
+import com.example.end.mapping.CategoryMapper;
+import com.example.end.mapping.ProcedureMapper;
+import com.example.end.models.Category;
+import com.example.end.models.Procedure;
+import com.example.end.repository.CategoryRepository;
+import com.example.end.repository.ProcedureRepository;
+import com.example.end.service.CategoryServiceImpl;
+import com.example.end.service.interfaces.ProcedureService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Resolving the procedures a master selects in {@code CategoryServiceImpl.getProceduresForCategories}
+ * over 20 categories with 10 procedures each. The repositories are stubs (not recording invocations), so
+ * every call stands for one query and the numbers show the CPU part only: the bulk resolver runs one query,
+ * the per-category variant one per selected category.
+ * <ul>
+ *     <li>{@code bulkResolver} - one {@code IN} query for the procedure ids and a hash lookup of their categories</li>
+ *     <li>{@code perCategoryScan} - the previous approach: the procedures of every selected category, mapped to
+ *     detached copies and scanned linearly for every requested id (kept correct for procedures of different
+ *     categories, which the previous code rejected)</li>
+ * </ul>
+ * With many selected procedures both variants spend most of their time filling the resulting {@code HashSet}:
+ * entities share one hash code per class, so every insert compares against the procedures already added.
+ * Run from the IDE or with {@code java -cp <test classpath> org.openjdk.jmh.Main ProcedureSelectionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcedureSelectionBenchmark {
+
+    private static final int CATEGORIES = 20;
+    private static final int PROCEDURES_PER_CATEGORY = 10;
+
+    @Param({"20", "200"})
+    private int selectedProcedures;
+
+    private CategoryServiceImpl categoryService;
+    private ProcedureService procedureService;
+    private ProcedureMapper procedureMapper;
+    private Set<Category> categories;
+    private List<Long> procedureIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        categories = new HashSet<>();
+        List<Procedure> procedures = new ArrayList<>();
+        procedureService = mock(ProcedureService.class, withSettings().stubOnly());
+        procedureMapper = new ProcedureMapper();
+        for (long categoryId = 1; categoryId <= CATEGORIES; categoryId++) {
+            Category category = Category.builder().id(categoryId).name("Category " + categoryId).build();
+            categories.add(category);
+            List<ProcedureByCategoryDto> ofCategory = new ArrayList<>();
+            for (int i = 0; i < PROCEDURES_PER_CATEGORY; i++) {
+                Procedure procedure = Procedure.builder().id((long) procedures.size() + 1)
+                        .name("Procedure " + (procedures.size() + 1)).price(30).category(category).build();
+                procedures.add(procedure);
+                ofCategory.add(procedureMapper.procedureByCategoryToDto(procedure));
+            }
+            when(procedureService.findProceduresByCategoryId(categoryId)).thenReturn(ofCategory);
+        }
+
+        List<Procedure> shuffled = new ArrayList<>(procedures);
+        Collections.shuffle(shuffled, new Random(42));
+        List<Procedure> selected = shuffled.subList(0, selectedProcedures);
+        procedureIds = selected.stream().map(Procedure::getId).toList();
+
+        ProcedureRepository procedureRepository = mock(ProcedureRepository.class, withSettings().stubOnly());
+        when(procedureRepository.findAllWithCategoryByIdIn(any())).thenReturn(new ArrayList<>(selected));
+        categoryService = new CategoryServiceImpl(mock(CategoryRepository.class), new CategoryMapper(), procedureRepository);
+    }
+
+    @Benchmark
+    public Object bulkResolver() {
+        return categoryService.getProceduresForCategories(categories, procedureIds);
+    }
+
+    @Benchmark
+    public Object perCategoryScan() {
+        Set<Procedure> selected = new HashSet<>();
+        for (Category category : categories) {
+            List<Procedure> ofCategory = procedureService.findProceduresByCategoryId(category.getId()).stream()
+                    .map(procedureMapper::toEntity)
+                    .toList();
+            for (Long procedureId : procedureIds) {
+                ofCategory.stream()
+                        .filter(p -> p.getId().equals(procedureId))
+                        .findFirst()
+                        .ifPresent(selected::add);
+            }
+        }
+        if (selected.size() != procedureIds.size()) {
+            throw new IllegalStateException("Procedures missing");
+        }
+        return selected;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProcedureSelectionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
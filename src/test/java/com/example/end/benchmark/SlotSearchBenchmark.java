@@ -0,0 +1,106 @@
+package com.example.end.benchmark;
+
+import com.example.end.service.availability.FreeTimeIndex;
+import com.example.end.service.availability.MasterCalendar;
+import com.example.end.service.availability.MasterCalendar.DaySchedule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-master slot search in {@link FreeTimeIndex} for a category with thousands of masters, each with
+ * working hours, a break and a mostly booked first week.
+ * <ul>
+ *     <li>{@code searchIndex} - the earliest free hour of every master within a two-day window</li>
+ *     <li>{@code perMasterCalendars} - the same answer by listing free slots of each master's calendar,
+ *     as clients had to do one master at a time</li>
+ * </ul>
+ * Run from the IDE or with {@code java -cp <test classpath> org.openjdk.jmh.Main SlotSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotSearchBenchmark {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 1, 5);
+    private static final Duration STEP = Duration.ofMinutes(15);
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    @Param({"5000"})
+    private int masters;
+
+    private FreeTimeIndex index;
+    private Map<Long, MasterCalendar> calendars;
+    private List<Long> masterIds;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        Map<DayOfWeek, DaySchedule> week = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day != DayOfWeek.SUNDAY) {
+                week.put(day, new DaySchedule(LocalTime.of(9, 0), LocalTime.of(19, 0), LocalTime.of(13, 0), LocalTime.of(14, 0)));
+            }
+        }
+        calendars = new HashMap<>();
+        masterIds = new ArrayList<>();
+        for (long id = 1; id <= masters; id++) {
+            MasterCalendar calendar = new MasterCalendar(week);
+            for (int day = 0; day < 7; day++) {
+                for (int hour = 9; hour < 19; hour++) {
+                    if (hour != 13 && random.nextInt(10) < 8) {
+                        calendar.addBooked(MONDAY.plusDays(day).atTime(hour, 0), MONDAY.plusDays(day).atTime(hour + 1, 0));
+                    }
+                }
+            }
+            calendars.put(id, calendar);
+            masterIds.add(id);
+        }
+        index = new FreeTimeIndex(STEP, 14);
+        index.replaceAll(MONDAY, calendars);
+        from = MONDAY.plusDays(1).atTime(10, 0);
+        to = from.plusDays(2);
+    }
+
+    @Benchmark
+    public Object searchIndex() {
+        return index.findEarliest(masterIds, from, to, HOUR, 20);
+    }
+
+    @Benchmark
+    public Object perMasterCalendars() {
+        List<LocalDateTime> earliest = new ArrayList<>();
+        for (Long masterId : masterIds) {
+            calendars.get(masterId).freeSlots(from.toLocalDate(), to.toLocalDate(), HOUR, STEP, from).stream()
+                    .filter(slot -> !slot.plus(HOUR).isAfter(to))
+                    .findFirst()
+                    .ifPresent(earliest::add);
+        }
+        return earliest;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SlotSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.end.benchmark;
+
+import com.example.end.infrastructure.mail.PooledJavaMailSender;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sending one outbox batch to a local SMTP server (GreenMail on a free port).
+ * <ul>
+ *     <li>{@code connectionPerMessage} - the previous dispatcher: one {@code send} call, and so one connection,
+ *     per message</li>
+ *     <li>{@code connectionPerBatch} - the plain {@code JavaMailSenderImpl} given the whole batch: one connection
+ *     per call</li>
+ *     <li>{@code pooledConnection} - {@link PooledJavaMailSender}: the batch goes over a connection that stays open
+ *     between calls</li>
+ * </ul>
+ * GreenMail speaks plain SMTP on loopback, without STARTTLS or AUTH, so the numbers understate what a new
+ * connection costs against a real server, where the TLS handshake and the login add several round trips.
+ * Run from the IDE or with {@code java -cp <test classpath> org.openjdk.jmh.Main SmtpTransportBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmtpTransportBenchmark {
+
+    @Param({"1", "20"})
+    private int batchSize;
+
+    private GreenMail smtpServer;
+    private JavaMailSenderImpl plainSender;
+    private PooledJavaMailSender pooledSender;
+    private MimeMessage[] batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws MessagingException {
+        smtpServer = new GreenMail(new ServerSetup(0, "localhost", ServerSetup.PROTOCOL_SMTP));
+        smtpServer.start();
+        int port = smtpServer.getSmtp().getPort();
+
+        plainSender = new JavaMailSenderImpl();
+        plainSender.setHost("localhost");
+        plainSender.setPort(port);
+        pooledSender = new PooledJavaMailSender(2, Duration.ofMinutes(1), Duration.ofMinutes(10), Duration.ofSeconds(10));
+        pooledSender.setHost("localhost");
+        pooledSender.setPort(port);
+
+        batch = new MimeMessage[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            batch[i] = plainSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(batch[i], "UTF-8");
+            helper.setFrom("noreply@beautybook.test");
+            helper.setTo("client" + i + "@example.com");
+            helper.setSubject("Booking " + i);
+            helper.setText("<p>Your booking is confirmed.</p>", true);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void purgeMailboxes() throws Exception {
+        smtpServer.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pooledSender.destroy();
+        smtpServer.stop();
+    }
+
+    @Benchmark
+    public void connectionPerMessage() {
+        for (MimeMessage message : batch) {
+            plainSender.send(message);
+        }
+    }
+
+    @Benchmark
+    public void connectionPerBatch() {
+        plainSender.send(batch);
+    }
+
+    @Benchmark
+    public void pooledConnection() {
+        pooledSender.send(batch);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SmtpTransportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
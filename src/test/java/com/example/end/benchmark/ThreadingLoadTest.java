@@ -0,0 +1,173 @@
+package com.example.end.benchmark;
+
+import com.example.end.infrastructure.concurrency.ConnectionPermits;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Load test of request handling on platform threads, as Tomcat runs it today (a pool of 200 threads), and on
+ * virtual threads, as it runs with {@code spring.threads.virtual.enabled}.
+ * <p>
+ * A simulated request does what most of ours do: it holds one of the 5 database connections for
+ * {@value #QUERY_MILLIS} ms, taking a permit as {@code ConcurrencyLimitingDataSource} does, and then waits
+ * {@value #REMOTE_CALL_MILLIS} ms for a remote call (Redis, Cloudinary, SMTP). {@code inFlight} clients send
+ * {@code requests} requests in total.
+ * </p>
+ * <ul>
+ *     <li>throughput - requests per second</li>
+ *     <li>memory per in-flight request - growth of the resident set and of the live heap of a fresh executor
+ *     while 200 requests, as many as the platform pool serves at once, are blocked in the remote call; platform
+ *     threads keep their stacks outside the heap, virtual threads on it</li>
+ * </ul>
+ * Virtual threads need JDK 21, so on JDK 17 only the platform run takes place: build with {@code -Pjdk21} and run
+ * on a JDK 21 to compare.
+ * Run from the IDE or with {@code java -cp <test classpath> com.example.end.benchmark.ThreadingLoadTest
+ * [requests] [inFlight]}.
+ */
+public class ThreadingLoadTest {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int DATABASE_CONNECTIONS = 5;
+    private static final long QUERY_MILLIS = 1;
+    private static final long REMOTE_CALL_MILLIS = 50;
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int inFlight = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        System.out.printf("%d requests from %d clients, %d database connections%n", requests, inFlight,
+                DATABASE_CONNECTIONS);
+        System.out.printf("%-10s %15s %22s %22s%n", "threads", "requests/s", "resident KB/request", "heap KB/request");
+
+        report("platform", () -> Executors.newFixedThreadPool(TOMCAT_MAX_THREADS), requests, inFlight);
+        if (Runtime.version().feature() >= 21) {
+            report("virtual", () -> new VirtualThreadTaskExecutor("load-"), requests, inFlight);
+        } else {
+            System.out.printf("%-10s needs JDK 21%n", "virtual");
+        }
+    }
+
+    private static void report(String name, Supplier<Executor> executors, int requests, int inFlight)
+            throws Exception {
+        Executor executor = executors.get();
+        throughput(executor, requests / 4, inFlight);
+        double throughput = throughput(executor, requests, inFlight);
+        shutdown(executor);
+
+        // a fresh executor, so that the stacks of the platform pool's threads count
+        Executor fresh = executors.get();
+        long[] memory = memoryPerRequest(fresh, TOMCAT_MAX_THREADS);
+        shutdown(fresh);
+        System.out.printf("%-10s %15.0f %22s %22.1f%n", name, throughput,
+                memory[0] < 0 ? "n/a" : String.format("%.1f", memory[0] / 1024.0 / TOMCAT_MAX_THREADS),
+                memory[1] / 1024.0 / TOMCAT_MAX_THREADS);
+    }
+
+    private static void shutdown(Executor executor) {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static double throughput(Executor executor, int requests, int inFlight) throws InterruptedException {
+        ConnectionPermits database = new ConnectionPermits(DATABASE_CONNECTIONS, Duration.ofMinutes(1));
+        Semaphore clients = new Semaphore(inFlight);
+        CountDownLatch done = new CountDownLatch(requests);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            clients.acquire();
+            executor.execute(() -> {
+                try {
+                    handle(database, null);
+                } finally {
+                    clients.release();
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return requests / ((System.nanoTime() - startedAt) / 1e9);
+    }
+
+    /**
+     * @return growth of the resident set (-1 where it cannot be read) and of the live heap, in bytes
+     */
+    private static long[] memoryPerRequest(Executor executor, int inFlight) throws Exception {
+        ConnectionPermits database = new ConnectionPermits(DATABASE_CONNECTIONS, Duration.ofMinutes(1));
+        CountDownLatch remoteCall = new CountDownLatch(1);
+        AtomicInteger blocked = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(inFlight);
+
+        long residentBefore = residentBytes();
+        long heapBefore = liveHeapBytes();
+        for (int i = 0; i < inFlight; i++) {
+            executor.execute(() -> {
+                try {
+                    blocked.incrementAndGet();
+                    handle(database, remoteCall);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        while (blocked.get() < inFlight) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(REMOTE_CALL_MILLIS);
+        long heapGrowth = liveHeapBytes() - heapBefore;
+        long residentAfter = residentBytes();
+        remoteCall.countDown();
+        done.await();
+        return new long[]{residentBefore < 0 ? -1 : residentAfter - residentBefore, heapGrowth};
+    }
+
+    private static void handle(ConnectionPermits database, CountDownLatch remoteCall) {
+        try {
+            if (!database.tryAcquire()) {
+                throw new IllegalStateException("No database connection");
+            }
+            try {
+                Thread.sleep(QUERY_MILLIS);
+            } finally {
+                database.release();
+            }
+            if (remoteCall != null) {
+                remoteCall.await();
+            } else {
+                Thread.sleep(REMOTE_CALL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long liveHeapBytes() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long residentBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // not on Linux
+        }
+        return -1;
+    }
+}
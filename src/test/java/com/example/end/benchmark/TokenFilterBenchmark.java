@@ -0,0 +1,102 @@
+package com.example.end.benchmark;
+
+import com.example.end.infrastructure.security.sec_filter.TokenFilter;
+import com.example.end.infrastructure.security.sec_servivce.TokenService;
+import com.example.end.models.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating a request in {@link TokenFilter}.
+ * <ul>
+ *     <li>{@code legacyDoubleParse} - the previous path: a new parser and a full verification for
+ *     {@code validateAccessToken} and again for {@code getAccessClaims}</li>
+ *     <li>{@code filterUncached} - the filter with the verification cache disabled, one parse per request</li>
+ *     <li>{@code filterCached} - the filter with a warm verification cache</li>
+ * </ul>
+ * Run from the IDE or with {@code java -cp <test classpath> org.openjdk.jmh.Main TokenFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenFilterBenchmark {
+
+    private static final String ACCESS_KEY = "YmVuY2htYXJrLWFjY2Vzcy1rZXktZm9yLWJlYXV0eWJvb2stdG9rZW4tZmlsdGVy";
+    private static final String REFRESH_KEY = "YmVuY2htYXJrLXJlZnJlc2gta2V5LWZvci1iZWF1dHlib29rLXRva2VuLWZpbHRlcg==";
+
+    private SecretKey accessKey;
+    private String token;
+    private TokenFilter cachedFilter;
+    private TokenFilter uncachedFilter;
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("ACCESS_KEY", ACCESS_KEY);
+        System.setProperty("REFRESH_KEY", REFRESH_KEY);
+        accessKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(ACCESS_KEY));
+
+        TokenService cachedService = new TokenService(10_000);
+        cachedService.init();
+        TokenService uncachedService = new TokenService(0);
+        uncachedService.init();
+        cachedFilter = new TokenFilter(cachedService);
+        uncachedFilter = new TokenFilter(uncachedService);
+
+        User user = User.builder()
+                .id(42L)
+                .email("anna@example.com")
+                .firstName("Anna")
+                .lastName("Schmidt")
+                .role(User.Role.MASTER)
+                .build();
+        token = cachedService.generateAccessToken(user);
+        request = new MockHttpServletRequest("GET", "/api/users/masters");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Claims legacyDoubleParse() {
+        Jwts.parser().verifyWith(accessKey).build().parseSignedClaims(token);
+        return Jwts.parser().verifyWith(accessKey).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Object filterUncached() throws Exception {
+        uncachedFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Object filterCached() throws Exception {
+        cachedFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.end.infrastructure.cache;
+
+import org.junit.jupiter.api.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+@DisplayName("CacheInvalidationMessage Tests")
+@DisplayNameGeneration(ReplaceUnderscores.class)
+public class CacheInvalidationMessageTest {
+
+    private final RedisSerializer<CacheInvalidationMessage> serializer = CacheInvalidationBus.serializer();
+
+    private CacheInvalidationMessage roundTrip(Object key) {
+        return serializer.deserialize(serializer.serialize(new CacheInvalidationMessage("node-1", "allMasters", key)));
+    }
+
+    @Test
+    void message_is_sent_as_json() {
+        String json = new String(serializer.serialize(new CacheInvalidationMessage("node-1", "usersByCategory", 7L)),
+                StandardCharsets.UTF_8);
+
+        assertEquals("{\"originNodeId\":\"node-1\",\"cacheName\":\"usersByCategory\",\"key\":\"7\",\"keyType\":\"LONG\"}",
+                json);
+    }
+
+    @Test
+    void keys_keep_their_type() {
+        CacheInvalidationMessage longKey = roundTrip(7L);
+        CacheInvalidationMessage stringKey = roundTrip("after:7:20");
+
+        assertEquals(7L, longKey.getKey());
+        assertEquals("after:7:20", stringKey.getKey());
+        assertEquals("node-1", stringKey.getOriginNodeId());
+        assertEquals("allMasters", stringKey.getCacheName());
+    }
+
+    @Test
+    void clear_has_no_key() {
+        assertTrue(roundTrip(null).isClear());
+    }
+
+    @Test
+    void other_key_types_are_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> new CacheInvalidationMessage("node-1", "allMasters", 7));
+    }
+
+    @Test
+    void java_serialized_payload_is_not_read() {
+        byte[] javaSerialized = {(byte) 0xAC, (byte) 0xED, 0, 5, 0x73, 0x72};
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(javaSerialized));
+    }
+}
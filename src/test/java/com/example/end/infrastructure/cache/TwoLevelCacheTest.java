@@ -0,0 +1,273 @@
+package com.example.end.infrastructure.cache;
+
+import org.junit.jupiter.api.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+@DisplayName("TwoLevelCache Tests")
+public class TwoLevelCacheTest {
+
+    private ConcurrentMapCache redisCache;
+
+    @BeforeEach
+    void setUp() {
+        redisCache = new ConcurrentMapCache("allMasters");
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class SingleFlight_Tests {
+
+        @Test
+        void concurrent_misses_for_the_same_key_run_the_loader_once() throws Exception {
+            TwoLevelCache cache = new TwoLevelCache("allMasters", redisCache, 100, Duration.ofMinutes(1),
+                    null, null, null);
+            int threads = 16;
+            AtomicInteger loads = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return cache.get("0:20", () -> {
+                        loads.incrementAndGet();
+                        release.await();
+                        return "masters";
+                    });
+                }));
+            }
+            start.countDown();
+            // give every thread the chance to miss and join the running load
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("masters", result.get(5, TimeUnit.SECONDS));
+            }
+            pool.shutdown();
+
+            assertEquals(1, loads.get());
+            assertEquals(1, cache.getStatistics().getComputedLoads());
+            assertNotNull(redisCache.get("0:20"));
+        }
+
+        @Test
+        void loader_failure_is_reported_to_the_caller_and_not_cached() {
+            TwoLevelCache cache = new TwoLevelCache("allMasters", redisCache, 100, Duration.ofMinutes(1),
+                    null, null, null);
+
+            Cache.ValueRetrievalException e = assertThrows(Cache.ValueRetrievalException.class,
+                    () -> cache.get("0:20", () -> {
+                        throw new IllegalStateException("database down");
+                    }));
+
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertNull(redisCache.get("0:20"));
+            assertEquals("masters", cache.get("0:20", () -> "masters"));
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class EmptyCollections_Tests {
+
+        private TwoLevelCache cache;
+
+        @BeforeEach
+        void setUp() {
+            cache = new TwoLevelCache("allMasters", redisCache, 100, Duration.ofMinutes(1), null, null, null);
+            cache.setStoreEmptyCollections(false);
+        }
+
+        @Test
+        void empty_result_is_returned_but_not_stored() {
+            assertEquals(List.of(), cache.get("5:20", List::of));
+
+            assertNull(redisCache.get("5:20"));
+            assertEquals(List.of("anna"), cache.get("5:20", () -> List.of("anna")));
+            assertEquals(List.of("anna"), redisCache.get("5:20").get());
+        }
+
+        @Test
+        void empty_result_of_a_refresh_evicts_the_key() {
+            cache.get("5:20", () -> List.of("anna"));
+            cache.get("5:20", () -> List.of("anna"));
+            cache.setRefreshLoader(key -> List.of());
+
+            cache.refreshAhead(1, Duration.ZERO, Runnable::run);
+
+            assertNull(redisCache.get("5:20"));
+            assertNull(cache.get("5:20"));
+        }
+
+        @Test
+        void caches_store_empty_collections_by_default() {
+            TwoLevelCache categories = new TwoLevelCache("allCategories", redisCache, 100, Duration.ofMinutes(1),
+                    null, null, null);
+
+            categories.get("all", List::of);
+
+            assertEquals(List.of(), redisCache.get("all").get());
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class StaleWhileRevalidate_Tests {
+
+        @Test
+        void expired_value_is_served_while_it_is_reloaded_in_background() throws Exception {
+            BlockingQueue<Runnable> reloads = new LinkedBlockingQueue<>();
+            TwoLevelCache cache = new TwoLevelCache("allMasters", redisCache, 100, Duration.ofMillis(1),
+                    Duration.ofMinutes(1), reloads::add, null);
+            cache.setRefreshLoader(key -> "new");
+            cache.get("0:20", () -> "old");
+
+            // L1 entry times out and the Redis entry expires
+            Thread.sleep(20);
+            redisCache.evict("0:20");
+
+            assertEquals("old", cache.get("0:20", () -> "from the request"));
+            assertEquals(1, cache.getStatistics().getStaleHits());
+            assertEquals(1, reloads.size());
+
+            reloads.take().run();
+            assertEquals("new", cache.get("0:20", () -> "unused"));
+        }
+
+        @Test
+        void expired_value_of_a_cache_without_refresh_loader_is_loaded_by_the_request() throws Exception {
+            BlockingQueue<Runnable> reloads = new LinkedBlockingQueue<>();
+            TwoLevelCache cache = new TwoLevelCache("allMasters", redisCache, 100, Duration.ofMillis(1),
+                    Duration.ofMinutes(1), reloads::add, null);
+            cache.get("0:20", () -> "old");
+
+            Thread.sleep(20);
+            redisCache.evict("0:20");
+
+            assertEquals("new", cache.get("0:20", () -> "new"));
+            assertEquals(0, cache.getStatistics().getStaleHits());
+            assertTrue(reloads.isEmpty());
+        }
+
+        @Test
+        void evicted_value_is_never_served_stale() {
+            TwoLevelCache cache = new TwoLevelCache("allMasters", redisCache, 100, Duration.ofMinutes(1),
+                    Duration.ofMinutes(1), Runnable::run, null);
+            cache.get("0:20", () -> "old");
+
+            cache.evict("0:20");
+
+            assertEquals("new", cache.get("0:20", () -> "new"));
+            assertEquals(0, cache.getStatistics().getStaleHits());
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class RefreshAhead_Tests {
+
+        private TwoLevelCache cache;
+        private AtomicInteger loads;
+
+        @BeforeEach
+        void setUp() {
+            cache = new TwoLevelCache("allMasters", redisCache, 100, Duration.ofMinutes(1), null, null, null);
+            loads = new AtomicInteger();
+            cache.setRefreshLoader(key -> "v" + loads.incrementAndGet());
+        }
+
+        private String read(String key) {
+            return cache.get(key, () -> "v" + loads.incrementAndGet());
+        }
+
+        @Test
+        void hot_key_is_reloaded_with_the_refresh_loader() {
+            read("0:20");
+            read("0:20");
+            read("0:20");
+
+            cache.refreshAhead(3, Duration.ZERO, Runnable::run);
+
+            assertEquals(2, loads.get());
+            assertEquals("v2", redisCache.get("0:20").get());
+            assertEquals("v2", read("0:20"));
+            assertEquals(1, cache.getStatistics().getRefreshes());
+        }
+
+        @Test
+        void hot_key_of_a_cache_without_refresh_loader_is_left_to_expire() {
+            cache.setRefreshLoader(null);
+            read("0:20");
+            read("0:20");
+            read("0:20");
+
+            cache.refreshAhead(3, Duration.ZERO, Runnable::run);
+
+            assertEquals(1, loads.get());
+            assertEquals("v1", redisCache.get("0:20").get());
+        }
+
+        @Test
+        void rarely_read_key_is_not_reloaded_and_ages_out() {
+            read("0:20");
+
+            cache.refreshAhead(3, Duration.ZERO, Runnable::run);
+            read("0:20");
+            read("0:20");
+            cache.refreshAhead(3, Duration.ZERO, Runnable::run);
+
+            assertEquals(1, loads.get());
+            assertEquals("v1", redisCache.get("0:20").get());
+        }
+
+        @Test
+        void key_written_recently_is_not_reloaded_yet() {
+            read("0:20");
+            read("0:20");
+            read("0:20");
+
+            cache.refreshAhead(3, Duration.ofMinutes(10), Runnable::run);
+
+            assertEquals(1, loads.get());
+        }
+
+        @Test
+        void key_written_by_another_node_is_left_to_that_node() {
+            redisCache.put("0:20", "remote");
+            read("0:20");
+            read("0:20");
+            read("0:20");
+
+            cache.refreshAhead(3, Duration.ZERO, Runnable::run);
+
+            assertEquals(0, loads.get());
+            assertEquals("remote", redisCache.get("0:20").get());
+        }
+
+        @Test
+        void evicted_key_is_not_reloaded() {
+            read("0:20");
+            read("0:20");
+            read("0:20");
+            cache.evict("0:20");
+
+            cache.refreshAhead(1, Duration.ZERO, Runnable::run);
+
+            assertEquals(1, loads.get());
+            assertNull(redisCache.get("0:20"));
+        }
+    }
+}
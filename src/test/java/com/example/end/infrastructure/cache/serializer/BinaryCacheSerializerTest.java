@@ -0,0 +1,176 @@
+package com.example.end.infrastructure.cache.serializer;
+
+import com.example.end.dto.CategoryDto;
+import com.example.end.dto.PortfolioImageDto;
+import com.example.end.dto.ProcedureDto;
+import com.example.end.dto.UserDetailsDto;
+import com.example.end.models.User;
+import org.junit.jupiter.api.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+@DisplayName("BinaryCacheSerializer Tests")
+public class BinaryCacheSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+    private final BinaryCacheSerializer serializer = new BinaryCacheSerializer(DtoCacheCodecs.all(), json, 1024);
+
+    private static UserDetailsDto master(long id) {
+        return UserDetailsDto.builder()
+                .id(id)
+                .firstName("Anna")
+                .lastName("Schmidt")
+                .email("anna" + id + "@example.com")
+                .description("Manicure master with 10 years of experience")
+                .phoneNumber("+4917644545615")
+                .address("Berlin, Salvador straße 88, 13446")
+                .role(User.Role.MASTER)
+                .categoryIds(List.of(1L, 2L))
+                .procedureIds(List.of(3L, 4L, 5L))
+                .reviewIds(List.of())
+                .profileImageUrl("https://example.com/profile-" + id + ".jpg")
+                .portfolioImageUrls(List.of(new PortfolioImageDto(7L, "https://example.com/portfolio-" + id + ".jpg")))
+                .build();
+    }
+
+    // PortfolioImageDto has no equals, so values are compared field by field
+    private static void assertSameContent(Object expected, Object actual) {
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    private static List<UserDetailsDto> mastersPage(int size) {
+        return IntStream.range(0, size)
+                .mapToObj(i -> master(i + 1L))
+                .collect(Collectors.toList());
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class RoundTrip_Tests {
+
+        @Test
+        void list_of_user_details_survives_round_trip() {
+            List<UserDetailsDto> page = mastersPage(3);
+
+            Object read = serializer.deserialize(serializer.serialize(page));
+
+            assertSameContent(page, read);
+            assertInstanceOf(ArrayList.class, read);
+        }
+
+        @Test
+        void null_fields_and_lists_survive_round_trip() {
+            UserDetailsDto sparse = UserDetailsDto.builder().id(1L).build();
+
+            assertEquals(sparse, serializer.deserialize(serializer.serialize(sparse)));
+        }
+
+        @Test
+        void category_and_procedure_survive_round_trip() {
+            CategoryDto category = new CategoryDto(1L, "Hairstylist");
+            ProcedureDto procedure = new ProcedureDto(2L, "Men haircut", 49.5, 45);
+
+            assertEquals(category, serializer.deserialize(serializer.serialize(category)));
+            assertEquals(procedure, serializer.deserialize(serializer.serialize(procedure)));
+            assertEquals(List.of(), serializer.deserialize(serializer.serialize(new ArrayList<>())));
+        }
+
+        @Test
+        void large_values_are_compressed() {
+            List<UserDetailsDto> page = mastersPage(50);
+
+            byte[] bytes = serializer.serialize(page);
+            byte[] uncompressed = new BinaryCacheSerializer(DtoCacheCodecs.all(), json, 0).serialize(page);
+
+            assertTrue(bytes.length < uncompressed.length);
+            assertSameContent(page, serializer.deserialize(bytes));
+        }
+
+        @Test
+        void binary_is_smaller_than_json() {
+            List<UserDetailsDto> page = mastersPage(20);
+
+            assertTrue(serializer.serialize(page).length * 3 < json.serialize(page).length);
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Compatibility_Tests {
+
+        @Test
+        void reads_entries_written_as_json() {
+            List<UserDetailsDto> page = mastersPage(2);
+
+            assertSameContent(page, serializer.deserialize(json.serialize(page)));
+        }
+
+        @Test
+        void unsupported_values_are_written_as_json() {
+            Map<String, String> value = new HashMap<>(Map.of("key", "value"));
+
+            byte[] bytes = serializer.serialize(value);
+
+            assertEquals(value, json.deserialize(bytes));
+            assertEquals(value, serializer.deserialize(bytes));
+        }
+
+        @Test
+        void entry_with_a_newer_codec_version_is_a_miss() {
+            byte[] bytes = serializer.serialize(new CategoryDto(1L, "Hairstylist"));
+            // header: magic, flags, tag, type id, version
+            bytes[4] = 9;
+
+            assertNull(serializer.deserialize(bytes));
+        }
+
+        @Test
+        void procedure_written_before_durations_is_still_readable() {
+            ProcedureDto procedure = new ProcedureDto(2L, "Men haircut", 49.5, null);
+            byte[] bytes = serializer.serialize(procedure);
+            // version 1 ended before the duration flag
+            bytes[4] = 1;
+
+            assertEquals(procedure, serializer.deserialize(Arrays.copyOf(bytes, bytes.length - 1)));
+        }
+
+        @Test
+        void user_details_written_before_ratings_are_still_readable() {
+            UserDetailsDto master = master(1L);
+            byte[] bytes = serializer.serialize(master);
+            // version 1 ended before the rating: absent average, null count, null histogram
+            bytes[4] = 1;
+
+            assertSameContent(master, serializer.deserialize(Arrays.copyOf(bytes, bytes.length - 3)));
+        }
+
+        @Test
+        void rating_survives_round_trip() {
+            UserDetailsDto master = master(1L);
+            master.setAverageRating(4.5);
+            master.setReviewCount(2L);
+            master.setRatingHistogram(List.of(0L, 0L, 0L, 1L, 1L));
+
+            assertSameContent(master, serializer.deserialize(serializer.serialize(master)));
+        }
+
+        @Test
+        void corrupt_entries_are_a_miss() {
+            byte[] bytes = serializer.serialize(mastersPage(2));
+
+            assertNull(serializer.deserialize(Arrays.copyOf(bytes, bytes.length / 2)));
+            assertNull(serializer.deserialize("[\"com.example.Missing\",{}]".getBytes()));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.end.infrastructure.concurrency;
+
+import org.junit.jupiter.api.*;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ConnectionPermits Tests")
+public class ConnectionPermitsTest {
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class DataSource_Tests {
+
+        private final DataSource pool = mock(DataSource.class);
+        private final ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(pool, 2,
+                Duration.ofMillis(100));
+
+        @BeforeEach
+        void setUp() throws SQLException {
+            when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        }
+
+        @Test
+        void connection_holds_a_permit_until_it_is_closed() throws SQLException {
+            Connection connection = dataSource.getConnection();
+            assertEquals(1, dataSource.availablePermits());
+
+            connection.close();
+
+            assertEquals(2, dataSource.availablePermits());
+        }
+
+        @Test
+        void connection_closed_twice_returns_one_permit() throws SQLException {
+            Connection first = dataSource.getConnection();
+            dataSource.getConnection();
+
+            first.close();
+            first.close();
+
+            assertEquals(1, dataSource.availablePermits());
+        }
+
+        @Test
+        void calls_reach_the_pooled_connection() throws SQLException {
+            Connection pooled = mock(Connection.class);
+            when(pool.getConnection()).thenReturn(pooled);
+
+            Connection connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            connection.close();
+
+            verify(pooled).setAutoCommit(false);
+            verify(pooled).close();
+        }
+
+        @Test
+        void request_beyond_the_permits_times_out_like_the_pool() throws SQLException {
+            dataSource.getConnection();
+            dataSource.getConnection();
+
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            verify(pool, times(2)).getConnection();
+        }
+
+        @Test
+        void waiting_request_gets_the_connection_another_one_closes() throws Exception {
+            ConcurrencyLimitingDataSource patient = new ConcurrencyLimitingDataSource(pool, 1, Duration.ofSeconds(5));
+            Connection held = patient.getConnection();
+
+            CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return patient.getConnection();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(50);
+            assertFalse(waiting.isDone());
+
+            held.close();
+
+            assertNotNull(waiting.get(1, TimeUnit.SECONDS));
+        }
+
+        @Test
+        void failing_pool_returns_the_permit() throws SQLException {
+            when(pool.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+            assertThrows(SQLException.class, dataSource::getConnection);
+
+            assertEquals(2, dataSource.availablePermits());
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Lettuce_Tests {
+
+        @Test
+        void failing_connection_returns_the_permit() {
+            // never started, so every connection fails
+            ConcurrencyLimitingLettuceConnectionFactory connectionFactory = new ConcurrencyLimitingLettuceConnectionFactory(
+                    new RedisStandaloneConfiguration("localhost", 6379), 2, Duration.ofMillis(100));
+
+            assertThrows(IllegalStateException.class, connectionFactory::getConnection);
+
+            assertEquals(2, connectionFactory.availablePermits());
+        }
+    }
+}
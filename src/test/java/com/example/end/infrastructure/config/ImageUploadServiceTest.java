@@ -0,0 +1,80 @@
+package com.example.end.infrastructure.config;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ImageUploadService Tests")
+@DisplayNameGeneration(ReplaceUnderscores.class)
+public class ImageUploadServiceTest {
+
+    @TempDir
+    Path spoolDirectory;
+
+    private final Cloudinary cloudinary = mock(Cloudinary.class);
+    private final Uploader uploader = mock(Uploader.class);
+    private ImageUploadService imageUploadService;
+
+    @BeforeEach
+    void setUp() {
+        when(cloudinary.uploader()).thenReturn(uploader);
+        imageUploadService = new ImageUploadService(cloudinary, spoolDirectory);
+    }
+
+    @Test
+    void upload_is_streamed_from_a_file_instead_of_the_heap() throws IOException {
+        byte[] content = new byte[1024 * 1024];
+        content[0] = (byte) 0xFF;
+        MockMultipartFile file = spy(new MockMultipartFile("file", "photo.jpg", "image/jpeg", content));
+        AtomicReference<byte[]> uploaded = new AtomicReference<>();
+        when(uploader.upload(any(), anyMap())).thenAnswer(invocation -> {
+            uploaded.set(Files.readAllBytes(invocation.<File>getArgument(0).toPath()));
+            return Map.of("url", "http://res.cloudinary.com/demo/image/upload/v1/abc.jpg");
+        });
+
+        String imageUrl = imageUploadService.uploadImage(file);
+
+        assertEquals("https://res.cloudinary.com/demo/image/upload/v1/abc.jpg", imageUrl);
+        assertArrayEquals(content, uploaded.get());
+        verify(uploader).upload(any(File.class), anyMap());
+        verify(file, never()).getBytes();
+    }
+
+    @Test
+    void spooled_file_is_deleted_after_the_upload() throws IOException {
+        when(uploader.upload(any(), anyMap())).thenReturn(Map.of("url", "https://res.cloudinary.com/demo/abc.png"));
+
+        imageUploadService.uploadImage(new MockMultipartFile("file", "photo.png", "image/png", new byte[]{1}));
+
+        try (var files = Files.list(spoolDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void spooled_file_is_deleted_when_the_upload_fails() throws IOException {
+        when(uploader.upload(any(), anyMap())).thenThrow(new IOException("Connection reset"));
+
+        assertThrows(IOException.class, () -> imageUploadService.uploadImage(
+                new MockMultipartFile("file", "photo.png", "image/png", new byte[]{1})));
+
+        try (var files = Files.list(spoolDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.end.infrastructure.mail;
+
+import com.example.end.models.OutgoingMail;
+import com.example.end.repository.MailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+/**
+ * The mail outbox against a local SMTP server. Every call commits on its own, as it does in the application,
+ * because the dispatcher only sees committed messages.
+ */
+// flat rather than nested: nested classes would get a Spring test context of their own
+@DataJpaTest(includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+        ProjectMailSender.class, MailTemplates.class}))
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("test")
+@DisplayName("MailDispatcher Tests")
+@DisplayNameGeneration(ReplaceUnderscores.class)
+public class MailDispatcherTest {
+
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(30);
+
+    @RegisterExtension
+    static GreenMailExtension smtpServer = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+    @Autowired
+    private MailOutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProjectMailSender mailSender;
+
+    @BeforeEach
+    @AfterEach
+    void clearOutbox() {
+        outboxRepository.deleteAll();
+    }
+
+    private static JavaMailSenderImpl javaMailSender(int port) {
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(port);
+        javaMailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        return javaMailSender;
+    }
+
+    private MailDispatcher dispatcher(int port, int batchSize, int maxAttempts) {
+        return new MailDispatcher(outboxRepository, javaMailSender(port), transactionManager, "noreply@beautybook.test",
+                batchSize, 10, maxAttempts, INITIAL_BACKOFF, Duration.ofMinutes(10), Duration.ofMinutes(5));
+    }
+
+    private MailDispatcher dispatcher(int batchSize) {
+        return dispatcher(smtpServer.getSmtp().getPort(), batchSize, 8);
+    }
+
+    private MailDispatcher unreachableDispatcher(int maxAttempts) throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        return dispatcher(closedPort, 20, maxAttempts);
+    }
+
+    private OutgoingMail onlyMail() {
+        List<OutgoingMail> outbox = outboxRepository.findAll();
+        assertEquals(1, outbox.size());
+        return outbox.get(0);
+    }
+
+    private void makeDue(OutgoingMail mail) {
+        mail.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(mail);
+    }
+
+    @Test
+    void mail_written_with_a_committed_change_is_sent_and_leaves_the_outbox() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                mailSender.sendRegistrationEmail("anna@example.com", null));
+
+        assertEquals(1, dispatcher(20).dispatch());
+
+        MimeMessage[] received = smtpServer.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertEquals("anna@example.com", received[0].getAllRecipients()[0].toString());
+        assertEquals("noreply@beautybook.test", received[0].getFrom()[0].toString());
+        assertEquals("Herzlichen Glückwunsch zur erfolgreichen Registrierung!", received[0].getSubject());
+        String content = GreenMailUtil.getBody(received[0]);
+        assertTrue(content.contains("text/plain"));
+        assertTrue(content.contains("text/html"));
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void mail_is_written_in_the_language_of_the_recipient() throws Exception {
+        mailSender.sendRegistrationEmail("anna@example.com", Locale.forLanguageTag("en-GB"));
+
+        assertEquals(1, dispatcher(20).dispatch());
+
+        assertEquals("Congratulations on your successful registration!", smtpServer.getReceivedMessages()[0].getSubject());
+    }
+
+    @Test
+    void mail_of_a_rolled_back_change_is_never_sent() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            mailSender.sendRegistrationEmail("anna@example.com", null);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, dispatcher(20).dispatch());
+        assertEquals(0, smtpServer.getReceivedMessages().length);
+    }
+
+    @Test
+    void outbox_is_drained_in_batches() {
+        for (int i = 0; i < 45; i++) {
+            mailSender.sendEmail("client" + i + "@example.com", "Booking " + i, "Confirmed");
+        }
+
+        assertEquals(45, dispatcher(20).dispatch());
+
+        assertEquals(45, smtpServer.getReceivedMessages().length);
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void a_run_sends_at_most_its_batches_and_leaves_the_rest_to_the_next_one() {
+        for (int i = 0; i < 25; i++) {
+            mailSender.sendEmail("client" + i + "@example.com", "Booking " + i, "Confirmed");
+        }
+
+        MailDispatcher dispatcher = new MailDispatcher(outboxRepository, javaMailSender(smtpServer.getSmtp().getPort()),
+                transactionManager, "noreply@beautybook.test", 10, 2, 8, INITIAL_BACKOFF, Duration.ofMinutes(10),
+                Duration.ofMinutes(5));
+
+        assertEquals(20, dispatcher.dispatch());
+        assertEquals(5, outboxRepository.count());
+
+        assertEquals(5, dispatcher.dispatch());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void batches_share_one_pooled_connection() {
+        for (int i = 0; i < 45; i++) {
+            mailSender.sendEmail("client" + i + "@example.com", "Booking " + i, "Confirmed");
+        }
+        PooledJavaMailSender pooledSender = new PooledJavaMailSender(2, Duration.ofMinutes(1), Duration.ofMinutes(10),
+                Duration.ofSeconds(2));
+        pooledSender.setHost("localhost");
+        pooledSender.setPort(smtpServer.getSmtp().getPort());
+        MailDispatcher dispatcher = new MailDispatcher(outboxRepository, pooledSender, transactionManager,
+                "noreply@beautybook.test", 20, 10, 8, INITIAL_BACKOFF, Duration.ofMinutes(10), Duration.ofMinutes(5));
+
+        try {
+            assertEquals(45, dispatcher.dispatch());
+            assertEquals(1, pooledSender.getCreatedConnections());
+        } finally {
+            pooledSender.destroy();
+        }
+        assertEquals(45, smtpServer.getReceivedMessages().length);
+    }
+
+    @Test
+    void claimed_mail_is_not_claimed_again_before_its_lease_expires() {
+        mailSender.sendEmail("anna@example.com", "Booking", "Confirmed");
+        MailDispatcher dispatcher = dispatcher(20);
+
+        assertEquals(1, dispatcher.claimBatch().size());
+
+        assertTrue(dispatcher.claimBatch().isEmpty());
+        assertTrue(onlyMail().getNextAttemptAt().isAfter(LocalDateTime.now().plusMinutes(4)));
+    }
+
+    @Test
+    void failed_mail_is_retried_with_a_growing_delay() throws IOException {
+        mailSender.sendEmail("anna@example.com", "Booking", "Confirmed");
+        MailDispatcher dispatcher = unreachableDispatcher(8);
+
+        assertEquals(0, dispatcher.dispatch());
+        OutgoingMail failed = onlyMail();
+        assertEquals(OutgoingMail.Status.PENDING, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertNotNull(failed.getLastError());
+        assertTrue(failed.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(25)));
+
+        // not due yet
+        assertEquals(0, dispatcher.dispatch());
+        assertEquals(1, onlyMail().getAttempts());
+
+        makeDue(failed);
+        dispatcher.dispatch();
+        OutgoingMail failedTwice = onlyMail();
+        assertEquals(2, failedTwice.getAttempts());
+        assertTrue(failedTwice.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(55)));
+    }
+
+    @Test
+    void mail_failing_max_attempts_times_is_dead_lettered() throws IOException {
+        mailSender.sendEmail("anna@example.com", "Booking", "Confirmed");
+        MailDispatcher dispatcher = unreachableDispatcher(2);
+
+        dispatcher.dispatch();
+        makeDue(onlyMail());
+        dispatcher.dispatch();
+
+        OutgoingMail dead = onlyMail();
+        assertEquals(OutgoingMail.Status.DEAD, dead.getStatus());
+        assertEquals(2, dead.getAttempts());
+        assertEquals(1, outboxRepository.countByStatus(OutgoingMail.Status.DEAD));
+
+        // a dead message is not picked up again, not even by a working dispatcher
+        makeDue(dead);
+        assertEquals(0, dispatcher(20).dispatch());
+        assertEquals(0, smtpServer.getReceivedMessages().length);
+    }
+
+    @Test
+    void backoff_doubles_up_to_the_maximum() {
+        MailDispatcher dispatcher = dispatcher(20);
+
+        assertEquals(INITIAL_BACKOFF, dispatcher.backoff(1));
+        assertEquals(INITIAL_BACKOFF.multipliedBy(4), dispatcher.backoff(3));
+        assertEquals(Duration.ofMinutes(10), dispatcher.backoff(6));
+        assertEquals(Duration.ofMinutes(10), dispatcher.backoff(100));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.end.infrastructure.mail;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+@DisplayName("MailTemplates Tests")
+public class MailTemplatesTest {
+
+    private static final Locale GERMAN = Locale.GERMAN;
+
+    private static String render(String source, boolean html, Map<String, ?> model) {
+        StringBuilder out = new StringBuilder();
+        MailTemplate.compile("test", source, html).renderTo(out, model);
+        return out.toString();
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Template_Tests {
+
+        @Test
+        void placeholders_are_replaced_by_their_values() {
+            assertEquals("Hello Anna, see you at 10:00.",
+                    render("Hello {{name}}, see you at {{ time }}.", false, Map.of("name", "Anna", "time", "10:00")));
+        }
+
+        @Test
+        void template_without_placeholders_is_rendered_as_is() {
+            assertEquals("Thank you!", render("Thank you!", false, Map.of()));
+        }
+
+        @Test
+        void values_are_escaped_in_html_only() {
+            Map<String, String> model = Map.of("message", "<b>Tom & \"Jerry\"</b>");
+
+            assertEquals("<p>&lt;b&gt;Tom &amp; &quot;Jerry&quot;&lt;/b&gt;</p>", render("<p>{{message}}</p>", true, model));
+            assertEquals("<b>Tom & \"Jerry\"</b>", render("{{message}}", false, model));
+        }
+
+        @Test
+        void missing_value_falls_back_to_the_default() {
+            assertEquals("Phone: not provided", render("Phone: {{phone|not provided}}", false, Map.of()));
+            assertEquals("Phone: 123", render("Phone: {{phone|not provided}}", false, Map.of("phone", "123")));
+        }
+
+        @Test
+        void missing_value_without_default_is_rejected() {
+            assertThrows(IllegalArgumentException.class, () -> render("Hello {{name}}", false, Map.of()));
+        }
+
+        @Test
+        void unclosed_placeholder_is_rejected() {
+            assertThrows(IllegalArgumentException.class, () -> MailTemplate.compile("test", "Hello {{name", false));
+        }
+
+        @Test
+        void placeholder_without_name_is_rejected() {
+            assertThrows(IllegalArgumentException.class, () -> MailTemplate.compile("test", "Hello {{ |x}}", false));
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Registry_Tests {
+
+        private final MailTemplates mailTemplates = new MailTemplates("classpath*:mail/templates/", GERMAN);
+
+        @Test
+        void notification_is_rendered_with_subject_html_and_text() {
+            RenderedMail mail = mailTemplates.render("master-confirmation-request", GERMAN,
+                    Map.of("masterName", "Anna Schmidt"));
+
+            assertEquals("Anfrage zur Bestätigung eines neuen Meisters", mail.subject());
+            assertTrue(mail.textBody().contains("Der Benutzer Anna Schmidt hat sich als Meister registriert"));
+            assertTrue(mail.htmlBody().contains("<strong>Anna Schmidt</strong>"));
+        }
+
+        @Test
+        void locale_variant_is_chosen() {
+            assertEquals("Congratulations on your successful registration!",
+                    mailTemplates.render("registration", Locale.ENGLISH, Map.of()).subject());
+        }
+
+        @Test
+        void locale_falls_back_to_its_language_and_then_to_the_default() {
+            assertEquals("Congratulations on your successful registration!",
+                    mailTemplates.render("registration", Locale.UK, Map.of()).subject());
+            assertEquals("Herzlichen Glückwunsch zur erfolgreichen Registrierung!",
+                    mailTemplates.render("registration", Locale.FRENCH, Map.of()).subject());
+        }
+
+        @Test
+        void user_input_is_escaped_in_the_html_body_only() {
+            Map<String, String> model = new HashMap<>();
+            model.put("email", "anna@example.com");
+            model.put("firstName", "Anna");
+            model.put("lastName", "Schmidt");
+            model.put("message", "<script>alert(1)</script>");
+
+            RenderedMail mail = mailTemplates.render("admin-message", GERMAN, model);
+
+            assertEquals("Neue Nachricht vom Benutzer: Anna Schmidt", mail.subject());
+            assertTrue(mail.htmlBody().contains("&lt;script&gt;alert(1)&lt;/script&gt;"));
+            assertFalse(mail.htmlBody().contains("<script>"));
+            assertTrue(mail.textBody().contains("Nachricht: <script>alert(1)</script>"));
+            assertTrue(mail.textBody().contains("Telefon: Nicht angegeben"));
+        }
+
+        @Test
+        void unknown_notification_is_rejected() {
+            assertThrows(IllegalArgumentException.class, () -> mailTemplates.render("unknown", GERMAN, Map.of()));
+        }
+
+        @Test
+        void new_notification_needs_only_its_template_files() {
+            MailTemplates withReminder = new MailTemplates("classpath*:mail/test-templates/", GERMAN);
+
+            RenderedMail mail = withReminder.render("booking-reminder", GERMAN,
+                    Map.of("masterName", "Anna", "date", "14.03.2025 10:00"));
+
+            assertEquals("Erinnerung an Ihren Termin am 14.03.2025 10:00", mail.subject());
+            assertEquals("Ihr Termin bei Anna ist am 14.03.2025 10:00.\n", mail.textBody());
+        }
+
+        @Test
+        void every_notification_needs_a_variant_in_the_default_locale() {
+            assertThrows(IllegalStateException.class, () -> new MailTemplates("classpath*:mail/test-templates/", Locale.ITALIAN));
+        }
+    }
+}
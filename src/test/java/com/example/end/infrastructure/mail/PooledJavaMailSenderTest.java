@@ -0,0 +1,150 @@
+package com.example.end.infrastructure.mail;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.*;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+@DisplayName("PooledJavaMailSender Tests")
+@DisplayNameGeneration(ReplaceUnderscores.class)
+public class PooledJavaMailSenderTest {
+
+    private static final Duration LONG = Duration.ofMinutes(10);
+
+    private int port;
+    private GreenMail smtpServer;
+    private PooledJavaMailSender mailSender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        port = freePort();
+        smtpServer = new GreenMail(new ServerSetup(port, "localhost", ServerSetup.PROTOCOL_SMTP));
+        smtpServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (mailSender != null) {
+            mailSender.destroy();
+        }
+        smtpServer.stop();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private PooledJavaMailSender mailSender(Duration idleTimeout, Duration maxLifetime) {
+        mailSender = new PooledJavaMailSender(2, idleTimeout, maxLifetime, Duration.ofSeconds(2));
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        return mailSender;
+    }
+
+    private MimeMessage[] messages(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            MimeMessage message = mailSender.createMimeMessage();
+            try {
+                MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+                helper.setFrom("noreply@beautybook.test");
+                helper.setTo("client" + i + "@example.com");
+                helper.setSubject("Booking " + i);
+                helper.setText("Confirmed", true);
+            } catch (MessagingException e) {
+                throw new IllegalStateException(e);
+            }
+            return message;
+        }).toArray(MimeMessage[]::new);
+    }
+
+    @Nested
+    @DisplayName("Connection reuse:")
+    class Reuse_Tests {
+
+        @Test
+        void messages_of_one_call_share_one_connection() {
+            mailSender(LONG, LONG).send(messages(5));
+
+            assertEquals(5, smtpServer.getReceivedMessages().length);
+            assertEquals(1, mailSender.getCreatedConnections());
+        }
+
+        @Test
+        void connection_stays_open_for_later_calls() {
+            mailSender(LONG, LONG).send(messages(2));
+            assertEquals(1, mailSender.getIdleConnections());
+
+            mailSender.send(messages(3));
+
+            assertEquals(5, smtpServer.getReceivedMessages().length);
+            assertEquals(1, mailSender.getCreatedConnections());
+        }
+    }
+
+    @Nested
+    @DisplayName("Connection recycling:")
+    class Recycling_Tests {
+
+        @Test
+        void connection_idle_for_too_long_is_closed() throws Exception {
+            mailSender(Duration.ofMillis(1), LONG).send(messages(1));
+            Thread.sleep(20);
+
+            mailSender.evictIdleConnections();
+
+            assertEquals(0, mailSender.getIdleConnections());
+            mailSender.send(messages(1));
+            assertEquals(2, mailSender.getCreatedConnections());
+        }
+
+        @Test
+        void connection_older_than_its_lifetime_is_replaced() throws InterruptedException {
+            mailSender(LONG, Duration.ofMillis(1)).send(messages(1));
+            Thread.sleep(20);
+
+            mailSender.send(messages(1));
+
+            assertEquals(2, smtpServer.getReceivedMessages().length);
+            assertEquals(2, mailSender.getCreatedConnections());
+        }
+
+        @Test
+        void connection_dropped_by_the_server_is_replaced() {
+            mailSender(LONG, LONG).send(messages(1));
+            smtpServer.stop();
+            smtpServer = new GreenMail(new ServerSetup(port, "localhost", ServerSetup.PROTOCOL_SMTP));
+            smtpServer.start();
+
+            mailSender.send(messages(2));
+
+            assertEquals(2, smtpServer.getReceivedMessages().length);
+            assertEquals(2, mailSender.getCreatedConnections());
+        }
+
+        @Test
+        void unreachable_server_fails_every_message_of_the_call() {
+            smtpServer.stop();
+            mailSender(LONG, LONG);
+            MimeMessage[] messages = messages(3);
+
+            MailSendException e = assertThrows(MailSendException.class, () -> mailSender.send(messages));
+
+            assertEquals(3, e.getFailedMessages().size());
+            assertEquals(0, mailSender.getIdleConnections());
+        }
+    }
+}
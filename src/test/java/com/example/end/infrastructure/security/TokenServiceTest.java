@@ -0,0 +1,106 @@
+package com.example.end.infrastructure.security;
+
+import com.example.end.infrastructure.security.sec_servivce.TokenService;
+import com.example.end.models.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.*;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+@DisplayName("TokenService Tests")
+public class TokenServiceTest {
+
+    static final String ACCESS_KEY = "dGVzdC1hY2Nlc3Mta2V5LWZvci1iZWF1dHlib29rLXRva2VuLXNlcnZpY2UtdGVzdHM=";
+    static final String REFRESH_KEY = "dGVzdC1yZWZyZXNoLWtleS1mb3ItYmVhdXR5Ym9vay10b2tlbi1zZXJ2aWNlLXRlc3Q=";
+
+    private TokenService tokenService;
+    private User user;
+
+    @BeforeAll
+    static void configureKeys() {
+        System.setProperty("ACCESS_KEY", ACCESS_KEY);
+        System.setProperty("REFRESH_KEY", REFRESH_KEY);
+    }
+
+    @BeforeEach
+    void setUp() {
+        tokenService = new TokenService(100);
+        tokenService.init();
+        user = User.builder()
+                .id(1L)
+                .email("anna@example.com")
+                .firstName("Anna")
+                .lastName("Schmidt")
+                .role(User.Role.MASTER)
+                .build();
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class VerifyAccessToken_Tests {
+
+        @Test
+        void valid_token_returns_its_claims() {
+            String token = tokenService.generateAccessToken(user);
+
+            Claims claims = tokenService.verifyAccessToken(token);
+
+            assertNotNull(claims);
+            assertEquals("anna@example.com", claims.getSubject());
+            assertEquals("MASTER", claims.get("roles", String.class));
+        }
+
+        @Test
+        void repeated_token_is_answered_from_the_cache() {
+            String token = tokenService.generateAccessToken(user);
+
+            Claims first = tokenService.verifyAccessToken(token);
+            Claims second = tokenService.verifyAccessToken(token);
+
+            assertSame(first, second);
+        }
+
+        @Test
+        void tampered_token_is_rejected_even_after_the_original_was_cached() {
+            String token = tokenService.generateAccessToken(user);
+            tokenService.verifyAccessToken(token);
+            String tampered = token.substring(0, token.length() - 2)
+                    + (token.endsWith("AA") ? "BB" : "AA");
+
+            assertNull(tokenService.verifyAccessToken(tampered));
+        }
+
+        @Test
+        void expired_token_is_rejected() {
+            String expired = Jwts.builder()
+                    .subject("anna@example.com")
+                    .expiration(new Date(System.currentTimeMillis() - 1000))
+                    .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(ACCESS_KEY)))
+                    .compact();
+
+            assertNull(tokenService.verifyAccessToken(expired));
+        }
+
+        @Test
+        void refresh_token_is_not_accepted_as_access_token() {
+            assertNull(tokenService.verifyAccessToken(tokenService.generateRefreshToken(user)));
+            assertNull(tokenService.verifyAccessToken("not-a-jwt"));
+        }
+
+        @Test
+        void works_with_the_cache_disabled() {
+            TokenService uncached = new TokenService(0);
+            uncached.init();
+            String token = uncached.generateAccessToken(user);
+
+            assertNotNull(uncached.verifyAccessToken(token));
+            assertNotSame(uncached.verifyAccessToken(token), uncached.verifyAccessToken(token));
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.end.infrastructure.security.sec_servivce;
+
+import org.junit.jupiter.api.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+@DisplayName("InMemoryRefreshTokenStore Tests")
+public class InMemoryRefreshTokenStoreTest {
+
+    private static final String ANNA = "anna@example.com";
+    private static final String BELLA = "bella@example.com";
+
+    private MutableClock clock;
+    private InMemoryRefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        store = new InMemoryRefreshTokenStore(3, clock);
+    }
+
+    private Instant in(Duration duration) {
+        return clock.instant().plus(duration);
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Rotation_Tests {
+
+        @Test
+        void rotated_token_is_replaced_by_the_new_one() {
+            store.save(ANNA, "t1", in(Duration.ofDays(14)));
+
+            assertTrue(store.rotate(ANNA, "t1", "t2", in(Duration.ofDays(14))));
+
+            assertFalse(store.isActive(ANNA, "t1"));
+            assertTrue(store.isActive(ANNA, "t2"));
+            assertFalse(store.rotate(ANNA, "t1", "t3", in(Duration.ofDays(14))));
+        }
+
+        @Test
+        void token_of_another_user_is_not_accepted() {
+            store.save(ANNA, "t1", in(Duration.ofDays(14)));
+
+            assertFalse(store.isActive(BELLA, "t1"));
+            assertFalse(store.rotate(BELLA, "t1", "t2", in(Duration.ofDays(14))));
+            assertTrue(store.isActive(ANNA, "t1"));
+        }
+
+        @Test
+        void concurrent_rotations_of_one_token_let_exactly_one_win() throws Exception {
+            store.save(ANNA, "t0", in(Duration.ofDays(14)));
+            int threads = 16;
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                String next = "next-" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return store.rotate(ANNA, "t0", next, in(Duration.ofDays(14)));
+                }));
+            }
+            start.countDown();
+
+            int winners = 0;
+            for (Future<Boolean> result : results) {
+                winners += result.get(5, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            pool.shutdown();
+
+            assertEquals(1, winners);
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Revocation_Tests {
+
+        @Test
+        void revoke_all_removes_only_that_users_tokens() {
+            store.save(ANNA, "a1", in(Duration.ofDays(14)));
+            store.save(ANNA, "a2", in(Duration.ofDays(14)));
+            store.save(BELLA, "b1", in(Duration.ofDays(14)));
+
+            store.revokeAll(ANNA);
+
+            assertFalse(store.isActive(ANNA, "a1"));
+            assertFalse(store.isActive(ANNA, "a2"));
+            assertTrue(store.isActive(BELLA, "b1"));
+        }
+
+        @Test
+        void oldest_token_is_revoked_above_the_per_user_limit() {
+            store.save(ANNA, "a1", in(Duration.ofDays(1)));
+            store.save(ANNA, "a2", in(Duration.ofDays(2)));
+            store.save(ANNA, "a3", in(Duration.ofDays(3)));
+
+            store.save(ANNA, "a4", in(Duration.ofDays(4)));
+
+            assertFalse(store.isActive(ANNA, "a1"));
+            assertTrue(store.isActive(ANNA, "a2"));
+            assertTrue(store.isActive(ANNA, "a4"));
+            assertEquals(3, store.size());
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Expiry_Tests {
+
+        @Test
+        void expired_token_is_rejected_before_it_is_swept() {
+            store.save(ANNA, "a1", in(Duration.ofMinutes(5)));
+
+            clock.advance(Duration.ofMinutes(6));
+
+            assertFalse(store.isActive(ANNA, "a1"));
+            assertFalse(store.rotate(ANNA, "a1", "a2", in(Duration.ofDays(14))));
+        }
+
+        @Test
+        void sweep_removes_only_expired_tokens() {
+            store.save(ANNA, "a1", in(Duration.ofMinutes(5)));
+            store.save(BELLA, "b1", in(Duration.ofMinutes(10)));
+            store.save(BELLA, "b2", in(Duration.ofDays(14)));
+            store.rotate(BELLA, "b1", "b3", in(Duration.ofDays(14)));
+
+            clock.advance(Duration.ofMinutes(11));
+
+            assertEquals(1, store.removeExpired());
+            assertEquals(2, store.size());
+            assertTrue(store.isActive(BELLA, "b2"));
+            assertTrue(store.isActive(BELLA, "b3"));
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
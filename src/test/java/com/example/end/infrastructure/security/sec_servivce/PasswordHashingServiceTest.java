@@ -0,0 +1,112 @@
+package com.example.end.infrastructure.security.sec_servivce;
+
+import com.example.end.infrastructure.exceptions.RestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+@DisplayName("PasswordHashingService Tests")
+public class PasswordHashingServiceTest {
+
+    private static final int STRENGTH = 4;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PasswordHashingService(new BCryptPasswordEncoder(STRENGTH), STRENGTH, 2, 4,
+                Duration.ofSeconds(10), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Hashing_Tests {
+
+        @Test
+        void encoded_password_matches_only_the_original() {
+            String hash = service.encode("secret");
+
+            assertTrue(service.matches("secret", hash));
+            assertFalse(service.matches("other", hash));
+            assertEquals(3, meterRegistry.get("password.hash.duration").timers().stream()
+                    .mapToLong(timer -> timer.count()).sum());
+        }
+
+        @Test
+        void hash_with_another_cost_needs_rehash() {
+            String current = service.encode("secret");
+            String weaker = new BCryptPasswordEncoder(5).encode("secret");
+
+            assertFalse(service.needsRehash(current));
+            assertTrue(service.needsRehash(weaker));
+            assertFalse(service.needsRehash("not-a-bcrypt-hash"));
+            assertFalse(service.needsRehash(null));
+        }
+
+        @Test
+        void async_encode_produces_a_matching_hash() throws Exception {
+            String hash = service.encodeAsync("secret").get(5, TimeUnit.SECONDS);
+
+            assertTrue(service.matches("secret", hash));
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Saturation_Tests {
+
+        @Test
+        void requests_beyond_the_queue_are_rejected_with_429() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            BCryptPasswordEncoder blocking = new BCryptPasswordEncoder(STRENGTH) {
+                @Override
+                public String encode(CharSequence rawPassword) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return super.encode(rawPassword);
+                }
+            };
+            service.shutdown();
+            meterRegistry = new SimpleMeterRegistry();
+            service = new PasswordHashingService(blocking, STRENGTH, 1, 2, Duration.ofSeconds(10), meterRegistry);
+
+            // one running and two queued fill the pool
+            List<CompletableFuture<String>> accepted = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                accepted.add(service.encodeAsync("secret"));
+            }
+
+            RestException rejected = assertThrows(RestException.class, () -> service.encode("secret"));
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatus());
+            assertTrue(service.encodeAsync("secret").isCompletedExceptionally());
+            assertEquals(2.0, meterRegistry.get("password.hash.rejected").counter().count());
+            assertEquals(2.0, meterRegistry.get("password.hash.queue.size").gauge().value());
+
+            release.countDown();
+            List<String> hashes = new ArrayList<>();
+            for (CompletableFuture<String> future : accepted) {
+                hashes.add(future.get(5, TimeUnit.SECONDS));
+            }
+            hashes.forEach(hash -> assertTrue(service.matches("secret", hash)));
+        }
+    }
+}
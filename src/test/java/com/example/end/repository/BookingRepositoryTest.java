@@ -0,0 +1,128 @@
+package com.example.end.repository;
+
+import com.example.end.models.Booking;
+import com.example.end.models.BookingStatus;
+import com.example.end.models.User;
+import com.example.end.repository.projection.BookingRow;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+// flat rather than nested: nested classes would get a Spring test context of their own
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DisplayName("BookingRepository Tests")
+@DisplayNameGeneration(ReplaceUnderscores.class)
+public class BookingRepositoryTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 3, 14, 12, 0);
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User client;
+    private User master;
+    private final List<Long> clientBookings = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        client = entityManager.persist(user("client@example.com", User.Role.CLIENT));
+        master = entityManager.persist(user("master@example.com", User.Role.MASTER));
+        User otherClient = entityManager.persist(user("other@example.com", User.Role.CLIENT));
+
+        // hours after noon; two bookings share a time, so the id has to break the tie
+        for (int hours : new int[]{0, 24, 24, 48, 72}) {
+            clientBookings.add(persistBooking(client, NOON.plusHours(hours), BookingStatus.CONFIRMED));
+        }
+        persistBooking(client, NOON.plusHours(12), BookingStatus.CANCELED);
+        persistBooking(otherClient, NOON.plusHours(36), BookingStatus.CONFIRMED);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Long persistBooking(User bookedBy, LocalDateTime dateTime, BookingStatus status) {
+        return entityManager.persist(Booking.builder().client(bookedBy).master(master)
+                .dateTime(dateTime).endDateTime(dateTime.plusHours(1)).status(status).build()).getId();
+    }
+
+    private static User user(String email, User.Role role) {
+        User user = new User();
+        user.setFirstName("Anna");
+        user.setLastName("Schmidt");
+        user.setEmail(email);
+        user.setPassword("hash");
+        user.setRole(role);
+        return user;
+    }
+
+    private List<Long> walkClientBookings(LocalDateTime from, LocalDateTime to, int pageSize) {
+        List<Long> seen = new ArrayList<>();
+        LocalDateTime afterTime = from;
+        long afterId = 0;
+        while (true) {
+            List<BookingRow> page = bookingRepository.findClientBookings(client.getId(), BookingStatus.CONFIRMED,
+                    from, to, afterTime, afterId, PageRequest.ofSize(pageSize));
+            page.forEach(row -> seen.add(row.id()));
+            if (page.size() < pageSize) {
+                return seen;
+            }
+            afterTime = page.get(page.size() - 1).dateTime();
+            afterId = page.get(page.size() - 1).id();
+        }
+    }
+
+    @Test
+    void client_pages_walk_all_bookings_earliest_first_without_gaps() {
+        assertEquals(clientBookings, walkClientBookings(EARLIEST, LATEST, 2));
+    }
+
+    @Test
+    void date_range_includes_from_and_excludes_to() {
+        assertEquals(clientBookings.subList(1, 4), walkClientBookings(NOON.plusHours(24), NOON.plusHours(72), 2));
+    }
+
+    @Test
+    void master_view_holds_the_bookings_of_all_clients() {
+        List<BookingRow> page = bookingRepository.findMasterBookings(master.getId(), BookingStatus.CONFIRMED,
+                EARLIEST, LATEST, EARLIEST, 0L, PageRequest.ofSize(10));
+
+        assertEquals(6, page.size());
+        assertEquals(NOON.plusHours(36), page.get(3).dateTime());
+    }
+
+    @Test
+    void rows_are_projections_and_load_no_entities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingRow> page = bookingRepository.findClientBookings(client.getId(), BookingStatus.CANCELED,
+                EARLIEST, LATEST, EARLIEST, 0L, PageRequest.ofSize(10));
+
+        assertEquals(1, page.size());
+        assertEquals(master.getId(), page.get(0).masterId());
+        assertNull(page.get(0).procedureId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
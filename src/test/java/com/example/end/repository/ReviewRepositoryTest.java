@@ -0,0 +1,110 @@
+package com.example.end.repository;
+
+import com.example.end.models.Review;
+import com.example.end.models.User;
+import com.example.end.repository.projection.ReviewRow;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+// flat rather than nested: nested classes would get a Spring test context of their own
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DisplayName("ReviewRepository Tests")
+@DisplayNameGeneration(ReplaceUnderscores.class)
+public class ReviewRepositoryTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 3, 14, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private User master;
+    private final List<Long> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User client = entityManager.persist(user("client@example.com", User.Role.CLIENT));
+        master = entityManager.persist(user("master@example.com", User.Role.MASTER));
+        User otherMaster = entityManager.persist(user("other@example.com", User.Role.MASTER));
+
+        // minutes after noon; two reviews share a timestamp, so the id has to break the tie
+        int[] minutes = {0, 10, 10, 20, 30};
+        List<Long> ids = new ArrayList<>();
+        for (int minute : minutes) {
+            ids.add(persistReview(master, client, NOON.plusMinutes(minute)));
+        }
+        persistReview(otherMaster, client, NOON.plusMinutes(15));
+        entityManager.clear();
+
+        newestFirst.addAll(List.of(ids.get(4), ids.get(3), ids.get(2), ids.get(1), ids.get(0)));
+    }
+
+    private Long persistReview(User reviewed, User client, LocalDateTime createdAt) {
+        Review review = entityManager.persistAndFlush(
+                Review.builder().master(reviewed).client(client).content("Review").rating(5).build());
+        // createdAt is generated on insert, so the test time is set afterwards
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Review r SET r.createdAt = :createdAt WHERE r.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", review.getId())
+                .executeUpdate();
+        return review.getId();
+    }
+
+    private static User user(String email, User.Role role) {
+        User user = new User();
+        user.setFirstName("Anna");
+        user.setLastName("Schmidt");
+        user.setEmail(email);
+        user.setPassword("hash");
+        user.setRole(role);
+        return user;
+    }
+
+    @Test
+    void feed_pages_walk_all_reviews_newest_first_without_gaps() {
+        List<Long> seen = new ArrayList<>();
+        List<ReviewRow> page = reviewRepository.findFeedByMasterId(master.getId(), PageRequest.ofSize(2));
+        while (!page.isEmpty()) {
+            page.forEach(row -> seen.add(row.id()));
+            ReviewRow last = page.get(page.size() - 1);
+            page = reviewRepository.findFeedByMasterIdBefore(master.getId(), last.createdAt(), last.id(), PageRequest.ofSize(2));
+        }
+
+        assertEquals(newestFirst, seen);
+    }
+
+    @Test
+    void feed_rows_are_projections_and_load_no_entities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ReviewRow> page = reviewRepository.findFeedByMasterId(master.getId(), PageRequest.ofSize(3));
+
+        assertEquals(3, page.size());
+        assertEquals(master.getId(), page.get(0).masterId());
+        assertEquals(NOON.plusMinutes(30), page.get(0).createdAt());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
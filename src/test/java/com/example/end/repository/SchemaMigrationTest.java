@@ -0,0 +1,205 @@
+package com.example.end.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Table;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+/**
+ * Runs the PostgreSQL migrations on H2 in PostgreSQL mode, lets Hibernate validate the resulting schema
+ * against the entities and checks with {@code EXPLAIN} that the lookup paths use their indexes.
+ */
+// flat rather than nested: nested classes would get a Spring test context of their own
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration/postgresql",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DisplayName("Schema Migration Tests")
+@DisplayNameGeneration(ReplaceUnderscores.class)
+public class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(dataSource);
+        for (int i = 1; i <= 50; i++) {
+            jdbc.update("INSERT INTO users (id, email, is_active, password, role) VALUES (?, ?, TRUE, 'hash', 'MASTER')",
+                    i, "master" + i + "@example.com");
+        }
+        for (int i = 1; i <= 50; i++) {
+            jdbc.update("INSERT INTO categories (id, name) VALUES (?, ?)", i, "Category " + i);
+            jdbc.update("INSERT INTO procedures (id, name, price, category_id) VALUES (?, 'Procedure', 30, ?)", i, i);
+            jdbc.update("INSERT INTO user_categories (user_id, category_id) VALUES (?, ?)", i, i);
+            jdbc.update("INSERT INTO booking (id, client_id, master_id, date_time, status) " +
+                    "VALUES (?, ?, ?, TIMESTAMP '2025-03-14 12:00:00', 'CONFIRMED')", i, i, 51 - i);
+            jdbc.update("INSERT INTO reviews (id, master_id, client_id, rating, created_at) " +
+                    "VALUES (?, ?, ?, 5, TIMESTAMP '2025-03-14 12:00:00')", i, i, 51 - i);
+        }
+    }
+
+    private String plan(String query) {
+        return String.join("\n", jdbc.queryForList("EXPLAIN " + query, String.class)).toLowerCase();
+    }
+
+    private void assertUses(String index, String query) {
+        String plan = plan(query);
+        assertTrue(plan.contains(index), () -> "Expected " + index + " in plan:\n" + plan);
+    }
+
+    @Test
+    void migrations_create_the_schema_the_entities_map() {
+        // Hibernate has validated the schema when the context started
+        assertEquals("9", flyway.info().current().getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void bookings_without_an_end_get_the_duration_of_their_procedure() {
+        jdbc.update("UPDATE procedures SET duration_minutes = 45 WHERE id = 1");
+        jdbc.update("INSERT INTO booking (id, client_id, master_id, procedure_id, date_time, status) " +
+                "VALUES (100, 1, 2, 1, TIMESTAMP '2025-03-14 10:00:00', 'CONFIRMED')");
+        jdbc.update("INSERT INTO booking (id, client_id, master_id, date_time, status) " +
+                "VALUES (101, 1, 2, TIMESTAMP '2025-03-14 10:00:00', 'CONFIRMED')");
+
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/postgresql/V8__booking_end_date_time_backfill.sql")).execute(dataSource);
+
+        assertEquals("2025-03-14T10:45", endOf(100));
+        assertEquals("2025-03-14T11:00", endOf(101));
+    }
+
+    private String endOf(long bookingId) {
+        return jdbc.queryForObject("SELECT end_date_time FROM booking WHERE id = ?", Timestamp.class, bookingId)
+                .toLocalDateTime().toString();
+    }
+
+    @Test
+    void bookings_of_a_client_by_status_and_time_use_the_client_index() {
+        assertUses("idx_booking_client_status_date_time",
+                "SELECT id FROM booking WHERE client_id = 7 AND status = 'CONFIRMED' " +
+                        "AND date_time >= TIMESTAMP '2025-03-01 00:00:00' ORDER BY date_time, id LIMIT 20");
+    }
+
+    @Test
+    void bookings_of_a_master_by_status_and_time_use_the_master_index() {
+        assertUses("idx_booking_master_status_date_time",
+                "SELECT id FROM booking WHERE master_id = 7 AND status = 'CONFIRMED' " +
+                        "AND date_time >= TIMESTAMP '2025-03-01 00:00:00' AND date_time < TIMESTAMP '2025-04-01 00:00:00'");
+    }
+
+    @Test
+    void review_feed_of_a_master_uses_the_feed_index() {
+        assertUses("idx_reviews_master_created_at",
+                "SELECT id FROM reviews WHERE master_id = 7 ORDER BY created_at DESC, id DESC LIMIT 20");
+    }
+
+    @Test
+    void composite_primary_keys_have_the_column_order_hibernate_creates() {
+        // databases created by Hibernate before Flyway are baselined at V1 and keep Hibernate's keys
+        Map<String, List<String>> hibernateKeys = hibernatePrimaryKeys();
+        assertFalse(hibernateKeys.isEmpty());
+        hibernateKeys.forEach((table, columns) ->
+                assertEquals(columns, migratedPrimaryKey(table), () -> "Primary key of " + table));
+    }
+
+    private Map<String, List<String>> hibernatePrimaryKeys() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                .build();
+        try {
+            MetadataSources sources = new MetadataSources(registry);
+            entityManagerFactory.getMetamodel().getEntities().forEach(entity -> sources.addAnnotatedClass(entity.getJavaType()));
+            Metadata metadata = sources.getMetadataBuilder()
+                    .applyImplicitNamingStrategy(new SpringImplicitNamingStrategy())
+                    .applyPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy())
+                    .build();
+            Map<String, List<String>> keys = new TreeMap<>();
+            for (Table table : metadata.collectTableMappings()) {
+                if (table.getPrimaryKey() != null && table.getPrimaryKey().getColumnSpan() > 1) {
+                    keys.put(table.getName(), table.getPrimaryKey().getColumns().stream().map(Column::getName).toList());
+                }
+            }
+            return keys;
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+
+    private List<String> migratedPrimaryKey(String table) {
+        return jdbc.queryForList("SELECT k.column_name FROM information_schema.table_constraints c " +
+                "JOIN information_schema.key_column_usage k ON k.constraint_schema = c.constraint_schema " +
+                "AND k.constraint_name = c.constraint_name " +
+                "WHERE c.constraint_type = 'PRIMARY KEY' AND c.table_name = ? ORDER BY k.ordinal_position",
+                String.class, table);
+    }
+
+    @Test
+    void masters_of_a_category_use_the_category_index() {
+        assertUses("idx_user_categories_category_user",
+                "SELECT user_id FROM user_categories WHERE category_id = 7");
+    }
+
+    @Test
+    void categories_of_a_master_use_the_primary_key_of_user_categories() {
+        assertUses("primary_key",
+                "SELECT category_id FROM user_categories WHERE user_id = 7");
+    }
+
+    @Test
+    void masters_of_a_procedure_use_the_procedure_index() {
+        assertUses("idx_user_procedures_procedure_user",
+                "SELECT user_id FROM user_procedures WHERE procedure_id = 7");
+    }
+
+    @Test
+    void procedures_of_a_category_use_an_index() {
+        // H2 indexes foreign keys itself and may pick that index, PostgreSQL needs idx_procedures_category
+        String plan = plan("SELECT id FROM procedures WHERE category_id = 7");
+        assertFalse(plan.contains("tablescan"), () -> "Expected an index lookup in plan:\n" + plan);
+    }
+
+    @Test
+    void email_is_unique() {
+        assertThrows(DataIntegrityViolationException.class, () -> jdbc.update(
+                "INSERT INTO users (id, email, is_active, password, role) VALUES (1000, 'master1@example.com', TRUE, 'hash', 'CLIENT')"));
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.end.service;
+
+import com.example.end.dto.BookingDto;
+import com.example.end.dto.CursorPage;
+import com.example.end.dto.NewBookingDto;
+import com.example.end.dto.NewUpdateBookingDto;
+import com.example.end.infrastructure.exceptions.RestException;
+import com.example.end.mapping.BookingMapper;
+import com.example.end.models.Booking;
+import com.example.end.models.BookingStatus;
+import com.example.end.models.Procedure;
+import com.example.end.models.User;
+import com.example.end.repository.BookingRepository;
+import com.example.end.repository.ProcedureRepository;
+import com.example.end.repository.UserRepository;
+import com.example.end.repository.WorkingHoursRepository;
+import com.example.end.repository.projection.BookingRow;
+import org.junit.jupiter.api.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("BookingService Tests")
+public class BookingServiceImplTest {
+
+    private static final long CLIENT_ID = 1L;
+    private static final long MASTER_ID = 2L;
+    private static final long PROCEDURE_ID = 3L;
+    // Monday 2026-01-05, 08:00
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-01-05T08:00:00Z"), ZoneOffset.UTC);
+
+    private static final long CANCELED_BOOKING_ID = 100L;
+
+    private BookingRepository bookingRepository;
+    private BookingServiceImpl bookingService;
+    private Booking canceledBooking;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        ProcedureRepository procedureRepository = mock(ProcedureRepository.class);
+        WorkingHoursRepository workingHoursRepository = mock(WorkingHoursRepository.class);
+
+        User client = new User(CLIENT_ID, "Anna", "Client", "anna@example.com", true, User.Role.CLIENT);
+        User master = new User(MASTER_ID, "Bella", "Master", "bella@example.com", true, User.Role.MASTER);
+        Procedure procedure = Procedure.builder().id(PROCEDURE_ID).name("Men haircut").price(30).durationMinutes(45).build();
+        when(userRepository.findById(CLIENT_ID)).thenReturn(Optional.of(client));
+        when(userRepository.findById(MASTER_ID)).thenReturn(Optional.of(master));
+        when(userRepository.findByIdForUpdate(MASTER_ID)).thenReturn(Optional.of(master));
+        when(procedureRepository.findById(PROCEDURE_ID)).thenReturn(Optional.of(procedure));
+        // 11:00-11:45, cancelled before the calendar was loaded
+        canceledBooking = Booking.builder().id(CANCELED_BOOKING_ID).client(client).master(master).procedure(procedure)
+                .dateTime(LocalDateTime.parse("2026-01-05T11:00")).endDateTime(LocalDateTime.parse("2026-01-05T11:45"))
+                .status(BookingStatus.CANCELED).build();
+        when(bookingRepository.findById(CANCELED_BOOKING_ID)).thenReturn(Optional.of(canceledBooking));
+        when(workingHoursRepository.findByMasterId(MASTER_ID)).thenReturn(List.of());
+        // the calendar is reloaded whenever a booking changes, so it has to see what was saved before
+        List<Booking> saved = new CopyOnWriteArrayList<>();
+        when(bookingRepository.findMasterBookingsFrom(any(), any(), any())).thenAnswer(invocation -> saved.stream()
+                .filter(booking -> booking.getMaster().getId().equals(invocation.getArgument(0))
+                        && booking.getStatus() == invocation.getArgument(1)
+                        && !booking.getDateTime().isBefore(invocation.getArgument(2)))
+                .toList());
+        AtomicLong ids = new AtomicLong();
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            if (booking.getId() == null) {
+                booking.setId(ids.incrementAndGet());
+            }
+            saved.add(booking);
+            return booking;
+        });
+
+        AvailabilityServiceImpl availabilityService = new AvailabilityServiceImpl(workingHoursRepository,
+                bookingRepository, userRepository, procedureRepository, Duration.ofMinutes(15), 100, Duration.ofMinutes(5), 14, CLOCK);
+        bookingService = new BookingServiceImpl(bookingRepository, new BookingMapper(), procedureRepository,
+                userRepository, availabilityService);
+    }
+
+    private static NewBookingDto bookingAt(String dateTime) {
+        return new NewBookingDto(CLIENT_ID, MASTER_ID, PROCEDURE_ID, dateTime);
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class CreateBooking_Tests {
+
+        @Test
+        void booking_stores_the_end_of_the_procedure() {
+            BookingDto booking = bookingService.createBooking(bookingAt("2026-01-05T10:00"));
+
+            assertEquals("2026-01-05T10:00", booking.getDateTime());
+            verify(bookingRepository).save(argThat(saved -> saved.getEndDateTime().toString().equals("2026-01-05T10:45")));
+        }
+
+        @Test
+        void overlapping_booking_is_rejected_with_409() {
+            bookingService.createBooking(bookingAt("2026-01-05T10:00"));
+
+            RestException conflict = assertThrows(RestException.class,
+                    () -> bookingService.createBooking(bookingAt("2026-01-05T10:30")));
+            assertEquals(HttpStatus.CONFLICT, conflict.getStatus());
+            assertDoesNotThrow(() -> bookingService.createBooking(bookingAt("2026-01-05T10:45")));
+        }
+
+        @Test
+        void booking_outside_working_hours_is_rejected_with_400() {
+            RestException invalid = assertThrows(RestException.class,
+                    () -> bookingService.createBooking(bookingAt("2026-01-04T10:00")));
+            assertEquals(HttpStatus.BAD_REQUEST, invalid.getStatus());
+            verify(bookingRepository, never()).save(any());
+        }
+
+        @Test
+        void overlap_found_in_the_database_is_rejected_with_409() {
+            when(bookingRepository.existsConfirmedOverlapping(any(), any(), any())).thenReturn(true);
+
+            RestException conflict = assertThrows(RestException.class,
+                    () -> bookingService.createBooking(bookingAt("2026-01-05T10:00")));
+            assertEquals(HttpStatus.CONFLICT, conflict.getStatus());
+            verify(bookingRepository, never()).save(any());
+        }
+    }
+
+    private void confirmAgain() {
+        bookingService.updateBookingStatus(new NewUpdateBookingDto(CANCELED_BOOKING_ID, BookingStatus.CONFIRMED));
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class UpdateBookingStatus_Tests {
+
+        @Test
+        void canceled_booking_is_confirmed_again_while_its_time_is_free() {
+            confirmAgain();
+
+            assertEquals(BookingStatus.CONFIRMED, canceledBooking.getStatus());
+            verify(bookingRepository).existsConfirmedOverlapping(MASTER_ID, LocalDateTime.parse("2026-01-05T11:00"),
+                    LocalDateTime.parse("2026-01-05T11:45"));
+        }
+
+        @Test
+        void canceled_booking_is_not_confirmed_over_a_new_booking() {
+            bookingService.createBooking(bookingAt("2026-01-05T11:30"));
+
+            RestException conflict = assertThrows(RestException.class, BookingServiceImplTest.this::confirmAgain);
+
+            assertEquals(HttpStatus.CONFLICT, conflict.getStatus());
+            assertEquals(BookingStatus.CANCELED, canceledBooking.getStatus());
+        }
+
+        @Test
+        void overlap_found_in_the_database_keeps_the_booking_canceled() {
+            when(bookingRepository.existsConfirmedOverlapping(any(), any(), any())).thenReturn(true);
+
+            RestException conflict = assertThrows(RestException.class, BookingServiceImplTest.this::confirmAgain);
+
+            assertEquals(HttpStatus.CONFLICT, conflict.getStatus());
+            assertEquals(BookingStatus.CANCELED, canceledBooking.getStatus());
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Concurrency_Tests {
+
+        @Test
+        void parallel_bookings_of_the_same_slot_let_exactly_one_win() throws Exception {
+            int threads = 32;
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                // all requests overlap 11:00-11:45
+                String dateTime = i % 2 == 0 ? "2026-01-05T11:00" : "2026-01-05T11:30";
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.createBooking(bookingAt(dateTime));
+                        return true;
+                    } catch (RestException e) {
+                        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<Boolean> result : results) {
+                created += result.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            pool.shutdown();
+
+            assertEquals(1, created);
+            verify(bookingRepository, times(1)).save(any(Booking.class));
+        }
+
+        @Test
+        void confirming_a_canceled_booking_again_races_new_bookings_of_its_time() throws Exception {
+            int threads = 32;
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                // confirming it again once more would be a no-op, not a second winner
+                boolean reconfirm = i == 0;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        if (reconfirm) {
+                            confirmAgain();
+                        } else {
+                            bookingService.createBooking(bookingAt("2026-01-05T11:15"));
+                        }
+                        return true;
+                    } catch (RestException e) {
+                        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int confirmed = 0;
+            for (Future<Boolean> result : results) {
+                confirmed += result.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            pool.shutdown();
+
+            assertEquals(1, confirmed);
+            verify(bookingRepository, times(1)).save(any(Booking.class));
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class FindBookings_Tests {
+
+        private final LocalDateTime monday = LocalDateTime.of(2026, 1, 5, 10, 0);
+
+        private BookingRow row(long id, long clientId, long masterId, LocalDateTime dateTime) {
+            return new BookingRow(id, clientId, masterId, PROCEDURE_ID, BookingStatus.CONFIRMED, dateTime);
+        }
+
+        @Test
+        void bookings_as_client_and_as_master_are_merged_earliest_first() {
+            when(bookingRepository.findClientBookings(eq(MASTER_ID), any(), any(), any(), any(), any(), any()))
+                    .thenReturn(List.of(row(7, MASTER_ID, 9, monday.plusDays(1))));
+            when(bookingRepository.findMasterBookings(eq(MASTER_ID), any(), any(), any(), any(), any(), any()))
+                    .thenReturn(List.of(row(5, CLIENT_ID, MASTER_ID, monday), row(6, CLIENT_ID, MASTER_ID, monday.plusDays(2))));
+
+            List<BookingDto> bookings = bookingService.findBookingsByUser(MASTER_ID, BookingStatus.CONFIRMED);
+
+            assertEquals(List.of(5L, 7L, 6L), bookings.stream().map(BookingDto::getId).toList());
+        }
+
+        @Test
+        void booking_with_oneself_is_listed_once() {
+            BookingRow ownBooking = row(5, MASTER_ID, MASTER_ID, monday);
+            when(bookingRepository.findClientBookings(eq(MASTER_ID), any(), any(), any(), any(), any(), any()))
+                    .thenReturn(List.of(ownBooking));
+            when(bookingRepository.findMasterBookings(eq(MASTER_ID), any(), any(), any(), any(), any(), any()))
+                    .thenReturn(List.of(ownBooking, row(6, CLIENT_ID, MASTER_ID, monday.plusDays(1))));
+
+            List<BookingDto> bookings = bookingService.findBookingsByUser(MASTER_ID, BookingStatus.CONFIRMED);
+
+            assertEquals(List.of(5L, 6L), bookings.stream().map(BookingDto::getId).toList());
+        }
+
+        @Test
+        void no_status_matches_no_booking() {
+            assertEquals(List.of(), bookingService.findBookingsByUser(MASTER_ID, null));
+            verifyNoInteractions(bookingRepository);
+        }
+
+        @Test
+        void full_page_carries_the_cursor_of_its_last_booking() {
+            when(bookingRepository.findClientBookings(eq(CLIENT_ID), any(), any(), any(), any(), any(), any()))
+                    .thenReturn(List.of(row(5, CLIENT_ID, MASTER_ID, monday), row(6, CLIENT_ID, MASTER_ID, monday.plusDays(2))));
+
+            CursorPage<BookingDto> page = bookingService.findClientBookings(CLIENT_ID, BookingStatus.CONFIRMED,
+                    null, null, null, 2);
+            bookingService.findClientBookings(CLIENT_ID, BookingStatus.CONFIRMED, null, null, page.nextCursor(), 2);
+
+            verify(bookingRepository).findClientBookings(eq(CLIENT_ID), eq(BookingStatus.CONFIRMED), any(), any(),
+                    eq(monday.plusDays(2)), eq(6L), any());
+        }
+
+        @Test
+        void short_page_is_the_last_one() {
+            when(bookingRepository.findMasterBookings(eq(MASTER_ID), any(), any(), any(), any(), any(), any()))
+                    .thenReturn(List.of(row(5, CLIENT_ID, MASTER_ID, monday)));
+
+            CursorPage<BookingDto> page = bookingService.findMasterBookings(MASTER_ID, BookingStatus.CONFIRMED,
+                    monday, monday.plusDays(7), null, 2);
+
+            assertNull(page.nextCursor());
+            verify(bookingRepository).findMasterBookings(MASTER_ID, BookingStatus.CONFIRMED, monday, monday.plusDays(7),
+                    monday, 0L, PageRequest.ofSize(2));
+        }
+
+        @Test
+        void empty_date_range_is_rejected() {
+            assertThrows(IllegalArgumentException.class, () -> bookingService.findClientBookings(CLIENT_ID,
+                    BookingStatus.CONFIRMED, monday, monday, null, 20));
+        }
+    }
+}
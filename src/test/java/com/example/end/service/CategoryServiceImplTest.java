@@ -0,0 +1,107 @@
+package com.example.end.service;
+
+import com.example.end.infrastructure.exceptions.ResourceNotFoundException;
+import com.example.end.mapping.CategoryMapper;
+import com.example.end.models.Category;
+import com.example.end.models.Procedure;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+// flat rather than nested: nested classes would get a Spring test context of their own
+@DataJpaTest(includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+        CategoryServiceImpl.class, CategoryMapper.class}))
+@ActiveProfiles("test")
+@DisplayName("CategoryServiceImpl Tests")
+@DisplayNameGeneration(ReplaceUnderscores.class)
+public class CategoryServiceImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CategoryServiceImpl categoryService;
+
+    private Category hair;
+    private Category nails;
+    private Category makeup;
+    private Procedure haircut;
+    private Procedure coloring;
+    private Procedure manicure;
+    private Procedure evening;
+
+    @BeforeEach
+    void setUp() {
+        hair = entityManager.persist(Category.builder().name("Hair").build());
+        nails = entityManager.persist(Category.builder().name("Nails").build());
+        makeup = entityManager.persist(Category.builder().name("Makeup").build());
+        haircut = entityManager.persist(Procedure.builder().name("Haircut").price(30).category(hair).build());
+        coloring = entityManager.persist(Procedure.builder().name("Coloring").price(80).category(hair).build());
+        manicure = entityManager.persist(Procedure.builder().name("Manicure").price(25).category(nails).build());
+        evening = entityManager.persist(Procedure.builder().name("Evening makeup").price(60).category(makeup).build());
+        entityManager.flush();
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private Set<Procedure> resolve(Set<Category> categories, Long... procedureIds) {
+        return categoryService.getProceduresForCategories(categories, List.of(procedureIds));
+    }
+
+    @Test
+    void procedures_of_several_categories_are_resolved_with_one_query() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Set<Procedure> procedures = resolve(Set.of(hair, nails), haircut.getId(), manicure.getId(), coloring.getId());
+
+        assertEquals(Set.of(haircut.getId(), manicure.getId(), coloring.getId()),
+                procedures.stream().map(Procedure::getId).collect(Collectors.toSet()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void resolved_procedures_are_managed_and_keep_their_category() {
+        Procedure procedure = resolve(Set.of(nails), manicure.getId()).iterator().next();
+
+        assertTrue(entityManager.getEntityManager().contains(procedure));
+        assertEquals("Manicure", procedure.getName());
+        assertEquals(nails.getId(), procedure.getCategory().getId());
+    }
+
+    @Test
+    void procedure_outside_the_selected_categories_is_rejected() {
+        assertThrows(ResourceNotFoundException.class, () -> resolve(Set.of(hair, nails), haircut.getId(), evening.getId()));
+    }
+
+    @Test
+    void unknown_procedure_is_rejected() {
+        assertThrows(ResourceNotFoundException.class, () -> resolve(Set.of(hair), haircut.getId(), Long.MAX_VALUE));
+    }
+
+    @Test
+    void no_procedures_cost_no_query() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertTrue(resolve(Set.of(hair)).isEmpty());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
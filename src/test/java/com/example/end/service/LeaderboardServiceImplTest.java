@@ -0,0 +1,125 @@
+package com.example.end.service;
+
+import com.example.end.dto.TopMasterDto;
+import com.example.end.models.Category;
+import com.example.end.models.MasterRating;
+import com.example.end.models.User;
+import com.example.end.repository.MasterRatingRepository;
+import com.example.end.repository.UserDetailsReadRepository;
+import com.example.end.repository.projection.RatingTotals;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import static org.mockito.Mockito.*;
+
+// flat rather than nested: nested classes would get a Spring test context of their own
+@DataJpaTest(includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = LeaderboardServiceImpl.class))
+@ActiveProfiles("test")
+@DisplayName("LeaderboardServiceImpl Tests")
+@DisplayNameGeneration(ReplaceUnderscores.class)
+public class LeaderboardServiceImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private LeaderboardServiceImpl leaderboardService;
+
+    private Category hair;
+
+    @BeforeEach
+    void setUp() {
+        hair = entityManager.persist(Category.builder().name("Hair").build());
+    }
+
+    private User master(String email, boolean active, long reviewCount, long ratingSum) {
+        User master = new User();
+        master.setFirstName("Anna");
+        master.setLastName(email);
+        master.setEmail(email);
+        master.setPassword("hash");
+        master.setRole(User.Role.MASTER);
+        master.setActive(active);
+        master.setCategories(Set.of(hair));
+        master = entityManager.persist(master);
+        if (reviewCount > 0) {
+            entityManager.persist(MasterRating.builder().masterId(master.getId())
+                    .reviewCount(reviewCount).ratingSum(ratingSum).build());
+        }
+        return master;
+    }
+
+    @Test
+    void ranks_active_masters_with_reviews_by_weighted_rating() {
+        User single = master("single@example.com", true, 1, 5);
+        User many = master("many@example.com", true, 20, 94);
+        User mediocre = master("mediocre@example.com", true, 50, 150);
+        entityManager.flush();
+        // the context and its leaderboard are shared by the tests
+        leaderboardService.rebuildLeaderboard();
+
+        List<TopMasterDto> top = leaderboardService.getTopMasters(hair.getId(), 10);
+
+        assertEquals(List.of(many.getId(), single.getId(), mediocre.getId()), top.stream().map(TopMasterDto::getMasterId).toList());
+        assertEquals(1, top.get(0).getRank());
+        assertEquals("many@example.com", top.get(0).getLastName());
+        assertEquals(20, top.get(0).getReviewCount());
+        assertEquals(4.7, top.get(0).getAverageRating(), 1e-9);
+        assertTrue(top.get(0).getWeightedRating() < top.get(0).getAverageRating());
+    }
+
+    @Test
+    void leaves_out_inactive_masters_and_masters_without_reviews() {
+        User ranked = master("ranked@example.com", true, 3, 12);
+        master("inactive@example.com", false, 50, 250);
+        master("new@example.com", true, 0, 0);
+        entityManager.flush();
+        leaderboardService.rebuildLeaderboard();
+
+        List<TopMasterDto> top = leaderboardService.getTopMasters(null, 10);
+
+        assertEquals(List.of(ranked.getId()), top.stream().map(TopMasterDto::getMasterId).toList());
+    }
+
+    @Test
+    void master_changed_during_a_rebuild_does_not_wait_and_is_moved_after_it() throws Exception {
+        MasterRatingRepository ratingRepository = mock(MasterRatingRepository.class);
+        UserDetailsReadRepository userDetailsReadRepository = mock(UserDetailsReadRepository.class);
+        LeaderboardServiceImpl service = new LeaderboardServiceImpl(ratingRepository, userDetailsReadRepository, 10, 4.0);
+        CountDownLatch rebuilding = new CountDownLatch(1);
+        CountDownLatch finishRebuild = new CountDownLatch(1);
+        when(ratingRepository.findActiveMasterTotals()).thenAnswer(invocation -> {
+            rebuilding.countDown();
+            finishRebuild.await();
+            return List.of(new RatingTotals(1L, 3, 12));
+        });
+        when(ratingRepository.findActiveMasterTotals(7L)).thenReturn(Optional.of(new RatingTotals(7L, 2, 10)));
+        when(userDetailsReadRepository.findActiveMasterCategoryIds()).thenReturn(List.of());
+        when(userDetailsReadRepository.findCategoryIds(List.of(7L))).thenReturn(List.of());
+
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(service::rebuildLeaderboard);
+        assertTrue(rebuilding.await(5, TimeUnit.SECONDS));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> service.masterChanged(7L));
+        verify(ratingRepository, never()).findActiveMasterTotals(7L);
+
+        finishRebuild.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+        verify(ratingRepository).findActiveMasterTotals(7L);
+    }
+}
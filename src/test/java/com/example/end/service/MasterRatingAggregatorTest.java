@@ -0,0 +1,150 @@
+package com.example.end.service;
+
+import com.example.end.models.MasterRating;
+import com.example.end.models.Review;
+import com.example.end.models.User;
+import com.example.end.repository.MasterRatingRepository;
+import com.example.end.service.interfaces.LeaderboardService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+// flat rather than nested: nested classes would get a Spring test context of their own
+@DataJpaTest(includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = MasterRatingAggregator.class))
+@ActiveProfiles("test")
+@DisplayName("MasterRatingAggregator Tests")
+@DisplayNameGeneration(ReplaceUnderscores.class)
+public class MasterRatingAggregatorTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MasterRatingAggregator aggregator;
+
+    @Autowired
+    private MasterRatingRepository ratingRepository;
+
+    @MockBean
+    private UserCacheInvalidator userCacheInvalidator;
+
+    @MockBean
+    private LeaderboardService leaderboardService;
+
+    private User client;
+    private final List<User> masters = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        client = entityManager.persist(user("client@example.com", User.Role.CLIENT));
+        for (int i = 0; i < 3; i++) {
+            masters.add(entityManager.persist(user("master" + i + "@example.com", User.Role.MASTER)));
+        }
+        entityManager.flush();
+    }
+
+    private static User user(String email, User.Role role) {
+        User user = new User();
+        user.setFirstName("Anna");
+        user.setLastName("Schmidt");
+        user.setEmail(email);
+        user.setPassword("hash");
+        user.setRole(role);
+        return user;
+    }
+
+    private void persistReview(User master, int stars) {
+        entityManager.persist(Review.builder().master(master).client(client).content("Review").rating(stars).build());
+    }
+
+    private MasterRating ratingOf(User master) {
+        entityManager.flush();
+        entityManager.clear();
+        return ratingRepository.findById(master.getId()).orElseThrow();
+    }
+
+    @Test
+    void first_review_creates_the_aggregate_and_later_ones_update_it() {
+        Long masterId = masters.get(0).getId();
+
+        aggregator.reviewAdded(masterId, 5);
+        aggregator.reviewAdded(masterId, 4);
+        aggregator.reviewAdded(masterId, 5);
+
+        MasterRating rating = ratingOf(masters.get(0));
+        assertEquals(3, rating.getReviewCount());
+        assertEquals(14, rating.getRatingSum());
+        assertArrayEquals(new long[]{0, 0, 0, 1, 2}, rating.histogram());
+        assertEquals(14 / 3.0, rating.average(), 1e-9);
+    }
+
+    @Test
+    void deleted_review_is_removed_from_the_aggregate() {
+        Long masterId = masters.get(0).getId();
+        aggregator.reviewAdded(masterId, 2);
+        aggregator.reviewAdded(masterId, 5);
+
+        aggregator.reviewRemoved(masterId, 2);
+
+        MasterRating rating = ratingOf(masters.get(0));
+        assertEquals(1, rating.getReviewCount());
+        assertArrayEquals(new long[]{0, 0, 0, 0, 1}, rating.histogram());
+    }
+
+    @Test
+    void stars_outside_one_to_five_are_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> aggregator.reviewAdded(masters.get(0).getId(), 6));
+    }
+
+    @Test
+    void reconcile_reports_missing_and_drifted_aggregates_without_repairing() {
+        persistReview(masters.get(0), 5);
+        persistReview(masters.get(1), 3);
+        ratingRepository.save(MasterRating.builder().masterId(masters.get(1).getId()).reviewCount(7).ratingSum(7).stars1(7).build());
+        entityManager.flush();
+
+        MasterRatingAggregator.Reconciliation result = aggregator.reconcile(false, 2);
+
+        assertEquals(new MasterRatingAggregator.Reconciliation(3, 2, 0), result);
+        assertTrue(ratingRepository.findById(masters.get(0).getId()).isEmpty());
+    }
+
+    @Test
+    void reconcile_backfills_and_repairs_in_batches() {
+        persistReview(masters.get(0), 5);
+        persistReview(masters.get(0), 1);
+        persistReview(masters.get(2), 3);
+        ratingRepository.save(MasterRating.builder().masterId(masters.get(2).getId()).reviewCount(7).ratingSum(7).stars1(7).build());
+        entityManager.flush();
+
+        MasterRatingAggregator.Reconciliation result = aggregator.reconcile(true, 2);
+
+        assertEquals(new MasterRatingAggregator.Reconciliation(3, 2, 2), result);
+        assertArrayEquals(new long[]{1, 0, 0, 0, 1}, ratingOf(masters.get(0)).histogram());
+        assertArrayEquals(new long[]{0, 0, 1, 0, 0}, ratingOf(masters.get(2)).histogram());
+        assertEquals(0, aggregator.reconcile(false, 2).mismatched());
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.end.service;
+
+import com.example.end.dto.CategoryDto;
+import com.example.end.dto.NewProcedureDto;
+import com.example.end.dto.ProcedureByCategoryDto;
+import com.example.end.dto.ProcedureDto;
+import com.example.end.mapping.CategoryMapper;
+import com.example.end.mapping.ProcedureMapper;
+import com.example.end.models.Category;
+import com.example.end.models.Procedure;
+import com.example.end.repository.CategoryRepository;
+import com.example.end.repository.ProcedureRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+/**
+ * Second-level caching of categories and procedures. Every call commits on its own, as it does in the
+ * application, because the cache is only written and invalidated when a transaction completes.
+ */
+// flat rather than nested: nested classes would get a Spring test context of their own
+@DataJpaTest(includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+        CategoryServiceImpl.class, ProcedureServiceImpl.class, CategoryMapper.class, ProcedureMapper.class}))
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("test")
+@DisplayName("Reference Data Cache Tests")
+@DisplayNameGeneration(ReplaceUnderscores.class)
+public class ReferenceDataCacheTest {
+
+    private static final AtomicInteger NAMES = new AtomicInteger();
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProcedureRepository procedureRepository;
+
+    @Autowired
+    private CategoryServiceImpl categoryService;
+
+    @Autowired
+    private ProcedureServiceImpl procedureService;
+
+    private Statistics statistics;
+    private Category hair;
+    private Procedure haircut;
+    private final List<Long> createdCategories = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // the rows are committed, so their names must not clash with those of other tests
+        hair = categoryRepository.save(Category.builder().name("Hair " + NAMES.incrementAndGet()).build());
+        createdCategories.add(hair.getId());
+        haircut = procedureRepository.save(Procedure.builder().name("Haircut " + NAMES.incrementAndGet())
+                .price(30).durationMinutes(45).category(hair).build());
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        createdCategories.forEach(categoryRepository::deleteById);
+    }
+
+    private List<String> procedureNamesOfHair() {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                categoryRepository.findById(hair.getId()).orElseThrow().getProcedures().stream()
+                        .map(Procedure::getName)
+                        .sorted()
+                        .toList());
+    }
+
+    @Test
+    void procedure_is_read_from_the_database_once() {
+        procedureRepository.findById(haircut.getId()).orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+
+        Procedure cached = procedureRepository.findById(haircut.getId()).orElseThrow();
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(hair.getId(), cached.getCategory().getId());
+        assertTrue(statistics.getDomainDataRegionStatistics("procedures").getHitCount() > 0);
+    }
+
+    @Test
+    void procedures_of_a_category_come_from_the_query_cache() {
+        procedureService.findProceduresByCategoryId(hair.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        List<ProcedureByCategoryDto> cached = procedureService.findProceduresByCategoryId(hair.getId());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(List.of(haircut.getId()), cached.stream().map(ProcedureByCategoryDto::getId).toList());
+        assertEquals(1, statistics.getQueryRegionStatistics("procedures-by-category").getHitCount());
+    }
+
+    @Test
+    void updated_procedure_replaces_the_cached_one_and_keeps_its_category() {
+        procedureService.findProceduresByCategoryId(hair.getId());
+
+        procedureService.update(haircut.getId(), ProcedureDto.builder()
+                .name(haircut.getName()).price(35).durationMinutes(60).build());
+
+        List<ProcedureByCategoryDto> procedures = procedureService.findProceduresByCategoryId(hair.getId());
+        assertEquals(35, procedures.get(0).getPrice(), 1e-9);
+        assertEquals(60, procedureService.findById(haircut.getId()).getDurationMinutes());
+    }
+
+    @Test
+    void new_procedure_shows_up_in_the_cached_procedures_of_its_category() {
+        assertEquals(List.of(haircut.getName()), procedureNamesOfHair());
+
+        NewProcedureDto coloring = new NewProcedureDto();
+        coloring.setName("Coloring " + NAMES.incrementAndGet());
+        coloring.setPrice(80);
+        coloring.setDurationMinutes(120);
+        coloring.setCategoryId(hair.getId());
+        procedureService.createProcedure(coloring);
+
+        assertEquals(List.of(coloring.getName(), haircut.getName()), procedureNamesOfHair());
+        assertEquals(2, procedureService.findProceduresByCategoryId(hair.getId()).size());
+    }
+
+    @Test
+    void deleted_procedure_leaves_the_cached_procedures_of_its_category() {
+        procedureService.findProceduresByCategoryId(hair.getId());
+        assertEquals(List.of(haircut.getName()), procedureNamesOfHair());
+
+        procedureService.deleteById(haircut.getId());
+
+        assertTrue(procedureNamesOfHair().isEmpty());
+        assertTrue(procedureRepository.findProceduresByCategoryId(hair.getId()).isEmpty());
+    }
+
+    @Test
+    void renamed_category_replaces_the_cached_one_and_keeps_its_procedures() {
+        categoryService.getCategoryById(hair.getId());
+
+        categoryService.updateCategory(hair.getId(), CategoryDto.builder().name("Hair and beard").build());
+
+        assertEquals("Hair and beard", categoryService.getCategoryById(hair.getId()).getName());
+        assertEquals(List.of(haircut.getName()), procedureNamesOfHair());
+    }
+}
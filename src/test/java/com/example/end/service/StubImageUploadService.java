@@ -0,0 +1,80 @@
+package com.example.end.service;
+
+import com.example.end.infrastructure.config.ImageUploadService;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cloudinary on the local machine: an upload takes {@code latencyMillis} and yields a URL, files whose name
+ * contains "broken" fail. Keeps the images stored and deleted, and the most uploads ever in flight.
+ */
+public class StubImageUploadService extends ImageUploadService {
+
+    private final long latencyMillis;
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final Set<String> stored = ConcurrentHashMap.newKeySet();
+    private final List<String> uploaded = new CopyOnWriteArrayList<>();
+    private final List<String> deleted = new CopyOnWriteArrayList<>();
+
+    public StubImageUploadService(long latencyMillis) {
+        super(null, null);
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public String uploadImage(MultipartFile file) throws IOException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(latencyMillis);
+            if (file.getOriginalFilename() != null && file.getOriginalFilename().contains("broken")) {
+                throw new IOException("Image upload error");
+            }
+            String imageUrl = "https://res.cloudinary.test/image/upload/v1/photo" + sequence.incrementAndGet() + ".jpg";
+            stored.add(extractPublicId(imageUrl));
+            uploaded.add(imageUrl);
+            return imageUrl;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Image upload interrupted", e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void deleteImage(String publicId) throws IOException {
+        if (!stored.remove(publicId)) {
+            throw new IOException("Image not found: " + publicId);
+        }
+        deleted.add(publicId);
+    }
+
+    @Override
+    public boolean exists(String publicId) {
+        return stored.contains(publicId);
+    }
+
+    public Set<String> getStored() {
+        return Set.copyOf(stored);
+    }
+
+    public List<String> getUploaded() {
+        return List.copyOf(uploaded);
+    }
+
+    public List<String> getDeleted() {
+        return List.copyOf(deleted);
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.end.service;
+
+import com.example.end.dto.UserDetailsDto;
+import com.example.end.infrastructure.cache.InMemoryCacheDependencyIndex;
+import org.junit.jupiter.api.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+@DisplayName("UserCacheInvalidator Tests")
+public class UserCacheInvalidatorTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private UserCacheInvalidator invalidator;
+    private Cache masters;
+    private Cache usersByCategory;
+
+    private final UserDetailsDto anna = UserDetailsDto.builder().id(10L).build();
+    private final UserDetailsDto bella = UserDetailsDto.builder().id(11L).build();
+    private final UserDetailsDto clara = UserDetailsDto.builder().id(20L).build();
+    private final UserDetailsDto dora = UserDetailsDto.builder().id(21L).build();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(UserCacheInvalidator.ALL_MASTERS, UserCacheInvalidator.USERS_BY_CATEGORY);
+        invalidator = new UserCacheInvalidator(cacheManager, new InMemoryCacheDependencyIndex());
+        masters = cacheManager.getCache(UserCacheInvalidator.ALL_MASTERS);
+        usersByCategory = cacheManager.getCache(UserCacheInvalidator.USERS_BY_CATEGORY);
+
+        cachePage(0, List.of(anna, bella));
+        cachePage(1, List.of(clara, dora));
+        usersByCategory.put(1L, List.of(anna, clara));
+        usersByCategory.put(2L, List.of(bella, dora));
+        usersByCategory.put(3L, List.of(dora));
+    }
+
+    private void cachePage(int page, List<UserDetailsDto> content) {
+        invalidator.recordMastersPage(page, 2, content);
+        masters.put(UserCacheInvalidator.mastersPageKey(page, 2), content);
+    }
+
+    private boolean cachedPage(int page) {
+        return masters.get(UserCacheInvalidator.mastersPageKey(page, 2)) != null;
+    }
+
+    private boolean cachedCategory(Long categoryId) {
+        return usersByCategory.get(categoryId) != null;
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class EvictUser_Tests {
+
+        @Test
+        void evicts_only_pages_and_categories_containing_the_user() {
+            invalidator.evictUser(anna.getId(), Set.of(1L), Set.of(1L));
+
+            assertFalse(cachedPage(0));
+            assertFalse(cachedCategory(1L));
+
+            assertTrue(cachedPage(1));
+            assertTrue(cachedCategory(2L));
+            assertTrue(cachedCategory(3L));
+        }
+
+        @Test
+        void evicts_old_and_new_categories_when_categories_change() {
+            invalidator.evictUser(anna.getId(), Set.of(1L), Set.of(3L));
+
+            assertFalse(cachedCategory(1L));
+            assertFalse(cachedCategory(3L));
+
+            assertTrue(cachedCategory(2L));
+            assertTrue(cachedPage(1));
+        }
+
+        @Test
+        void user_on_no_cached_page_keeps_all_pages_warm() {
+            invalidator.evictUser(99L, Set.of(), Set.of(2L));
+
+            assertTrue(cachedPage(0));
+            assertTrue(cachedPage(1));
+            assertFalse(cachedCategory(2L));
+            assertTrue(cachedCategory(1L));
+        }
+
+        @Test
+        void page_recached_after_eviction_is_tracked_again() {
+            invalidator.evictUser(anna.getId(), Set.of(), Set.of());
+            cachePage(0, List.of(anna, bella));
+
+            invalidator.evictUser(anna.getId(), Set.of(), Set.of());
+
+            assertFalse(cachedPage(0));
+            assertTrue(cachedPage(1));
+        }
+
+        @Test
+        void evicts_keyset_pages_containing_the_user() {
+            String afterBella = UserCacheInvalidator.mastersAfterKey(bella.getId(), 2);
+            invalidator.recordMastersPage(afterBella, List.of(clara, dora));
+            masters.put(afterBella, List.of(clara, dora));
+
+            invalidator.evictUser(clara.getId(), Set.of(), Set.of());
+
+            assertNull(masters.get(afterBella));
+            assertTrue(cachedPage(0));
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class EvictDeletedUser_Tests {
+
+        @Test
+        void clears_masters_pages_and_evicts_only_the_users_categories() {
+            invalidator.evictDeletedUser(dora.getId(), Set.of(2L, 3L));
+
+            assertFalse(cachedPage(0));
+            assertFalse(cachedPage(1));
+            assertFalse(cachedCategory(2L));
+            assertFalse(cachedCategory(3L));
+
+            assertTrue(cachedCategory(1L));
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class EvictAddedMaster_Tests {
+
+        private final UserDetailsDto emma = UserDetailsDto.builder().id(30L).build();
+
+        @Test
+        void new_master_shows_up_on_a_cached_last_page() {
+            // the last page lists only clara so far, the keyset page after her nobody
+            cachePage(1, List.of(clara));
+            String afterClara = UserCacheInvalidator.mastersAfterKey(clara.getId(), 2);
+            invalidator.recordMastersPage(afterClara, List.of());
+            masters.put(afterClara, List.of());
+
+            invalidator.evictAddedMaster(emma.getId(), Set.of());
+
+            assertFalse(cachedPage(1));
+            assertNull(masters.get(afterClara));
+            cachePage(1, List.of(clara, emma));
+            assertEquals(List.of(clara, emma), masters.get(UserCacheInvalidator.mastersPageKey(1, 2)).get());
+        }
+
+        @Test
+        void evicts_only_the_categories_of_the_new_master() {
+            invalidator.evictAddedMaster(emma.getId(), Set.of(3L));
+
+            assertFalse(cachedCategory(3L));
+            assertTrue(cachedCategory(1L));
+            assertTrue(cachedCategory(2L));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.end.service;
+
+import com.example.end.dto.PortfolioImageDto;
+import com.example.end.dto.UserDetailsDto;
+import com.example.end.models.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+// flat rather than nested: nested classes would get a Spring test context of their own
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true",
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = UserDetailsReadModel.class))
+@ActiveProfiles("test")
+@DisplayName("UserDetailsReadModel Tests")
+@DisplayNameGeneration(ReplaceUnderscores.class)
+public class UserDetailsReadModelTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserDetailsReadModel readModel;
+
+    private Statistics statistics;
+    private final List<Long> masterIds = new ArrayList<>();
+    private Category hair;
+    private Procedure haircut;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        hair = entityManager.persist(Category.builder().name("Hair").build());
+        haircut = entityManager.persist(Procedure.builder().name("Haircut").price(30).category(hair).build());
+        User client = entityManager.persist(user("client@example.com", User.Role.CLIENT));
+
+        for (int i = 0; i < 30; i++) {
+            User master = user("master" + i + "@example.com", User.Role.MASTER);
+            master.setCategories(Set.of(hair));
+            master.setProcedures(Set.of(haircut));
+            master = entityManager.persist(master);
+            entityManager.persist(PortfolioPhoto.builder().url("https://example.com/" + i + ".jpg").user(master).build());
+            entityManager.persist(Review.builder().master(master).client(client).content("Great").rating(5).build());
+            masterIds.add(master.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private static User user(String email, User.Role role) {
+        User user = new User();
+        user.setFirstName("Anna");
+        user.setLastName("Schmidt");
+        user.setEmail(email);
+        user.setPassword("hash");
+        user.setRole(role);
+        return user;
+    }
+
+    @Test
+    void any_number_of_users_costs_five_queries() {
+        readModel.findByIds(masterIds.subList(0, 1));
+        long onePage = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        readModel.findByIds(masterIds);
+
+        assertEquals(5, onePage);
+        assertEquals(5, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    void empty_ids_cost_no_query() {
+        assertTrue(readModel.findByIds(List.of()).isEmpty());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void details_hold_all_collections() {
+        UserDetailsDto master = readModel.findById(masterIds.get(0)).orElseThrow();
+
+        assertEquals("master0@example.com", master.getEmail());
+        assertEquals(User.Role.MASTER, master.getRole());
+        assertEquals(List.of(hair.getId()), master.getCategoryIds());
+        assertEquals(List.of(haircut.getId()), master.getProcedureIds());
+        assertEquals(1, master.getReviewIds().size());
+        assertEquals(List.of("https://example.com/0.jpg"),
+                master.getPortfolioImageUrls().stream().map(PortfolioImageDto::getUrl).toList());
+    }
+
+    @Test
+    void keeps_the_order_of_ids_and_skips_missing_users() {
+        List<Long> ids = List.of(masterIds.get(2), -1L, masterIds.get(0));
+
+        List<Long> found = readModel.findByIds(ids).stream().map(UserDetailsDto::getId).toList();
+
+        assertEquals(List.of(masterIds.get(2), masterIds.get(0)), found);
+        assertTrue(readModel.findById(-1L).isEmpty());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.end.service;
+
+import com.example.end.dto.UserDetailsDto;
+import com.example.end.repository.UserRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import static org.mockito.Mockito.*;
+
+@DisplayName("UserListingLoader Tests")
+@DisplayNameGeneration(ReplaceUnderscores.class)
+public class UserListingLoaderTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserDetailsReadModel userDetailsReadModel = mock(UserDetailsReadModel.class);
+    private final UserCacheInvalidator userCacheInvalidator = mock(UserCacheInvalidator.class);
+    private final UserListingLoader loader = new UserListingLoader(userRepository, userDetailsReadModel,
+            userCacheInvalidator, null);
+
+    private final List<UserDetailsDto> masters = List.of(UserDetailsDto.builder().id(10L).build());
+
+    @Test
+    void page_key_is_loaded_as_that_page() {
+        when(userRepository.findMasterIds(PageRequest.of(2, 20))).thenReturn(List.of(10L));
+        when(userDetailsReadModel.findByIds(List.of(10L))).thenReturn(masters);
+
+        assertEquals(masters, loader.loadMastersPage(UserCacheInvalidator.mastersPageKey(2, 20)));
+        verify(userCacheInvalidator).recordMastersPage("2:20", masters);
+    }
+
+    @Test
+    void after_key_is_loaded_as_the_page_following_its_id() {
+        when(userRepository.findMasterIdsAfter(7L, PageRequest.ofSize(20))).thenReturn(List.of(10L));
+        when(userDetailsReadModel.findByIds(List.of(10L))).thenReturn(masters);
+
+        assertEquals(masters, loader.loadMastersPage(UserCacheInvalidator.mastersAfterKey(7L, 20)));
+        verify(userCacheInvalidator).recordMastersPage("after:7:20", masters);
+    }
+}
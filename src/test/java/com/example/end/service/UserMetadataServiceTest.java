@@ -0,0 +1,215 @@
+package com.example.end.service;
+
+import com.example.end.dto.PortfolioImageDto;
+import com.example.end.infrastructure.exceptions.ImageUploadException;
+import com.example.end.infrastructure.exceptions.RestException;
+import com.example.end.models.PortfolioPhoto;
+import com.example.end.models.User;
+import com.example.end.repository.PortfolioPhotoRepository;
+import com.example.end.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import static org.mockito.Mockito.*;
+
+/**
+ * Portfolio uploads against a local stand-in for Cloudinary. Every call commits on its own, as it does in the
+ * application, so that a failed batch can be seen to leave no rows behind.
+ */
+// flat rather than nested: nested classes would get a Spring test context of their own
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("test")
+@DisplayName("UserMetadataService Tests")
+@DisplayNameGeneration(ReplaceUnderscores.class)
+public class UserMetadataServiceTest {
+
+    private static final long LATENCY_MILLIS = 100;
+    // signature and IHDR chunk of a 640x480 PNG, all the content validation reads
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n',
+            0, 0, 0, 13, 'I', 'H', 'D', 'R', 0, 0, 0x02, (byte) 0x80, 0, 0, 0x01, (byte) 0xE0};
+
+    @Autowired
+    private PortfolioPhotoRepository portfolioPhotoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final UserServiceImpl userService = mock(UserServiceImpl.class);
+    private final List<PortfolioUploadPipeline> pipelines = new ArrayList<>();
+    private StubImageUploadService cloudinary;
+    private User anna;
+    private User maria;
+
+    @BeforeEach
+    void setUp() {
+        cloudinary = new StubImageUploadService(LATENCY_MILLIS);
+        anna = userRepository.save(user("anna@example.com"));
+        maria = userRepository.save(user("maria@example.com"));
+        when(userService.findUserByIdOrThrow(anna.getId())).thenReturn(anna);
+        when(userService.findUserByIdOrThrow(maria.getId())).thenReturn(maria);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipelines.forEach(PortfolioUploadPipeline::shutdown);
+        portfolioPhotoRepository.deleteAll();
+        userRepository.deleteAll(List.of(anna, maria));
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setFirstName("Anna");
+        user.setLastName("Schmidt");
+        user.setEmail(email);
+        user.setPassword("hash");
+        user.setRole(User.Role.MASTER);
+        return user;
+    }
+
+    private UserMetadataService service(int threads, int perUser, int queueCapacity, Duration timeout) {
+        PortfolioUploadPipeline pipeline = new PortfolioUploadPipeline(cloudinary, threads, perUser, queueCapacity,
+                timeout, new SimpleMeterRegistry());
+        pipelines.add(pipeline);
+        return new UserMetadataService(portfolioPhotoRepository, cloudinary, pipeline, userService, userRepository,
+                transactionManager);
+    }
+
+    private UserMetadataService service(int threads, int perUser) {
+        return service(threads, perUser, 64, Duration.ofSeconds(10));
+    }
+
+    private static List<MultipartFile> files(String... names) {
+        return Arrays.stream(names)
+                .<MultipartFile>map(name -> new MockMultipartFile("files", name, "image/png", PNG))
+                .toList();
+    }
+
+    private static List<MultipartFile> files(int count) {
+        return files(IntStream.rangeClosed(1, count).mapToObj(i -> "photo" + i + ".png").toArray(String[]::new));
+    }
+
+    private static void awaitCompensation(StubImageUploadService cloudinary) throws InterruptedException {
+        for (int i = 0; i < 100 && !cloudinary.getStored().isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void files_are_uploaded_concurrently_and_saved_in_their_order() throws Exception {
+        long startedAt = System.nanoTime();
+        List<PortfolioImageDto> photos = service(8, 6).uploadPortfolioPhotos(anna.getId(), files(6));
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        assertEquals(6, photos.size());
+        assertTrue(elapsedMillis < 6 * LATENCY_MILLIS, "took " + elapsedMillis + " ms");
+        assertEquals(6, cloudinary.getMaxInFlight());
+        List<PortfolioPhoto> saved = portfolioPhotoRepository.findAll();
+        assertEquals(photos.stream().map(PortfolioImageDto::getUrl).toList(),
+                saved.stream().map(PortfolioPhoto::getUrl).toList());
+        assertTrue(saved.stream().allMatch(photo -> photo.getUser().getId().equals(anna.getId())));
+    }
+
+    @Test
+    void a_user_has_no_more_uploads_in_flight_than_allowed() throws Exception {
+        service(8, 2).uploadPortfolioPhotos(anna.getId(), files(6));
+
+        assertEquals(2, cloudinary.getMaxInFlight());
+        assertEquals(6, portfolioPhotoRepository.count());
+    }
+
+    @Test
+    void the_pool_bounds_the_uploads_of_all_users() throws Exception {
+        UserMetadataService service = service(3, 3);
+
+        CompletableFuture<List<PortfolioImageDto>> annasUpload = CompletableFuture.supplyAsync(() -> upload(service, anna));
+        CompletableFuture<List<PortfolioImageDto>> mariasUpload = CompletableFuture.supplyAsync(() -> upload(service, maria));
+
+        assertEquals(3, annasUpload.get().size());
+        assertEquals(3, mariasUpload.get().size());
+        assertEquals(3, cloudinary.getMaxInFlight());
+    }
+
+    private List<PortfolioImageDto> upload(UserMetadataService service, User user) {
+        try {
+            return service.uploadPortfolioPhotos(user.getId(), files(3));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void failed_upload_deletes_the_uploaded_images_and_saves_nothing() throws Exception {
+        UserMetadataService service = service(8, 3);
+
+        assertThrows(ImageUploadException.class, () -> service.uploadPortfolioPhotos(anna.getId(),
+                files("photo1.png", "photo2.png", "broken.png", "photo4.png", "photo5.png")));
+
+        awaitCompensation(cloudinary);
+        assertFalse(cloudinary.getUploaded().isEmpty());
+        assertEquals(cloudinary.getUploaded().size(), cloudinary.getDeleted().size());
+        assertTrue(cloudinary.getStored().isEmpty());
+        assertEquals(0, portfolioPhotoRepository.count());
+    }
+
+    @Test
+    void failed_insert_deletes_the_uploaded_images() {
+        User deleted = user("deleted@example.com");
+        deleted.setId(Long.MAX_VALUE);
+        when(userService.findUserByIdOrThrow(deleted.getId())).thenReturn(deleted);
+
+        assertThrows(ImageUploadException.class,
+                () -> service(8, 3).uploadPortfolioPhotos(deleted.getId(), files(3)));
+
+        assertEquals(3, cloudinary.getDeleted().size());
+        assertTrue(cloudinary.getStored().isEmpty());
+        assertEquals(0, portfolioPhotoRepository.count());
+    }
+
+    @Test
+    void saturated_pool_rejects_the_upload_and_deletes_what_it_uploaded() throws Exception {
+        UserMetadataService service = service(1, 4, 1, Duration.ofSeconds(10));
+
+        RestException exception = assertThrows(RestException.class,
+                () -> service.uploadPortfolioPhotos(anna.getId(), files(4)));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
+        awaitCompensation(cloudinary);
+        assertEquals(cloudinary.getUploaded().size(), cloudinary.getDeleted().size());
+        assertEquals(0, portfolioPhotoRepository.count());
+    }
+
+    @Test
+    void uploads_finishing_after_the_timeout_are_deleted() throws Exception {
+        UserMetadataService service = service(8, 3, 64, Duration.ofMillis(LATENCY_MILLIS / 2));
+
+        assertThrows(ImageUploadException.class, () -> service.uploadPortfolioPhotos(anna.getId(), files(3)));
+
+        Thread.sleep(LATENCY_MILLIS);
+        awaitCompensation(cloudinary);
+        assertEquals(3, cloudinary.getUploaded().size());
+        assertEquals(3, cloudinary.getDeleted().size());
+        assertEquals(0, portfolioPhotoRepository.count());
+    }
+}
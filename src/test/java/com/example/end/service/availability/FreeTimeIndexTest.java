@@ -0,0 +1,118 @@
+package com.example.end.service.availability;
+
+import com.example.end.service.availability.FreeTimeIndex.Match;
+import com.example.end.service.availability.MasterCalendar.DaySchedule;
+import org.junit.jupiter.api.*;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+@DisplayName("FreeTimeIndex Tests")
+public class FreeTimeIndexTest {
+
+    // a Monday
+    private static final LocalDate MONDAY = LocalDate.of(2026, 1, 5);
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    private FreeTimeIndex index;
+    private MasterCalendar early;
+    private MasterCalendar late;
+
+    @BeforeEach
+    void setUp() {
+        index = new FreeTimeIndex(Duration.ofMinutes(15), 7);
+        early = calendar(LocalTime.of(9, 0), LocalTime.of(13, 0));
+        late = calendar(LocalTime.of(12, 0), LocalTime.of(20, 0));
+        index.replaceAll(MONDAY, Map.of(1L, early, 2L, late));
+    }
+
+    private static MasterCalendar calendar(LocalTime start, LocalTime end) {
+        Map<DayOfWeek, DaySchedule> week = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek day : List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY)) {
+            week.put(day, new DaySchedule(start, end, null, null));
+        }
+        return new MasterCalendar(week);
+    }
+
+    private static LocalDateTime monday(int hour, int minute) {
+        return MONDAY.atTime(hour, minute);
+    }
+
+    private List<Match> search(LocalDateTime from, LocalDateTime to) {
+        return index.findEarliest(List.of(1L, 2L), from, to, HOUR, 10);
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Search_Tests {
+
+        @Test
+        void masters_are_ranked_by_soonest_free_slot() {
+            assertEquals(List.of(new Match(1L, monday(9, 0)), new Match(2L, monday(12, 0))),
+                    search(monday(8, 0), monday(20, 0)));
+        }
+
+        @Test
+        void slot_must_fit_into_the_window() {
+            assertEquals(List.of(new Match(1L, monday(11, 0))), search(monday(11, 0), monday(12, 30)));
+            assertEquals(List.of(), search(monday(12, 30), monday(13, 15)));
+        }
+
+        @Test
+        void search_continues_on_the_next_days() {
+            assertEquals(List.of(new Match(1L, monday(9, 0).plusDays(1)), new Match(2L, monday(12, 0).plusDays(1))),
+                    search(monday(20, 0), monday(20, 0).plusDays(3)));
+        }
+
+        @Test
+        void only_the_given_masters_are_searched_and_the_limit_applies() {
+            assertEquals(List.of(new Match(2L, monday(12, 0))),
+                    index.findEarliest(List.of(2L, 3L), monday(8, 0), monday(20, 0), HOUR, 10));
+            assertEquals(1, index.findEarliest(List.of(1L, 2L), monday(8, 0), monday(20, 0), HOUR, 1).size());
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Update_Tests {
+
+        @Test
+        void new_booking_clears_its_cells() {
+            index.occupy(1L, monday(9, 0), monday(12, 30));
+
+            assertEquals(List.of(new Match(2L, monday(12, 0))), search(monday(8, 0), monday(14, 0)));
+        }
+
+        @Test
+        void refresh_after_cancellation_frees_the_time_again() {
+            early.reserve(monday(9, 0), monday(12, 30));
+            index.occupy(1L, monday(9, 0), monday(12, 30));
+
+            early.release(monday(9, 0), monday(12, 30));
+            index.refresh(1L, early);
+
+            assertEquals(new Match(1L, monday(9, 0)), search(monday(8, 0), monday(14, 0)).get(0));
+        }
+
+        @Test
+        void booking_made_during_a_rebuild_is_not_lost() {
+            index.beginRebuild();
+            // the rebuild read the database before this booking was committed
+            Map<Long, MasterCalendar> snapshot = Map.of(1L, calendar(LocalTime.of(9, 0), LocalTime.of(13, 0)));
+            index.occupy(1L, monday(9, 0), monday(12, 30));
+
+            index.replaceAll(MONDAY, snapshot);
+
+            assertEquals(List.of(), index.findEarliest(List.of(1L), monday(8, 0), monday(14, 0), HOUR, 10));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.end.service.availability;
+
+import com.example.end.service.availability.MasterCalendar.DaySchedule;
+import com.example.end.service.availability.MasterCalendar.Reservation;
+import org.junit.jupiter.api.*;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+@DisplayName("MasterCalendar Tests")
+public class MasterCalendarTest {
+
+    // a Monday
+    private static final LocalDate MONDAY = LocalDate.of(2026, 1, 5);
+    private static final LocalDateTime LONG_AGO = MONDAY.minusYears(1).atStartOfDay();
+
+    private MasterCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new MasterCalendar(Map.of(
+                DayOfWeek.MONDAY, new DaySchedule(LocalTime.of(9, 0), LocalTime.of(13, 0), LocalTime.of(11, 0), LocalTime.of(11, 30)),
+                DayOfWeek.TUESDAY, new DaySchedule(LocalTime.of(10, 0), LocalTime.of(12, 0), null, null)));
+    }
+
+    private static LocalDateTime monday(int hour, int minute) {
+        return MONDAY.atTime(hour, minute);
+    }
+
+    private List<LocalDateTime> mondaySlots(Duration length) {
+        return calendar.freeSlots(MONDAY, MONDAY, length, Duration.ofMinutes(30), LONG_AGO);
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class FreeSlots_Tests {
+
+        @Test
+        void slots_skip_the_break_and_end_before_closing() {
+            assertEquals(List.of(monday(9, 0), monday(9, 30), monday(10, 0), monday(11, 30), monday(12, 0)),
+                    mondaySlots(Duration.ofHours(1)));
+        }
+
+        @Test
+        void booked_time_is_not_offered() {
+            calendar.addBooked(monday(9, 30), monday(10, 15));
+
+            assertEquals(List.of(monday(11, 30), monday(12, 0), monday(12, 30)),
+                    mondaySlots(Duration.ofMinutes(30)).stream().filter(slot -> slot.isAfter(monday(10, 30))).toList());
+            assertFalse(mondaySlots(Duration.ofMinutes(30)).contains(monday(10, 0)));
+            assertTrue(mondaySlots(Duration.ofMinutes(30)).contains(monday(10, 30)));
+        }
+
+        @Test
+        void days_off_and_past_times_have_no_slots() {
+            List<LocalDateTime> slots = calendar.freeSlots(MONDAY, MONDAY.plusDays(6), Duration.ofHours(1),
+                    Duration.ofMinutes(30), monday(12, 10));
+
+            assertEquals(List.of(MONDAY.plusDays(1).atTime(10, 0), MONDAY.plusDays(1).atTime(10, 30),
+                    MONDAY.plusDays(1).atTime(11, 0)), slots);
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Reserve_Tests {
+
+        @Test
+        void overlapping_reservation_is_rejected() {
+            assertEquals(Reservation.RESERVED, calendar.reserve(monday(9, 0), monday(10, 0)));
+
+            assertEquals(Reservation.OVERLAPS_BOOKING, calendar.reserve(monday(9, 30), monday(10, 30)));
+            assertEquals(Reservation.OVERLAPS_BOOKING, calendar.reserve(monday(9, 0), monday(9, 15)));
+            assertEquals(Reservation.RESERVED, calendar.reserve(monday(10, 0), monday(11, 0)));
+        }
+
+        @Test
+        void reservation_outside_working_hours_or_in_the_break_is_rejected() {
+            assertEquals(Reservation.OUTSIDE_WORKING_HOURS, calendar.reserve(monday(8, 30), monday(9, 30)));
+            assertEquals(Reservation.OUTSIDE_WORKING_HOURS, calendar.reserve(monday(10, 30), monday(11, 15)));
+            assertEquals(Reservation.OUTSIDE_WORKING_HOURS, calendar.reserve(monday(12, 30), monday(13, 30)));
+            assertEquals(Reservation.OUTSIDE_WORKING_HOURS,
+                    calendar.reserve(MONDAY.plusDays(2).atTime(10, 0), MONDAY.plusDays(2).atTime(11, 0)));
+        }
+
+        @Test
+        void released_time_can_be_reserved_again() {
+            calendar.reserve(monday(9, 0), monday(10, 0));
+            calendar.release(monday(9, 0), monday(10, 0));
+
+            assertEquals(Reservation.RESERVED, calendar.reserve(monday(9, 30), monday(10, 30)));
+        }
+
+        @Test
+        void overlapping_existing_bookings_are_merged() {
+            calendar.addBooked(monday(9, 0), monday(10, 0));
+            calendar.addBooked(monday(9, 30), monday(10, 30));
+            calendar.addBooked(monday(10, 15), monday(10, 45));
+
+            assertEquals(1, calendar.busyIntervals());
+            assertEquals(Reservation.OVERLAPS_BOOKING, calendar.reserve(monday(10, 30), monday(11, 0)));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.end.service.leaderboard;
+
+import com.example.end.repository.projection.RatingTotals;
+import com.example.end.service.leaderboard.MasterLeaderboard.Standing;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+@DisplayName("MasterLeaderboard Tests")
+public class MasterLeaderboardTest {
+
+    private static final long HAIR = 1L;
+    private static final long NAILS = 2L;
+
+    private MasterLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new MasterLeaderboard(10, 4.0);
+        // 40 reviews, 160 stars: prior mean 4.0
+        leaderboard.replaceAll(List.of(
+                new RatingTotals(1L, 1, 5),
+                new RatingTotals(2L, 30, 144),
+                new RatingTotals(3L, 9, 11)
+        ), Map.of(1L, Set.of(HAIR), 2L, Set.of(HAIR, NAILS), 3L, Set.of(NAILS)));
+    }
+
+    private List<Long> top(Long categoryId, int limit) {
+        return leaderboard.top(categoryId, limit).stream().map(Standing::masterId).toList();
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Ranking_Tests {
+
+        @Test
+        void many_good_reviews_outrank_a_single_perfect_one() {
+            assertEquals(List.of(2L, 1L, 3L), top(null, 10));
+        }
+
+        @Test
+        void weighted_rating_is_pulled_towards_the_prior_mean() {
+            Standing single = leaderboard.top(HAIR, 2).get(1);
+
+            assertEquals(4.0, leaderboard.priorMean(), 1e-9);
+            assertEquals((10 * 4.0 + 5) / 11, single.weightedRating(), 1e-9);
+            assertEquals(5.0, single.averageRating(), 1e-9);
+        }
+
+        @Test
+        void categories_rank_only_their_masters() {
+            assertEquals(List.of(2L, 1L), top(HAIR, 10));
+            assertEquals(List.of(2L, 3L), top(NAILS, 10));
+            assertTrue(top(99L, 10).isEmpty());
+        }
+
+        @Test
+        void top_is_cut_at_the_limit() {
+            assertEquals(List.of(2L), top(null, 1));
+        }
+
+        @Test
+        void equal_weighted_ratings_prefer_more_reviews() {
+            leaderboard.replaceAll(List.of(new RatingTotals(1L, 2, 8), new RatingTotals(2L, 4, 16)), Map.of());
+
+            assertEquals(List.of(2L, 1L), top(null, 10));
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Update_Tests {
+
+        @Test
+        void new_reviews_move_a_master_up() {
+            leaderboard.update(new RatingTotals(1L, 40, 200), Set.of(HAIR));
+
+            assertEquals(List.of(1L, 2L, 3L), top(null, 10));
+            assertEquals(List.of(1L, 2L), top(HAIR, 10));
+        }
+
+        @Test
+        void changed_categories_move_a_master_between_rankings() {
+            leaderboard.update(new RatingTotals(3L, 9, 11), Set.of(HAIR));
+
+            assertEquals(List.of(2L, 1L, 3L), top(HAIR, 10));
+            assertEquals(List.of(2L), top(NAILS, 10));
+        }
+
+        @Test
+        void master_without_reviews_leaves_the_rankings() {
+            leaderboard.update(new RatingTotals(1L, 0, 0), Set.of(HAIR));
+            leaderboard.remove(3L);
+
+            assertEquals(List.of(2L), top(null, 10));
+            assertEquals(1, leaderboard.size());
+        }
+
+        @Test
+        void prior_mean_stays_fixed_until_the_next_rebuild() {
+            leaderboard.update(new RatingTotals(3L, 100, 100), Set.of(NAILS));
+            assertEquals(4.0, leaderboard.priorMean(), 1e-9);
+
+            leaderboard.replaceAll(List.of(new RatingTotals(3L, 100, 100)), Map.of());
+            assertEquals(1.0, leaderboard.priorMean(), 1e-9);
+        }
+
+        @Test
+        void unbuilt_leaderboard_is_empty_and_uses_the_default_prior() {
+            MasterLeaderboard empty = new MasterLeaderboard(10, 4.0);
+
+            assertFalse(empty.isBuilt());
+            assertTrue(empty.top(null, 10).isEmpty());
+            assertEquals(4.0, empty.priorMean(), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.end.utils;
+
+import com.example.end.infrastructure.exceptions.InvalidFileException;
+import org.junit.jupiter.api.*;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+@DisplayName("FileValidationUtils Tests")
+public class FileValidationUtilsTest {
+
+    static byte[] png(int width, int height) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'});
+        writeInt(out, width);
+        writeInt(out, height);
+        out.writeBytes(new byte[]{8, 6, 0, 0, 0});
+        return out.toByteArray();
+    }
+
+    static byte[] gif(int width, int height) {
+        return new byte[]{'G', 'I', 'F', '8', '9', 'a', (byte) width, (byte) (width >> 8), (byte) height,
+                (byte) (height >> 8), 0, 0, 0};
+    }
+
+    /**
+     * A JPEG whose frame header follows an EXIF segment of the given size, as in photos from a phone.
+     */
+    static byte[] jpeg(int width, int height, int exifSize) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xD8});
+        out.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xE1});
+        writeShort(out, exifSize + 2);
+        out.writeBytes(new byte[exifSize]);
+        out.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xC0});
+        writeShort(out, 17);
+        out.write(8);
+        writeShort(out, height);
+        writeShort(out, width);
+        out.writeBytes(new byte[]{3, 1, 0x22, 0, 2, 0x11, 1, 3, 0x11, 1});
+        out.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xD9});
+        return out.toByteArray();
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        writeShort(out, value >>> 16);
+        writeShort(out, value);
+    }
+
+    private static void writeShort(ByteArrayOutputStream out, int value) {
+        out.write(value >> 8);
+        out.write(value);
+    }
+
+    private static byte[] withBody(byte[] header, int size) {
+        byte[] image = new byte[size];
+        System.arraycopy(header, 0, image, 0, header.length);
+        return image;
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class ImageHeader_Tests {
+
+        private ImageHeader read(byte[] image) throws IOException {
+            return ImageHeader.read(new ByteArrayInputStream(image), FileValidationUtils.MAX_HEADER_SIZE);
+        }
+
+        @Test
+        void dimensions_of_png_gif_and_jpeg_are_read() throws IOException {
+            assertEquals(new ImageHeader(ImageHeader.Format.PNG, 640, 480), read(png(640, 480)));
+            assertEquals(new ImageHeader(ImageHeader.Format.GIF, 320, 200), read(gif(320, 200)));
+            assertEquals(new ImageHeader(ImageHeader.Format.JPEG, 4032, 3024), read(jpeg(4032, 3024, 30_000)));
+        }
+
+        @Test
+        void other_content_is_not_an_image() throws IOException {
+            assertNull(read("<html><body>not an image</body></html>".getBytes()));
+            assertNull(read(new byte[0]));
+        }
+
+        @Test
+        void truncated_header_is_not_an_image() throws IOException {
+            byte[] png = png(640, 480);
+            byte[] truncated = new byte[20];
+            System.arraycopy(png, 0, truncated, 0, truncated.length);
+
+            assertNull(read(truncated));
+        }
+
+        @Test
+        void jpeg_frame_header_beyond_the_limit_is_not_searched_for() throws IOException {
+            assertNull(ImageHeader.read(new ByteArrayInputStream(jpeg(800, 600, 60_000)), 32 * 1024));
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class ValidateImage_Tests {
+
+        @Test
+        void valid_images_pass() {
+            assertDoesNotThrow(() -> FileValidationUtils.validateImage(
+                    new MockMultipartFile("file", "photo.png", "image/png", png(1920, 1080))));
+            assertDoesNotThrow(() -> FileValidationUtils.validateImage(
+                    new MockMultipartFile("file", "photo.jpg", "image/jpeg", jpeg(4032, 3024, 30_000))));
+        }
+
+        @Test
+        void renamed_file_is_rejected_by_its_content() {
+            MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg",
+                    "#!/bin/sh\necho not an image".getBytes());
+
+            assertThrows(InvalidFileException.class, () -> FileValidationUtils.validateImage(file));
+        }
+
+        @Test
+        void image_beyond_the_dimension_limits_is_rejected() {
+            assertThrows(InvalidFileException.class, () -> FileValidationUtils.validateImage(
+                    new MockMultipartFile("file", "wide.png", "image/png", png(20_000, 100))));
+            // within the side limit, but 100 megapixels once decoded
+            assertThrows(InvalidFileException.class, () -> FileValidationUtils.validateImage(
+                    new MockMultipartFile("file", "bomb.png", "image/png", png(10_000, 10_000))));
+        }
+
+        @Test
+        void only_the_header_of_a_large_file_is_read() {
+            AtomicLong bytesRead = new AtomicLong();
+            byte[] image = withBody(jpeg(4032, 3024, 30_000), 20 * 1024 * 1024);
+            MockMultipartFile file = new MockMultipartFile("file", "large.jpg", "image/jpeg", image) {
+                @Override
+                public InputStream getInputStream() {
+                    return new FilterInputStream(new ByteArrayInputStream(image)) {
+                        @Override
+                        public int read(byte[] b, int off, int len) throws IOException {
+                            int read = super.read(b, off, len);
+                            bytesRead.addAndGet(Math.max(read, 0));
+                            return read;
+                        }
+                    };
+                }
+            };
+
+            FileValidationUtils.validateImage(file);
+
+            assertTrue(bytesRead.get() <= 64 * 1024, "read " + bytesRead.get() + " bytes");
+        }
+    }
+}
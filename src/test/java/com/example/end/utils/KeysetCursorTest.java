@@ -0,0 +1,92 @@
+package com.example.end.utils;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+
+@DisplayName("KeysetCursor Tests")
+public class KeysetCursorTest {
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Decode_Tests {
+
+        @Test
+        void encoded_cursor_decodes_to_the_last_id() {
+            String cursor = KeysetCursor.encode(KeysetCursor.MASTERS, 42L);
+
+            assertEquals(42L, KeysetCursor.decode(KeysetCursor.MASTERS, cursor));
+            assertFalse(cursor.contains("42"));
+        }
+
+        @Test
+        void missing_cursor_starts_at_the_first_page() {
+            assertEquals(0L, KeysetCursor.decode(KeysetCursor.USERS, null));
+            assertEquals(0L, KeysetCursor.decode(KeysetCursor.USERS, ""));
+        }
+
+        @Test
+        void cursor_of_another_listing_is_rejected() {
+            String cursor = KeysetCursor.encode(KeysetCursor.USERS, 42L);
+
+            assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(KeysetCursor.MASTERS, cursor));
+        }
+
+        @Test
+        void malformed_cursors_are_rejected() {
+            String notANumber = Base64.getUrlEncoder().encodeToString("masters:abc".getBytes(StandardCharsets.UTF_8));
+            String negative = Base64.getUrlEncoder().encodeToString("masters:-1".getBytes(StandardCharsets.UTF_8));
+
+            assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(KeysetCursor.MASTERS, "%%%"));
+            assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(KeysetCursor.MASTERS, notANumber));
+            assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(KeysetCursor.MASTERS, negative));
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class TimeKey_Tests {
+
+        @Test
+        void time_key_survives_round_trip() {
+            LocalDateTime createdAt = LocalDateTime.of(2025, 3, 14, 12, 30, 15, 123_456_000);
+
+            String cursor = KeysetCursor.encode(KeysetCursor.REVIEWS, createdAt, 42L);
+
+            assertEquals(new KeysetCursor.TimeKey(createdAt, 42L), KeysetCursor.decodeTimeKey(KeysetCursor.REVIEWS, cursor));
+            assertNull(KeysetCursor.decodeTimeKey(KeysetCursor.REVIEWS, null));
+        }
+
+        @Test
+        void id_cursor_is_not_a_time_key() {
+            String cursor = KeysetCursor.encode(KeysetCursor.REVIEWS, 42L);
+            String otherScope = KeysetCursor.encode(KeysetCursor.MASTERS, LocalDateTime.now(), 42L);
+
+            assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decodeTimeKey(KeysetCursor.REVIEWS, cursor));
+            assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decodeTimeKey(KeysetCursor.REVIEWS, otherScope));
+        }
+    }
+
+    @Nested
+    @DisplayNameGeneration(ReplaceUnderscores.class)
+    class Next_Tests {
+
+        @Test
+        void full_page_has_a_next_cursor() {
+            String next = KeysetCursor.next(KeysetCursor.MASTERS, 20, 20, 57L);
+
+            assertEquals(57L, KeysetCursor.decode(KeysetCursor.MASTERS, next));
+        }
+
+        @Test
+        void short_or_empty_page_is_the_last_one() {
+            assertNull(KeysetCursor.next(KeysetCursor.MASTERS, 7, 20, 57L));
+            assertNull(KeysetCursor.next(KeysetCursor.MASTERS, 0, 20, null));
+        }
+    }
+}